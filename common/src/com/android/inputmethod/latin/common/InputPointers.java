@@ -121,11 +121,21 @@ public final class InputPointers {
     }
 
     public void reset() {
-        final int defaultCapacity = mDefaultCapacity;
-        mXCoordinates.reset(defaultCapacity);
-        mYCoordinates.reset(defaultCapacity);
-        mPointerIds.reset(defaultCapacity);
-        mTimes.reset(defaultCapacity);
+        reset(mDefaultCapacity);
+    }
+
+    /**
+     * Clears the pointers and allocates new arrays of the specified capacity, or of the default
+     * capacity if it is larger. The old arrays may still be used by an {@link InputPointers} that
+     * has been {@link #set(InputPointers)} to this one, so they are never reused.
+     * @param capacity the expected number of pointers.
+     */
+    public void reset(final int capacity) {
+        final int newCapacity = Math.max(capacity, mDefaultCapacity);
+        mXCoordinates.reset(newCapacity);
+        mYCoordinates.reset(newCapacity);
+        mPointerIds.reset(newCapacity);
+        mTimes.reset(newCapacity);
     }
 
     public int getPointerSize() {
@@ -29,6 +29,14 @@ public final class ProductionFlags {
      */
     public static final boolean INCLUDE_RAW_SUGGESTIONS = false;
 
+    /**
+     * When {@code true}, the dictionaries are queried in parallel on the
+     * {@link com.android.inputmethod.latin.utils.ExecutorUtils#SUGGESTION} executor, and their
+     * results are dropped if they are not ready in time. This is the default value of the
+     * corresponding debug setting.
+     */
+    public static final boolean ENABLE_PARALLEL_DICTIONARY_QUERIES = false;
+
     /**
      * When false, the metrics logging is not yet ready to be enabled.
      */
@@ -25,10 +25,8 @@ public final class MD5Calculator {
 
     public static String checksum(final InputStream in) throws IOException {
         // This code from the Android documentation for MessageDigest. Nearly verbatim.
-        MessageDigest digester;
-        try {
-            digester = MessageDigest.getInstance("MD5");
-        } catch (java.security.NoSuchAlgorithmException e) {
+        final MessageDigest digester = createDigester();
+        if (null == digester) {
             return null; // Platform does not support MD5 : can't check, so return null
         }
         final byte[] bytes = new byte[8192];
@@ -36,6 +34,25 @@ public final class MD5Calculator {
         while ((byteCount = in.read(bytes)) > 0) {
             digester.update(bytes, 0, byteCount);
         }
+        return getChecksum(digester);
+    }
+
+    /**
+     * Creates an MD5 digester, for callers that compute the checksum while doing something else
+     * with the data, or null if the platform does not support MD5.
+     */
+    public static MessageDigest createDigester() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (java.security.NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Completes the digest and returns it in the same format as {@link #checksum(InputStream)}.
+     */
+    public static String getChecksum(final MessageDigest digester) {
         final byte[] digest = digester.digest();
         final StringBuilder s = new StringBuilder();
         for (int i = 0; i < digest.length; ++i) {
@@ -32,6 +32,7 @@ import com.android.inputmethod.keyboard.internal.KeyDrawParams;
 import com.android.inputmethod.keyboard.internal.KeySpecParser;
 import com.android.inputmethod.keyboard.internal.KeyStyle;
 import com.android.inputmethod.keyboard.internal.KeyVisualAttributes;
+import com.android.inputmethod.keyboard.internal.KeyboardCacheUtils;
 import com.android.inputmethod.keyboard.internal.KeyboardIconsSet;
 import com.android.inputmethod.keyboard.internal.KeyboardParams;
 import com.android.inputmethod.keyboard.internal.KeyboardRow;
@@ -40,6 +41,9 @@ import com.android.inputmethod.latin.R;
 import com.android.inputmethod.latin.common.Constants;
 import com.android.inputmethod.latin.common.StringUtils;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Locale;
 
@@ -441,6 +445,122 @@ public class Key implements Comparable<Key> {
         mEnabled = key.mEnabled;
     }
 
+    private static final int KEY_TYPE_KEY = 0;
+    private static final int KEY_TYPE_SPACER = 1;
+
+    /**
+     * Reads a key written by {@link #writeToStream(DataOutputStream)}.
+     */
+    @Nonnull
+    static Key readFromBuffer(@Nonnull final ByteBuffer buffer) {
+        final int keyType = buffer.get();
+        switch (keyType) {
+        case KEY_TYPE_KEY:
+            return new Key(buffer);
+        case KEY_TYPE_SPACER:
+            return new Spacer(buffer);
+        default:
+            throw new IllegalStateException("unknown key type: " + keyType);
+        }
+    }
+
+    private Key(@Nonnull final ByteBuffer buffer) {
+        mCode = buffer.getInt();
+        mLabel = KeyboardCacheUtils.readString(buffer);
+        mHintLabel = KeyboardCacheUtils.readString(buffer);
+        mLabelFlags = buffer.getInt();
+        mIconId = buffer.getInt();
+        mWidth = buffer.getInt();
+        mHeight = buffer.getInt();
+        mHorizontalGap = buffer.getInt();
+        mVerticalGap = buffer.getInt();
+        mX = buffer.getInt();
+        mY = buffer.getInt();
+        mHitBox.set(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+        final int moreKeysCount = KeyboardCacheUtils.readLength(buffer, 1 /* bytesPerElement */);
+        if (moreKeysCount < 0) {
+            mMoreKeys = null;
+        } else {
+            mMoreKeys = new MoreKeySpec[moreKeysCount];
+            for (int i = 0; i < moreKeysCount; i++) {
+                mMoreKeys[i] = MoreKeySpec.readFromBuffer(buffer);
+            }
+        }
+        mMoreKeysColumnAndFlags = buffer.getInt();
+        mBackgroundType = buffer.getInt();
+        mActionFlags = buffer.getInt();
+        mKeyVisualAttributes = KeyboardCacheUtils.readBoolean(buffer)
+                ? KeyVisualAttributes.readFromBuffer(buffer) : null;
+        if (KeyboardCacheUtils.readBoolean(buffer)) {
+            final String outputText = KeyboardCacheUtils.readString(buffer);
+            final int altCode = buffer.getInt();
+            final int disabledIconId = buffer.getInt();
+            final int visualInsetsLeft = buffer.getInt();
+            final int visualInsetsRight = buffer.getInt();
+            mOptionalAttributes = OptionalAttributes.newInstance(outputText, altCode,
+                    disabledIconId, visualInsetsLeft, visualInsetsRight);
+        } else {
+            mOptionalAttributes = null;
+        }
+        mEnabled = KeyboardCacheUtils.readBoolean(buffer);
+        mHashCode = computeHashCode(this);
+    }
+
+    /**
+     * Writes this key to the persistent keyboard cache. Only the keys a keyboard layout is built
+     * of, that is plain keys and spacers, can be written.
+     */
+    void writeToStream(@Nonnull final DataOutputStream out) throws IOException {
+        final Class<?> keyClass = getClass();
+        if (keyClass == Key.class) {
+            out.writeByte(KEY_TYPE_KEY);
+        } else if (keyClass == Spacer.class) {
+            out.writeByte(KEY_TYPE_SPACER);
+        } else {
+            throw new IllegalArgumentException("can't write key of " + keyClass.getName());
+        }
+        out.writeInt(mCode);
+        KeyboardCacheUtils.writeString(out, mLabel);
+        KeyboardCacheUtils.writeString(out, mHintLabel);
+        out.writeInt(mLabelFlags);
+        out.writeInt(mIconId);
+        out.writeInt(mWidth);
+        out.writeInt(mHeight);
+        out.writeInt(mHorizontalGap);
+        out.writeInt(mVerticalGap);
+        out.writeInt(mX);
+        out.writeInt(mY);
+        out.writeInt(mHitBox.left);
+        out.writeInt(mHitBox.top);
+        out.writeInt(mHitBox.right);
+        out.writeInt(mHitBox.bottom);
+        if (mMoreKeys == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(mMoreKeys.length);
+            for (final MoreKeySpec moreKey : mMoreKeys) {
+                moreKey.writeToStream(out);
+            }
+        }
+        out.writeInt(mMoreKeysColumnAndFlags);
+        out.writeInt(mBackgroundType);
+        out.writeInt(mActionFlags);
+        KeyboardCacheUtils.writeBoolean(out, mKeyVisualAttributes != null);
+        if (mKeyVisualAttributes != null) {
+            mKeyVisualAttributes.writeToStream(out);
+        }
+        final OptionalAttributes attrs = mOptionalAttributes;
+        KeyboardCacheUtils.writeBoolean(out, attrs != null);
+        if (attrs != null) {
+            KeyboardCacheUtils.writeString(out, attrs.mOutputText);
+            out.writeInt(attrs.mAltCode);
+            out.writeInt(attrs.mDisabledIconId);
+            out.writeInt(attrs.mVisualInsetsLeft);
+            out.writeInt(attrs.mVisualInsetsRight);
+        }
+        KeyboardCacheUtils.writeBoolean(out, mEnabled);
+    }
+
     @Nonnull
     public static Key removeRedundantMoreKeys(@Nonnull final Key key,
             @Nonnull final MoreKeySpec.LettersOnBaseLayout lettersOnBaseLayout) {
@@ -1018,5 +1138,9 @@ public class Key implements Comparable<Key> {
                     null /* hintLabel */, 0 /* labelFlags */, BACKGROUND_TYPE_EMPTY, x, y, width,
                     height, params.mHorizontalGap, params.mVerticalGap);
         }
+
+        Spacer(@Nonnull final ByteBuffer buffer) {
+            super(buffer);
+        }
     }
 }
@@ -123,6 +123,11 @@ public class Keyboard {
         mProximityInfo = new ProximityInfo(params.GRID_WIDTH, params.GRID_HEIGHT,
                 mOccupiedWidth, mOccupiedHeight, mMostCommonKeyWidth, mMostCommonKeyHeight,
                 mSortedKeys, params.mTouchPositionCorrection);
+        if (mId.isAlphabetKeyboard()) {
+            // Only alphabet keyboards produce suggestions. The others never need the native
+            // proximity info, unless it is requested explicitly.
+            mProximityInfo.prepareNativeProximityInfoAsync();
+        }
         mProximityCharsCorrectionEnabled = params.mProximityCharsCorrectionEnabled;
         mKeyboardLayout = KeyboardLayout.newKeyboardLayout(mSortedKeys, mMostCommonKeyWidth,
                 mMostCommonKeyHeight, mOccupiedWidth, mOccupiedHeight);
@@ -228,18 +233,43 @@ public class Keyboard {
     }
 
     /**
-     * Returns the array of the keys that are closest to the given point.
+     * Detects the key whose hit box the given point is in.
      * @param x the x-coordinate of the point
      * @param y the y-coordinate of the point
-     * @return the list of the nearest keys to the given point. If the given
-     * point is out of range, then an array of size zero is returned.
+     * @return the key that the point hits, or null if there is none.
      */
-    @Nonnull
-    public List<Key> getNearestKeys(final int x, final int y) {
-        // Avoid dead pixels at edges of the keyboard
-        final int adjustedX = Math.max(0, Math.min(x, mOccupiedWidth - 1));
-        final int adjustedY = Math.max(0, Math.min(y, mOccupiedHeight - 1));
-        return mProximityInfo.getNearestKeys(adjustedX, adjustedY);
+    @Nullable
+    public Key detectHitKey(final int x, final int y) {
+        final int keyIndex = mProximityInfo.detectHitKeyIndex(x, y);
+        return (keyIndex == ProximityInfo.NOT_A_KEY_INDEX) ? null : mSortedKeys.get(keyIndex);
+    }
+
+    /**
+     * Detects the key whose hit box the given point is in among the given keys, for keyboards
+     * whose keys are not indexed by their {@link ProximityInfo}.
+     */
+    @Nullable
+    protected static Key detectHitKey(@Nonnull final List<Key> keys, final int x, final int y) {
+        int minDistance = Integer.MAX_VALUE;
+        Key primaryKey = null;
+        for (final Key key: keys) {
+            // An edge key always has its enlarged hitbox to respond to an event that occurred in
+            // the empty area around the key. (@see Key#markAsLeftEdge(KeyboardParams)} etc.)
+            if (!key.isOnKey(x, y)) {
+                continue;
+            }
+            final int distance = key.squaredDistanceToEdge(x, y);
+            if (distance > minDistance) {
+                continue;
+            }
+            // To take care of hitbox overlaps, we compare key's code here too.
+            if (primaryKey == null || distance < minDistance
+                    || key.getCode() > primaryKey.getCode()) {
+                minDistance = distance;
+                primaryKey = key;
+            }
+        }
+        return primaryKey;
     }
 
     @Nonnull
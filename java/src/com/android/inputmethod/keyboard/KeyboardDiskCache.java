@@ -0,0 +1,362 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.keyboard;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.util.TypedValue;
+
+import com.android.inputmethod.annotations.UsedForTesting;
+import com.android.inputmethod.keyboard.internal.KeyVisualAttributes;
+import com.android.inputmethod.keyboard.internal.KeyboardCacheUtils;
+import com.android.inputmethod.keyboard.internal.KeyboardParams;
+import com.android.inputmethod.latin.R;
+import com.android.inputmethod.latin.utils.ApplicationUtils;
+import com.android.inputmethod.latin.utils.ExecutorUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Persistent cache of built {@link Keyboard}s, so that a new process can skip parsing the
+ * keyboard layout XML.
+ *
+ * A keyboard is stored in the cache directory with its resolved {@link KeyboardParams} and keys.
+ * The file starts with a key that describes everything the keyboard was built from: the
+ * application version, the resources configuration, the keyboard theme, the layout XML and the
+ * {@link KeyboardId}. A file is memory-mapped and used only when its key matches; otherwise the
+ * keyboard is parsed from XML as usual and the file is rewritten in the background.
+ *
+ * Icons are not serialized. Their resource ids are, and the drawables are loaded again from the
+ * resources.
+ */
+final class KeyboardDiskCache {
+    private static final String TAG = KeyboardDiskCache.class.getSimpleName();
+    private static final boolean DEBUG = false;
+
+    private static final String CACHE_DIRECTORY_NAME = "keyboards";
+    private static final String FILE_EXTENSION = ".kbd";
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+    // Keyboards differ by their size and by the editor they are built for, so old files are
+    // removed once there are more than this many of them.
+    private static final int MAX_CACHED_FILES = 64;
+
+    private static final int MAGIC_NUMBER = 0x4B424443; // "KBDC"
+    // Must be incremented when the format of the file changes.
+    private static final int FORMAT_VERSION = 1;
+
+    private static String sApplicationVersion;
+
+    private final Context mContext;
+
+    public KeyboardDiskCache(@Nonnull final Context context) {
+        mContext = context;
+    }
+
+    @Nullable
+    private File getCacheDirectory() {
+        final File cacheDir = mContext.getCacheDir();
+        if (null == cacheDir) {
+            return null;
+        }
+        final File dir = new File(cacheDir, CACHE_DIRECTORY_NAME);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            return null;
+        }
+        return dir;
+    }
+
+    private static synchronized String getApplicationVersion(@Nonnull final Context context) {
+        if (null == sApplicationVersion) {
+            // The modification time of the APK covers builds that did not change the version
+            // code.
+            final File apk = new File(context.getApplicationInfo().sourceDir);
+            sApplicationVersion = ApplicationUtils.getVersionCode(context) + ":"
+                    + apk.lastModified();
+        }
+        return sApplicationVersion;
+    }
+
+    /**
+     * Returns the key that identifies a keyboard built with these parameters in this context.
+     */
+    @Nonnull
+    public String getCacheKey(@Nonnull final KeyboardId id, final int keyboardXmlId,
+            final boolean allowRedundantMoreKeys) {
+        final Resources res = mContext.getResources();
+        final Configuration config = res.getConfiguration();
+        final DisplayMetrics metrics = res.getDisplayMetrics();
+        final TypedValue keyboardStyle = new TypedValue();
+        final int keyboardStyleId =
+                mContext.getTheme().resolveAttribute(R.attr.keyboardStyle, keyboardStyle, true)
+                ? keyboardStyle.resourceId : 0;
+        return getApplicationVersion(mContext)
+                + " " + config.locale + " " + config.orientation + " " + config.uiMode
+                + " " + config.fontScale + " " + metrics.densityDpi
+                + " " + metrics.widthPixels + "x" + metrics.heightPixels
+                + " " + keyboardStyleId + " " + keyboardXmlId + " " + allowRedundantMoreKeys
+                + " " + id + " " + id.mCustomActionLabel
+                + " " + id.mSubtype.getRawSubtype().getExtraValue();
+    }
+
+    @UsedForTesting
+    @Nullable
+    /* package */ File getFile(@Nonnull final String cacheKey) {
+        final File dir = getCacheDirectory();
+        if (null == dir) {
+            return null;
+        }
+        return new File(dir, Integer.toHexString(cacheKey.hashCode()) + FILE_EXTENSION);
+    }
+
+    /**
+     * Reads the keyboard parameters and keys stored for the cache key into the params.
+     *
+     * @return true if the params were loaded, false if there is no valid file for the key. The
+     * params must not be used when this returns false.
+     */
+    public boolean read(@Nonnull final String cacheKey, @Nonnull final KeyboardParams params) {
+        final File file = getFile(cacheKey);
+        if (null == file || !file.isFile()) {
+            return false;
+        }
+        FileInputStream inStream = null;
+        try {
+            inStream = new FileInputStream(file);
+            final FileChannel channel = inStream.getChannel();
+            final MappedByteBuffer buffer =
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC_NUMBER || buffer.getInt() != FORMAT_VERSION
+                    || !cacheKey.equals(KeyboardCacheUtils.readString(buffer))) {
+                if (DEBUG) {
+                    Log.d(TAG, "stale keyboard cache file: " + file);
+                }
+                return false;
+            }
+            readParams(buffer, params);
+            return true;
+        } catch (final IOException | BufferUnderflowException | IllegalStateException e) {
+            Log.w(TAG, "Can't read keyboard cache file: " + file, e);
+            file.delete();
+            return false;
+        } finally {
+            if (null != inStream) {
+                try {
+                    inStream.close();
+                } catch (final IOException e) {
+                    // Ignore.
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether there is a file for the cache key. The file may still be stale.
+     */
+    public boolean contains(@Nonnull final String cacheKey) {
+        final File file = getFile(cacheKey);
+        return null != file && file.isFile();
+    }
+
+    /**
+     * Serializes the params on the calling thread, because some keys have state that changes
+     * once the keyboard is in use, and writes them to the file for the cache key on the
+     * {@link ExecutorUtils#KEYBOARD} lane.
+     */
+    public void writeAsync(@Nonnull final String cacheKey, @Nonnull final KeyboardParams params) {
+        final File file = getFile(cacheKey);
+        if (null == file) {
+            return;
+        }
+        final byte[] data = serialize(cacheKey, params);
+        if (null == data) {
+            return;
+        }
+        ExecutorUtils.getBackgroundExecutor(ExecutorUtils.KEYBOARD).execute(new Runnable() {
+            @Override
+            public void run() {
+                writeFile(file, data);
+                removeOldFiles(file.getParentFile());
+            }
+        });
+    }
+
+    /**
+     * Writes the params to the file for the cache key on the calling thread.
+     */
+    public void write(@Nonnull final String cacheKey, @Nonnull final KeyboardParams params) {
+        final File file = getFile(cacheKey);
+        if (null == file) {
+            return;
+        }
+        final byte[] data = serialize(cacheKey, params);
+        if (null == data) {
+            return;
+        }
+        writeFile(file, data);
+        removeOldFiles(file.getParentFile());
+    }
+
+    @Nullable
+    private static byte[] serialize(@Nonnull final String cacheKey,
+            @Nonnull final KeyboardParams params) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC_NUMBER);
+            out.writeInt(FORMAT_VERSION);
+            KeyboardCacheUtils.writeString(out, cacheKey);
+            writeParams(out, params);
+            out.flush();
+        } catch (final IOException | IllegalArgumentException e) {
+            Log.w(TAG, "Can't serialize keyboard: " + params.mId, e);
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeFile(@Nonnull final File file, @Nonnull final byte[] data) {
+        // Write to a temporary file first so that a reader never sees a partial file.
+        final File tempFile = new File(file.getPath() + TEMP_FILE_EXTENSION);
+        FileOutputStream outStream = null;
+        try {
+            outStream = new FileOutputStream(tempFile);
+            outStream.write(data);
+            outStream.close();
+            outStream = null;
+            if (!tempFile.renameTo(file)) {
+                Log.w(TAG, "Can't rename keyboard cache file: " + file);
+                tempFile.delete();
+            }
+        } catch (final IOException e) {
+            Log.w(TAG, "Can't write keyboard cache file: " + file, e);
+            tempFile.delete();
+        } finally {
+            if (null != outStream) {
+                try {
+                    outStream.close();
+                } catch (final IOException e) {
+                    // Ignore.
+                }
+            }
+        }
+    }
+
+    private static void removeOldFiles(@Nullable final File dir) {
+        final File[] files = (null == dir) ? null : dir.listFiles();
+        if (null == files || files.length <= MAX_CACHED_FILES) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(final File lhs, final File rhs) {
+                final long lhsTime = lhs.lastModified();
+                final long rhsTime = rhs.lastModified();
+                return (lhsTime < rhsTime) ? -1 : ((lhsTime == rhsTime) ? 0 : 1);
+            }
+        });
+        for (int i = 0; i < files.length - MAX_CACHED_FILES; i++) {
+            files[i].delete();
+        }
+    }
+
+    private static void writeParams(@Nonnull final DataOutputStream out,
+            @Nonnull final KeyboardParams params) throws IOException {
+        out.writeInt(params.mThemeId);
+        out.writeInt(params.mOccupiedHeight);
+        out.writeInt(params.mOccupiedWidth);
+        out.writeInt(params.mBaseHeight);
+        out.writeInt(params.mBaseWidth);
+        out.writeInt(params.mTopPadding);
+        out.writeInt(params.mBottomPadding);
+        out.writeInt(params.mLeftPadding);
+        out.writeInt(params.mRightPadding);
+        out.writeInt(params.mDefaultRowHeight);
+        out.writeInt(params.mDefaultKeyWidth);
+        out.writeInt(params.mHorizontalGap);
+        out.writeInt(params.mVerticalGap);
+        out.writeInt(params.mMoreKeysTemplate);
+        out.writeInt(params.mMaxMoreKeysKeyboardColumn);
+        out.writeInt(params.GRID_WIDTH);
+        out.writeInt(params.GRID_HEIGHT);
+        out.writeInt(params.mMostCommonKeyHeight);
+        out.writeInt(params.mMostCommonKeyWidth);
+        final KeyVisualAttributes keyVisualAttributes = params.mKeyVisualAttributes;
+        KeyboardCacheUtils.writeBoolean(out, keyVisualAttributes != null);
+        if (keyVisualAttributes != null) {
+            keyVisualAttributes.writeToStream(out);
+        }
+        params.mIconsSet.writeToStream(out);
+        params.mTouchPositionCorrection.writeToStream(out);
+        out.writeInt(params.mSortedKeys.size());
+        for (final Key key : params.mSortedKeys) {
+            key.writeToStream(out);
+        }
+    }
+
+    private void readParams(@Nonnull final ByteBuffer buffer,
+            @Nonnull final KeyboardParams params) {
+        params.mThemeId = buffer.getInt();
+        params.mOccupiedHeight = buffer.getInt();
+        params.mOccupiedWidth = buffer.getInt();
+        params.mBaseHeight = buffer.getInt();
+        params.mBaseWidth = buffer.getInt();
+        params.mTopPadding = buffer.getInt();
+        params.mBottomPadding = buffer.getInt();
+        params.mLeftPadding = buffer.getInt();
+        params.mRightPadding = buffer.getInt();
+        params.mDefaultRowHeight = buffer.getInt();
+        params.mDefaultKeyWidth = buffer.getInt();
+        params.mHorizontalGap = buffer.getInt();
+        params.mVerticalGap = buffer.getInt();
+        params.mMoreKeysTemplate = buffer.getInt();
+        params.mMaxMoreKeysKeyboardColumn = buffer.getInt();
+        params.GRID_WIDTH = buffer.getInt();
+        params.GRID_HEIGHT = buffer.getInt();
+        final int mostCommonKeyHeight = buffer.getInt();
+        final int mostCommonKeyWidth = buffer.getInt();
+        params.mKeyVisualAttributes = KeyboardCacheUtils.readBoolean(buffer)
+                ? KeyVisualAttributes.readFromBuffer(buffer) : null;
+        params.mIconsSet.loadFromBuffer(mContext.getResources(), buffer);
+        params.mTouchPositionCorrection.loadFromBuffer(buffer);
+        final int keyCount = KeyboardCacheUtils.readLength(buffer, 1 /* bytesPerElement */);
+        for (int i = 0; i < keyCount; i++) {
+            // This also collects the shift keys and the keys that have an alternate code.
+            params.onAddKey(Key.readFromBuffer(buffer));
+        }
+        // Keys are added in sorted order rather than in the order of the layout, which may break
+        // ties differently, so the histogram results are restored as they were computed.
+        params.mMostCommonKeyHeight = mostCommonKeyHeight;
+        params.mMostCommonKeyWidth = mostCommonKeyWidth;
+    }
+}
@@ -39,6 +39,7 @@ import com.android.inputmethod.latin.InputAttributes;
 import com.android.inputmethod.latin.R;
 import com.android.inputmethod.latin.RichInputMethodSubtype;
 import com.android.inputmethod.latin.define.DebugFlags;
+import com.android.inputmethod.latin.utils.ExecutorUtils;
 import com.android.inputmethod.latin.utils.InputTypeUtils;
 import com.android.inputmethod.latin.utils.ScriptUtils;
 import com.android.inputmethod.latin.utils.SubtypeLocaleUtils;
@@ -49,6 +50,7 @@ import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.IOException;
 import java.lang.ref.SoftReference;
+import java.util.ArrayList;
 import java.util.HashMap;
 
 import javax.annotation.Nonnull;
@@ -71,9 +73,23 @@ public final class KeyboardLayoutSet {
 
     private static final String KEYBOARD_LAYOUT_SET_RESOURCE_PREFIX = "keyboard_layout_set_";
 
+    // The keyboards the user can switch to from the alphabet keyboard, in the order they are
+    // usually shown.
+    private static final int[] PRECOMPILED_ELEMENT_IDS = {
+        KeyboardId.ELEMENT_ALPHABET,
+        KeyboardId.ELEMENT_ALPHABET_AUTOMATIC_SHIFTED,
+        KeyboardId.ELEMENT_SYMBOLS,
+        KeyboardId.ELEMENT_ALPHABET_MANUAL_SHIFTED,
+        KeyboardId.ELEMENT_SYMBOLS_SHIFTED,
+        KeyboardId.ELEMENT_ALPHABET_SHIFT_LOCKED,
+        KeyboardId.ELEMENT_ALPHABET_SHIFT_LOCK_SHIFTED
+    };
+
     private final Context mContext;
     @Nonnull
     private final Params mParams;
+    @Nonnull
+    private final KeyboardDiskCache mKeyboardDiskCache;
 
     // How many layouts we forcibly keep in cache. This only includes ALPHABET (default) and
     // ALPHABET_AUTOMATIC_SHIFTED layouts - other layouts may stay in memory in the map of
@@ -161,36 +177,54 @@ public final class KeyboardLayoutSet {
     KeyboardLayoutSet(final Context context, @Nonnull final Params params) {
         mContext = context;
         mParams = params;
+        mKeyboardDiskCache = new KeyboardDiskCache(context);
     }
 
     @Nonnull
     public Keyboard getKeyboard(final int baseKeyboardLayoutSetElementId) {
-        final int keyboardLayoutSetElementId;
+        final int keyboardLayoutSetElementId =
+                getKeyboardLayoutSetElementId(baseKeyboardLayoutSetElementId);
+        final ElementParams elementParams = getElementParams(keyboardLayoutSetElementId);
+        final KeyboardId id = newKeyboardId(keyboardLayoutSetElementId, elementParams);
+        try {
+            return getKeyboard(elementParams, id);
+        } catch (final RuntimeException e) {
+            Log.e(TAG, "Can't create keyboard: " + id, e);
+            throw new KeyboardLayoutSetException(e, id);
+        }
+    }
+
+    private int getKeyboardLayoutSetElementId(final int baseKeyboardLayoutSetElementId) {
         switch (mParams.mMode) {
         case KeyboardId.MODE_PHONE:
             if (baseKeyboardLayoutSetElementId == KeyboardId.ELEMENT_SYMBOLS) {
-                keyboardLayoutSetElementId = KeyboardId.ELEMENT_PHONE_SYMBOLS;
-            } else {
-                keyboardLayoutSetElementId = KeyboardId.ELEMENT_PHONE;
+                return KeyboardId.ELEMENT_PHONE_SYMBOLS;
             }
-            break;
+            return KeyboardId.ELEMENT_PHONE;
         case KeyboardId.MODE_NUMBER:
         case KeyboardId.MODE_DATE:
         case KeyboardId.MODE_TIME:
         case KeyboardId.MODE_DATETIME:
-            keyboardLayoutSetElementId = KeyboardId.ELEMENT_NUMBER;
-            break;
+            return KeyboardId.ELEMENT_NUMBER;
         default:
-            keyboardLayoutSetElementId = baseKeyboardLayoutSetElementId;
-            break;
+            return baseKeyboardLayoutSetElementId;
         }
+    }
 
-        ElementParams elementParams = mParams.mKeyboardLayoutSetElementIdToParamsMap.get(
+    @Nonnull
+    private ElementParams getElementParams(final int keyboardLayoutSetElementId) {
+        final ElementParams elementParams = mParams.mKeyboardLayoutSetElementIdToParamsMap.get(
                 keyboardLayoutSetElementId);
         if (elementParams == null) {
-            elementParams = mParams.mKeyboardLayoutSetElementIdToParamsMap.get(
+            return mParams.mKeyboardLayoutSetElementIdToParamsMap.get(
                     KeyboardId.ELEMENT_ALPHABET);
         }
+        return elementParams;
+    }
+
+    @Nonnull
+    private KeyboardId newKeyboardId(final int keyboardLayoutSetElementId,
+            @Nonnull final ElementParams elementParams) {
         // Note: The keyboard for each shift state, and mode are represented as an elementName
         // attribute in a keyboard_layout_set XML file.  Also each keyboard layout XML resource is
         // specified as an elementKeyboard attribute in the file.
@@ -198,13 +232,7 @@ public final class KeyboardLayoutSet {
 
         mParams.mIsSplitLayoutEnabled = mParams.mIsSplitLayoutEnabledByUser
                 && elementParams.mSupportsSplitLayout;
-        final KeyboardId id = new KeyboardId(keyboardLayoutSetElementId, mParams);
-        try {
-            return getKeyboard(elementParams, id);
-        } catch (final RuntimeException e) {
-            Log.e(TAG, "Can't create keyboard: " + id, e);
-            throw new KeyboardLayoutSetException(e, id);
-        }
+        return new KeyboardId(keyboardLayoutSetElementId, mParams);
     }
 
     @Nonnull
@@ -218,17 +246,30 @@ public final class KeyboardLayoutSet {
             return cachedKeyboard;
         }
 
-        final KeyboardBuilder<KeyboardParams> builder =
-                new KeyboardBuilder<>(mContext, new KeyboardParams(sUniqueKeysCache));
         sUniqueKeysCache.setEnabled(id.isAlphabetKeyboard());
-        builder.setAllowRedundantMoreKes(elementParams.mAllowRedundantMoreKeys);
         final int keyboardXmlId = elementParams.mKeyboardXmlId;
-        builder.load(keyboardXmlId, id);
-        if (mParams.mDisableTouchPositionCorrectionDataForTest) {
-            builder.disableTouchPositionCorrectionDataForTest();
+        // Keyboards built for tests have no touch position correction, so they are not stored.
+        final String diskCacheKey = mParams.mDisableTouchPositionCorrectionDataForTest ? null
+                : mKeyboardDiskCache.getCacheKey(id, keyboardXmlId,
+                        elementParams.mAllowRedundantMoreKeys);
+        Keyboard keyboard = (diskCacheKey == null) ? null
+                : readKeyboardFromDiskCache(diskCacheKey, elementParams, id);
+        if (keyboard == null) {
+            final KeyboardParams params = new KeyboardParams(sUniqueKeysCache);
+            final KeyboardBuilder<KeyboardParams> builder =
+                    new KeyboardBuilder<>(mContext, params);
+            builder.setAllowRedundantMoreKes(elementParams.mAllowRedundantMoreKeys);
+            builder.load(keyboardXmlId, id);
+            if (mParams.mDisableTouchPositionCorrectionDataForTest) {
+                builder.disableTouchPositionCorrectionDataForTest();
+            }
+            builder.setProximityCharsCorrectionEnabled(
+                    elementParams.mProximityCharsCorrectionEnabled);
+            keyboard = builder.build();
+            if (diskCacheKey != null) {
+                mKeyboardDiskCache.writeAsync(diskCacheKey, params);
+            }
         }
-        builder.setProximityCharsCorrectionEnabled(elementParams.mProximityCharsCorrectionEnabled);
-        final Keyboard keyboard = builder.build();
         sKeyboardCache.put(id, new SoftReference<>(keyboard));
         if ((id.mElementId == KeyboardId.ELEMENT_ALPHABET
                 || id.mElementId == KeyboardId.ELEMENT_ALPHABET_AUTOMATIC_SHIFTED)
@@ -249,6 +290,80 @@ public final class KeyboardLayoutSet {
         return keyboard;
     }
 
+    @Nullable
+    private Keyboard readKeyboardFromDiskCache(@Nonnull final String diskCacheKey,
+            final ElementParams elementParams, final KeyboardId id) {
+        final KeyboardParams params = new KeyboardParams(sUniqueKeysCache);
+        params.mId = id;
+        if (!mKeyboardDiskCache.read(diskCacheKey, params)) {
+            return null;
+        }
+        if (DEBUG_CACHE) {
+            Log.d(TAG, "keyboard disk cache: HIT  id=" + id);
+        }
+        params.mProximityCharsCorrectionEnabled = elementParams.mProximityCharsCorrectionEnabled;
+        return new Keyboard(params);
+    }
+
+    /**
+     * Builds the keyboards of this set that the user can switch to on the
+     * {@link ExecutorUtils#KEYBOARD} lane and stores them in the disk cache, so that showing them
+     * later reads them from the cache instead of parsing their layout XML on the UI thread.
+     * Keyboards that are in memory or already stored are skipped.
+     */
+    public void precompileKeyboardsAsync() {
+        if (mParams.mDisableTouchPositionCorrectionDataForTest) {
+            return;
+        }
+        final ArrayList<KeyboardId> ids = new ArrayList<>();
+        final ArrayList<ElementParams> elementParamsList = new ArrayList<>();
+        final ArrayList<String> diskCacheKeys = new ArrayList<>();
+        for (final int baseElementId : PRECOMPILED_ELEMENT_IDS) {
+            final int elementId = getKeyboardLayoutSetElementId(baseElementId);
+            final ElementParams elementParams = getElementParams(elementId);
+            final KeyboardId id = newKeyboardId(elementId, elementParams);
+            final SoftReference<Keyboard> ref = sKeyboardCache.get(id);
+            if (ids.contains(id) || (ref != null && ref.get() != null)) {
+                continue;
+            }
+            ids.add(id);
+            elementParamsList.add(elementParams);
+            diskCacheKeys.add(mKeyboardDiskCache.getCacheKey(id, elementParams.mKeyboardXmlId,
+                    elementParams.mAllowRedundantMoreKeys));
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        ExecutorUtils.getBackgroundExecutor(ExecutorUtils.KEYBOARD).execute(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < ids.size(); i++) {
+                    final String diskCacheKey = diskCacheKeys.get(i);
+                    if (mKeyboardDiskCache.contains(diskCacheKey)) {
+                        continue;
+                    }
+                    final ElementParams elementParams = elementParamsList.get(i);
+                    // The keys are not shared with the keyboards in memory, because the unique
+                    // keys cache is only used on the UI thread.
+                    final KeyboardParams params = new KeyboardParams();
+                    final KeyboardBuilder<KeyboardParams> builder =
+                            new KeyboardBuilder<>(mContext, params);
+                    builder.setAllowRedundantMoreKes(elementParams.mAllowRedundantMoreKeys);
+                    try {
+                        builder.load(elementParams.mKeyboardXmlId, ids.get(i));
+                    } catch (final RuntimeException e) {
+                        Log.w(TAG, "Can't precompile keyboard: " + ids.get(i), e);
+                        continue;
+                    }
+                    mKeyboardDiskCache.write(diskCacheKey, params);
+                    if (DEBUG_CACHE) {
+                        Log.d(TAG, "keyboard disk cache: PRECOMPILED id=" + ids.get(i));
+                    }
+                }
+            }
+        });
+    }
+
     public int getScriptId() {
         return mParams.mScriptId;
     }
@@ -21,14 +21,19 @@ import android.util.Log;
 
 import com.android.inputmethod.keyboard.internal.TouchPositionCorrection;
 import com.android.inputmethod.latin.common.Constants;
+import com.android.inputmethod.latin.common.ResizableIntArray;
+import com.android.inputmethod.latin.utils.ExecutorUtils;
 import com.android.inputmethod.latin.utils.JniUtils;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public class ProximityInfo {
     private static final String TAG = ProximityInfo.class.getSimpleName();
@@ -36,10 +41,10 @@ public class ProximityInfo {
 
     // Must be equal to MAX_PROXIMITY_CHARS_SIZE in native/jni/src/defines.h
     public static final int MAX_PROXIMITY_CHARS_SIZE = 16;
+    public static final int NOT_A_KEY_INDEX = -1;
+    private static final int NOT_A_CELL_INDEX = -1;
     /** Number of key widths from current touch point to search for nearest keys. */
     private static final float SEARCH_DISTANCE = 1.2f;
-    @Nonnull
-    private static final List<Key> EMPTY_KEY_LIST = Collections.emptyList();
     private static final float DEFAULT_TOUCH_POSITION_CORRECTION_RADIUS = 0.15f;
 
     private final int mGridWidth;
@@ -54,10 +59,30 @@ public class ProximityInfo {
     private final int mMostCommonKeyHeight;
     @Nonnull
     private final List<Key> mSortedKeys;
+    // The keys near each cell of the grid, as a compressed sparse row index: the indices in
+    // mSortedKeys of the keys near the cell i are stored in mNeighborKeyIndices from
+    // mNeighborOffsets[i] included to mNeighborOffsets[i + 1] excluded. Both the hit test and the
+    // proximity chars passed to native code are read from it.
+    @Nonnull
+    private final int[] mNeighborOffsets;
+    @Nonnull
+    private final short[] mNeighborKeyIndices;
+    // The code, bounds and hit box of each key of mSortedKeys, KEY_GEOMETRY_SIZE ints per key, so
+    // that the hit test does not need to read the keys.
     @Nonnull
-    private final List<Key>[] mGridNeighbors;
+    private final int[] mKeyGeometry;
+    private static final int KEY_GEOMETRY_CODE = 0;
+    private static final int KEY_GEOMETRY_LEFT = 1;
+    private static final int KEY_GEOMETRY_TOP = 2;
+    private static final int KEY_GEOMETRY_RIGHT = 3;
+    private static final int KEY_GEOMETRY_BOTTOM = 4;
+    private static final int KEY_GEOMETRY_HIT_BOX_LEFT = 5;
+    private static final int KEY_GEOMETRY_HIT_BOX_TOP = 6;
+    private static final int KEY_GEOMETRY_HIT_BOX_RIGHT = 7;
+    private static final int KEY_GEOMETRY_HIT_BOX_BOTTOM = 8;
+    private static final int KEY_GEOMETRY_SIZE = 9;
+    private static final short[] EMPTY_NEIGHBOR_KEY_INDICES = new short[0];
 
-    @SuppressWarnings("unchecked")
     ProximityInfo(final int gridWidth, final int gridHeight, final int minWidth, final int height,
             final int mostCommonKeyWidth, final int mostCommonKeyHeight,
             @Nonnull final List<Key> sortedKeys,
@@ -72,16 +97,30 @@ public class ProximityInfo {
         mMostCommonKeyHeight = mostCommonKeyHeight;
         mMostCommonKeyWidth = mostCommonKeyWidth;
         mSortedKeys = sortedKeys;
-        mGridNeighbors = new List[mGridSize];
+        mKeyGeometry = computeKeyGeometry(sortedKeys);
+        mNeighborOffsets = new int[mGridSize + 1];
         if (minWidth == 0 || height == 0) {
             // No proximity required. Keyboard might be more keys keyboard.
+            mNeighborKeyIndices = EMPTY_NEIGHBOR_KEY_INDICES;
+            mNativeProximityInfoTask = null;
             return;
         }
-        computeNearestNeighbors();
-        mNativeProximityInfo = createNativeProximityInfo(touchPositionCorrection);
+        mNeighborKeyIndices = computeNearestNeighbors(mNeighborOffsets);
+        mNativeProximityInfoTask = new FutureTask<>(new Callable<Long>() {
+            @Override
+            public Long call() {
+                mNativeProximityInfo = createNativeProximityInfo(touchPositionCorrection);
+                return mNativeProximityInfo;
+            }
+        });
     }
 
-    private long mNativeProximityInfo;
+    // The native proximity info is only needed for suggestions, so it is created the first time
+    // it is requested, or in advance on a background lane by prepareNativeProximityInfoAsync().
+    @Nullable
+    private final FutureTask<Long> mNativeProximityInfoTask;
+    private final AtomicBoolean mIsNativeProximityInfoScheduled = new AtomicBoolean(false);
+    private volatile long mNativeProximityInfo;
     static {
         JniUtils.loadNativeLibrary();
     }
@@ -112,20 +151,18 @@ public class ProximityInfo {
 
     private long createNativeProximityInfo(
             @Nonnull final TouchPositionCorrection touchPositionCorrection) {
-        final List<Key>[] gridNeighborKeys = mGridNeighbors;
         final int[] proximityCharsArray = new int[mGridSize * MAX_PROXIMITY_CHARS_SIZE];
         Arrays.fill(proximityCharsArray, Constants.NOT_A_CODE);
         for (int i = 0; i < mGridSize; ++i) {
-            final List<Key> neighborKeys = gridNeighborKeys[i];
-            final int proximityCharsLength = neighborKeys.size();
+            final int neighborEnd = mNeighborOffsets[i + 1];
             int infoIndex = i * MAX_PROXIMITY_CHARS_SIZE;
-            for (int j = 0; j < proximityCharsLength; ++j) {
-                final Key neighborKey = neighborKeys.get(j);
+            for (int j = mNeighborOffsets[i]; j < neighborEnd; ++j) {
+                final int code = getKeyGeometry(mNeighborKeyIndices[j], KEY_GEOMETRY_CODE);
                 // Excluding from proximityCharsArray
-                if (!needsProximityInfo(neighborKey)) {
+                if (code < Constants.CODE_SPACE) {
                     continue;
                 }
-                proximityCharsArray[infoIndex] = neighborKey.getCode();
+                proximityCharsArray[infoIndex] = code;
                 infoIndex++;
             }
         }
@@ -225,8 +262,49 @@ public class ProximityInfo {
                 sweetSpotCenterXs, sweetSpotCenterYs, sweetSpotRadii);
     }
 
+    /**
+     * Starts creating the native proximity info on the {@link ExecutorUtils#KEYBOARD} lane, so
+     * that it is ready when suggestions need it. Does nothing if it was already started.
+     */
+    public void prepareNativeProximityInfoAsync() {
+        if (null == mNativeProximityInfoTask
+                || mIsNativeProximityInfoScheduled.getAndSet(true)) {
+            return;
+        }
+        ExecutorUtils.getBackgroundExecutor(ExecutorUtils.KEYBOARD).execute(
+                mNativeProximityInfoTask);
+    }
+
+    /**
+     * Returns the native proximity info, creating it on the calling thread if it was not started
+     * yet, or waiting for it if it is being created on the background lane.
+     *
+     * The wait is not interruptible, as callers pass the handle straight to native code, which
+     * does not accept 0. The interrupt status is restored before returning.
+     */
     public long getNativeProximityInfo() {
-        return mNativeProximityInfo;
+        if (null == mNativeProximityInfoTask) {
+            return 0;
+        }
+        // Does nothing if the task already ran or is running on another thread.
+        mNativeProximityInfoTask.run();
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return mNativeProximityInfoTask.get();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } catch (final ExecutionException e) {
+            throw new RuntimeException("Failed to create the native proximity info.",
+                    e.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
     @Override
@@ -241,28 +319,59 @@ public class ProximityInfo {
         }
     }
 
-    private void computeNearestNeighbors() {
+    @Nonnull
+    private static int[] computeKeyGeometry(@Nonnull final List<Key> sortedKeys) {
+        final int[] keyGeometry = new int[sortedKeys.size() * KEY_GEOMETRY_SIZE];
+        for (int keyIndex = 0; keyIndex < sortedKeys.size(); ++keyIndex) {
+            final Key key = sortedKeys.get(keyIndex);
+            final Rect hitBox = key.getHitBox();
+            final int start = keyIndex * KEY_GEOMETRY_SIZE;
+            keyGeometry[start + KEY_GEOMETRY_CODE] = key.getCode();
+            keyGeometry[start + KEY_GEOMETRY_LEFT] = key.getX();
+            keyGeometry[start + KEY_GEOMETRY_TOP] = key.getY();
+            keyGeometry[start + KEY_GEOMETRY_RIGHT] = key.getX() + key.getWidth();
+            keyGeometry[start + KEY_GEOMETRY_BOTTOM] = key.getY() + key.getHeight();
+            keyGeometry[start + KEY_GEOMETRY_HIT_BOX_LEFT] = hitBox.left;
+            keyGeometry[start + KEY_GEOMETRY_HIT_BOX_TOP] = hitBox.top;
+            keyGeometry[start + KEY_GEOMETRY_HIT_BOX_RIGHT] = hitBox.right;
+            keyGeometry[start + KEY_GEOMETRY_HIT_BOX_BOTTOM] = hitBox.bottom;
+        }
+        return keyGeometry;
+    }
+
+    private int getKeyGeometry(final int keyIndex, final int field) {
+        return mKeyGeometry[keyIndex * KEY_GEOMETRY_SIZE + field];
+    }
+
+    /**
+     * Computes the keys near each cell of the grid.
+     *
+     * @param outNeighborOffsets the array of size gridSize + 1 to store the start of the
+     * neighbors of each cell in.
+     * @return the indices of the neighbor keys of all the cells.
+     */
+    @Nonnull
+    private short[] computeNearestNeighbors(@Nonnull final int[] outNeighborOffsets) {
         final int defaultWidth = mMostCommonKeyWidth;
         final int keyCount = mSortedKeys.size();
-        final int gridSize = mGridNeighbors.length;
+        final int gridSize = mGridSize;
         final int threshold = (int) (defaultWidth * SEARCH_DISTANCE);
         final int thresholdSquared = threshold * threshold;
         // Round-up so we don't have any pixels outside the grid
         final int lastPixelXCoordinate = mGridWidth * mCellWidth - 1;
         final int lastPixelYCoordinate = mGridHeight * mCellHeight - 1;
 
-        // For large layouts, 'neighborsFlatBuffer' is about 80k of memory: gridSize is usually 512,
-        // keycount is about 40 and a pointer to a Key is 4 bytes. This contains, for each cell,
-        // enough space for as many keys as there are on the keyboard. Hence, every
-        // keycount'th element is the start of a new cell, and each of these virtual subarrays
-        // start empty with keycount spaces available. This fills up gradually in the loop below.
-        // Since in the practice each cell does not have a lot of neighbors, most of this space is
-        // actually just empty padding in this fixed-size buffer.
-        final Key[] neighborsFlatBuffer = new Key[gridSize * keyCount];
+        // The (cell, key) pairs found in the loop below, in the order of the keys. In practice
+        // each cell only has a few neighbors, so these are much smaller than a buffer with room
+        // for all the keys in every cell. They are then sorted by cell with a counting sort,
+        // which keeps the order of the keys within each cell.
+        final ResizableIntArray neighborCells = new ResizableIntArray(gridSize);
+        final ResizableIntArray neighborKeys = new ResizableIntArray(gridSize);
         final int[] neighborCountPerCell = new int[gridSize];
         final int halfCellWidth = mCellWidth / 2;
         final int halfCellHeight = mCellHeight / 2;
-        for (final Key key : mSortedKeys) {
+        for (int keyIndex = 0; keyIndex < keyCount; ++keyIndex) {
+            final Key key = mSortedKeys.get(keyIndex);
             if (key.isSpacer()) continue;
 
 /* HOW WE PRE-SELECT THE CELLS (iterate over only the relevant cells, instead of all of them)
@@ -346,7 +455,8 @@ y |---+---+---+---+-v-+-|-+---+---+---+---+---|          | thresholdBase and get
                 int index = baseIndexOfCurrentRow;
                 for (int centerX = xStart; centerX <= xEnd; centerX += mCellWidth) {
                     if (key.squaredDistanceToEdge(centerX, centerY) < thresholdSquared) {
-                        neighborsFlatBuffer[index * keyCount + neighborCountPerCell[index]] = key;
+                        neighborCells.add(index);
+                        neighborKeys.add(keyIndex);
                         ++neighborCountPerCell[index];
                     }
                     ++index;
@@ -355,15 +465,19 @@ y |---+---+---+---+-v-+-|-+---+---+---+---+---|          | thresholdBase and get
             }
         }
 
+        outNeighborOffsets[0] = 0;
         for (int i = 0; i < gridSize; ++i) {
-            final int indexStart = i * keyCount;
-            final int indexEnd = indexStart + neighborCountPerCell[i];
-            final ArrayList<Key> neighbors = new ArrayList<>(indexEnd - indexStart);
-            for (int index = indexStart; index < indexEnd; index++) {
-                neighbors.add(neighborsFlatBuffer[index]);
-            }
-            mGridNeighbors[i] = Collections.unmodifiableList(neighbors);
+            outNeighborOffsets[i + 1] = outNeighborOffsets[i] + neighborCountPerCell[i];
         }
+        final int neighborCount = neighborCells.getLength();
+        final short[] neighborKeyIndices = new short[neighborCount];
+        // Reuse the counts as the next free position of each cell.
+        System.arraycopy(outNeighborOffsets, 0, neighborCountPerCell, 0, gridSize);
+        for (int i = 0; i < neighborCount; ++i) {
+            final int cell = neighborCells.get(i);
+            neighborKeyIndices[neighborCountPerCell[cell]++] = (short)neighborKeys.get(i);
+        }
+        return neighborKeyIndices;
     }
 
     public void fillArrayWithNearestKeyCodes(final int x, final int y, final int primaryKeyCode,
@@ -376,30 +490,92 @@ y |---+---+---+---+-v-+-|-+---+---+---+---+---|          | thresholdBase and get
         if (primaryKeyCode > Constants.CODE_SPACE) {
             dest[index++] = primaryKeyCode;
         }
-        final List<Key> nearestKeys = getNearestKeys(x, y);
-        for (Key key : nearestKeys) {
-            if (index >= destLength) {
-                break;
-            }
-            final int code = key.getCode();
-            if (code <= Constants.CODE_SPACE) {
-                break;
+        final int cellIndex = getCellIndex(x, y);
+        if (cellIndex != NOT_A_CELL_INDEX) {
+            final int neighborEnd = mNeighborOffsets[cellIndex + 1];
+            for (int i = mNeighborOffsets[cellIndex]; i < neighborEnd; ++i) {
+                if (index >= destLength) {
+                    break;
+                }
+                final int code = getKeyGeometry(mNeighborKeyIndices[i], KEY_GEOMETRY_CODE);
+                if (code <= Constants.CODE_SPACE) {
+                    break;
+                }
+                dest[index++] = code;
             }
-            dest[index++] = code;
         }
         if (index < destLength) {
             dest[index] = Constants.NOT_A_CODE;
         }
     }
 
-    @Nonnull
-    public List<Key> getNearestKeys(final int x, final int y) {
+    /**
+     * Detects the key whose hit box the point is in. When hit boxes overlap, the key whose edge
+     * is the nearest wins, then the key with the largest code. This reads the grid index and
+     * the key geometry only, and does not allocate.
+     *
+     * @param x the x-coordinate of the point
+     * @param y the y-coordinate of the point
+     * @return the index of the key in the sorted keys of the keyboard, or
+     * {@link #NOT_A_KEY_INDEX} if the point is not on a key.
+     */
+    public int detectHitKeyIndex(final int x, final int y) {
+        // Avoid dead pixels at edges of the keyboard
+        final int cellIndex = getCellIndex(Math.max(0, Math.min(x, mKeyboardMinWidth - 1)),
+                Math.max(0, Math.min(y, mKeyboardHeight - 1)));
+        if (cellIndex == NOT_A_CELL_INDEX) {
+            return NOT_A_KEY_INDEX;
+        }
+        final int[] keyGeometry = mKeyGeometry;
+        int minDistance = Integer.MAX_VALUE;
+        int primaryKeyIndex = NOT_A_KEY_INDEX;
+        int primaryKeyCode = Constants.NOT_A_CODE;
+        final int neighborEnd = mNeighborOffsets[cellIndex + 1];
+        for (int i = mNeighborOffsets[cellIndex]; i < neighborEnd; ++i) {
+            final int keyIndex = mNeighborKeyIndices[i];
+            final int start = keyIndex * KEY_GEOMETRY_SIZE;
+            // Same as Key#isOnKey(). An edge key always has its enlarged hitbox to respond to an
+            // event that occurred in the empty area around the key.
+            final int hitBoxLeft = keyGeometry[start + KEY_GEOMETRY_HIT_BOX_LEFT];
+            final int hitBoxTop = keyGeometry[start + KEY_GEOMETRY_HIT_BOX_TOP];
+            final int hitBoxRight = keyGeometry[start + KEY_GEOMETRY_HIT_BOX_RIGHT];
+            final int hitBoxBottom = keyGeometry[start + KEY_GEOMETRY_HIT_BOX_BOTTOM];
+            if (hitBoxLeft >= hitBoxRight || hitBoxTop >= hitBoxBottom
+                    || x < hitBoxLeft || x >= hitBoxRight || y < hitBoxTop || y >= hitBoxBottom) {
+                continue;
+            }
+            // Same as Key#squaredDistanceToEdge().
+            final int left = keyGeometry[start + KEY_GEOMETRY_LEFT];
+            final int top = keyGeometry[start + KEY_GEOMETRY_TOP];
+            final int right = keyGeometry[start + KEY_GEOMETRY_RIGHT];
+            final int bottom = keyGeometry[start + KEY_GEOMETRY_BOTTOM];
+            final int edgeX = x < left ? left : (x > right ? right : x);
+            final int edgeY = y < top ? top : (y > bottom ? bottom : y);
+            final int dx = x - edgeX;
+            final int dy = y - edgeY;
+            final int distance = dx * dx + dy * dy;
+            if (distance > minDistance) {
+                continue;
+            }
+            // To take care of hitbox overlaps, we compare key's code here too.
+            final int code = keyGeometry[start + KEY_GEOMETRY_CODE];
+            if (primaryKeyIndex == NOT_A_KEY_INDEX || distance < minDistance
+                    || code > primaryKeyCode) {
+                minDistance = distance;
+                primaryKeyIndex = keyIndex;
+                primaryKeyCode = code;
+            }
+        }
+        return primaryKeyIndex;
+    }
+
+    private int getCellIndex(final int x, final int y) {
         if (x >= 0 && x < mKeyboardMinWidth && y >= 0 && y < mKeyboardHeight) {
-            int index = (y / mCellHeight) * mGridWidth + (x / mCellWidth);
+            final int index = (y / mCellHeight) * mGridWidth + (x / mCellWidth);
             if (index < mGridSize) {
-                return mGridNeighbors[index];
+                return index;
             }
         }
-        return EMPTY_KEY_LIST;
+        return NOT_A_CELL_INDEX;
     }
 }
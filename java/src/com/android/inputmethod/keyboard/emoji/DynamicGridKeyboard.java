@@ -218,9 +218,9 @@ final class DynamicGridKeyboard extends Keyboard {
     }
 
     @Override
-    public List<Key> getNearestKeys(final int x, final int y) {
+    public Key detectHitKey(final int x, final int y) {
         // TODO: Calculate the nearest key index in mGridKeys from x and y.
-        return getSortedKeys();
+        return detectHitKey(getSortedKeys(), x, y);
     }
 
     static final class GridKey extends Key {
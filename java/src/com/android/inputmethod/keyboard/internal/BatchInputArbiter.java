@@ -41,6 +41,9 @@ public class BatchInputArbiter {
             Constants.DEFAULT_GESTURE_POINTS_CAPACITY);
     private static int sLastRecognitionPointSize = 0; // synchronized using sAggregatedPointers
     private static long sLastRecognitionTime = 0; // synchronized using sAggregatedPointers
+    // The number of points of the last gesture input, used to size the arrays of the next one so
+    // that they don't have to grow, and be copied, while the user is gesturing.
+    private static int sLastGesturePointSize = 0; // synchronized using sAggregatedPointers
 
     private final GestureStrokeRecognitionPoints mRecognitionPoints;
 
@@ -112,7 +115,7 @@ public class BatchInputArbiter {
             return false;
         }
         synchronized (sAggregatedPointers) {
-            sAggregatedPointers.reset();
+            sAggregatedPointers.reset(sLastGesturePointSize);
             sLastRecognitionPointSize = 0;
             sLastRecognitionTime = 0;
             listener.onStartBatchInput();
@@ -172,6 +175,7 @@ public class BatchInputArbiter {
         synchronized (sAggregatedPointers) {
             mRecognitionPoints.appendAllBatchPoints(sAggregatedPointers);
             if (activePointerCount == 1) {
+                sLastGesturePointSize = sAggregatedPointers.getPointerSize();
                 listener.onEndBatchInput(sAggregatedPointers, upEventTime);
                 return true;
             }
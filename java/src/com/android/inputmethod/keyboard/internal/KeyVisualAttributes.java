@@ -23,6 +23,10 @@ import android.util.SparseIntArray;
 import com.android.inputmethod.latin.R;
 import com.android.inputmethod.latin.utils.ResourceUtils;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -78,6 +82,7 @@ public final class KeyVisualAttributes {
     };
     private static final SparseIntArray sVisualAttributeIds = new SparseIntArray();
     private static final int ATTR_DEFINED = 1;
+    private static final int NO_TYPEFACE_STYLE = -1;
     private static final int ATTR_NOT_FOUND = 0;
     static {
         for (final int attrId : VISUAL_ATTRIBUTE_IDS) {
@@ -145,4 +150,68 @@ public final class KeyVisualAttributes {
         mHintLabelOffCenterRatio = ResourceUtils.getFraction(keyAttr,
                 R.styleable.Keyboard_Key_keyHintLabelOffCenterRatio, 0.0f);
     }
+
+    @Nonnull
+    public static KeyVisualAttributes readFromBuffer(@Nonnull final ByteBuffer buffer) {
+        return new KeyVisualAttributes(buffer);
+    }
+
+    private KeyVisualAttributes(@Nonnull final ByteBuffer buffer) {
+        final int typefaceStyle = buffer.getInt();
+        mTypeface = (typefaceStyle == NO_TYPEFACE_STYLE) ? null
+                : Typeface.defaultFromStyle(typefaceStyle);
+
+        mLetterRatio = buffer.getFloat();
+        mLetterSize = buffer.getInt();
+        mLabelRatio = buffer.getFloat();
+        mLabelSize = buffer.getInt();
+        mLargeLetterRatio = buffer.getFloat();
+        mHintLetterRatio = buffer.getFloat();
+        mShiftedLetterHintRatio = buffer.getFloat();
+        mHintLabelRatio = buffer.getFloat();
+        mPreviewTextRatio = buffer.getFloat();
+
+        mTextColor = buffer.getInt();
+        mTextInactivatedColor = buffer.getInt();
+        mTextShadowColor = buffer.getInt();
+        mFunctionalTextColor = buffer.getInt();
+        mHintLetterColor = buffer.getInt();
+        mHintLabelColor = buffer.getInt();
+        mShiftedLetterHintInactivatedColor = buffer.getInt();
+        mShiftedLetterHintActivatedColor = buffer.getInt();
+        mPreviewTextColor = buffer.getInt();
+
+        mHintLabelVerticalAdjustment = buffer.getFloat();
+        mLabelOffCenterRatio = buffer.getFloat();
+        mHintLabelOffCenterRatio = buffer.getFloat();
+    }
+
+    public void writeToStream(@Nonnull final DataOutputStream out) throws IOException {
+        // Only the style of a default typeface can be specified in a keyboard layout.
+        out.writeInt(mTypeface == null ? NO_TYPEFACE_STYLE : mTypeface.getStyle());
+
+        out.writeFloat(mLetterRatio);
+        out.writeInt(mLetterSize);
+        out.writeFloat(mLabelRatio);
+        out.writeInt(mLabelSize);
+        out.writeFloat(mLargeLetterRatio);
+        out.writeFloat(mHintLetterRatio);
+        out.writeFloat(mShiftedLetterHintRatio);
+        out.writeFloat(mHintLabelRatio);
+        out.writeFloat(mPreviewTextRatio);
+
+        out.writeInt(mTextColor);
+        out.writeInt(mTextInactivatedColor);
+        out.writeInt(mTextShadowColor);
+        out.writeInt(mFunctionalTextColor);
+        out.writeInt(mHintLetterColor);
+        out.writeInt(mHintLabelColor);
+        out.writeInt(mShiftedLetterHintInactivatedColor);
+        out.writeInt(mShiftedLetterHintActivatedColor);
+        out.writeInt(mPreviewTextColor);
+
+        out.writeFloat(mHintLabelVerticalAdjustment);
+        out.writeFloat(mLabelOffCenterRatio);
+        out.writeFloat(mHintLabelOffCenterRatio);
+    }
 }
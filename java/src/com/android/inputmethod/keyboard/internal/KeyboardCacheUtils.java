@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.keyboard.internal;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Helpers to write the values of a built keyboard to the persistent keyboard cache and to read
+ * them back. Values are written big-endian by a {@link DataOutputStream} and read from a
+ * {@link ByteBuffer} in its default byte order.
+ */
+public final class KeyboardCacheUtils {
+    private static final int NULL_LENGTH = -1;
+
+    private KeyboardCacheUtils() {
+        // This utility class is not publicly instantiable.
+    }
+
+    public static void writeString(@Nonnull final DataOutputStream out,
+            @Nullable final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        out.writeInt(value.length());
+        out.writeChars(value);
+    }
+
+    @Nullable
+    public static String readString(@Nonnull final ByteBuffer buffer) {
+        final int length = readLength(buffer, 2 /* bytesPerElement */);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        final char[] chars = new char[length];
+        buffer.asCharBuffer().get(chars);
+        buffer.position(buffer.position() + length * 2);
+        return new String(chars);
+    }
+
+    public static void writeFloatArray(@Nonnull final DataOutputStream out,
+            @Nullable final float[] values) throws IOException {
+        if (values == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        out.writeInt(values.length);
+        for (final float value : values) {
+            out.writeFloat(value);
+        }
+    }
+
+    @Nullable
+    public static float[] readFloatArray(@Nonnull final ByteBuffer buffer) {
+        final int length = readLength(buffer, 4 /* bytesPerElement */);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        final float[] values = new float[length];
+        buffer.asFloatBuffer().get(values);
+        buffer.position(buffer.position() + length * 4);
+        return values;
+    }
+
+    public static void writeBoolean(@Nonnull final DataOutputStream out, final boolean value)
+            throws IOException {
+        out.writeByte(value ? 1 : 0);
+    }
+
+    public static boolean readBoolean(@Nonnull final ByteBuffer buffer) {
+        return buffer.get() != 0;
+    }
+
+    /**
+     * Reads the length of an array, or {@link #NULL_LENGTH}. A length that does not fit in the
+     * rest of the buffer means the data is corrupted, so it is reported as an underflow before
+     * anything is allocated for it.
+     */
+    public static int readLength(@Nonnull final ByteBuffer buffer, final int bytesPerElement) {
+        final int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return NULL_LENGTH;
+        }
+        if (length < 0 || length > buffer.remaining() / bytesPerElement) {
+            throw new BufferUnderflowException();
+        }
+        return length;
+    }
+}
@@ -24,6 +24,9 @@ import android.util.SparseIntArray;
 
 import com.android.inputmethod.latin.R;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 
 import javax.annotation.Nonnull;
@@ -126,6 +129,38 @@ public final class KeyboardIconsSet {
         }
     }
 
+    /**
+     * Loads the icons from the resource ids written by {@link #writeToStream(DataOutputStream)}.
+     * The ids are only valid for the same version of the application.
+     */
+    public void loadFromBuffer(final Resources res, final ByteBuffer buffer) {
+        final int count = KeyboardCacheUtils.readLength(buffer, 4 /* bytesPerElement */);
+        if (count != NUM_ICONS) {
+            throw new IllegalStateException("unexpected icon count: " + count);
+        }
+        for (int iconId = 0; iconId < NUM_ICONS; iconId++) {
+            final int resourceId = buffer.getInt();
+            if (resourceId == 0) {
+                continue;
+            }
+            try {
+                final Drawable icon = res.getDrawable(resourceId);
+                setDefaultBounds(icon);
+                mIcons[iconId] = icon;
+                mIconResourceIds[iconId] = resourceId;
+            } catch (Resources.NotFoundException e) {
+                Log.w(TAG, "Drawable resource for icon " + ICON_NAMES[iconId] + " not found");
+            }
+        }
+    }
+
+    public void writeToStream(final DataOutputStream out) throws IOException {
+        out.writeInt(NUM_ICONS);
+        for (final int resourceId : mIconResourceIds) {
+            out.writeInt(resourceId);
+        }
+    }
+
     private static boolean isValidIconId(final int iconId) {
         return iconId >= 0 && iconId < ICON_NAMES.length;
     }
@@ -76,7 +76,8 @@ public final class KeyboardTextsSet {
         return size;
     }
 
-    // TODO: Resolve text reference when creating {@link KeyboardTextsTable} class.
+    // The "!text/" references in {@link KeyboardTextsTable} have been resolved when the class was
+    // generated, so the text only has to be scanned again when an expanded text has a reference.
     public String resolveTextReference(final String rawText) {
         if (TextUtils.isEmpty(rawText)) {
             return null;
@@ -84,6 +85,7 @@ public final class KeyboardTextsSet {
         int level = 0;
         String text = rawText;
         StringBuilder sb;
+        boolean hasExpandedReference;
         do {
             level++;
             if (level >= MAX_REFERENCE_INDIRECTION) {
@@ -98,18 +100,23 @@ public final class KeyboardTextsSet {
             }
 
             sb = null;
+            hasExpandedReference = false;
             for (int pos = 0; pos < size; pos++) {
                 final char c = text.charAt(pos);
                 if (text.startsWith(PREFIX_TEXT, pos)) {
                     if (sb == null) {
                         sb = new StringBuilder(text.substring(0, pos));
                     }
+                    final int start = sb.length();
                     pos = expandReference(text, pos, PREFIX_TEXT, sb);
+                    hasExpandedReference |= hasReference(sb, start);
                 } else if (text.startsWith(PREFIX_RESOURCE, pos)) {
                     if (sb == null) {
                         sb = new StringBuilder(text.substring(0, pos));
                     }
+                    final int start = sb.length();
                     pos = expandReference(text, pos, PREFIX_RESOURCE, sb);
+                    hasExpandedReference |= hasReference(sb, start);
                 } else if (c == BACKSLASH) {
                     if (sb != null) {
                         // Append both escape character and escaped character.
@@ -124,10 +131,14 @@ public final class KeyboardTextsSet {
             if (sb != null) {
                 text = sb.toString();
             }
-        } while (sb != null);
+        } while (hasExpandedReference);
         return TextUtils.isEmpty(text) ? null : text;
     }
 
+    private static boolean hasReference(final StringBuilder sb, final int start) {
+        return sb.indexOf(PREFIX_TEXT, start) >= 0 || sb.indexOf(PREFIX_RESOURCE, start) >= 0;
+    }
+
     private int expandReference(final String text, final int pos, final String prefix,
             final StringBuilder sb) {
         final int prefixLength = prefix.length();
@@ -41,21 +41,23 @@ import java.util.Locale;
  *   KeyboardTextsTable.java
  */
 public final class KeyboardTextsTable {
-    // Name to index map.
-    private static final HashMap<String, Integer> sNameToIndexesMap = new HashMap<>();
     // Locale to texts table map.
     private static final HashMap<String, String[]> sLocaleToTextsTableMap = new HashMap<>();
     // TODO: Remove this variable after debugging.
     // Texts table to locale maps.
     private static final HashMap<String[], String> sTextsTableToLocaleMap = new HashMap<>();
 
+    /**
+     * Returns the text of the name in the texts table. The "!text/" references in the texts have
+     * been expanded when this class was generated, so the text only has to be resolved again if
+     * it has other references, like "!string/".
+     */
     public static String getText(final String name, final String[] textsTable) {
-        final Integer indexObj = sNameToIndexesMap.get(name);
-        if (indexObj == null) {
+        final int index = getIndex(name);
+        if (index < 0) {
             throw new RuntimeException("Unknown text name=" + name + " locale="
                     + sTextsTableToLocaleMap.get(textsTable));
         }
-        final int index = indexObj;
         final String text = (index < textsTable.length) ? textsTable[index] : null;
         if (text != null) {
             return text;
@@ -81,185 +83,189 @@ public final class KeyboardTextsTable {
         return TEXTS_DEFAULT;
     }
 
-    private static final String[] NAMES = {
-    //  /* index:histogram */ "name",
-        /*   0:33 */ "morekeys_a",
-        /*   1:33 */ "morekeys_o",
-        /*   2:32 */ "morekeys_e",
-        /*   3:31 */ "morekeys_u",
-        /*   4:31 */ "keylabel_to_alpha",
-        /*   5:30 */ "morekeys_i",
-        /*   6:25 */ "morekeys_n",
-        /*   7:25 */ "morekeys_c",
-        /*   8:23 */ "double_quotes",
-        /*   9:22 */ "morekeys_s",
-        /*  10:22 */ "single_quotes",
-        /*  11:19 */ "keyspec_currency",
-        /*  12:17 */ "morekeys_y",
-        /*  13:16 */ "morekeys_z",
-        /*  14:14 */ "morekeys_d",
-        /*  15:10 */ "morekeys_t",
-        /*  16:10 */ "morekeys_l",
-        /*  17:10 */ "morekeys_g",
-        /*  18: 9 */ "single_angle_quotes",
-        /*  19: 9 */ "double_angle_quotes",
-        /*  20: 8 */ "morekeys_r",
-        /*  21: 6 */ "morekeys_k",
-        /*  22: 6 */ "morekeys_cyrillic_ie",
-        /*  23: 5 */ "keyspec_nordic_row1_11",
-        /*  24: 5 */ "keyspec_nordic_row2_10",
-        /*  25: 5 */ "keyspec_nordic_row2_11",
-        /*  26: 5 */ "morekeys_nordic_row2_10",
-        /*  27: 5 */ "keyspec_east_slavic_row1_9",
-        /*  28: 5 */ "keyspec_east_slavic_row2_2",
-        /*  29: 5 */ "keyspec_east_slavic_row2_11",
-        /*  30: 5 */ "keyspec_east_slavic_row3_5",
-        /*  31: 5 */ "morekeys_cyrillic_soft_sign",
-        /*  32: 5 */ "keyspec_symbols_1",
-        /*  33: 5 */ "keyspec_symbols_2",
-        /*  34: 5 */ "keyspec_symbols_3",
-        /*  35: 5 */ "keyspec_symbols_4",
-        /*  36: 5 */ "keyspec_symbols_5",
-        /*  37: 5 */ "keyspec_symbols_6",
-        /*  38: 5 */ "keyspec_symbols_7",
-        /*  39: 5 */ "keyspec_symbols_8",
-        /*  40: 5 */ "keyspec_symbols_9",
-        /*  41: 5 */ "keyspec_symbols_0",
-        /*  42: 5 */ "keylabel_to_symbol",
-        /*  43: 5 */ "additional_morekeys_symbols_1",
-        /*  44: 5 */ "additional_morekeys_symbols_2",
-        /*  45: 5 */ "additional_morekeys_symbols_3",
-        /*  46: 5 */ "additional_morekeys_symbols_4",
-        /*  47: 5 */ "additional_morekeys_symbols_5",
-        /*  48: 5 */ "additional_morekeys_symbols_6",
-        /*  49: 5 */ "additional_morekeys_symbols_7",
-        /*  50: 5 */ "additional_morekeys_symbols_8",
-        /*  51: 5 */ "additional_morekeys_symbols_9",
-        /*  52: 5 */ "additional_morekeys_symbols_0",
-        /*  53: 5 */ "morekeys_tablet_period",
-        /*  54: 4 */ "morekeys_nordic_row2_11",
-        /*  55: 4 */ "morekeys_punctuation",
-        /*  56: 4 */ "keyspec_tablet_comma",
-        /*  57: 4 */ "keyspec_period",
-        /*  58: 4 */ "morekeys_period",
-        /*  59: 4 */ "keyspec_tablet_period",
-        /*  60: 3 */ "keyspec_swiss_row1_11",
-        /*  61: 3 */ "keyspec_swiss_row2_10",
-        /*  62: 3 */ "keyspec_swiss_row2_11",
-        /*  63: 3 */ "morekeys_swiss_row1_11",
-        /*  64: 3 */ "morekeys_swiss_row2_10",
-        /*  65: 3 */ "morekeys_swiss_row2_11",
-        /*  66: 3 */ "morekeys_star",
-        /*  67: 3 */ "keyspec_left_parenthesis",
-        /*  68: 3 */ "keyspec_right_parenthesis",
-        /*  69: 3 */ "keyspec_left_square_bracket",
-        /*  70: 3 */ "keyspec_right_square_bracket",
-        /*  71: 3 */ "keyspec_left_curly_bracket",
-        /*  72: 3 */ "keyspec_right_curly_bracket",
-        /*  73: 3 */ "keyspec_less_than",
-        /*  74: 3 */ "keyspec_greater_than",
-        /*  75: 3 */ "keyspec_less_than_equal",
-        /*  76: 3 */ "keyspec_greater_than_equal",
-        /*  77: 3 */ "keyspec_left_double_angle_quote",
-        /*  78: 3 */ "keyspec_right_double_angle_quote",
-        /*  79: 3 */ "keyspec_left_single_angle_quote",
-        /*  80: 3 */ "keyspec_right_single_angle_quote",
-        /*  81: 3 */ "keyspec_comma",
-        /*  82: 3 */ "morekeys_tablet_comma",
-        /*  83: 3 */ "keyhintlabel_period",
-        /*  84: 3 */ "morekeys_question",
-        /*  85: 2 */ "morekeys_h",
-        /*  86: 2 */ "morekeys_w",
-        /*  87: 2 */ "morekeys_east_slavic_row2_2",
-        /*  88: 2 */ "morekeys_cyrillic_u",
-        /*  89: 2 */ "morekeys_cyrillic_en",
-        /*  90: 2 */ "morekeys_cyrillic_ghe",
-        /*  91: 2 */ "morekeys_cyrillic_o",
-        /*  92: 2 */ "morekeys_cyrillic_i",
-        /*  93: 2 */ "keyspec_south_slavic_row1_6",
-        /*  94: 2 */ "keyspec_south_slavic_row2_11",
-        /*  95: 2 */ "keyspec_south_slavic_row3_1",
-        /*  96: 2 */ "keyspec_south_slavic_row3_8",
-        /*  97: 2 */ "morekeys_tablet_punctuation",
-        /*  98: 2 */ "keyspec_spanish_row2_10",
-        /*  99: 2 */ "morekeys_bullet",
-        /* 100: 2 */ "morekeys_left_parenthesis",
-        /* 101: 2 */ "morekeys_right_parenthesis",
-        /* 102: 2 */ "morekeys_arabic_diacritics",
-        /* 103: 2 */ "keyhintlabel_tablet_comma",
-        /* 104: 2 */ "keyhintlabel_tablet_period",
-        /* 105: 2 */ "keyspec_symbols_question",
-        /* 106: 2 */ "keyspec_symbols_semicolon",
-        /* 107: 2 */ "keyspec_symbols_percent",
-        /* 108: 2 */ "morekeys_symbols_semicolon",
-        /* 109: 2 */ "morekeys_symbols_percent",
-        /* 110: 2 */ "label_go_key",
-        /* 111: 2 */ "label_send_key",
-        /* 112: 2 */ "label_next_key",
-        /* 113: 2 */ "label_done_key",
-        /* 114: 2 */ "label_search_key",
-        /* 115: 2 */ "label_previous_key",
-        /* 116: 2 */ "label_pause_key",
-        /* 117: 2 */ "label_wait_key",
-        /* 118: 1 */ "morekeys_v",
-        /* 119: 1 */ "morekeys_j",
-        /* 120: 1 */ "morekeys_q",
-        /* 121: 1 */ "morekeys_x",
-        /* 122: 1 */ "keyspec_q",
-        /* 123: 1 */ "keyspec_w",
-        /* 124: 1 */ "keyspec_y",
-        /* 125: 1 */ "keyspec_x",
-        /* 126: 1 */ "morekeys_east_slavic_row2_11",
-        /* 127: 1 */ "morekeys_cyrillic_ka",
-        /* 128: 1 */ "morekeys_cyrillic_a",
-        /* 129: 1 */ "morekeys_currency_dollar",
-        /* 130: 1 */ "morekeys_plus",
-        /* 131: 1 */ "morekeys_less_than",
-        /* 132: 1 */ "morekeys_greater_than",
-        /* 133: 1 */ "morekeys_exclamation",
-        /* 134: 0 */ "morekeys_currency_generic",
-        /* 135: 0 */ "morekeys_symbols_1",
-        /* 136: 0 */ "morekeys_symbols_2",
-        /* 137: 0 */ "morekeys_symbols_3",
-        /* 138: 0 */ "morekeys_symbols_4",
-        /* 139: 0 */ "morekeys_symbols_5",
-        /* 140: 0 */ "morekeys_symbols_6",
-        /* 141: 0 */ "morekeys_symbols_7",
-        /* 142: 0 */ "morekeys_symbols_8",
-        /* 143: 0 */ "morekeys_symbols_9",
-        /* 144: 0 */ "morekeys_symbols_0",
-        /* 145: 0 */ "morekeys_am_pm",
-        /* 146: 0 */ "keyspec_settings",
-        /* 147: 0 */ "keyspec_shortcut",
-        /* 148: 0 */ "keyspec_action_next",
-        /* 149: 0 */ "keyspec_action_previous",
-        /* 150: 0 */ "keylabel_to_more_symbol",
-        /* 151: 0 */ "keylabel_tablet_to_more_symbol",
-        /* 152: 0 */ "keylabel_to_phone_numeric",
-        /* 153: 0 */ "keylabel_to_phone_symbols",
-        /* 154: 0 */ "keylabel_time_am",
-        /* 155: 0 */ "keylabel_time_pm",
-        /* 156: 0 */ "keyspec_popular_domain",
-        /* 157: 0 */ "morekeys_popular_domain",
-        /* 158: 0 */ "keyspecs_left_parenthesis_more_keys",
-        /* 159: 0 */ "keyspecs_right_parenthesis_more_keys",
-        /* 160: 0 */ "single_laqm_raqm",
-        /* 161: 0 */ "single_raqm_laqm",
-        /* 162: 0 */ "double_laqm_raqm",
-        /* 163: 0 */ "double_raqm_laqm",
-        /* 164: 0 */ "single_lqm_rqm",
-        /* 165: 0 */ "single_9qm_lqm",
-        /* 166: 0 */ "single_9qm_rqm",
-        /* 167: 0 */ "single_rqm_9qm",
-        /* 168: 0 */ "double_lqm_rqm",
-        /* 169: 0 */ "double_9qm_lqm",
-        /* 170: 0 */ "double_9qm_rqm",
-        /* 171: 0 */ "double_rqm_9qm",
-        /* 172: 0 */ "morekeys_single_quote",
-        /* 173: 0 */ "morekeys_double_quote",
-        /* 174: 0 */ "morekeys_tablet_double_quote",
-        /* 175: 0 */ "keyspec_emoji_action_key",
-    };
+    // Name to index map. The indexes are in descending order of the number of locales that
+    // have the text.
+    private static int getIndex(final String name) {
+        switch (name) {
+        case "morekeys_a":                              return   0; /* histogram 33 */
+        case "morekeys_o":                              return   1; /* histogram 33 */
+        case "morekeys_e":                              return   2; /* histogram 32 */
+        case "morekeys_u":                              return   3; /* histogram 31 */
+        case "keylabel_to_alpha":                       return   4; /* histogram 31 */
+        case "morekeys_i":                              return   5; /* histogram 30 */
+        case "morekeys_n":                              return   6; /* histogram 25 */
+        case "morekeys_c":                              return   7; /* histogram 25 */
+        case "double_quotes":                           return   8; /* histogram 23 */
+        case "morekeys_s":                              return   9; /* histogram 22 */
+        case "single_quotes":                           return  10; /* histogram 22 */
+        case "keyspec_currency":                        return  11; /* histogram 19 */
+        case "morekeys_y":                              return  12; /* histogram 17 */
+        case "morekeys_z":                              return  13; /* histogram 16 */
+        case "morekeys_d":                              return  14; /* histogram 14 */
+        case "morekeys_t":                              return  15; /* histogram 10 */
+        case "morekeys_l":                              return  16; /* histogram 10 */
+        case "morekeys_g":                              return  17; /* histogram 10 */
+        case "single_angle_quotes":                     return  18; /* histogram  9 */
+        case "double_angle_quotes":                     return  19; /* histogram  9 */
+        case "morekeys_r":                              return  20; /* histogram  8 */
+        case "morekeys_k":                              return  21; /* histogram  6 */
+        case "morekeys_cyrillic_ie":                    return  22; /* histogram  6 */
+        case "keyspec_nordic_row1_11":                  return  23; /* histogram  5 */
+        case "keyspec_nordic_row2_10":                  return  24; /* histogram  5 */
+        case "keyspec_nordic_row2_11":                  return  25; /* histogram  5 */
+        case "morekeys_nordic_row2_10":                 return  26; /* histogram  5 */
+        case "keyspec_east_slavic_row1_9":              return  27; /* histogram  5 */
+        case "keyspec_east_slavic_row2_2":              return  28; /* histogram  5 */
+        case "keyspec_east_slavic_row2_11":             return  29; /* histogram  5 */
+        case "keyspec_east_slavic_row3_5":              return  30; /* histogram  5 */
+        case "morekeys_cyrillic_soft_sign":             return  31; /* histogram  5 */
+        case "keyspec_symbols_1":                       return  32; /* histogram  5 */
+        case "keyspec_symbols_2":                       return  33; /* histogram  5 */
+        case "keyspec_symbols_3":                       return  34; /* histogram  5 */
+        case "keyspec_symbols_4":                       return  35; /* histogram  5 */
+        case "keyspec_symbols_5":                       return  36; /* histogram  5 */
+        case "keyspec_symbols_6":                       return  37; /* histogram  5 */
+        case "keyspec_symbols_7":                       return  38; /* histogram  5 */
+        case "keyspec_symbols_8":                       return  39; /* histogram  5 */
+        case "keyspec_symbols_9":                       return  40; /* histogram  5 */
+        case "keyspec_symbols_0":                       return  41; /* histogram  5 */
+        case "keylabel_to_symbol":                      return  42; /* histogram  5 */
+        case "additional_morekeys_symbols_1":           return  43; /* histogram  5 */
+        case "additional_morekeys_symbols_2":           return  44; /* histogram  5 */
+        case "additional_morekeys_symbols_3":           return  45; /* histogram  5 */
+        case "additional_morekeys_symbols_4":           return  46; /* histogram  5 */
+        case "additional_morekeys_symbols_5":           return  47; /* histogram  5 */
+        case "additional_morekeys_symbols_6":           return  48; /* histogram  5 */
+        case "additional_morekeys_symbols_7":           return  49; /* histogram  5 */
+        case "additional_morekeys_symbols_8":           return  50; /* histogram  5 */
+        case "additional_morekeys_symbols_9":           return  51; /* histogram  5 */
+        case "additional_morekeys_symbols_0":           return  52; /* histogram  5 */
+        case "morekeys_tablet_period":                  return  53; /* histogram  5 */
+        case "morekeys_nordic_row2_11":                 return  54; /* histogram  4 */
+        case "morekeys_punctuation":                    return  55; /* histogram  4 */
+        case "keyspec_tablet_comma":                    return  56; /* histogram  4 */
+        case "keyspec_period":                          return  57; /* histogram  4 */
+        case "morekeys_period":                         return  58; /* histogram  4 */
+        case "keyspec_tablet_period":                   return  59; /* histogram  4 */
+        case "keyspec_swiss_row1_11":                   return  60; /* histogram  3 */
+        case "keyspec_swiss_row2_10":                   return  61; /* histogram  3 */
+        case "keyspec_swiss_row2_11":                   return  62; /* histogram  3 */
+        case "morekeys_swiss_row1_11":                  return  63; /* histogram  3 */
+        case "morekeys_swiss_row2_10":                  return  64; /* histogram  3 */
+        case "morekeys_swiss_row2_11":                  return  65; /* histogram  3 */
+        case "morekeys_star":                           return  66; /* histogram  3 */
+        case "keyspec_left_parenthesis":                return  67; /* histogram  3 */
+        case "keyspec_right_parenthesis":               return  68; /* histogram  3 */
+        case "keyspec_left_square_bracket":             return  69; /* histogram  3 */
+        case "keyspec_right_square_bracket":            return  70; /* histogram  3 */
+        case "keyspec_left_curly_bracket":              return  71; /* histogram  3 */
+        case "keyspec_right_curly_bracket":             return  72; /* histogram  3 */
+        case "keyspec_less_than":                       return  73; /* histogram  3 */
+        case "keyspec_greater_than":                    return  74; /* histogram  3 */
+        case "keyspec_less_than_equal":                 return  75; /* histogram  3 */
+        case "keyspec_greater_than_equal":              return  76; /* histogram  3 */
+        case "keyspec_left_double_angle_quote":         return  77; /* histogram  3 */
+        case "keyspec_right_double_angle_quote":        return  78; /* histogram  3 */
+        case "keyspec_left_single_angle_quote":         return  79; /* histogram  3 */
+        case "keyspec_right_single_angle_quote":        return  80; /* histogram  3 */
+        case "keyspec_comma":                           return  81; /* histogram  3 */
+        case "morekeys_tablet_comma":                   return  82; /* histogram  3 */
+        case "keyhintlabel_period":                     return  83; /* histogram  3 */
+        case "morekeys_question":                       return  84; /* histogram  3 */
+        case "morekeys_h":                              return  85; /* histogram  2 */
+        case "morekeys_w":                              return  86; /* histogram  2 */
+        case "morekeys_east_slavic_row2_2":             return  87; /* histogram  2 */
+        case "morekeys_cyrillic_u":                     return  88; /* histogram  2 */
+        case "morekeys_cyrillic_en":                    return  89; /* histogram  2 */
+        case "morekeys_cyrillic_ghe":                   return  90; /* histogram  2 */
+        case "morekeys_cyrillic_o":                     return  91; /* histogram  2 */
+        case "morekeys_cyrillic_i":                     return  92; /* histogram  2 */
+        case "keyspec_south_slavic_row1_6":             return  93; /* histogram  2 */
+        case "keyspec_south_slavic_row2_11":            return  94; /* histogram  2 */
+        case "keyspec_south_slavic_row3_1":             return  95; /* histogram  2 */
+        case "keyspec_south_slavic_row3_8":             return  96; /* histogram  2 */
+        case "morekeys_tablet_punctuation":             return  97; /* histogram  2 */
+        case "keyspec_spanish_row2_10":                 return  98; /* histogram  2 */
+        case "morekeys_bullet":                         return  99; /* histogram  2 */
+        case "morekeys_left_parenthesis":               return 100; /* histogram  2 */
+        case "morekeys_right_parenthesis":              return 101; /* histogram  2 */
+        case "morekeys_arabic_diacritics":              return 102; /* histogram  2 */
+        case "keyhintlabel_tablet_comma":               return 103; /* histogram  2 */
+        case "keyhintlabel_tablet_period":              return 104; /* histogram  2 */
+        case "keyspec_symbols_question":                return 105; /* histogram  2 */
+        case "keyspec_symbols_semicolon":               return 106; /* histogram  2 */
+        case "keyspec_symbols_percent":                 return 107; /* histogram  2 */
+        case "morekeys_symbols_semicolon":              return 108; /* histogram  2 */
+        case "morekeys_symbols_percent":                return 109; /* histogram  2 */
+        case "label_go_key":                            return 110; /* histogram  2 */
+        case "label_send_key":                          return 111; /* histogram  2 */
+        case "label_next_key":                          return 112; /* histogram  2 */
+        case "label_done_key":                          return 113; /* histogram  2 */
+        case "label_search_key":                        return 114; /* histogram  2 */
+        case "label_previous_key":                      return 115; /* histogram  2 */
+        case "label_pause_key":                         return 116; /* histogram  2 */
+        case "label_wait_key":                          return 117; /* histogram  2 */
+        case "morekeys_v":                              return 118; /* histogram  1 */
+        case "morekeys_j":                              return 119; /* histogram  1 */
+        case "morekeys_q":                              return 120; /* histogram  1 */
+        case "morekeys_x":                              return 121; /* histogram  1 */
+        case "keyspec_q":                               return 122; /* histogram  1 */
+        case "keyspec_w":                               return 123; /* histogram  1 */
+        case "keyspec_y":                               return 124; /* histogram  1 */
+        case "keyspec_x":                               return 125; /* histogram  1 */
+        case "morekeys_east_slavic_row2_11":            return 126; /* histogram  1 */
+        case "morekeys_cyrillic_ka":                    return 127; /* histogram  1 */
+        case "morekeys_cyrillic_a":                     return 128; /* histogram  1 */
+        case "morekeys_currency_dollar":                return 129; /* histogram  1 */
+        case "morekeys_plus":                           return 130; /* histogram  1 */
+        case "morekeys_less_than":                      return 131; /* histogram  1 */
+        case "morekeys_greater_than":                   return 132; /* histogram  1 */
+        case "morekeys_exclamation":                    return 133; /* histogram  1 */
+        case "morekeys_currency_generic":               return 134; /* histogram  0 */
+        case "morekeys_symbols_1":                      return 135; /* histogram  0 */
+        case "morekeys_symbols_2":                      return 136; /* histogram  0 */
+        case "morekeys_symbols_3":                      return 137; /* histogram  0 */
+        case "morekeys_symbols_4":                      return 138; /* histogram  0 */
+        case "morekeys_symbols_5":                      return 139; /* histogram  0 */
+        case "morekeys_symbols_6":                      return 140; /* histogram  0 */
+        case "morekeys_symbols_7":                      return 141; /* histogram  0 */
+        case "morekeys_symbols_8":                      return 142; /* histogram  0 */
+        case "morekeys_symbols_9":                      return 143; /* histogram  0 */
+        case "morekeys_symbols_0":                      return 144; /* histogram  0 */
+        case "morekeys_am_pm":                          return 145; /* histogram  0 */
+        case "keyspec_settings":                        return 146; /* histogram  0 */
+        case "keyspec_shortcut":                        return 147; /* histogram  0 */
+        case "keyspec_action_next":                     return 148; /* histogram  0 */
+        case "keyspec_action_previous":                 return 149; /* histogram  0 */
+        case "keylabel_to_more_symbol":                 return 150; /* histogram  0 */
+        case "keylabel_tablet_to_more_symbol":          return 151; /* histogram  0 */
+        case "keylabel_to_phone_numeric":               return 152; /* histogram  0 */
+        case "keylabel_to_phone_symbols":               return 153; /* histogram  0 */
+        case "keylabel_time_am":                        return 154; /* histogram  0 */
+        case "keylabel_time_pm":                        return 155; /* histogram  0 */
+        case "keyspec_popular_domain":                  return 156; /* histogram  0 */
+        case "morekeys_popular_domain":                 return 157; /* histogram  0 */
+        case "keyspecs_left_parenthesis_more_keys":     return 158; /* histogram  0 */
+        case "keyspecs_right_parenthesis_more_keys":    return 159; /* histogram  0 */
+        case "single_laqm_raqm":                        return 160; /* histogram  0 */
+        case "single_raqm_laqm":                        return 161; /* histogram  0 */
+        case "double_laqm_raqm":                        return 162; /* histogram  0 */
+        case "double_raqm_laqm":                        return 163; /* histogram  0 */
+        case "single_lqm_rqm":                          return 164; /* histogram  0 */
+        case "single_9qm_lqm":                          return 165; /* histogram  0 */
+        case "single_9qm_rqm":                          return 166; /* histogram  0 */
+        case "single_rqm_9qm":                          return 167; /* histogram  0 */
+        case "double_lqm_rqm":                          return 168; /* histogram  0 */
+        case "double_9qm_lqm":                          return 169; /* histogram  0 */
+        case "double_9qm_rqm":                          return 170; /* histogram  0 */
+        case "double_rqm_9qm":                          return 171; /* histogram  0 */
+        case "morekeys_single_quote":                   return 172; /* histogram  0 */
+        case "morekeys_double_quote":                   return 173; /* histogram  0 */
+        case "morekeys_tablet_double_quote":            return 174; /* histogram  0 */
+        case "keyspec_emoji_action_key":                return 175; /* histogram  0 */
+        default: return -1;
+        }
+    }
 
     private static final String EMPTY = "";
 
@@ -273,15 +279,15 @@ public final class KeyboardTextsTable {
         /* morekeys_i ~ */
         EMPTY, EMPTY, EMPTY,
         /* ~ morekeys_c */
-        /* double_quotes */ "!text/double_lqm_rqm",
+        /* double_quotes */ "\u201E,\u201C,\u201D",
         /* morekeys_s */ EMPTY,
-        /* single_quotes */ "!text/single_lqm_rqm",
+        /* single_quotes */ "\u201A,\u2018,\u2019",
         /* keyspec_currency */ "$",
         /* morekeys_y ~ */
         EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY,
         /* ~ morekeys_g */
-        /* single_angle_quotes */ "!text/single_laqm_raqm",
-        /* double_angle_quotes */ "!text/double_laqm_raqm",
+        /* single_angle_quotes */ "\u2039,\u203A",
+        /* double_angle_quotes */ "\u00AB,\u00BB",
         /* morekeys_r ~ */
         EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY,
         /* ~ morekeys_cyrillic_soft_sign */
@@ -300,13 +306,13 @@ public final class KeyboardTextsTable {
         /* additional_morekeys_symbols_1 ~ */
         EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY,
         /* ~ additional_morekeys_symbols_0 */
-        /* morekeys_tablet_period */ "!text/morekeys_tablet_punctuation",
+        /* morekeys_tablet_period */ "!autoColumnOrder!7,\\,,',#,),(,/,;,@,:,-,\",+,\\%,&",
         /* morekeys_nordic_row2_11 */ EMPTY,
-        /* morekeys_punctuation */ "!autoColumnOrder!8,\\,,?,!,#,!text/keyspec_right_parenthesis,!text/keyspec_left_parenthesis,/,;,',@,:,-,\",+,\\%,&",
+        /* morekeys_punctuation */ "!autoColumnOrder!8,\\,,?,!,#,),(,/,;,',@,:,-,\",+,\\%,&",
         /* keyspec_tablet_comma */ ",",
         // Period key
         /* keyspec_period */ ".",
-        /* morekeys_period */ "!text/morekeys_punctuation",
+        /* morekeys_period */ "!autoColumnOrder!8,\\,,?,!,#,),(,/,;,',@,:,-,\",+,\\%,&",
         /* keyspec_tablet_period */ ".",
         /* keyspec_swiss_row1_11 ~ */
         EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY,
@@ -346,7 +352,7 @@ public final class KeyboardTextsTable {
         /* morekeys_h ~ */
         EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY,
         /* ~ keyspec_south_slavic_row3_8 */
-        /* morekeys_tablet_punctuation */ "!autoColumnOrder!7,\\,,',#,!text/keyspec_right_parenthesis,!text/keyspec_left_parenthesis,/,;,@,:,-,\",+,\\%,&",
+        /* morekeys_tablet_punctuation */ "!autoColumnOrder!7,\\,,',#,),(,/,;,@,:,-,\",+,\\%,&",
         // U+00F1: "ñ" LATIN SMALL LETTER N WITH TILDE
         /* keyspec_spanish_row2_10 */ "\u00F1",
         // U+266A: "♪" EIGHTH NOTE
@@ -355,8 +361,8 @@ public final class KeyboardTextsTable {
         // U+2666: "♦" BLACK DIAMOND SUIT
         // U+2663: "♣" BLACK CLUB SUIT
         /* morekeys_bullet */ "\u266A,\u2665,\u2660,\u2666,\u2663",
-        /* morekeys_left_parenthesis */ "!fixedColumnOrder!3,!text/keyspecs_left_parenthesis_more_keys",
-        /* morekeys_right_parenthesis */ "!fixedColumnOrder!3,!text/keyspecs_right_parenthesis_more_keys",
+        /* morekeys_left_parenthesis */ "!fixedColumnOrder!3,<,{,[",
+        /* morekeys_right_parenthesis */ "!fixedColumnOrder!3,>,},]",
         /* morekeys_arabic_diacritics ~ */
         EMPTY, EMPTY, EMPTY,
         /* ~ keyhintlabel_tablet_period */
@@ -392,8 +398,8 @@ public final class KeyboardTextsTable {
         /* morekeys_currency_dollar */ "\u00A2,\u00A3,\u20AC,\u00A5,\u20B1",
         // U+00B1: "±" PLUS-MINUS SIGN
         /* morekeys_plus */ "\u00B1",
-        /* morekeys_less_than */ "!fixedColumnOrder!3,!text/keyspec_left_single_angle_quote,!text/keyspec_less_than_equal,!text/keyspec_left_double_angle_quote",
-        /* morekeys_greater_than */ "!fixedColumnOrder!3,!text/keyspec_right_single_angle_quote,!text/keyspec_greater_than_equal,!text/keyspec_right_double_angle_quote",
+        /* morekeys_less_than */ "!fixedColumnOrder!3,\u2039,\u2264,\u00AB",
+        /* morekeys_greater_than */ "!fixedColumnOrder!3,\u203A,\u2265,\u00BB",
         // U+00A1: "¡" INVERTED EXCLAMATION MARK
         /* morekeys_exclamation */ "\u00A1",
         /* morekeys_currency_generic */ "$,\u00A2,\u20AC,\u00A3,\u00A5,\u20B1",
@@ -422,11 +428,11 @@ public final class KeyboardTextsTable {
         // U+207F: "ⁿ" SUPERSCRIPT LATIN SMALL LETTER N
         // U+2205: "∅" EMPTY SET
         /* morekeys_symbols_0 */ "\u207F,\u2205",
-        /* morekeys_am_pm */ "!fixedColumnOrder!2,!hasLabels!,!text/keylabel_time_am,!text/keylabel_time_pm",
+        /* morekeys_am_pm */ "!fixedColumnOrder!2,!hasLabels!,AM,PM",
         /* keyspec_settings */ "!icon/settings_key|!code/key_settings",
         /* keyspec_shortcut */ "!icon/shortcut_key|!code/key_shortcut",
-        /* keyspec_action_next */ "!hasLabels!,!text/label_next_key|!code/key_action_next",
-        /* keyspec_action_previous */ "!hasLabels!,!text/label_previous_key|!code/key_action_previous",
+        /* keyspec_action_next */ "!hasLabels!,!string/label_next_key|!code/key_action_next",
+        /* keyspec_action_previous */ "!hasLabels!,!string/label_previous_key|!code/key_action_previous",
         // Label for "switch to more symbol" modifier key ("= \ <"). Must be short to fit on key!
         /* keylabel_to_more_symbol */ "= \\\\ <",
         // Label for "switch to more symbol" modifier key on tablets.  Must be short to fit on key!
@@ -444,8 +450,8 @@ public final class KeyboardTextsTable {
         /* keyspec_popular_domain */ ".com",
         // popular web domains for the locale - most popular, displayed on the keyboard
         /* morekeys_popular_domain */ "!hasLabels!,.net,.org,.gov,.edu",
-        /* keyspecs_left_parenthesis_more_keys */ "!text/keyspec_less_than,!text/keyspec_left_curly_bracket,!text/keyspec_left_square_bracket",
-        /* keyspecs_right_parenthesis_more_keys */ "!text/keyspec_greater_than,!text/keyspec_right_curly_bracket,!text/keyspec_right_square_bracket",
+        /* keyspecs_left_parenthesis_more_keys */ "<,{,[",
+        /* keyspecs_right_parenthesis_more_keys */ ">,},]",
         // The following characters don't need BIDI mirroring.
         // U+2018: "‘" LEFT SINGLE QUOTATION MARK
         // U+2019: "’" RIGHT SINGLE QUOTATION MARK
@@ -462,10 +468,10 @@ public final class KeyboardTextsTable {
         // The following each quotation mark pair consist of
         // <opening quotation mark>, <closing quotation mark>
         // and is named after (single|double)_<opening quotation mark>_<closing quotation mark>.
-        /* single_laqm_raqm */ "!text/keyspec_left_single_angle_quote,!text/keyspec_right_single_angle_quote",
-        /* single_raqm_laqm */ "!text/keyspec_right_single_angle_quote,!text/keyspec_left_single_angle_quote",
-        /* double_laqm_raqm */ "!text/keyspec_left_double_angle_quote,!text/keyspec_right_double_angle_quote",
-        /* double_raqm_laqm */ "!text/keyspec_right_double_angle_quote,!text/keyspec_left_double_angle_quote",
+        /* single_laqm_raqm */ "\u2039,\u203A",
+        /* single_raqm_laqm */ "\u203A,\u2039",
+        /* double_laqm_raqm */ "\u00AB,\u00BB",
+        /* double_raqm_laqm */ "\u00BB,\u00AB",
         // The following each quotation mark triplet consists of
         // <another quotation mark>, <opening quotation mark>, <closing quotation mark>
         // and is named after (single|double)_<opening quotation mark>_<closing quotation mark>.
@@ -477,9 +483,9 @@ public final class KeyboardTextsTable {
         /* double_9qm_lqm */ "\u201D,\u201E,\u201C",
         /* double_9qm_rqm */ "\u201C,\u201E,\u201D",
         /* double_rqm_9qm */ "\u201C,\u201D,\u201E",
-        /* morekeys_single_quote */ "!fixedColumnOrder!5,!text/single_quotes,!text/single_angle_quotes",
-        /* morekeys_double_quote */ "!fixedColumnOrder!5,!text/double_quotes,!text/double_angle_quotes",
-        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,!text/double_quotes,!text/single_quotes,!text/double_angle_quotes,!text/single_angle_quotes",
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u201A,\u2018,\u2019,\u2039,\u203A",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201E,\u201C,\u201D,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201E,\u201C,\u201D,\u201A,\u2018,\u2019,\u00AB,\u00BB,\u2039,\u203A",
         /* keyspec_emoji_action_key */ "!icon/emoji_action_key|!code/key_emoji",
     };
 
@@ -550,7 +556,11 @@ public final class KeyboardTextsTable {
         // U+062C: "ج" ARABIC LETTER JEEM
         /* keylabel_to_alpha */ "\u0623\u200C\u0628\u200C\u062C",
         /* morekeys_i ~ */
-        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ morekeys_g */
+        /* single_angle_quotes */ "\u2039|\u203A,\u203A|\u2039",
+        /* double_angle_quotes */ "\u00AB|\u00BB,\u00BB|\u00AB",
+        /* morekeys_r ~ */
         null, null, null, null, null, null, null, null, null, null, null, null,
         /* ~ morekeys_cyrillic_soft_sign */
         // U+0661: "١" ARABIC-INDIC DIGIT ONE
@@ -588,15 +598,15 @@ public final class KeyboardTextsTable {
         // U+066B: "٫" ARABIC DECIMAL SEPARATOR
         // U+066C: "٬" ARABIC THOUSANDS SEPARATOR
         /* additional_morekeys_symbols_0 */ "0,\u066B,\u066C",
-        /* morekeys_tablet_period */ "!text/morekeys_arabic_diacritics",
+        /* morekeys_tablet_period */ "!fixedColumnOrder!7, \u0655|\u0655, \u0654|\u0654, \u0652|\u0652, \u064D|\u064D, \u064C|\u064C, \u064B|\u064B, \u0651|\u0651, \u0656|\u0656, \u0670|\u0670, \u0653|\u0653, \u0650|\u0650, \u064F|\u064F, \u064E|\u064E,\u0640\u0640\u0640|\u0640",
         /* morekeys_nordic_row2_11 */ null,
-        /* morekeys_punctuation */ null,
+        /* morekeys_punctuation */ "!autoColumnOrder!8,\\,,?,!,#,)|(,(|),/,;,',@,:,-,\",+,\\%,&",
         // U+061F: "؟" ARABIC QUESTION MARK
         // U+060C: "،" ARABIC COMMA
         // U+061B: "؛" ARABIC SEMICOLON
         /* keyspec_tablet_comma */ "\u060C",
         /* keyspec_period */ null,
-        /* morekeys_period */ "!text/morekeys_arabic_diacritics",
+        /* morekeys_period */ "!fixedColumnOrder!7, \u0655|\u0655, \u0654|\u0654, \u0652|\u0652, \u064D|\u064D, \u064C|\u064C, \u064B|\u064B, \u0651|\u0651, \u0656|\u0656, \u0670|\u0670, \u0653|\u0653, \u0650|\u0650, \u064F|\u064F, \u064E|\u064E,\u0640\u0640\u0640|\u0640",
         /* keyspec_tablet_period ~ */
         null, null, null, null, null, null, null,
         /* ~ morekeys_swiss_row2_11 */
@@ -631,16 +641,18 @@ public final class KeyboardTextsTable {
         // U+00BF: "¿" INVERTED QUESTION MARK
         /* morekeys_question */ "?,\u00BF",
         /* morekeys_h ~ */
-        null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-        /* ~ keyspec_spanish_row2_10 */
+        null, null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ keyspec_south_slavic_row3_8 */
+        /* morekeys_tablet_punctuation */ "!autoColumnOrder!7,\\,,',#,)|(,(|),/,;,@,:,-,\",+,\\%,&",
+        /* keyspec_spanish_row2_10 */ null,
         // U+266A: "♪" EIGHTH NOTE
         /* morekeys_bullet */ "\u266A",
         // The all letters need to be mirrored are found at
         // http://www.unicode.org/Public/6.1.0/ucd/BidiMirroring.txt
         // U+FD3E: "﴾" ORNATE LEFT PARENTHESIS
         // U+FD3F: "﴿" ORNATE RIGHT PARENTHESIS
-        /* morekeys_left_parenthesis */ "!fixedColumnOrder!4,\uFD3E|\uFD3F,!text/keyspecs_left_parenthesis_more_keys",
-        /* morekeys_right_parenthesis */ "!fixedColumnOrder!4,\uFD3F|\uFD3E,!text/keyspecs_right_parenthesis_more_keys",
+        /* morekeys_left_parenthesis */ "!fixedColumnOrder!4,\uFD3E|\uFD3F,<|>,{|},[|]",
+        /* morekeys_right_parenthesis */ "!fixedColumnOrder!4,\uFD3F|\uFD3E,>|<,}|{,]|[",
         // U+0655: "ٕ" ARABIC HAMZA BELOW
         // U+0654: "ٔ" ARABIC HAMZA ABOVE
         // U+0652: "ْ" ARABIC SUKUN
@@ -667,6 +679,28 @@ public final class KeyboardTextsTable {
         /* morekeys_symbols_semicolon */ ";",
         // U+2030: "‰" PER MILLE SIGN
         /* morekeys_symbols_percent */ "\\%,\u2030",
+        /* label_go_key ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null,
+        /* ~ morekeys_plus */
+        /* morekeys_less_than */ "!fixedColumnOrder!3,\u2039|\u203A,\u2264|\u2265,\u00AB|\u00BB",
+        /* morekeys_greater_than */ "!fixedColumnOrder!3,\u203A|\u2039,\u2265|\u2264,\u00BB|\u00AB",
+        /* morekeys_exclamation ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null,
+        /* ~ morekeys_popular_domain */
+        /* keyspecs_left_parenthesis_more_keys */ "<|>,{|},[|]",
+        /* keyspecs_right_parenthesis_more_keys */ ">|<,}|{,]|[",
+        /* single_laqm_raqm */ "\u2039|\u203A,\u203A|\u2039",
+        /* single_raqm_laqm */ "\u203A|\u2039,\u2039|\u203A",
+        /* double_laqm_raqm */ "\u00AB|\u00BB,\u00BB|\u00AB",
+        /* double_raqm_laqm */ "\u00BB|\u00AB,\u00AB|\u00BB",
+        /* single_lqm_rqm ~ */
+        null, null, null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u201A,\u2018,\u2019,\u2039|\u203A,\u203A|\u2039",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201E,\u201C,\u201D,\u00AB|\u00BB,\u00BB|\u00AB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201E,\u201C,\u201D,\u201A,\u2018,\u2019,\u00AB|\u00BB,\u00BB|\u00AB,\u2039|\u203A,\u203A|\u2039",
     };
 
     /* Locale az_AZ: Azerbaijani (Azerbaijan) */
@@ -742,9 +776,9 @@ public final class KeyboardTextsTable {
         /* morekeys_i ~ */
         null, null, null,
         /* ~ morekeys_c */
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         /* morekeys_s */ null,
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
         /* keyspec_currency ~ */
         null, null, null, null, null, null, null, null, null, null, null,
         /* ~ morekeys_k */
@@ -763,6 +797,21 @@ public final class KeyboardTextsTable {
         /* keyspec_east_slavic_row3_5 */ "\u0456",
         // U+044A: "ъ" CYRILLIC SMALL LETTER HARD SIGN
         /* morekeys_cyrillic_soft_sign */ "\u044A",
+        /* keyspec_symbols_1 ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u2039,\u203A",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00AB,\u00BB,\u2039,\u203A",
     };
 
     /* Locale bg: Bulgarian */
@@ -779,7 +828,22 @@ public final class KeyboardTextsTable {
         null, null, null,
         /* ~ morekeys_c */
         // single_quotes of Bulgarian is default single_quotes_right_left.
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
+        /* morekeys_s ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ morekeys_single_quote */
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u201A,\u2018,\u2019,\u00AB,\u00BB,\u2039,\u203A",
     };
 
     /* Locale bn_BD: Bengali (Bangladesh) */
@@ -877,14 +941,19 @@ public final class KeyboardTextsTable {
         /* morekeys_g ~ */
         null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
         null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-        null, null, null, null, null, null, null, null,
-        /* ~ morekeys_nordic_row2_11 */
+        null, null, null, null, null, null,
+        /* ~ additional_morekeys_symbols_0 */
+        /* morekeys_tablet_period */ "!autoColumnOrder!8,\\,,',\u00B7,#,),(,/,;,@,:,-,\",+,\\%,&",
+        /* morekeys_nordic_row2_11 */ null,
         // U+00B7: "·" MIDDLE DOT
         /* morekeys_punctuation */ "!autoColumnOrder!9,\\,,?,!,\u00B7,#,),(,/,;,',@,:,-,\",+,\\%,&",
-        /* keyspec_tablet_comma ~ */
+        /* keyspec_tablet_comma */ null,
+        /* keyspec_period */ null,
+        /* morekeys_period */ "!autoColumnOrder!9,\\,,?,!,\u00B7,#,),(,/,;,',@,:,-,\",+,\\%,&",
+        /* keyspec_tablet_period ~ */
         null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
         null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-        null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null,
         /* ~ keyspec_south_slavic_row3_8 */
         /* morekeys_tablet_punctuation */ "!autoColumnOrder!8,\\,,',\u00B7,#,),(,/,;,@,:,-,\",+,\\%,&",
         // U+00E7: "ç" LATIN SMALL LETTER C WITH CEDILLA
@@ -943,12 +1012,12 @@ public final class KeyboardTextsTable {
         // U+00E7: "ç" LATIN SMALL LETTER C WITH CEDILLA
         // U+0107: "ć" LATIN SMALL LETTER C WITH ACUTE
         /* morekeys_c */ "\u010D,\u00E7,\u0107",
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         // U+0161: "š" LATIN SMALL LETTER S WITH CARON
         // U+00DF: "ß" LATIN SMALL LETTER SHARP S
         // U+015B: "ś" LATIN SMALL LETTER S WITH ACUTE
         /* morekeys_s */ "\u0161,\u00DF,\u015B",
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
         /* keyspec_currency */ null,
         // U+00FD: "ý" LATIN SMALL LETTER Y WITH ACUTE
         // U+00FF: "ÿ" LATIN SMALL LETTER Y WITH DIAERESIS
@@ -963,10 +1032,26 @@ public final class KeyboardTextsTable {
         /* morekeys_t */ "\u0165",
         /* morekeys_l */ null,
         /* morekeys_g */ null,
-        /* single_angle_quotes */ "!text/single_raqm_laqm",
-        /* double_angle_quotes */ "!text/double_raqm_laqm",
+        /* single_angle_quotes */ "\u203A,\u2039",
+        /* double_angle_quotes */ "\u00BB,\u00AB",
         // U+0159: "ř" LATIN SMALL LETTER R WITH CARON
         /* morekeys_r */ "\u0159",
+        /* morekeys_k ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u203A,\u2039",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00BB,\u00AB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00BB,\u00AB,\u203A,\u2039",
     };
 
     /* Locale da: Danish */
@@ -1006,12 +1091,12 @@ public final class KeyboardTextsTable {
         // U+0144: "ń" LATIN SMALL LETTER N WITH ACUTE
         /* morekeys_n */ "\u00F1,\u0144",
         /* morekeys_c */ null,
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         // U+00DF: "ß" LATIN SMALL LETTER SHARP S
         // U+015B: "ś" LATIN SMALL LETTER S WITH ACUTE
         // U+0161: "š" LATIN SMALL LETTER S WITH CARON
         /* morekeys_s */ "\u00DF,\u015B,\u0161",
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
         /* keyspec_currency */ null,
         // U+00FD: "ý" LATIN SMALL LETTER Y WITH ACUTE
         // U+00FF: "ÿ" LATIN SMALL LETTER Y WITH DIAERESIS
@@ -1023,8 +1108,8 @@ public final class KeyboardTextsTable {
         // U+0142: "ł" LATIN SMALL LETTER L WITH STROKE
         /* morekeys_l */ "\u0142",
         /* morekeys_g */ null,
-        /* single_angle_quotes */ "!text/single_raqm_laqm",
-        /* double_angle_quotes */ "!text/double_raqm_laqm",
+        /* single_angle_quotes */ "\u203A,\u2039",
+        /* double_angle_quotes */ "\u00BB,\u00AB",
         /* morekeys_r ~ */
         null, null, null,
         /* ~ morekeys_cyrillic_ie */
@@ -1042,6 +1127,19 @@ public final class KeyboardTextsTable {
         /* ~ morekeys_tablet_period */
         // U+00F6: "ö" LATIN SMALL LETTER O WITH DIAERESIS
         /* morekeys_nordic_row2_11 */ "\u00F6",
+        /* morekeys_punctuation ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u203A,\u2039",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00BB,\u00AB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00BB,\u00AB,\u203A,\u2039",
     };
 
     /* Locale de: German */
@@ -1082,17 +1180,17 @@ public final class KeyboardTextsTable {
         // U+0144: "ń" LATIN SMALL LETTER N WITH ACUTE
         /* morekeys_n */ "\u00F1,\u0144",
         /* morekeys_c */ null,
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         // U+00DF: "ß" LATIN SMALL LETTER SHARP S
         // U+015B: "ś" LATIN SMALL LETTER S WITH ACUTE
         // U+0161: "š" LATIN SMALL LETTER S WITH CARON
         /* morekeys_s */ "\u00DF,\u015B,\u0161",
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
         /* keyspec_currency ~ */
         null, null, null, null, null, null, null,
         /* ~ morekeys_g */
-        /* single_angle_quotes */ "!text/single_raqm_laqm",
-        /* double_angle_quotes */ "!text/double_raqm_laqm",
+        /* single_angle_quotes */ "\u203A,\u2039",
+        /* double_angle_quotes */ "\u00BB,\u00AB",
         /* morekeys_r ~ */
         null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
         null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
@@ -1110,6 +1208,19 @@ public final class KeyboardTextsTable {
         /* morekeys_swiss_row2_10 */ "\u00E9",
         // U+00E0: "à" LATIN SMALL LETTER A WITH GRAVE
         /* morekeys_swiss_row2_11 */ "\u00E0",
+        /* morekeys_star ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u203A,\u2039",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00BB,\u00AB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00BB,\u00AB,\u203A,\u2039",
     };
 
     /* Locale el: Greek */
@@ -1383,6 +1494,9 @@ public final class KeyboardTextsTable {
         // U+00A1: "¡" INVERTED EXCLAMATION MARK
         // U+00BF: "¿" INVERTED QUESTION MARK
         /* morekeys_punctuation */ "!autoColumnOrder!9,\\,,?,!,#,),(,/,;,\u00A1,',@,:,-,\",+,\\%,&,\u00BF",
+        /* keyspec_tablet_comma */ null,
+        /* keyspec_period */ null,
+        /* morekeys_period */ "!autoColumnOrder!9,\\,,?,!,#,),(,/,;,\u00A1,',@,:,-,\",+,\\%,&,\u00BF",
     };
 
     /* Locale et_EE: Estonian (Estonia) */
@@ -1441,13 +1555,13 @@ public final class KeyboardTextsTable {
         // U+00E7: "ç" LATIN SMALL LETTER C WITH CEDILLA
         // U+0107: "ć" LATIN SMALL LETTER C WITH ACUTE
         /* morekeys_c */ "\u010D,\u00E7,\u0107",
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         // U+0161: "š" LATIN SMALL LETTER S WITH CARON
         // U+00DF: "ß" LATIN SMALL LETTER SHARP S
         // U+015B: "ś" LATIN SMALL LETTER S WITH ACUTE
         // U+015F: "ş" LATIN SMALL LETTER S WITH CEDILLA
         /* morekeys_s */ "\u0161,\u00DF,\u015B,\u015F",
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
         /* keyspec_currency */ null,
         // U+00FD: "ý" LATIN SMALL LETTER Y WITH ACUTE
         // U+00FF: "ÿ" LATIN SMALL LETTER Y WITH DIAERESIS
@@ -1486,6 +1600,21 @@ public final class KeyboardTextsTable {
         /* keyspec_nordic_row2_11 */ "\u00E4",
         // U+00F5: "õ" LATIN SMALL LETTER O WITH TILDE
         /* morekeys_nordic_row2_10 */ "\u00F5",
+        /* keyspec_east_slavic_row1_9 ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u2039,\u203A",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00AB,\u00BB,\u2039,\u203A",
     };
 
     /* Locale eu_ES: Basque (Spain) */
@@ -1559,8 +1688,12 @@ public final class KeyboardTextsTable {
         // U+FDFC: "﷼" RIAL SIGN
         /* keyspec_currency */ "\uFDFC",
         /* morekeys_y ~ */
-        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-        null, null, null, null, null,
+        null, null, null, null, null, null,
+        /* ~ morekeys_g */
+        /* single_angle_quotes */ "\u2039|\u203A,\u203A|\u2039",
+        /* double_angle_quotes */ "\u00AB|\u00BB,\u00BB|\u00AB",
+        /* morekeys_r ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null,
         /* ~ morekeys_cyrillic_soft_sign */
         // U+06F1: "۱" EXTENDED ARABIC-INDIC DIGIT ONE
         /* keyspec_symbols_1 */ "\u06F1",
@@ -1597,9 +1730,9 @@ public final class KeyboardTextsTable {
         // U+066B: "٫" ARABIC DECIMAL SEPARATOR
         // U+066C: "٬" ARABIC THOUSANDS SEPARATOR
         /* additional_morekeys_symbols_0 */ "0,\u066B,\u066C",
-        /* morekeys_tablet_period */ "!text/morekeys_arabic_diacritics",
+        /* morekeys_tablet_period */ "!fixedColumnOrder!7, \u0655|\u0655, \u0652|\u0652, \u0651|\u0651, \u064C|\u064C, \u064D|\u064D, \u064B|\u064B, \u0654|\u0654, \u0656|\u0656, \u0670|\u0670, \u0653|\u0653, \u064F|\u064F, \u0650|\u0650, \u064E|\u064E,\u0640\u0640\u0640|\u0640",
         /* morekeys_nordic_row2_11 */ null,
-        /* morekeys_punctuation */ null,
+        /* morekeys_punctuation */ "!autoColumnOrder!8,\\,,?,!,#,)|(,(|),/,;,',@,:,-,\",+,\\%,&",
         // U+060C: "،" ARABIC COMMA
         // U+061B: "؛" ARABIC SEMICOLON
         // U+061F: "؟" ARABIC QUESTION MARK
@@ -1607,7 +1740,7 @@ public final class KeyboardTextsTable {
         // U+00BB: "»" RIGHT-POINTING DOUBLE ANGLE QUOTATION MARK
         /* keyspec_tablet_comma */ "\u060C",
         /* keyspec_period */ null,
-        /* morekeys_period */ "!text/morekeys_arabic_diacritics",
+        /* morekeys_period */ "!fixedColumnOrder!7, \u0655|\u0655, \u0652|\u0652, \u0651|\u0651, \u064C|\u064C, \u064D|\u064D, \u064B|\u064B, \u0654|\u0654, \u0656|\u0656, \u0670|\u0670, \u0653|\u0653, \u064F|\u064F, \u0650|\u0650, \u064E|\u064E,\u0640\u0640\u0640|\u0640",
         /* keyspec_tablet_period ~ */
         null, null, null, null, null, null, null,
         /* ~ morekeys_swiss_row2_11 */
@@ -1630,22 +1763,24 @@ public final class KeyboardTextsTable {
         /* keyspec_right_single_angle_quote */ "\u203A|\u2039",
         // U+060C: "،" ARABIC COMMA
         /* keyspec_comma */ "\u060C",
-        /* morekeys_tablet_comma */ "!fixedColumnOrder!4,:,!,\u061F,\u061B,-,!text/keyspec_left_double_angle_quote,!text/keyspec_right_double_angle_quote",
+        /* morekeys_tablet_comma */ "!fixedColumnOrder!4,:,!,\u061F,\u061B,-,\u00AB|\u00BB,\u00BB|\u00AB",
         // U+064B: "ً" ARABIC FATHATAN
         /* keyhintlabel_period */ "\u064B",
         // U+00BF: "¿" INVERTED QUESTION MARK
         /* morekeys_question */ "?,\u00BF",
         /* morekeys_h ~ */
-        null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-        /* ~ keyspec_spanish_row2_10 */
+        null, null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ keyspec_south_slavic_row3_8 */
+        /* morekeys_tablet_punctuation */ "!autoColumnOrder!7,\\,,',#,)|(,(|),/,;,@,:,-,\",+,\\%,&",
+        /* keyspec_spanish_row2_10 */ null,
         // U+266A: "♪" EIGHTH NOTE
         /* morekeys_bullet */ "\u266A",
         // The all letters need to be mirrored are found at
         // http://www.unicode.org/Public/6.1.0/ucd/BidiMirroring.txt
         // U+FD3E: "﴾" ORNATE LEFT PARENTHESIS
         // U+FD3F: "﴿" ORNATE RIGHT PARENTHESIS
-        /* morekeys_left_parenthesis */ "!fixedColumnOrder!4,\uFD3E|\uFD3F,!text/keyspecs_left_parenthesis_more_keys",
-        /* morekeys_right_parenthesis */ "!fixedColumnOrder!4,\uFD3F|\uFD3E,!text/keyspecs_right_parenthesis_more_keys",
+        /* morekeys_left_parenthesis */ "!fixedColumnOrder!4,\uFD3E|\uFD3F,<|>,{|},[|]",
+        /* morekeys_right_parenthesis */ "!fixedColumnOrder!4,\uFD3F|\uFD3E,>|<,}|{,]|[",
         // U+0655: "ٕ" ARABIC HAMZA BELOW
         // U+0652: "ْ" ARABIC SUKUN
         // U+0651: "ّ" ARABIC SHADDA
@@ -1682,8 +1817,24 @@ public final class KeyboardTextsTable {
         // U+00BB: "»" RIGHT-POINTING DOUBLE ANGLE QUOTATION MARK
         // U+2039: "‹" SINGLE LEFT-POINTING ANGLE QUOTATION MARK
         // U+203A: "›" SINGLE RIGHT-POINTING ANGLE QUOTATION MARK
-        /* morekeys_less_than */ "!fixedColumnOrder!3,!text/keyspec_left_single_angle_quote,!text/keyspec_less_than_equal,!text/keyspec_less_than",
-        /* morekeys_greater_than */ "!fixedColumnOrder!3,!text/keyspec_right_single_angle_quote,!text/keyspec_greater_than_equal,!text/keyspec_greater_than",
+        /* morekeys_less_than */ "!fixedColumnOrder!3,\u2039|\u203A,\u2264|\u2265,<|>",
+        /* morekeys_greater_than */ "!fixedColumnOrder!3,\u203A|\u2039,\u2265|\u2264,>|<",
+        /* morekeys_exclamation ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null,
+        /* ~ morekeys_popular_domain */
+        /* keyspecs_left_parenthesis_more_keys */ "<|>,{|},[|]",
+        /* keyspecs_right_parenthesis_more_keys */ ">|<,}|{,]|[",
+        /* single_laqm_raqm */ "\u2039|\u203A,\u203A|\u2039",
+        /* single_raqm_laqm */ "\u203A|\u2039,\u2039|\u203A",
+        /* double_laqm_raqm */ "\u00AB|\u00BB,\u00BB|\u00AB",
+        /* double_raqm_laqm */ "\u00BB|\u00AB,\u00AB|\u00BB",
+        /* single_lqm_rqm ~ */
+        null, null, null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u201A,\u2018,\u2019,\u2039|\u203A,\u203A|\u2039",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201E,\u201C,\u201D,\u00AB|\u00BB,\u00BB|\u00AB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201E,\u201C,\u201D,\u201A,\u2018,\u2019,\u00AB|\u00BB,\u00BB|\u00AB,\u2039|\u203A,\u203A|\u2039",
     };
 
     /* Locale fi: Finnish */
@@ -1955,6 +2106,12 @@ public final class KeyboardTextsTable {
         /* label_previous_key */ "Prev",
         /* label_pause_key */ "Pause",
         /* label_wait_key */ "Wait",
+        /* morekeys_v ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ keyspec_shortcut */
+        /* keyspec_action_next */ "!hasLabels!,Next|!code/key_action_next",
+        /* keyspec_action_previous */ "!hasLabels!,Prev|!code/key_action_previous",
     };
 
     /* Locale hr: Croatian */
@@ -1969,12 +2126,12 @@ public final class KeyboardTextsTable {
         // U+0107: "ć" LATIN SMALL LETTER C WITH ACUTE
         // U+00E7: "ç" LATIN SMALL LETTER C WITH CEDILLA
         /* morekeys_c */ "\u010D,\u0107,\u00E7",
-        /* double_quotes */ "!text/double_9qm_rqm",
+        /* double_quotes */ "\u201C,\u201E,\u201D",
         // U+0161: "š" LATIN SMALL LETTER S WITH CARON
         // U+015B: "ś" LATIN SMALL LETTER S WITH ACUTE
         // U+00DF: "ß" LATIN SMALL LETTER SHARP S
         /* morekeys_s */ "\u0161,\u015B,\u00DF",
-        /* single_quotes */ "!text/single_9qm_rqm",
+        /* single_quotes */ "\u2018,\u201A,\u2019",
         /* keyspec_currency */ null,
         /* morekeys_y */ null,
         // U+017E: "ž" LATIN SMALL LETTER Z WITH CARON
@@ -1986,8 +2143,24 @@ public final class KeyboardTextsTable {
         /* morekeys_t ~ */
         null, null, null,
         /* ~ morekeys_g */
-        /* single_angle_quotes */ "!text/single_raqm_laqm",
-        /* double_angle_quotes */ "!text/double_raqm_laqm",
+        /* single_angle_quotes */ "\u203A,\u2039",
+        /* double_angle_quotes */ "\u00BB,\u00AB",
+        /* morekeys_r ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2018,\u201A,\u2019,\u203A,\u2039",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201C,\u201E,\u201D,\u00BB,\u00AB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201C,\u201E,\u201D,\u2018,\u201A,\u2019,\u00BB,\u00AB,\u203A,\u2039",
     };
 
     /* Locale hu: Hungarian */
@@ -2036,14 +2209,30 @@ public final class KeyboardTextsTable {
         /* morekeys_i */ "\u00ED,\u00EE,\u00EF,\u00EC,\u012F,\u012B",
         /* morekeys_n */ null,
         /* morekeys_c */ null,
-        /* double_quotes */ "!text/double_9qm_rqm",
+        /* double_quotes */ "\u201C,\u201E,\u201D",
         /* morekeys_s */ null,
-        /* single_quotes */ "!text/single_9qm_rqm",
+        /* single_quotes */ "\u2018,\u201A,\u2019",
         /* keyspec_currency ~ */
         null, null, null, null, null, null, null,
         /* ~ morekeys_g */
-        /* single_angle_quotes */ "!text/single_raqm_laqm",
-        /* double_angle_quotes */ "!text/double_raqm_laqm",
+        /* single_angle_quotes */ "\u203A,\u2039",
+        /* double_angle_quotes */ "\u00BB,\u00AB",
+        /* morekeys_r ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2018,\u201A,\u2019,\u203A,\u2039",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201C,\u201E,\u201D,\u00BB,\u00AB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201C,\u201E,\u201D,\u2018,\u201A,\u2019,\u00BB,\u00AB,\u203A,\u2039",
     };
 
     /* Locale hy_AM: Armenian (Armenia) */
@@ -2062,7 +2251,7 @@ public final class KeyboardTextsTable {
         null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
         null, null, null,
         /* ~ additional_morekeys_symbols_0 */
-        /* morekeys_tablet_period */ "!text/morekeys_punctuation",
+        /* morekeys_tablet_period */ "!autoColumnOrder!8,\\,,\u055E,\u055C,.,\u055A,\u0559,?,!,\u055D,\u055B,\u058A,\u00BB,\u00AB,\u055F,;,:",
         /* morekeys_nordic_row2_11 */ null,
         // U+055E: "՞" ARMENIAN QUESTION MARK
         // U+055C: "՜" ARMENIAN EXCLAMATION MARK
@@ -2078,7 +2267,7 @@ public final class KeyboardTextsTable {
         /* keyspec_tablet_comma */ "\u055D",
         // U+0589: "։" ARMENIAN FULL STOP
         /* keyspec_period */ "\u0589",
-        /* morekeys_period */ null,
+        /* morekeys_period */ "!autoColumnOrder!8,\\,,\u055E,\u055C,.,\u055A,\u0559,?,!,\u055D,\u055B,\u058A,\u00BB,\u00AB,\u055F,;,:",
         /* keyspec_tablet_period */ "\u0589",
         /* keyspec_swiss_row1_11 ~ */
         null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
@@ -2150,9 +2339,9 @@ public final class KeyboardTextsTable {
         /* morekeys_i */ "\u00ED,\u00EF,\u00EE,\u00EC,\u012F,\u012B",
         /* morekeys_n */ null,
         /* morekeys_c */ null,
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         /* morekeys_s */ null,
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
         /* keyspec_currency */ null,
         // U+00FD: "ý" LATIN SMALL LETTER Y WITH ACUTE
         // U+00FF: "ÿ" LATIN SMALL LETTER Y WITH DIAERESIS
@@ -2162,6 +2351,22 @@ public final class KeyboardTextsTable {
         /* morekeys_d */ "\u00F0",
         // U+00FE: "þ" LATIN SMALL LETTER THORN
         /* morekeys_t */ "\u00FE",
+        /* morekeys_l ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u2039,\u203A",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00AB,\u00BB,\u2039,\u203A",
     };
 
     /* Locale it: Italian */
@@ -2241,16 +2446,29 @@ public final class KeyboardTextsTable {
         /* morekeys_i ~ */
         null, null, null,
         /* ~ morekeys_c */
-        /* double_quotes */ "!text/double_rqm_9qm",
+        /* double_quotes */ "\u201C,\u201D,\u201E",
         /* morekeys_s */ null,
-        /* single_quotes */ "!text/single_rqm_9qm",
+        /* single_quotes */ "\u2018,\u2019,\u201A",
         // U+20AA: "₪" NEW SHEQEL SIGN
         /* keyspec_currency */ "\u20AA",
         /* morekeys_y ~ */
+        null, null, null, null, null, null,
+        /* ~ morekeys_g */
+        /* single_angle_quotes */ "\u2039|\u203A,\u203A|\u2039",
+        /* double_angle_quotes */ "\u00AB|\u00BB,\u00BB|\u00AB",
+        /* morekeys_r ~ */
         null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
         null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-        null, null, null, null, null, null, null, null, null,
+        null, null, null,
+        /* ~ additional_morekeys_symbols_0 */
+        /* morekeys_tablet_period */ "!autoColumnOrder!7,\\,,',#,)|(,(|),/,;,@,:,-,\",+,\\%,&",
+        /* morekeys_nordic_row2_11 */ null,
+        /* morekeys_punctuation */ "!autoColumnOrder!8,\\,,?,!,#,)|(,(|),/,;,',@,:,-,\",+,\\%,&",
+        /* keyspec_tablet_comma */ null,
+        /* keyspec_period */ null,
+        /* morekeys_period */ "!autoColumnOrder!8,\\,,?,!,#,)|(,(|),/,;,',@,:,-,\",+,\\%,&",
+        /* keyspec_tablet_period ~ */
+        null, null, null, null, null, null, null,
         /* ~ morekeys_swiss_row2_11 */
         // U+2605: "★" BLACK STAR
         /* morekeys_star */ "\u2605",
@@ -2278,13 +2496,38 @@ public final class KeyboardTextsTable {
         /* keyspec_right_single_angle_quote */ "\u203A|\u2039",
         /* keyspec_comma ~ */
         null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null,
+        /* ~ keyspec_south_slavic_row3_8 */
+        /* morekeys_tablet_punctuation */ "!autoColumnOrder!7,\\,,',#,)|(,(|),/,;,@,:,-,\",+,\\%,&",
+        /* keyspec_spanish_row2_10 */ null,
+        /* morekeys_bullet */ null,
+        /* morekeys_left_parenthesis */ "!fixedColumnOrder!3,<|>,{|},[|]",
+        /* morekeys_right_parenthesis */ "!fixedColumnOrder!3,>|<,}|{,]|[",
+        /* morekeys_arabic_diacritics ~ */
         null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-        null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null,
         /* ~ morekeys_currency_dollar */
         // U+00B1: "±" PLUS-MINUS SIGN
         // U+FB29: "﬩" HEBREW LETTER ALTERNATIVE PLUS SIGN
         /* morekeys_plus */ "\u00B1,\uFB29",
+        /* morekeys_less_than */ "!fixedColumnOrder!3,\u2039|\u203A,\u2264|\u2265,\u00AB|\u00BB",
+        /* morekeys_greater_than */ "!fixedColumnOrder!3,\u203A|\u2039,\u2265|\u2264,\u00BB|\u00AB",
+        /* morekeys_exclamation ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null,
+        /* ~ morekeys_popular_domain */
+        /* keyspecs_left_parenthesis_more_keys */ "<|>,{|},[|]",
+        /* keyspecs_right_parenthesis_more_keys */ ">|<,}|{,]|[",
+        /* single_laqm_raqm */ "\u2039|\u203A,\u203A|\u2039",
+        /* single_raqm_laqm */ "\u203A|\u2039,\u2039|\u203A",
+        /* double_laqm_raqm */ "\u00AB|\u00BB,\u00BB|\u00AB",
+        /* double_raqm_laqm */ "\u00BB|\u00AB,\u00AB|\u00BB",
+        /* single_lqm_rqm ~ */
+        null, null, null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2018,\u2019,\u201A,\u2039|\u203A,\u203A|\u2039",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201C,\u201D,\u201E,\u00AB|\u00BB,\u00BB|\u00AB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201C,\u201D,\u201E,\u2018,\u2019,\u201A,\u00AB|\u00BB,\u00BB|\u00AB,\u2039|\u203A,\u203A|\u2039",
     };
 
     /* Locale ka_GE: Georgian (Georgia) */
@@ -2300,9 +2543,25 @@ public final class KeyboardTextsTable {
         /* morekeys_i ~ */
         null, null, null,
         /* ~ morekeys_c */
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         /* morekeys_s */ null,
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
+        /* keyspec_currency ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u2039,\u203A",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00AB,\u00BB,\u2039,\u203A",
     };
 
     /* Locale kk: Kazakh */
@@ -2524,13 +2783,13 @@ public final class KeyboardTextsTable {
         // U+00E7: "ç" LATIN SMALL LETTER C WITH CEDILLA
         // U+0107: "ć" LATIN SMALL LETTER C WITH ACUTE
         /* morekeys_c */ "\u010D,\u00E7,\u0107",
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         // U+0161: "š" LATIN SMALL LETTER S WITH CARON
         // U+00DF: "ß" LATIN SMALL LETTER SHARP S
         // U+015B: "ś" LATIN SMALL LETTER S WITH ACUTE
         // U+015F: "ş" LATIN SMALL LETTER S WITH CEDILLA
         /* morekeys_s */ "\u0161,\u00DF,\u015B,\u015F",
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
         /* keyspec_currency */ null,
         // U+00FD: "ý" LATIN SMALL LETTER Y WITH ACUTE
         // U+00FF: "ÿ" LATIN SMALL LETTER Y WITH DIAERESIS
@@ -2560,6 +2819,21 @@ public final class KeyboardTextsTable {
         /* morekeys_r */ "\u0157,\u0159,\u0155",
         // U+0137: "ķ" LATIN SMALL LETTER K WITH CEDILLA
         /* morekeys_k */ "\u0137",
+        /* morekeys_cyrillic_ie ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u2039,\u203A",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00AB,\u00BB,\u2039,\u203A",
     };
 
     /* Locale lv: Latvian */
@@ -2618,13 +2892,13 @@ public final class KeyboardTextsTable {
         // U+00E7: "ç" LATIN SMALL LETTER C WITH CEDILLA
         // U+0107: "ć" LATIN SMALL LETTER C WITH ACUTE
         /* morekeys_c */ "\u010D,\u00E7,\u0107",
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         // U+0161: "š" LATIN SMALL LETTER S WITH CARON
         // U+00DF: "ß" LATIN SMALL LETTER SHARP S
         // U+015B: "ś" LATIN SMALL LETTER S WITH ACUTE
         // U+015F: "ş" LATIN SMALL LETTER S WITH CEDILLA
         /* morekeys_s */ "\u0161,\u00DF,\u015B,\u015F",
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
         /* keyspec_currency */ null,
         // U+00FD: "ý" LATIN SMALL LETTER Y WITH ACUTE
         // U+00FF: "ÿ" LATIN SMALL LETTER Y WITH DIAERESIS
@@ -2654,6 +2928,21 @@ public final class KeyboardTextsTable {
         /* morekeys_r */ "\u0157,\u0159,\u0155",
         // U+0137: "ķ" LATIN SMALL LETTER K WITH CEDILLA
         /* morekeys_k */ "\u0137",
+        /* morekeys_cyrillic_ie ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u2039,\u203A",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00AB,\u00BB,\u2039,\u203A",
     };
 
     /* Locale mk: Macedonian */
@@ -2669,9 +2958,9 @@ public final class KeyboardTextsTable {
         /* morekeys_i ~ */
         null, null, null,
         /* ~ morekeys_c */
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         /* morekeys_s */ null,
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
         /* keyspec_currency ~ */
         null, null, null, null, null, null, null, null, null, null, null,
         /* ~ morekeys_k */
@@ -2694,6 +2983,16 @@ public final class KeyboardTextsTable {
         /* keyspec_south_slavic_row3_1 */ "\u0437",
         // U+0453: "ѓ" CYRILLIC SMALL LETTER GJE
         /* keyspec_south_slavic_row3_8 */ "\u0453",
+        /* morekeys_tablet_punctuation ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u2039,\u203A",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00AB,\u00BB,\u2039,\u203A",
     };
 
     /* Locale ml_IN: Malayalam (India) */
@@ -2818,9 +3117,9 @@ public final class KeyboardTextsTable {
         /* keylabel_to_alpha ~ */
         null, null, null, null,
         /* ~ morekeys_c */
-        /* double_quotes */ "!text/double_9qm_rqm",
+        /* double_quotes */ "\u201C,\u201E,\u201D",
         /* morekeys_s */ null,
-        /* single_quotes */ "!text/single_9qm_rqm",
+        /* single_quotes */ "\u2018,\u201A,\u2019",
         /* keyspec_currency ~ */
         null, null, null, null, null, null, null, null, null, null, null, null,
         /* ~ morekeys_cyrillic_ie */
@@ -2838,6 +3137,19 @@ public final class KeyboardTextsTable {
         /* ~ morekeys_tablet_period */
         // U+00E4: "ä" LATIN SMALL LETTER A WITH DIAERESIS
         /* morekeys_nordic_row2_11 */ "\u00E4",
+        /* morekeys_punctuation ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2018,\u201A,\u2019,\u2039,\u203A",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201C,\u201E,\u201D,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201C,\u201E,\u201D,\u2018,\u201A,\u2019,\u00AB,\u00BB,\u2039,\u203A",
     };
 
     /* Locale ne_NP: Nepali (Nepal) */
@@ -2948,12 +3260,28 @@ public final class KeyboardTextsTable {
         // U+0144: "ń" LATIN SMALL LETTER N WITH ACUTE
         /* morekeys_n */ "\u00F1,\u0144",
         /* morekeys_c */ null,
-        /* double_quotes */ "!text/double_9qm_rqm",
+        /* double_quotes */ "\u201C,\u201E,\u201D",
         /* morekeys_s */ null,
-        /* single_quotes */ "!text/single_9qm_rqm",
+        /* single_quotes */ "\u2018,\u201A,\u2019",
         /* keyspec_currency */ null,
         // U+0133: "ĳ" LATIN SMALL LIGATURE IJ
         /* morekeys_y */ "\u0133",
+        /* morekeys_z ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2018,\u201A,\u2019,\u2039,\u203A",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201C,\u201E,\u201D,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201C,\u201E,\u201D,\u2018,\u201A,\u2019,\u00AB,\u00BB,\u2039,\u203A",
     };
 
     /* Locale pl: Polish */
@@ -2995,12 +3323,12 @@ public final class KeyboardTextsTable {
         // U+00E7: "ç" LATIN SMALL LETTER C WITH CEDILLA
         // U+010D: "č" LATIN SMALL LETTER C WITH CARON
         /* morekeys_c */ "\u0107,\u00E7,\u010D",
-        /* double_quotes */ "!text/double_9qm_rqm",
+        /* double_quotes */ "\u201C,\u201E,\u201D",
         // U+015B: "ś" LATIN SMALL LETTER S WITH ACUTE
         // U+00DF: "ß" LATIN SMALL LETTER SHARP S
         // U+0161: "š" LATIN SMALL LETTER S WITH CARON
         /* morekeys_s */ "\u015B,\u00DF,\u0161",
-        /* single_quotes */ "!text/single_9qm_rqm",
+        /* single_quotes */ "\u2018,\u201A,\u2019",
         /* keyspec_currency */ null,
         /* morekeys_y */ null,
         // U+017C: "ż" LATIN SMALL LETTER Z WITH DOT ABOVE
@@ -3011,6 +3339,22 @@ public final class KeyboardTextsTable {
         /* morekeys_t */ null,
         // U+0142: "ł" LATIN SMALL LETTER L WITH STROKE
         /* morekeys_l */ "\u0142",
+        /* morekeys_g ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2018,\u201A,\u2019,\u2039,\u203A",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201C,\u201E,\u201D,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201C,\u201E,\u201D,\u2018,\u201A,\u2019,\u00AB,\u00BB,\u2039,\u203A",
     };
 
     /* Locale pt: Portuguese */
@@ -3100,18 +3444,34 @@ public final class KeyboardTextsTable {
         /* morekeys_i */ "\u00EE,\u00EF,\u00EC,\u00ED,\u012F,\u012B",
         /* morekeys_n */ null,
         /* morekeys_c */ null,
-        /* double_quotes */ "!text/double_9qm_rqm",
+        /* double_quotes */ "\u201C,\u201E,\u201D",
         // U+0219: "ș" LATIN SMALL LETTER S WITH COMMA BELOW
         // U+00DF: "ß" LATIN SMALL LETTER SHARP S
         // U+015B: "ś" LATIN SMALL LETTER S WITH ACUTE
         // U+0161: "š" LATIN SMALL LETTER S WITH CARON
         /* morekeys_s */ "\u0219,\u00DF,\u015B,\u0161",
-        /* single_quotes */ "!text/single_9qm_rqm",
+        /* single_quotes */ "\u2018,\u201A,\u2019",
         /* keyspec_currency ~ */
         null, null, null, null,
         /* ~ morekeys_d */
         // U+021B: "ț" LATIN SMALL LETTER T WITH COMMA BELOW
         /* morekeys_t */ "\u021B",
+        /* morekeys_l ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2018,\u201A,\u2019,\u2039,\u203A",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201C,\u201E,\u201D,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201C,\u201E,\u201D,\u2018,\u201A,\u2019,\u00AB,\u00BB,\u2039,\u203A",
     };
 
     /* Locale ru: Russian */
@@ -3127,9 +3487,9 @@ public final class KeyboardTextsTable {
         /* morekeys_i ~ */
         null, null, null,
         /* ~ morekeys_c */
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         /* morekeys_s */ null,
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
         /* keyspec_currency ~ */
         null, null, null, null, null, null, null, null, null, null, null,
         /* ~ morekeys_k */
@@ -3148,6 +3508,21 @@ public final class KeyboardTextsTable {
         /* keyspec_east_slavic_row3_5 */ "\u0438",
         // U+044A: "ъ" CYRILLIC SMALL LETTER HARD SIGN
         /* morekeys_cyrillic_soft_sign */ "\u044A",
+        /* keyspec_symbols_1 ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u2039,\u203A",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00AB,\u00BB,\u2039,\u203A",
     };
 
     /* Locale si_LK: Sinhalese (Sri Lanka) */
@@ -3223,13 +3598,13 @@ public final class KeyboardTextsTable {
         // U+00E7: "ç" LATIN SMALL LETTER C WITH CEDILLA
         // U+0107: "ć" LATIN SMALL LETTER C WITH ACUTE
         /* morekeys_c */ "\u010D,\u00E7,\u0107",
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         // U+0161: "š" LATIN SMALL LETTER S WITH CARON
         // U+00DF: "ß" LATIN SMALL LETTER SHARP S
         // U+015B: "ś" LATIN SMALL LETTER S WITH ACUTE
         // U+015F: "ş" LATIN SMALL LETTER S WITH CEDILLA
         /* morekeys_s */ "\u0161,\u00DF,\u015B,\u015F",
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
         /* keyspec_currency */ null,
         // U+00FD: "ý" LATIN SMALL LETTER Y WITH ACUTE
         // U+00FF: "ÿ" LATIN SMALL LETTER Y WITH DIAERESIS
@@ -3251,14 +3626,29 @@ public final class KeyboardTextsTable {
         // U+0123: "ģ" LATIN SMALL LETTER G WITH CEDILLA
         // U+011F: "ğ" LATIN SMALL LETTER G WITH BREVE
         /* morekeys_g */ "\u0123,\u011F",
-        /* single_angle_quotes */ "!text/single_raqm_laqm",
-        /* double_angle_quotes */ "!text/double_raqm_laqm",
+        /* single_angle_quotes */ "\u203A,\u2039",
+        /* double_angle_quotes */ "\u00BB,\u00AB",
         // U+0155: "ŕ" LATIN SMALL LETTER R WITH ACUTE
         // U+0159: "ř" LATIN SMALL LETTER R WITH CARON
         // U+0157: "ŗ" LATIN SMALL LETTER R WITH CEDILLA
         /* morekeys_r */ "\u0155,\u0159,\u0157",
         // U+0137: "ķ" LATIN SMALL LETTER K WITH CEDILLA
         /* morekeys_k */ "\u0137",
+        /* morekeys_cyrillic_ie ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u203A,\u2039",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00BB,\u00AB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00BB,\u00AB,\u203A,\u2039",
     };
 
     /* Locale sl: Slovenian */
@@ -3269,10 +3659,10 @@ public final class KeyboardTextsTable {
         // U+010D: "č" LATIN SMALL LETTER C WITH CARON
         // U+0107: "ć" LATIN SMALL LETTER C WITH ACUTE
         /* morekeys_c */ "\u010D,\u0107",
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         // U+0161: "š" LATIN SMALL LETTER S WITH CARON
         /* morekeys_s */ "\u0161",
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
         /* keyspec_currency */ null,
         /* morekeys_y */ null,
         // U+017E: "ž" LATIN SMALL LETTER Z WITH CARON
@@ -3282,8 +3672,24 @@ public final class KeyboardTextsTable {
         /* morekeys_t ~ */
         null, null, null,
         /* ~ morekeys_g */
-        /* single_angle_quotes */ "!text/single_raqm_laqm",
-        /* double_angle_quotes */ "!text/double_raqm_laqm",
+        /* single_angle_quotes */ "\u203A,\u2039",
+        /* double_angle_quotes */ "\u00BB,\u00AB",
+        /* morekeys_r ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u203A,\u2039",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00BB,\u00AB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00BB,\u00AB,\u203A,\u2039",
     };
 
     /* Locale sr: Serbian */
@@ -3300,14 +3706,14 @@ public final class KeyboardTextsTable {
         /* morekeys_i ~ */
         null, null, null,
         /* ~ morekeys_c */
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         /* morekeys_s */ null,
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
         /* keyspec_currency ~ */
         null, null, null, null, null, null, null,
         /* ~ morekeys_g */
-        /* single_angle_quotes */ "!text/single_raqm_laqm",
-        /* double_angle_quotes */ "!text/double_raqm_laqm",
+        /* single_angle_quotes */ "\u203A,\u2039",
+        /* double_angle_quotes */ "\u00BB,\u00AB",
         /* morekeys_r */ null,
         /* morekeys_k */ null,
         // U+0450: "ѐ" CYRILLIC SMALL LETTER IE WITH GRAVE
@@ -3347,6 +3753,16 @@ public final class KeyboardTextsTable {
         /* keyspec_south_slavic_row3_1 */ "\u0455",
         // U+0452: "ђ" CYRILLIC SMALL LETTER DJE
         /* keyspec_south_slavic_row3_8 */ "\u0452",
+        /* morekeys_tablet_punctuation ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u203A,\u2039",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00BB,\u00AB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00BB,\u00AB,\u203A,\u2039",
     };
 
     /* Locale sr_ZZ: Serbian (ZZ) */
@@ -3390,6 +3806,12 @@ public final class KeyboardTextsTable {
         /* label_previous_key */ "Preth",
         /* label_pause_key */ "Pauza",
         /* label_wait_key */ "\u010Cekaj",
+        /* morekeys_v ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ keyspec_shortcut */
+        /* keyspec_action_next */ "!hasLabels!,Sled|!code/key_action_next",
+        /* keyspec_action_previous */ "!hasLabels!,Preth|!code/key_action_previous",
     };
 
     /* Locale sv: Swedish */
@@ -3462,8 +3884,8 @@ public final class KeyboardTextsTable {
         // U+0142: "ł" LATIN SMALL LETTER L WITH STROKE
         /* morekeys_l */ "\u0142",
         /* morekeys_g */ null,
-        /* single_angle_quotes */ "!text/single_raqm_laqm",
-        /* double_angle_quotes */ "!text/double_raqm_laqm",
+        /* single_angle_quotes */ "\u203A,\u2039",
+        /* double_angle_quotes */ "\u00BB,\u00AB",
         // U+0159: "ř" LATIN SMALL LETTER R WITH CARON
         /* morekeys_r */ "\u0159",
         /* morekeys_k */ null,
@@ -3483,6 +3905,19 @@ public final class KeyboardTextsTable {
         /* ~ morekeys_tablet_period */
         // U+00E6: "æ" LATIN SMALL LETTER AE
         /* morekeys_nordic_row2_11 */ "\u00E6",
+        /* morekeys_punctuation ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u201A,\u2018,\u2019,\u203A,\u2039",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201E,\u201C,\u201D,\u00BB,\u00AB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201E,\u201C,\u201D,\u201A,\u2018,\u2019,\u00BB,\u00AB,\u203A,\u2039",
     };
 
     /* Locale sw: Swahili */
@@ -3744,9 +4179,9 @@ public final class KeyboardTextsTable {
         /* morekeys_i ~ */
         null, null, null,
         /* ~ morekeys_c */
-        /* double_quotes */ "!text/double_9qm_lqm",
+        /* double_quotes */ "\u201D,\u201E,\u201C",
         /* morekeys_s */ null,
-        /* single_quotes */ "!text/single_9qm_lqm",
+        /* single_quotes */ "\u2019,\u201A,\u2018",
         // U+20B4: "₴" HRYVNIA SIGN
         /* keyspec_currency */ "\u20B4",
         /* morekeys_y ~ */
@@ -3774,6 +4209,17 @@ public final class KeyboardTextsTable {
         /* morekeys_cyrillic_en */ null,
         // U+0491: "ґ" CYRILLIC SMALL LETTER GHE WITH UPTURN
         /* morekeys_cyrillic_ghe */ "\u0491",
+        /* morekeys_cyrillic_o ~ */
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null,
+        /* ~ double_rqm_9qm */
+        /* morekeys_single_quote */ "!fixedColumnOrder!5,\u2019,\u201A,\u2018,\u2039,\u203A",
+        /* morekeys_double_quote */ "!fixedColumnOrder!5,\u201D,\u201E,\u201C,\u00AB,\u00BB",
+        /* morekeys_tablet_double_quote */ "!fixedColumnOrder!6,\u201D,\u201E,\u201C,\u2019,\u201A,\u2018,\u00AB,\u00BB,\u2039,\u203A",
     };
 
     /* Locale uz_UZ: Uzbek (Uzbekistan) */
@@ -4114,60 +4560,60 @@ public final class KeyboardTextsTable {
     // "locale", TEXT_ARRAY,  /* numberOfNonNullText/lengthOf_TEXT_ARRAY localeName */
         "DEFAULT", TEXTS_DEFAULT, /* 176/176 DEFAULT */
         "af"     , TEXTS_af,    /*   7/ 13 Afrikaans */
-        "ar"     , TEXTS_ar,    /*  55/110 Arabic */
+        "ar"     , TEXTS_ar,    /*  70/175 Arabic */
         "az_AZ"  , TEXTS_az_AZ, /*  11/ 18 Azerbaijani (Azerbaijan) */
-        "be_BY"  , TEXTS_be_BY, /*   9/ 32 Belarusian (Belarus) */
-        "bg"     , TEXTS_bg,    /*   2/  9 Bulgarian */
+        "be_BY"  , TEXTS_be_BY, /*  12/175 Belarusian (Belarus) */
+        "bg"     , TEXTS_bg,    /*   4/175 Bulgarian */
         "bn_BD"  , TEXTS_bn_BD, /*   2/ 12 Bengali (Bangladesh) */
         "bn_IN"  , TEXTS_bn_IN, /*   2/ 12 Bengali (India) */
-        "ca"     , TEXTS_ca,    /*  11/ 99 Catalan */
-        "cs"     , TEXTS_cs,    /*  17/ 21 Czech */
-        "da"     , TEXTS_da,    /*  19/ 55 Danish */
-        "de"     , TEXTS_de,    /*  16/ 66 German */
+        "ca"     , TEXTS_ca,    /*  13/ 99 Catalan */
+        "cs"     , TEXTS_cs,    /*  20/175 Czech */
+        "da"     , TEXTS_da,    /*  22/175 Danish */
+        "de"     , TEXTS_de,    /*  19/175 German */
         "el"     , TEXTS_el,    /*   1/  5 Greek */
         "en"     , TEXTS_en,    /*   8/ 10 English */
         "eo"     , TEXTS_eo,    /*  26/126 Esperanto */
-        "es"     , TEXTS_es,    /*   8/ 56 Spanish */
-        "et_EE"  , TEXTS_et_EE, /*  22/ 27 Estonian (Estonia) */
+        "es"     , TEXTS_es,    /*   9/ 59 Spanish */
+        "et_EE"  , TEXTS_et_EE, /*  25/175 Estonian (Estonia) */
         "eu_ES"  , TEXTS_eu_ES, /*   7/  8 Basque (Spain) */
-        "fa"     , TEXTS_fa,    /*  58/133 Persian */
+        "fa"     , TEXTS_fa,    /*  71/175 Persian */
         "fi"     , TEXTS_fi,    /*  10/ 55 Finnish */
         "fr"     , TEXTS_fr,    /*  13/ 66 French */
         "gl_ES"  , TEXTS_gl_ES, /*   7/  8 Gallegan (Spain) */
         "hi"     , TEXTS_hi,    /*  27/ 60 Hindi */
-        "hi_ZZ"  , TEXTS_hi_ZZ, /*   9/118 Hindi (ZZ) */
-        "hr"     , TEXTS_hr,    /*   9/ 20 Croatian */
-        "hu"     , TEXTS_hu,    /*   9/ 20 Hungarian */
-        "hy_AM"  , TEXTS_hy_AM, /*   9/134 Armenian (Armenia) */
-        "is"     , TEXTS_is,    /*  10/ 16 Icelandic */
+        "hi_ZZ"  , TEXTS_hi_ZZ, /*  11/150 Hindi (ZZ) */
+        "hr"     , TEXTS_hr,    /*  12/175 Croatian */
+        "hu"     , TEXTS_hu,    /*  12/175 Hungarian */
+        "hy_AM"  , TEXTS_hy_AM, /*  10/134 Armenian (Armenia) */
+        "is"     , TEXTS_is,    /*  13/175 Icelandic */
         "it"     , TEXTS_it,    /*  11/ 66 Italian */
-        "iw"     , TEXTS_iw,    /*  20/131 Hebrew */
-        "ka_GE"  , TEXTS_ka_GE, /*   3/ 11 Georgian (Georgia) */
+        "iw"     , TEXTS_iw,    /*  39/175 Hebrew */
+        "ka_GE"  , TEXTS_ka_GE, /*   6/175 Georgian (Georgia) */
         "kk"     , TEXTS_kk,    /*  15/129 Kazakh */
         "km_KH"  , TEXTS_km_KH, /*   2/130 Khmer (Cambodia) */
         "kn_IN"  , TEXTS_kn_IN, /*   2/ 12 Kannada (India) */
         "ky"     , TEXTS_ky,    /*  10/ 92 Kirghiz */
         "lo_LA"  , TEXTS_lo_LA, /*   2/ 12 Lao (Laos) */
-        "lt"     , TEXTS_lt,    /*  18/ 22 Lithuanian */
-        "lv"     , TEXTS_lv,    /*  18/ 22 Latvian */
-        "mk"     , TEXTS_mk,    /*   9/ 97 Macedonian */
+        "lt"     , TEXTS_lt,    /*  21/175 Lithuanian */
+        "lv"     , TEXTS_lv,    /*  21/175 Latvian */
+        "mk"     , TEXTS_mk,    /*  12/175 Macedonian */
         "ml_IN"  , TEXTS_ml_IN, /*   2/ 12 Malayalam (India) */
         "mn_MN"  , TEXTS_mn_MN, /*   2/ 12 Mongolian (Mongolia) */
         "mr_IN"  , TEXTS_mr_IN, /*  23/ 53 Marathi (India) */
-        "nb"     , TEXTS_nb,    /*  11/ 55 Norwegian Bokmål */
+        "nb"     , TEXTS_nb,    /*  14/175 Norwegian Bokmål */
         "ne_NP"  , TEXTS_ne_NP, /*  27/ 60 Nepali (Nepal) */
-        "nl"     , TEXTS_nl,    /*   9/ 13 Dutch */
-        "pl"     , TEXTS_pl,    /*  10/ 17 Polish */
+        "nl"     , TEXTS_nl,    /*  12/175 Dutch */
+        "pl"     , TEXTS_pl,    /*  13/175 Polish */
         "pt"     , TEXTS_pt,    /*   6/  8 Portuguese */
         "rm"     , TEXTS_rm,    /*   1/  2 Raeto-Romance */
-        "ro"     , TEXTS_ro,    /*   6/ 16 Romanian */
-        "ru"     , TEXTS_ru,    /*   9/ 32 Russian */
+        "ro"     , TEXTS_ro,    /*   9/175 Romanian */
+        "ru"     , TEXTS_ru,    /*  12/175 Russian */
         "si_LK"  , TEXTS_si_LK, /*   2/ 12 Sinhalese (Sri Lanka) */
-        "sk"     , TEXTS_sk,    /*  20/ 22 Slovak */
-        "sl"     , TEXTS_sl,    /*   8/ 20 Slovenian */
-        "sr"     , TEXTS_sr,    /*  11/ 97 Serbian */
-        "sr_ZZ"  , TEXTS_sr_ZZ, /*  14/118 Serbian (ZZ) */
-        "sv"     , TEXTS_sv,    /*  21/ 55 Swedish */
+        "sk"     , TEXTS_sk,    /*  23/175 Slovak */
+        "sl"     , TEXTS_sl,    /*  11/175 Slovenian */
+        "sr"     , TEXTS_sr,    /*  14/175 Serbian */
+        "sr_ZZ"  , TEXTS_sr_ZZ, /*  16/150 Serbian (ZZ) */
+        "sv"     , TEXTS_sv,    /*  24/175 Swedish */
         "sw"     , TEXTS_sw,    /*   9/ 18 Swahili */
         "ta_IN"  , TEXTS_ta_IN, /*   2/ 12 Tamil (India) */
         "ta_LK"  , TEXTS_ta_LK, /*   2/ 12 Tamil (Sri Lanka) */
@@ -4176,7 +4622,7 @@ public final class KeyboardTextsTable {
         "th"     , TEXTS_th,    /*   2/ 12 Thai */
         "tl"     , TEXTS_tl,    /*   7/  8 Tagalog */
         "tr"     , TEXTS_tr,    /*  11/ 18 Turkish */
-        "uk"     , TEXTS_uk,    /*  11/ 91 Ukrainian */
+        "uk"     , TEXTS_uk,    /*  14/175 Ukrainian */
         "uz_UZ"  , TEXTS_uz_UZ, /*  11/ 18 Uzbek (Uzbekistan) */
         "vi"     , TEXTS_vi,    /*   8/ 15 Vietnamese */
         "zu"     , TEXTS_zu,    /*   8/ 10 Zulu */
@@ -4184,10 +4630,6 @@ public final class KeyboardTextsTable {
     };
 
     static {
-        for (int index = 0; index < NAMES.length; index++) {
-            sNameToIndexesMap.put(NAMES[index], index);
-        }
-
         for (int i = 0; i < LOCALES_AND_TEXTS.length; i += 2) {
             final String locale = (String)LOCALES_AND_TEXTS[i];
             final String[] textsTable = (String[])LOCALES_AND_TEXTS[i + 1];
@@ -25,6 +25,9 @@ import com.android.inputmethod.latin.common.CollectionUtils;
 import com.android.inputmethod.latin.common.Constants;
 import com.android.inputmethod.latin.common.StringUtils;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Locale;
@@ -76,6 +79,30 @@ public final class MoreKeySpec {
         mIconId = KeySpecParser.getIconId(moreKeySpec);
     }
 
+    private MoreKeySpec(final int code, @Nullable final String label,
+            @Nullable final String outputText, final int iconId) {
+        mCode = code;
+        mLabel = label;
+        mOutputText = outputText;
+        mIconId = iconId;
+    }
+
+    @Nonnull
+    public static MoreKeySpec readFromBuffer(@Nonnull final ByteBuffer buffer) {
+        final int code = buffer.getInt();
+        final String label = KeyboardCacheUtils.readString(buffer);
+        final String outputText = KeyboardCacheUtils.readString(buffer);
+        final int iconId = buffer.getInt();
+        return new MoreKeySpec(code, label, outputText, iconId);
+    }
+
+    public void writeToStream(@Nonnull final DataOutputStream out) throws IOException {
+        out.writeInt(mCode);
+        KeyboardCacheUtils.writeString(out, mLabel);
+        KeyboardCacheUtils.writeString(out, mOutputText);
+        out.writeInt(mIconId);
+    }
+
     @Nonnull
     public Key buildKey(final int x, final int y, final int labelFlags,
             @Nonnull final KeyboardParams params) {
@@ -19,6 +19,10 @@ package com.android.inputmethod.keyboard.internal;
 import com.android.inputmethod.annotations.UsedForTesting;
 import com.android.inputmethod.latin.define.DebugFlags;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 public final class TouchPositionCorrection {
     private static final int TOUCH_POSITION_CORRECTION_RECORD_SIZE = 3;
 
@@ -67,6 +71,20 @@ public final class TouchPositionCorrection {
         }
     }
 
+    public void loadFromBuffer(final ByteBuffer buffer) {
+        mEnabled = KeyboardCacheUtils.readBoolean(buffer);
+        mXs = KeyboardCacheUtils.readFloatArray(buffer);
+        mYs = KeyboardCacheUtils.readFloatArray(buffer);
+        mRadii = KeyboardCacheUtils.readFloatArray(buffer);
+    }
+
+    public void writeToStream(final DataOutputStream out) throws IOException {
+        KeyboardCacheUtils.writeBoolean(out, mEnabled);
+        KeyboardCacheUtils.writeFloatArray(out, mXs);
+        KeyboardCacheUtils.writeFloatArray(out, mYs);
+        KeyboardCacheUtils.writeFloatArray(out, mRadii);
+    }
+
     @UsedForTesting
     public void setEnabled(final boolean enabled) {
         mEnabled = enabled;
@@ -38,6 +38,7 @@ import com.android.inputmethod.latin.utils.JniUtils;
 import com.android.inputmethod.latin.utils.WordInputEventForPersonalization;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -95,6 +96,10 @@ public final class BinaryDictionary extends Dictionary {
     private final boolean mUseFullEditDistance;
     private final boolean mIsUpdatable;
     private boolean mHasUpdated;
+    // Whether the suggestions are read from the direct output buffer of the traverse session
+    // rather than from the output arrays, which native code has to set one JNI call at a time.
+    // Off by default: the saving is not measurable on a whole suggestion call.
+    private volatile boolean mUsesDirectOutputBuffer = false;
 
     private final SparseArray<DicTraverseSession> mDicTraverseSessions = new SparseArray<>();
 
@@ -198,6 +203,12 @@ public final class BinaryDictionary extends Dictionary {
             int[] outputScores, int[] outputIndices, int[] outputTypes,
             int[] outputAutoCommitFirstWordConfidence,
             float[] inOutWeightOfLangModelVsSpatialModel);
+    private static native void getSuggestionsToBufferNative(long dict, long proximityInfo,
+            long traverseSession, int[] xCoordinates, int[] yCoordinates, int[] times,
+            int[] pointerIds, int[] inputCodePoints, int inputSize, int[] suggestOptions,
+            int[][] prevWordCodePointArrays, boolean[] isBeginningOfSentenceArray,
+            int prevWordCount, float[] inWeightOfLangModelVsSpatialModel,
+            ByteBuffer outputBuffer);
     private static native boolean addUnigramEntryNative(long dict, int[] word, int probability,
             int[] shortcutTarget, int shortcutProbability, boolean isBeginningOfSentence,
             boolean isNotAWord, boolean isPossiblyOffensive, int timestamp);
@@ -270,6 +281,17 @@ public final class BinaryDictionary extends Dictionary {
             final SettingsValuesForSuggestion settingsValuesForSuggestion,
             final int sessionId, final float weightForLocale,
             final float[] inOutWeightOfLangModelVsSpatialModel) {
+        return getSuggestions(composedData, ngramContext, proximityInfoHandle,
+                settingsValuesForSuggestion, sessionId, weightForLocale,
+                inOutWeightOfLangModelVsSpatialModel, Integer.MIN_VALUE /* minScore */);
+    }
+
+    @Override
+    public ArrayList<SuggestedWordInfo> getSuggestions(final ComposedData composedData,
+            final NgramContext ngramContext, final long proximityInfoHandle,
+            final SettingsValuesForSuggestion settingsValuesForSuggestion,
+            final int sessionId, final float weightForLocale,
+            final float[] inOutWeightOfLangModelVsSpatialModel, final int minScore) {
         if (!isValidDictionary()) {
             return null;
         }
@@ -303,23 +325,40 @@ public final class BinaryDictionary extends Dictionary {
                     Dictionary.NOT_A_WEIGHT_OF_LANG_MODEL_VS_SPATIAL_MODEL;
         }
         // TOOD: Pass multiple previous words information for n-gram.
-        getSuggestionsNative(mNativeDict, proximityInfoHandle,
-                getTraverseSession(sessionId).getSession(), inputPointers.getXCoordinates(),
-                inputPointers.getYCoordinates(), inputPointers.getTimes(),
-                inputPointers.getPointerIds(), session.mInputCodePoints, inputSize,
-                session.mNativeSuggestOptions.getOptions(), session.mPrevWordCodePointArrays,
-                session.mIsBeginningOfSentenceArray, ngramContext.getPrevWordCount(),
-                session.mOutputSuggestionCount, session.mOutputCodePoints, session.mOutputScores,
-                session.mSpaceIndices, session.mOutputTypes,
-                session.mOutputAutoCommitFirstWordConfidence,
-                session.mInputOutputWeightOfLangModelVsSpatialModel);
+        if (mUsesDirectOutputBuffer) {
+            getSuggestionsToBufferNative(mNativeDict, proximityInfoHandle, session.getSession(),
+                    inputPointers.getXCoordinates(), inputPointers.getYCoordinates(),
+                    inputPointers.getTimes(), inputPointers.getPointerIds(),
+                    session.mInputCodePoints, inputSize,
+                    session.mNativeSuggestOptions.getOptions(), session.mPrevWordCodePointArrays,
+                    session.mIsBeginningOfSentenceArray, ngramContext.getPrevWordCount(),
+                    session.mInputOutputWeightOfLangModelVsSpatialModel, session.mOutputBuffer);
+            session.readOutputBuffer();
+        } else {
+            getSuggestionsNative(mNativeDict, proximityInfoHandle, session.getSession(),
+                    inputPointers.getXCoordinates(), inputPointers.getYCoordinates(),
+                    inputPointers.getTimes(), inputPointers.getPointerIds(),
+                    session.mInputCodePoints, inputSize,
+                    session.mNativeSuggestOptions.getOptions(), session.mPrevWordCodePointArrays,
+                    session.mIsBeginningOfSentenceArray, ngramContext.getPrevWordCount(),
+                    session.mOutputSuggestionCount, session.mOutputCodePoints,
+                    session.mOutputScores, session.mSpaceIndices, session.mOutputTypes,
+                    session.mOutputAutoCommitFirstWordConfidence,
+                    session.mInputOutputWeightOfLangModelVsSpatialModel);
+        }
         if (inOutWeightOfLangModelVsSpatialModel != null) {
             inOutWeightOfLangModelVsSpatialModel[0] =
                     session.mInputOutputWeightOfLangModelVsSpatialModel[0];
         }
         final int count = session.mOutputSuggestionCount[0];
-        final ArrayList<SuggestedWordInfo> suggestions = new ArrayList<>();
+        final ArrayList<SuggestedWordInfo> suggestions = new ArrayList<>(count);
         for (int j = 0; j < count; ++j) {
+            final int score = (int)(session.mOutputScores[j] * weightForLocale);
+            if (score < minScore) {
+                // Would be dropped by the caller: don't create the word and its info. The code
+                // points stay in the session buffers, which are reused for the next query.
+                continue;
+            }
             final int start = j * DICTIONARY_MAX_WORD_LENGTH;
             int len = 0;
             while (len < DICTIONARY_MAX_WORD_LENGTH
@@ -330,7 +369,7 @@ public final class BinaryDictionary extends Dictionary {
                 suggestions.add(new SuggestedWordInfo(
                         new String(session.mOutputCodePoints, start, len),
                         "" /* prevWordsContext */,
-                        (int)(session.mOutputScores[j] * weightForLocale),
+                        score,
                         session.mOutputTypes[j],
                         this /* sourceDict */,
                         session.mSpaceIndices[j] /* indexOfTouchPointOfSecondWord */,
@@ -340,6 +379,15 @@ public final class BinaryDictionary extends Dictionary {
         return suggestions;
     }
 
+    /**
+     * Sets whether {@link #getSuggestions} reads the results from a direct buffer shared with
+     * native code, or from arrays that native code fills through JNI. The latter is the default;
+     * the former is kept to compare the two, for instance with the dicttool benchmark.
+     */
+    public void setUsesDirectOutputBuffer(final boolean usesDirectOutputBuffer) {
+        mUsesDirectOutputBuffer = usesDirectOutputBuffer;
+    }
+
     public boolean isValidDictionary() {
         return mNativeDict != 0;
     }
@@ -489,6 +537,23 @@ public final class BinaryDictionary extends Dictionary {
         return true;
     }
 
+    // Remove an n-gram entry from the binary dictionary in native code.
+    public boolean removeNgramEntry(final NgramContext ngramContext, final String word) {
+        if (!ngramContext.isValid() || TextUtils.isEmpty(word)) {
+            return false;
+        }
+        final int[][] prevWordCodePointArrays = new int[ngramContext.getPrevWordCount()][];
+        final boolean[] isBeginningOfSentenceArray = new boolean[ngramContext.getPrevWordCount()];
+        ngramContext.outputToArray(prevWordCodePointArrays, isBeginningOfSentenceArray);
+        final int[] wordCodePoints = StringUtils.toCodePointArray(word);
+        if (!removeNgramEntryNative(mNativeDict, prevWordCodePointArrays,
+                isBeginningOfSentenceArray, wordCodePoints)) {
+            return false;
+        }
+        mHasUpdated = true;
+        return true;
+    }
+
     // Update entries for the word occurrence with the ngramContext.
     public boolean updateEntriesForWordWithNgramContext(@Nonnull final NgramContext ngramContext,
             final String word, final boolean isValidWord, final int count, final int timestamp) {
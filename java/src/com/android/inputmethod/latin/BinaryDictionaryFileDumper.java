@@ -27,6 +27,7 @@ import android.os.RemoteException;
 import android.text.TextUtils;
 import android.util.Log;
 
+import com.android.inputmethod.annotations.UsedForTesting;
 import com.android.inputmethod.dictionarypack.DictionaryPackConstants;
 import com.android.inputmethod.dictionarypack.MD5Calculator;
 import com.android.inputmethod.dictionarypack.UpdateHandler;
@@ -46,12 +47,20 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
+import javax.annotation.Nullable;
+
 /**
  * Group class for static methods to help with creation and getting of the binary dictionary
  * file from the dictionary provider
@@ -257,6 +266,11 @@ public final class BinaryDictionaryFileDumper {
             return;
         }
 
+        if (installPlainWordListToStaging(wordlistId, rawChecksum, providerClient,
+                wordListUriBuilder, new File(tempFileName), new File(finalFileName))) {
+            return;
+        }
+
         for (int mode = MODE_MIN; mode <= MODE_MAX; ++mode) {
             final InputStream originalSourceStream;
             InputStream inputStream = null;
@@ -264,7 +278,7 @@ public final class BinaryDictionaryFileDumper {
             InputStream decryptedStream = null;
             BufferedInputStream bufferedInputStream = null;
             File outputFile = null;
-            BufferedOutputStream bufferedOutputStream = null;
+            OutputStream outputStream = null;
             AssetFileDescriptor afd = null;
             final Uri wordListUri = wordListUriBuilder.build();
             try {
@@ -306,35 +320,32 @@ public final class BinaryDictionaryFileDumper {
                         break;
                 }
                 bufferedInputStream = new BufferedInputStream(inputStream);
-                bufferedOutputStream = new BufferedOutputStream(new FileOutputStream(outputFile));
+                // The checksum is computed while the file is written instead of reading the
+                // written file back.
+                final MessageDigest digester =
+                        SHOULD_VERIFY_CHECKSUM ? MD5Calculator.createDigester() : null;
+                outputStream = new FileOutputStream(outputFile);
+                if (null != digester) {
+                    outputStream = new DigestOutputStream(outputStream, digester);
+                }
+                final BufferedOutputStream bufferedOutputStream =
+                        new BufferedOutputStream(outputStream);
+                outputStream = bufferedOutputStream;
                 checkMagicAndCopyFileTo(bufferedInputStream, bufferedOutputStream);
                 bufferedOutputStream.flush();
                 bufferedOutputStream.close();
 
                 if (SHOULD_VERIFY_CHECKSUM) {
-                    final String actualRawChecksum = MD5Calculator.checksum(
-                            new BufferedInputStream(new FileInputStream(outputFile)));
-                    Log.i(TAG, "Computed checksum for downloaded dictionary. Expected = "
-                            + rawChecksum + " ; actual = " + actualRawChecksum);
-                    if (!TextUtils.isEmpty(rawChecksum) && !rawChecksum.equals(actualRawChecksum)) {
-                        throw new IOException(
-                                "Could not decode the file correctly : checksum differs");
-                    }
+                    checkChecksum(rawChecksum, digester);
                 }
-
                 // move the output file to the final staging file.
                 final File finalFile = new File(finalFileName);
                 if (!FileUtils.renameTo(outputFile, finalFile)) {
                     Log.e(TAG, String.format("Failed to rename from %s to %s.",
                             outputFile.getAbsoluteFile(), finalFile.getAbsoluteFile()));
                 }
-
-                wordListUriBuilder.appendQueryParameter(QUERY_PARAMETER_DELETE_RESULT,
-                        QUERY_PARAMETER_SUCCESS);
-                if (0 >= providerClient.delete(wordListUriBuilder.build(), null, null)) {
-                    Log.e(TAG, "Could not have the dictionary pack delete a word list");
-                }
-                Log.d(TAG, "Successfully copied file for wordlist ID " + wordlistId);
+                // This does not throw, so the word list is not decoded again in another mode.
+                notifyWordListInstalled(wordlistId, providerClient, wordListUriBuilder);
                 // Success! Close files (through the finally{} clause) and return.
                 return;
             } catch (Exception e) {
@@ -355,7 +366,7 @@ public final class BinaryDictionaryFileDumper {
                 closeCloseableAndReportAnyException(uncompressedStream);
                 closeCloseableAndReportAnyException(decryptedStream);
                 closeCloseableAndReportAnyException(bufferedInputStream);
-                closeCloseableAndReportAnyException(bufferedOutputStream);
+                closeCloseableAndReportAnyException(outputStream);
             }
         }
 
@@ -367,6 +378,112 @@ public final class BinaryDictionaryFileDumper {
         reportBrokenFileToDictionaryProvider(providerClient, clientId, wordlistId);
     }
 
+    /**
+     * Stages a word list that the provider stores as a plain, uncompressed and unencrypted
+     * dictionary.
+     *
+     * Such a word list does not need to go through the stream transforms: its region of the
+     * provider file (start offset and length of the asset file descriptor) is memory-mapped, the
+     * magic number is checked on the mapping, and the same mapping is fed to the MD5 digester and
+     * written to the staging file with a file channel. This reads the source once and does not
+     * read the written file back.
+     *
+     * Renaming the staging file is the commit point: once it succeeded this returns true even if
+     * the dictionary pack can't be told, so that the word list is not installed twice.
+     *
+     * @return true if the word list has been staged, false if the caller should fall back to
+     * decoding the word list as a stream.
+     */
+    @UsedForTesting
+    /* package */ static boolean installPlainWordListToStaging(final String wordlistId,
+            final String rawChecksum, final ContentProviderClient providerClient,
+            final Uri.Builder wordListUriBuilder, final File outputFile, final File finalFile) {
+        final AssetFileDescriptor afd =
+                openAssetFileDescriptor(providerClient, wordListUriBuilder.build());
+        if (null == afd) {
+            return false;
+        }
+        FileInputStream inputStream = null;
+        FileOutputStream outputStream = null;
+        try {
+            inputStream = afd.createInputStream();
+            final FileChannel inputChannel = inputStream.getChannel();
+            final long startOffset = afd.getStartOffset();
+            final long length = (AssetFileDescriptor.UNKNOWN_LENGTH == afd.getLength())
+                    ? inputChannel.size() - startOffset : afd.getLength();
+            if (length < MAGIC_NUMBER_VERSION_2.length) {
+                return false;
+            }
+            final MappedByteBuffer mappedBuffer =
+                    inputChannel.map(FileChannel.MapMode.READ_ONLY, startOffset, length);
+            if (!hasValidMagicNumber(mappedBuffer)) {
+                // Compressed or encrypted, or not a dictionary at all.
+                return false;
+            }
+            final MessageDigest digester =
+                    SHOULD_VERIFY_CHECKSUM ? MD5Calculator.createDigester() : null;
+            if (null != digester) {
+                digester.update(mappedBuffer.duplicate());
+            }
+            outputFile.delete();
+            outputStream = new FileOutputStream(outputFile);
+            final FileChannel outputChannel = outputStream.getChannel();
+            while (mappedBuffer.hasRemaining()) {
+                outputChannel.write(mappedBuffer);
+            }
+            outputStream.close();
+            if (SHOULD_VERIFY_CHECKSUM) {
+                checkChecksum(rawChecksum, digester);
+            }
+            // move the output file to the final staging file.
+            if (!FileUtils.renameTo(outputFile, finalFile)) {
+                throw new IOException(String.format("Failed to rename from %s to %s.",
+                        outputFile.getAbsoluteFile(), finalFile.getAbsoluteFile()));
+            }
+        } catch (Exception e) {
+            // The descriptor may not be mappable (e.g. a pipe), or the file may be broken: let
+            // the stream-based path try it, and report it if it fails too.
+            Log.w(TAG, "Can't install word list directly, falling back to stream decoding", e);
+            outputFile.delete();
+            return false;
+        } finally {
+            closeAssetFileDescriptorAndReportAnyException(afd);
+            closeCloseableAndReportAnyException(inputStream);
+            closeCloseableAndReportAnyException(outputStream);
+        }
+        notifyWordListInstalled(wordlistId, providerClient, wordListUriBuilder);
+        return true;
+    }
+
+    private static void checkChecksum(final String rawChecksum,
+            @Nullable final MessageDigest digester) throws IOException {
+        final String actualRawChecksum =
+                (null == digester) ? null : MD5Calculator.getChecksum(digester);
+        Log.i(TAG, "Computed checksum for downloaded dictionary. Expected = "
+                + rawChecksum + " ; actual = " + actualRawChecksum);
+        if (!TextUtils.isEmpty(rawChecksum) && !rawChecksum.equals(actualRawChecksum)) {
+            throw new IOException("Could not decode the file correctly : checksum differs");
+        }
+    }
+
+    /**
+     * Lets the dictionary pack delete its own copy of a word list that has been staged. The word
+     * list is already installed at this point, so failures are only logged.
+     */
+    private static void notifyWordListInstalled(final String wordlistId,
+            final ContentProviderClient providerClient, final Uri.Builder wordListUriBuilder) {
+        wordListUriBuilder.appendQueryParameter(QUERY_PARAMETER_DELETE_RESULT,
+                QUERY_PARAMETER_SUCCESS);
+        try {
+            if (0 >= providerClient.delete(wordListUriBuilder.build(), null, null)) {
+                Log.e(TAG, "Could not have the dictionary pack delete a word list");
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Could not have the dictionary pack delete a word list", e);
+        }
+        Log.d(TAG, "Successfully copied file for wordlist ID " + wordlistId);
+    }
+
     public static boolean reportBrokenFileToDictionaryProvider(
             final ContentProviderClient providerClient, final String clientId,
             final String wordlistId) {
@@ -488,6 +605,20 @@ public final class BinaryDictionaryFileDumper {
         input.close();
     }
 
+    /**
+     * Checks the magic number at the position of a buffer without moving the position.
+     */
+    private static boolean hasValidMagicNumber(final ByteBuffer buffer) {
+        final int length = MAGIC_NUMBER_VERSION_2.length;
+        if (buffer.remaining() < length) {
+            return false;
+        }
+        final byte[] magicNumberBuffer = new byte[length];
+        buffer.duplicate().get(magicNumberBuffer);
+        return Arrays.equals(MAGIC_NUMBER_VERSION_2, magicNumberBuffer)
+                || Arrays.equals(MAGIC_NUMBER_VERSION_1, magicNumberBuffer);
+    }
+
     private static void reinitializeClientRecordInDictionaryContentProvider(final Context context,
             final ContentProviderClient client, final String clientId) throws RemoteException {
         final String metadataFileUri = MetadataFileUriGetter.getMetadataUri(context);
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The names that were added to a contacts dictionary file, stored next to it so that changes to
+ * the contacts can be applied to the dictionary as differences, even after a restart.
+ */
+public final class ContactNamesSnapshot {
+    private static final String TAG = ContactNamesSnapshot.class.getSimpleName();
+    private static final int MAGIC_NUMBER = 0x434E4D53; // "CNMS"
+    private static final int FORMAT_VERSION = 1;
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+
+    @Nonnull
+    public final ArrayList<String> mAccountWords;
+    @Nonnull
+    public final ArrayList<String> mProfileNames;
+    @Nonnull
+    public final HashSet<String> mContactNames;
+
+    public ContactNamesSnapshot(@Nonnull final Collection<String> accountWords,
+            @Nonnull final Collection<String> profileNames,
+            @Nonnull final Collection<String> contactNames) {
+        mAccountWords = new ArrayList<>(accountWords);
+        mProfileNames = new ArrayList<>(profileNames);
+        mContactNames = new HashSet<>(contactNames);
+    }
+
+    /**
+     * Returns a snapshot with the same account words and profile names, and other contact names.
+     */
+    @Nonnull
+    public ContactNamesSnapshot withContactNames(@Nonnull final Collection<String> contactNames) {
+        return new ContactNamesSnapshot(mAccountWords, mProfileNames, contactNames);
+    }
+
+    /**
+     * Reads a snapshot.
+     *
+     * @return the snapshot, or null if there is no valid file.
+     */
+    @Nullable
+    public static ContactNamesSnapshot read(@Nonnull final File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != MAGIC_NUMBER || in.readInt() != FORMAT_VERSION) {
+                Log.w(TAG, "Stale contact names file: " + file);
+                return null;
+            }
+            final ArrayList<String> accountWords = readStrings(in);
+            final ArrayList<String> profileNames = readStrings(in);
+            final ArrayList<String> contactNames = readStrings(in);
+            return new ContactNamesSnapshot(accountWords, profileNames, contactNames);
+        } catch (final IOException e) {
+            Log.w(TAG, "Can't read contact names file: " + file, e);
+            file.delete();
+            return null;
+        } finally {
+            if (null != in) {
+                try {
+                    in.close();
+                } catch (final IOException e) {
+                    // Ignore.
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the snapshot. A file that can't be written is removed, so that it is not read later
+     * for another set of names.
+     *
+     * @return whether the snapshot was written.
+     */
+    public boolean write(@Nonnull final File file) {
+        // Write to a temporary file first so that a reader never sees a partial file.
+        final File tempFile = new File(file.getPath() + TEMP_FILE_EXTENSION);
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            out.writeInt(MAGIC_NUMBER);
+            out.writeInt(FORMAT_VERSION);
+            writeStrings(out, mAccountWords);
+            writeStrings(out, mProfileNames);
+            writeStrings(out, mContactNames);
+            out.close();
+            out = null;
+            if (tempFile.renameTo(file)) {
+                return true;
+            }
+            Log.w(TAG, "Can't rename contact names file: " + file);
+        } catch (final IOException e) {
+            Log.w(TAG, "Can't write contact names file: " + file, e);
+        } finally {
+            if (null != out) {
+                try {
+                    out.close();
+                } catch (final IOException e) {
+                    // Ignore.
+                }
+            }
+        }
+        tempFile.delete();
+        file.delete();
+        return false;
+    }
+
+    private static ArrayList<String> readStrings(@Nonnull final DataInputStream in)
+            throws IOException {
+        final int count = in.readInt();
+        if (count < 0) {
+            throw new EOFException("Negative count: " + count);
+        }
+        final ArrayList<String> strings = new ArrayList<>(Math.min(count,
+                ContactsManager.MAX_CONTACT_NAMES));
+        for (int i = 0; i < count; ++i) {
+            strings.add(in.readUTF());
+        }
+        return strings;
+    }
+
+    private static void writeStrings(@Nonnull final DataOutputStream out,
+            @Nonnull final Collection<String> strings) throws IOException {
+        out.writeInt(strings.size());
+        for (final String string : strings) {
+            // Throws a UTFDataFormatException for a string longer than 64KB, which is not a name.
+            out.writeUTF(string);
+        }
+    }
+}
@@ -25,12 +25,14 @@ import android.util.Log;
 
 import com.android.inputmethod.annotations.ExternallyReferenced;
 import com.android.inputmethod.latin.ContactsManager.ContactsChangedListener;
+import com.android.inputmethod.latin.common.Constants;
 import com.android.inputmethod.latin.common.StringUtils;
 import com.android.inputmethod.latin.permissions.PermissionsUtil;
 import com.android.inputmethod.latin.personalization.AccountUtils;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 
@@ -43,6 +45,7 @@ public class ContactsBinaryDictionary extends ExpandableBinaryDictionary
 
     private static final boolean DEBUG = false;
     private static final boolean DEBUG_DUMP = false;
+    private static final String NAMES_FILE_EXTENSION = ".names";
 
     /**
      * Whether to use "firstname lastname" in bigram predictions.
@@ -50,6 +53,13 @@ public class ContactsBinaryDictionary extends ExpandableBinaryDictionary
     private final boolean mUseFirstLastBigrams;
     private final ContactsManager mContactsManager;
 
+    /**
+     * The names in the dictionary file, or null if they have not been read from the names file
+     * yet. Only accessed with the write lock held.
+     */
+    @Nullable
+    private ContactNamesSnapshot mNamesInDictionary;
+
     protected ContactsBinaryDictionary(final Context context, final Locale locale,
             final File dictFile, final String name) {
         super(context, getDictName(name, locale, dictFile), locale, Dictionary.TYPE_CONTACTS,
@@ -80,20 +90,41 @@ public class ContactsBinaryDictionary extends ExpandableBinaryDictionary
      */
     @Override
     public void loadInitialContentsLocked() {
-        loadDeviceAccountsEmailAddressesLocked();
-        loadDictionaryForUriLocked(ContactsContract.Profile.CONTENT_URI);
+        final List<String> accountWords = loadDeviceAccountsEmailAddressesLocked();
+        final ArrayList<String> profileNames =
+                loadDictionaryForUriLocked(ContactsContract.Profile.CONTENT_URI);
         // TODO: Switch this URL to the newer ContactsContract too
-        loadDictionaryForUriLocked(Contacts.CONTENT_URI);
+        final ArrayList<String> contactNames = loadDictionaryForUriLocked(Contacts.CONTENT_URI);
+        mNamesInDictionary = new ContactNamesSnapshot(accountWords, profileNames, contactNames);
+        // Written before the new dictionary file, which only exists once it is flushed: if the
+        // process dies in between, the missing dictionary file makes it be created again.
+        if (!mNamesInDictionary.write(getNamesFile())) {
+            mNamesInDictionary = null;
+        }
+    }
+
+    @Override
+    void removeBinaryDictionaryLocked() {
+        super.removeBinaryDictionaryLocked();
+        // The names only describe the dictionary file they were stored with.
+        mNamesInDictionary = null;
+        getNamesFile().delete();
+    }
+
+    private File getNamesFile() {
+        return new File(getDictionaryFile().getPath() + NAMES_FILE_EXTENSION);
     }
 
     /**
      * Loads device accounts to the dictionary.
+     *
+     * @return the words that were added.
      */
-    private void loadDeviceAccountsEmailAddressesLocked() {
+    private List<String> loadDeviceAccountsEmailAddressesLocked() {
         final List<String> accountVocabulary =
                 AccountUtils.getDeviceAccountsEmailAddresses(mContext);
         if (accountVocabulary == null || accountVocabulary.isEmpty()) {
-            return;
+            return new ArrayList<>();
         }
         for (String word : accountVocabulary) {
             if (DEBUG) {
@@ -104,12 +135,15 @@ public class ContactsBinaryDictionary extends ExpandableBinaryDictionary
                     false /* isNotAWord */, false /* isPossiblyOffensive */,
                     BinaryDictionary.NOT_A_VALID_TIMESTAMP);
         }
+        return accountVocabulary;
     }
 
     /**
      * Loads data within content providers to the dictionary.
+     *
+     * @return the names that were added.
      */
-    private void loadDictionaryForUriLocked(final Uri uri) {
+    private ArrayList<String> loadDictionaryForUriLocked(final Uri uri) {
         if (!PermissionsUtil.checkAllPermissionsGranted(
                 mContext, Manifest.permission.READ_CONTACTS)) {
             Log.i(TAG, "No permission to read contacts. Not loading the Dictionary.");
@@ -124,16 +158,86 @@ public class ContactsBinaryDictionary extends ExpandableBinaryDictionary
             // state of the manager.
             mContactsManager.updateLocalState(validNames);
         }
+        return validNames;
     }
 
     /**
-     * Adds the words in a name (e.g., firstname/lastname) to the binary dictionary along with their
-     * bigrams depending on locale.
+     * Applies the differences between the contact names in the dictionary and the current ones
+     * to the dictionary, instead of recreating it. Falls back to recreating the dictionary when
+     * the names in the dictionary are not known.
      */
-    private void addNameLocked(final String name) {
+    private void updateContactNamesLocked() {
+        if (null == mNamesInDictionary) {
+            mNamesInDictionary = ContactNamesSnapshot.read(getNamesFile());
+            if (null == mNamesInDictionary) {
+                setNeedsToRecreate();
+                return;
+            }
+        }
+        final ArrayList<String> validNames = mContactsManager.getValidNames(Contacts.CONTENT_URI);
+        final HashSet<String> oldNames = mNamesInDictionary.mContactNames;
+        final HashSet<String> newNames = new HashSet<>(validNames);
+        final ArrayList<String> removedNames = new ArrayList<>();
+        for (final String name : oldNames) {
+            if (!newNames.contains(name)) {
+                removedNames.add(name);
+            }
+        }
+        final ArrayList<String> addedNames = new ArrayList<>();
+        for (final String name : validNames) {
+            if (!oldNames.contains(name)) {
+                addedNames.add(name);
+            }
+        }
+        if (DEBUG) {
+            Log.d(TAG, "updateContactNames: " + addedNames.size() + " added, "
+                    + removedNames.size() + " removed");
+        }
+        if (removedNames.isEmpty() && addedNames.isEmpty()) {
+            mContactsManager.updateLocalState(validNames);
+            return;
+        }
+        // The names file is removed before the dictionary file changes, and written again once
+        // the changes are flushed. If the process dies in between, the missing names file makes
+        // the next update recreate the dictionary, instead of applying differences to names that
+        // do not match the dictionary file.
+        final File namesFile = getNamesFile();
+        if (namesFile.exists() && !namesFile.delete()) {
+            Log.w(TAG, "Can't remove contact names file: " + namesFile);
+            setNeedsToRecreate();
+            return;
+        }
+        if (!removedNames.isEmpty()) {
+            // A word or an n-gram of a removed name stays if another name or an account has it.
+            final HashSet<String> keptWords = new HashSet<>(mNamesInDictionary.mAccountWords);
+            final HashSet<String> keptNgrams = new HashSet<>();
+            for (final String name : mNamesInDictionary.mProfileNames) {
+                addWordsAndNgramsOfName(name, keptWords, keptNgrams);
+            }
+            for (final String name : validNames) {
+                addWordsAndNgramsOfName(name, keptWords, keptNgrams);
+            }
+            for (final String name : removedNames) {
+                removeNameLocked(name, keptWords, keptNgrams);
+            }
+        }
+        for (final String name : addedNames) {
+            addNameLocked(name);
+        }
+        flushWithGCIfHasUpdatedLocked();
+        mNamesInDictionary = mNamesInDictionary.withContactNames(validNames);
+        if (!mNamesInDictionary.write(namesFile)) {
+            mNamesInDictionary = null;
+        }
+        mContactsManager.updateLocalState(validNames);
+    }
+
+    /**
+     * Returns the words of a name (e.g., firstname/lastname) that are added to the dictionary.
+     */
+    private static ArrayList<String> getWordsOfName(final String name) {
+        final ArrayList<String> words = new ArrayList<>();
         int len = StringUtils.codePointCount(name);
-        NgramContext ngramContext = NgramContext.getEmptyPrevWordsContext(
-                BinaryDictionary.MAX_PREV_WORD_COUNT_FOR_N_GRAM);
         // TODO: Better tokenization for non-Latin writing systems
         for (int i = 0; i < len; i++) {
             if (Character.isLetter(name.codePointAt(i))) {
@@ -147,30 +251,90 @@ public class ContactsBinaryDictionary extends ExpandableBinaryDictionary
                 // capitalization of i.
                 final int wordLen = StringUtils.codePointCount(word);
                 if (wordLen <= MAX_WORD_LENGTH && wordLen > 1) {
-                    if (DEBUG) {
-                        Log.d(TAG, "addName " + name + ", " + word + ", "  + ngramContext);
-                    }
-                    runGCIfRequiredLocked(true /* mindsBlockByGC */);
-                    addUnigramLocked(word,
-                            ContactsDictionaryConstants.FREQUENCY_FOR_CONTACTS, false /* isNotAWord */,
-                            false /* isPossiblyOffensive */,
-                            BinaryDictionary.NOT_A_VALID_TIMESTAMP);
-                    if (ngramContext.isValid() && mUseFirstLastBigrams) {
-                        runGCIfRequiredLocked(true /* mindsBlockByGC */);
-                        addNgramEntryLocked(ngramContext,
-                                word,
-                                ContactsDictionaryConstants.FREQUENCY_FOR_CONTACTS_BIGRAM,
-                                BinaryDictionary.NOT_A_VALID_TIMESTAMP);
-                    }
-                    ngramContext = ngramContext.getNextNgramContext(
-                            new NgramContext.WordInfo(word));
+                    words.add(word);
                 }
             }
         }
+        return words;
+    }
+
+    private static NgramContext getEmptyNgramContext() {
+        return NgramContext.getEmptyPrevWordsContext(
+                BinaryDictionary.MAX_PREV_WORD_COUNT_FOR_N_GRAM);
+    }
+
+    private static String getNgramKey(final NgramContext ngramContext, final String word) {
+        return ngramContext.extractPrevWordsContext() + Constants.WORD_SEPARATOR + word;
+    }
+
+    private void addWordsAndNgramsOfName(final String name, final HashSet<String> outWords,
+            final HashSet<String> outNgrams) {
+        NgramContext ngramContext = getEmptyNgramContext();
+        for (final String word : getWordsOfName(name)) {
+            outWords.add(word);
+            if (ngramContext.isValid() && mUseFirstLastBigrams) {
+                outNgrams.add(getNgramKey(ngramContext, word));
+            }
+            ngramContext = ngramContext.getNextNgramContext(new NgramContext.WordInfo(word));
+        }
+    }
+
+    /**
+     * Adds the words in a name (e.g., firstname/lastname) to the binary dictionary along with their
+     * bigrams depending on locale.
+     */
+    private void addNameLocked(final String name) {
+        NgramContext ngramContext = getEmptyNgramContext();
+        for (final String word : getWordsOfName(name)) {
+            if (DEBUG) {
+                Log.d(TAG, "addName " + name + ", " + word + ", "  + ngramContext);
+            }
+            runGCIfRequiredLocked(true /* mindsBlockByGC */);
+            addUnigramLocked(word,
+                    ContactsDictionaryConstants.FREQUENCY_FOR_CONTACTS, false /* isNotAWord */,
+                    false /* isPossiblyOffensive */,
+                    BinaryDictionary.NOT_A_VALID_TIMESTAMP);
+            if (ngramContext.isValid() && mUseFirstLastBigrams) {
+                runGCIfRequiredLocked(true /* mindsBlockByGC */);
+                addNgramEntryLocked(ngramContext,
+                        word,
+                        ContactsDictionaryConstants.FREQUENCY_FOR_CONTACTS_BIGRAM,
+                        BinaryDictionary.NOT_A_VALID_TIMESTAMP);
+            }
+            ngramContext = ngramContext.getNextNgramContext(
+                    new NgramContext.WordInfo(word));
+        }
+    }
+
+    /**
+     * Removes the words and the n-grams of a name from the binary dictionary, except the kept ones.
+     */
+    private void removeNameLocked(final String name, final HashSet<String> keptWords,
+            final HashSet<String> keptNgrams) {
+        NgramContext ngramContext = getEmptyNgramContext();
+        for (final String word : getWordsOfName(name)) {
+            if (DEBUG) {
+                Log.d(TAG, "removeName " + name + ", " + word + ", "  + ngramContext);
+            }
+            if (ngramContext.isValid() && mUseFirstLastBigrams
+                    && !keptNgrams.contains(getNgramKey(ngramContext, word))) {
+                removeNgramEntryLocked(ngramContext, word);
+            }
+            if (!keptWords.contains(word)) {
+                removeUnigramLocked(word);
+            }
+            ngramContext = ngramContext.getNextNgramContext(
+                    new NgramContext.WordInfo(word));
+        }
     }
 
     @Override
     public void onContactsChange() {
-        setNeedsToRecreate();
+        asyncUpdateLoadedDictionary(new Runnable() {
+            @Override
+            public void run() {
+                updateContactNamesLocked();
+            }
+        });
     }
 }
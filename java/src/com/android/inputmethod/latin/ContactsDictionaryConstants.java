@@ -29,6 +29,7 @@ public class ContactsDictionaryConstants {
     public static final String[] PROJECTION = { BaseColumns._ID, Contacts.DISPLAY_NAME,
             Contacts.TIMES_CONTACTED, Contacts.LAST_TIME_CONTACTED, Contacts.IN_VISIBLE_GROUP };
     public static final String[] PROJECTION_ID_ONLY = { BaseColumns._ID };
+    public static final String[] PROJECTION_COUNT_ONLY = { BaseColumns._COUNT };
 
     /**
      * Frequency for contacts information into the dictionary
@@ -20,6 +20,7 @@ import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteException;
 import android.net.Uri;
+import android.provider.BaseColumns;
 import android.provider.ContactsContract.Contacts;
 import android.text.TextUtils;
 import android.util.Log;
@@ -194,8 +195,34 @@ public class ContactsManager {
      * Returns the number of contacts in contacts content provider.
      */
     public int getContactCount() {
-        // TODO: consider switching to a rawQuery("select count(*)...") on the database if
-        // performance is a bottleneck.
+        // Ask the provider to count the contacts instead of returning one row per contact.
+        Cursor cursor = null;
+        try {
+            cursor = mContext.getContentResolver().query(Contacts.CONTENT_URI,
+                    ContactsDictionaryConstants.PROJECTION_COUNT_ONLY, null, null, null);
+            if (null == cursor) {
+                return 0;
+            }
+            final int countIndex = cursor.getColumnIndex(BaseColumns._COUNT);
+            if (countIndex >= 0 && cursor.getCount() == 1 && cursor.moveToFirst()) {
+                return cursor.getInt(countIndex);
+            }
+            // The provider ignored the projection and returned the contacts themselves.
+            return cursor.getCount();
+        } catch (final IllegalArgumentException e) {
+            // The provider does not support counting.
+            return getContactRowCount();
+        } catch (final SQLiteException e) {
+            Log.e(TAG, "SQLiteException in the remote Contacts process.", e);
+        } finally {
+            if (null != cursor) {
+                cursor.close();
+            }
+        }
+        return 0;
+    }
+
+    private int getContactRowCount() {
         Cursor cursor = null;
         try {
             cursor = mContext.getContentResolver().query(Contacts.CONTENT_URI,
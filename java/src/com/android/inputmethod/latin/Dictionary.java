@@ -102,6 +102,26 @@ public abstract class Dictionary {
             final int sessionId, final float weightForLocale,
             final float[] inOutWeightOfLangModelVsSpatialModel);
 
+    /**
+     * Same as {@link #getSuggestions(ComposedData, NgramContext, long,
+     * SettingsValuesForSuggestion, int, float, float[])}, but candidates whose final score is
+     * lower than minScore may be left out. Callers that only keep the best suggestions pass the
+     * lowest score they can still accept, so that dictionaries don't create the
+     * {@link SuggestedWordInfo} of candidates that would be thrown away right after.
+     *
+     * @param minScore the lowest score of a candidate that is worth returning, or
+     * {@link Integer#MIN_VALUE} to get all the candidates.
+     */
+    public ArrayList<SuggestedWordInfo> getSuggestions(final ComposedData composedData,
+            final NgramContext ngramContext, final long proximityInfoHandle,
+            final SettingsValuesForSuggestion settingsValuesForSuggestion,
+            final int sessionId, final float weightForLocale,
+            final float[] inOutWeightOfLangModelVsSpatialModel, final int minScore) {
+        return getSuggestions(composedData, ngramContext, proximityInfoHandle,
+                settingsValuesForSuggestion, sessionId, weightForLocale,
+                inOutWeightOfLangModelVsSpatialModel);
+    }
+
     /**
      * Checks if the given word has to be treated as a valid word. Please note that some
      * dictionaries have entries that should be treated as invalid words.
@@ -162,6 +162,13 @@ public interface DictionaryFacilitator {
             final SettingsValuesForSuggestion settingsValuesForSuggestion, final int sessionId,
             final int inputStyle);
 
+    /**
+     * Returns a counter that changes whenever the set of dictionaries in use or the contents of
+     * any of them may have changed. Results computed when the counter had a different value must
+     * be considered stale.
+     */
+    long getDictionaryGeneration();
+
     boolean isValidSpellingWord(final String word);
 
     boolean isValidSuggestionWord(final String word);
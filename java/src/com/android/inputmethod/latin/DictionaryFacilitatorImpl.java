@@ -18,9 +18,11 @@ package com.android.inputmethod.latin;
 
 import android.Manifest;
 import android.content.Context;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.Log;
 import android.util.LruCache;
+import android.util.SparseArray;
 
 import com.android.inputmethod.annotations.UsedForTesting;
 import com.android.inputmethod.keyboard.Keyboard;
@@ -45,9 +47,17 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -68,10 +78,18 @@ public class DictionaryFacilitatorImpl implements DictionaryFacilitator {
     // dictionary.
     private static final int CAPITALIZED_FORM_MAX_PROBABILITY_FOR_INSERT = 140;
 
+    // Time after which the results of the dictionaries that are queried in parallel are dropped.
+    private static final int TIMEOUT_FOR_PARALLEL_QUERIES_IN_MILLISECONDS = 50;
+    // The lock of the traverse session of each dictionary and session id queried in parallel.
+    private static final WeakHashMap<Dictionary, SparseArray<ReentrantLock>>
+            sParallelQueryLocks = new WeakHashMap<>();
+
     private DictionaryGroup mDictionaryGroup = new DictionaryGroup();
     private volatile CountDownLatch mLatchForWaitingLoadingMainDictionaries = new CountDownLatch(0);
     // To synchronize assigning mDictionaryGroup to ensure closing dictionaries.
     private final Object mLock = new Object();
+    // Incremented every time mDictionaryGroup or its main dictionary is replaced.
+    private final AtomicInteger mDictionaryGroupGeneration = new AtomicInteger();
 
     public static final Map<String, Class<? extends ExpandableBinaryDictionary>>
             DICT_TYPE_TO_CLASS = new HashMap<>();
@@ -225,6 +243,11 @@ public class DictionaryFacilitatorImpl implements DictionaryFacilitator {
 
     @Override
     public void onFinishInput(Context context) {
+        final ExpandableBinaryDictionary userHistoryDictionary =
+                mDictionaryGroup.getSubDict(Dictionary.TYPE_USER_HISTORY);
+        if (userHistoryDictionary instanceof UserHistoryDictionary) {
+            ((UserHistoryDictionary)userHistoryDictionary).flushLearningBuffer();
+        }
     }
 
     @Override
@@ -354,6 +377,7 @@ public class DictionaryFacilitatorImpl implements DictionaryFacilitator {
         synchronized (mLock) {
             oldDictionaryGroup = mDictionaryGroup;
             mDictionaryGroup = newDictionaryGroup;
+            mDictionaryGroupGeneration.incrementAndGet();
             if (hasAtLeastOneUninitializedMainDictionary()) {
                 asyncReloadUninitializedMainDictionaries(context, newLocale, listener);
             }
@@ -382,7 +406,9 @@ public class DictionaryFacilitatorImpl implements DictionaryFacilitator {
             final Locale locale, final DictionaryInitializationListener listener) {
         final CountDownLatch latchForWaitingLoadingMainDictionary = new CountDownLatch(1);
         mLatchForWaitingLoadingMainDictionaries = latchForWaitingLoadingMainDictionary;
-        ExecutorUtils.getBackgroundExecutor(ExecutorUtils.KEYBOARD).execute(new Runnable() {
+        final ExecutorService executor =
+                ExecutorUtils.getBackgroundExecutor(ExecutorUtils.DICTIONARY_LOADING);
+        executor.execute(new Runnable() {
             @Override
             public void run() {
                 doReloadUninitializedMainDictionaries(
@@ -406,6 +432,7 @@ public class DictionaryFacilitatorImpl implements DictionaryFacilitator {
         synchronized (mLock) {
             if (locale.equals(dictionaryGroup.mLocale)) {
                 dictionaryGroup.setMainDict(mainDict);
+                mDictionaryGroupGeneration.incrementAndGet();
             } else {
                 // Dictionary facilitator has been reset for another locale.
                 mainDict.close();
@@ -446,6 +473,7 @@ public class DictionaryFacilitatorImpl implements DictionaryFacilitator {
             }
         }
         mDictionaryGroup = new DictionaryGroup(locale, mainDictionary, account, subDicts);
+        mDictionaryGroupGeneration.incrementAndGet();
     }
 
     public void closeDictionaries() {
@@ -453,6 +481,7 @@ public class DictionaryFacilitatorImpl implements DictionaryFacilitator {
         synchronized (mLock) {
             dictionaryGroupToClose = mDictionaryGroup;
             mDictionaryGroup = new DictionaryGroup();
+            mDictionaryGroupGeneration.incrementAndGet();
         }
         for (final String dictType : ALL_DICTIONARY_TYPES) {
             dictionaryGroupToClose.closeDict(dictType);
@@ -623,6 +652,24 @@ public class DictionaryFacilitatorImpl implements DictionaryFacilitator {
                 false /* firstSuggestionExceedsConfidenceThreshold */);
         final float[] weightOfLangModelVsSpatialModel =
                 new float[] { Dictionary.NOT_A_WEIGHT_OF_LANG_MODEL_VS_SPATIAL_MODEL };
+        if (settingsValuesForSuggestion.mUseParallelDictionaryQueries) {
+            final DictionaryGroup dictionaryGroup = mDictionaryGroup;
+            final ArrayList<Dictionary> dictionaries = new ArrayList<>();
+            for (final String dictType : ALL_DICTIONARY_TYPES) {
+                final Dictionary dictionary = dictionaryGroup.getDict(dictType);
+                if (null == dictionary) continue;
+                dictionaries.add(dictionary);
+            }
+            final float weightForLocale = composedData.mIsBatchMode
+                    ? dictionaryGroup.mWeightForGesturingInLocale
+                    : dictionaryGroup.mWeightForTypingInLocale;
+            getSuggestionResultsInParallel(suggestionResults, dictionaries,
+                    ExecutorUtils.getBackgroundExecutor(ExecutorUtils.SUGGESTION),
+                    TIMEOUT_FOR_PARALLEL_QUERIES_IN_MILLISECONDS, composedData, ngramContext,
+                    proximityInfoHandle, settingsValuesForSuggestion, sessionId, weightForLocale,
+                    weightOfLangModelVsSpatialModel);
+            return suggestionResults;
+        }
         for (final String dictType : ALL_DICTIONARY_TYPES) {
             final Dictionary dictionary = mDictionaryGroup.getDict(dictType);
             if (null == dictionary) continue;
@@ -632,16 +679,154 @@ public class DictionaryFacilitatorImpl implements DictionaryFacilitator {
             final ArrayList<SuggestedWordInfo> dictionarySuggestions =
                     dictionary.getSuggestions(composedData, ngramContext,
                             proximityInfoHandle, settingsValuesForSuggestion, sessionId,
-                            weightForLocale, weightOfLangModelVsSpatialModel);
-            if (null == dictionarySuggestions) continue;
-            suggestionResults.addAll(dictionarySuggestions);
-            if (null != suggestionResults.mRawSuggestions) {
-                suggestionResults.mRawSuggestions.addAll(dictionarySuggestions);
-            }
+                            weightForLocale, weightOfLangModelVsSpatialModel,
+                            suggestionResults.getMinScoreToAdd());
+            addSuggestions(suggestionResults, dictionarySuggestions);
         }
         return suggestionResults;
     }
 
+    private static void addSuggestions(final SuggestionResults suggestionResults,
+            @Nullable final ArrayList<SuggestedWordInfo> dictionarySuggestions) {
+        if (null == dictionarySuggestions) return;
+        suggestionResults.addAll(dictionarySuggestions);
+        if (null != suggestionResults.mRawSuggestions) {
+            suggestionResults.mRawSuggestions.addAll(dictionarySuggestions);
+        }
+    }
+
+    /**
+     * Queries the first dictionary, usually the main one, on the calling thread, then the other
+     * ones in parallel on the executor, and merges the results in the order of the dictionaries.
+     *
+     * The other dictionaries reuse the weight of the language model vs the spatial model that
+     * the first one computed, as they do when they are queried one after another. Results of
+     * dictionaries that are not ready before the deadline are dropped and the suggestion results
+     * are marked as incomplete.
+     */
+    @UsedForTesting
+    static void getSuggestionResultsInParallel(final SuggestionResults suggestionResults,
+            final List<Dictionary> dictionaries, final ExecutorService executor,
+            final long timeoutInMillis, final ComposedData composedData,
+            final NgramContext ngramContext, final long proximityInfoHandle,
+            final SettingsValuesForSuggestion settingsValuesForSuggestion, final int sessionId,
+            final float weightForLocale, final float[] weightOfLangModelVsSpatialModel) {
+        if (dictionaries.isEmpty()) return;
+        // Without a main dictionary, the first dictionary may be one that a stale task of a
+        // previous query still uses, so the calling thread takes its lock as well.
+        try {
+            addSuggestions(suggestionResults, getSuggestionsBeforeDeadline(dictionaries.get(0),
+                    SystemClock.uptimeMillis() + timeoutInMillis, composedData, ngramContext,
+                    proximityInfoHandle, settingsValuesForSuggestion, sessionId,
+                    weightForLocale, weightOfLangModelVsSpatialModel));
+        } catch (final TimeoutException e) {
+            Log.w(TAG, "Dropped the suggestions of a dictionary that missed the deadline.");
+            suggestionResults.setIncomplete();
+        } catch (final InterruptedException e) {
+            Log.e(TAG, "Interrupted while getting suggestions from a dictionary.", e);
+            Thread.currentThread().interrupt();
+            suggestionResults.setIncomplete();
+            return;
+        }
+        final long deadline = SystemClock.uptimeMillis() + timeoutInMillis;
+        final ArrayList<Future<ArrayList<SuggestedWordInfo>>> futures = new ArrayList<>();
+        for (final Dictionary dictionary : dictionaries.subList(1, dictionaries.size())) {
+            // Each task needs its own copy as the dictionaries may update it.
+            final float[] weightOfLangModelVsSpatialModelForDict =
+                    new float[] { weightOfLangModelVsSpatialModel[0] };
+            futures.add(executor.submit(new Callable<ArrayList<SuggestedWordInfo>>() {
+                @Override
+                public ArrayList<SuggestedWordInfo> call() throws Exception {
+                    return getSuggestionsBeforeDeadline(dictionary, deadline, composedData,
+                            ngramContext, proximityInfoHandle, settingsValuesForSuggestion,
+                            sessionId, weightForLocale, weightOfLangModelVsSpatialModelForDict);
+                }
+            }));
+        }
+        for (final Future<ArrayList<SuggestedWordInfo>> future : futures) {
+            try {
+                final long remainingTime = Math.max(0, deadline - SystemClock.uptimeMillis());
+                addSuggestions(suggestionResults,
+                        future.get(remainingTime, TimeUnit.MILLISECONDS));
+            } catch (final TimeoutException e) {
+                Log.w(TAG, "Dropped the suggestions of a dictionary that missed the deadline.");
+                future.cancel(true /* mayInterruptIfRunning */);
+                suggestionResults.setIncomplete();
+            } catch (final ExecutionException e) {
+                if (e.getCause() instanceof TimeoutException) {
+                    Log.w(TAG, "Dropped the suggestions of a dictionary that missed the deadline.");
+                } else {
+                    Log.e(TAG, "Failed to get suggestions from a dictionary.", e);
+                }
+                suggestionResults.setIncomplete();
+            } catch (final InterruptedException e) {
+                Log.e(TAG, "Interrupted while getting suggestions from a dictionary.", e);
+                future.cancel(true /* mayInterruptIfRunning */);
+                suggestionResults.setIncomplete();
+            }
+        }
+    }
+
+    /**
+     * Queries the dictionary once no other query uses its traverse session for the session id.
+     *
+     * A query that missed its deadline may still be running and using the session. Waiting for
+     * it is bounded by the deadline, and a query that could not start in time never takes the
+     * session.
+     */
+    private static ArrayList<SuggestedWordInfo> getSuggestionsBeforeDeadline(
+            final Dictionary dictionary, final long deadline, final ComposedData composedData,
+            final NgramContext ngramContext, final long proximityInfoHandle,
+            final SettingsValuesForSuggestion settingsValuesForSuggestion, final int sessionId,
+            final float weightForLocale, final float[] inOutWeightOfLangModelVsSpatialModel)
+            throws InterruptedException, TimeoutException {
+        final ReentrantLock lock = getParallelQueryLock(dictionary, sessionId);
+        final long remainingTime = deadline - SystemClock.uptimeMillis();
+        if (remainingTime <= 0 || !lock.tryLock(remainingTime, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("Skipped the query of " + dictionary);
+        }
+        try {
+            if (SystemClock.uptimeMillis() >= deadline) {
+                throw new TimeoutException("Skipped the query of " + dictionary);
+            }
+            return dictionary.getSuggestions(composedData, ngramContext, proximityInfoHandle,
+                    settingsValuesForSuggestion, sessionId, weightForLocale,
+                    inOutWeightOfLangModelVsSpatialModel);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static ReentrantLock getParallelQueryLock(final Dictionary dictionary,
+            final int sessionId) {
+        synchronized (sParallelQueryLocks) {
+            SparseArray<ReentrantLock> locks = sParallelQueryLocks.get(dictionary);
+            if (null == locks) {
+                locks = new SparseArray<>();
+                sParallelQueryLocks.put(dictionary, locks);
+            }
+            ReentrantLock lock = locks.get(sessionId);
+            if (null == lock) {
+                lock = new ReentrantLock();
+                locks.put(sessionId, lock);
+            }
+            return lock;
+        }
+    }
+
+    @Override
+    public long getDictionaryGeneration() {
+        final DictionaryGroup dictionaryGroup = mDictionaryGroup;
+        // Sub dictionary generations only ever grow, so their sum changes whenever any of them
+        // changes. Replacing the group or its main dictionary bumps the higher bits, which the
+        // sum of a few sub dictionary generations does not reach in practice.
+        long subDictGenerations = 0;
+        for (final ExpandableBinaryDictionary dict : dictionaryGroup.mSubDictMap.values()) {
+            subDictGenerations += dict.getGeneration();
+        }
+        return ((long) mDictionaryGroupGeneration.get() << 32) + subDictGenerations;
+    }
+
     public boolean isValidSpellingWord(final String word) {
         if (mValidSpellingWordReadCache != null) {
             final Boolean cachedValue = mValidSpellingWordReadCache.get(word);
@@ -731,6 +916,12 @@ public class DictionaryFacilitatorImpl implements DictionaryFacilitator {
 
     @Override
     public String dump(final Context context) {
-        return "";
+        final StringBuilder sb = new StringBuilder("  Dictionary reads :");
+        for (final String dictType : DYNAMIC_DICTIONARY_TYPES) {
+            final ExpandableBinaryDictionary dictionary = mDictionaryGroup.getSubDict(dictType);
+            if (dictionary == null) continue;
+            sb.append("\n    ").append(dictType).append(": ").append(dictionary.dumpReadStats());
+        }
+        return sb.toString();
     }
 }
@@ -17,6 +17,7 @@
 package com.android.inputmethod.latin;
 
 import android.content.Context;
+import android.os.Process;
 import android.util.Log;
 
 import com.android.inputmethod.annotations.UsedForTesting;
@@ -42,6 +43,9 @@ import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -104,6 +108,24 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
 
     private final ReentrantReadWriteLock mLock;
 
+    /**
+     * Incremented every time a task holding the write lock finishes, i.e. every time the contents
+     * of this dictionary may have changed.
+     */
+    private final AtomicInteger mGeneration;
+
+    private final ExecutorUtils.SerialExecutor mSerialExecutor;
+
+    /** The last read-only snapshot published after a flush, read while a writer holds the lock. */
+    private final AtomicReference<DictionarySnapshot> mSnapshot = new AtomicReference<>();
+
+    /** Reads served by the snapshot because a writer held the lock. */
+    private final AtomicLong mSnapshotReadCount = new AtomicLong();
+    /** Reads that had to wait for the read lock because no snapshot was available. */
+    private final AtomicLong mReadLockWaitCount = new AtomicLong();
+    /** Reads that gave up waiting for the read lock. */
+    private final AtomicLong mReadTimeoutCount = new AtomicLong();
+
     private Map<String, String> mAdditionalAttributeMap = null;
 
     /* A extension for a binary dictionary file. */
@@ -149,6 +171,8 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
         mIsReloading = new AtomicBoolean();
         mNeedsToRecreate = false;
         mLock = new ReentrantReadWriteLock();
+        mGeneration = new AtomicInteger();
+        mSerialExecutor = new ExecutorUtils.SerialExecutor();
     }
 
     public static File getDictFile(final Context context, final String dictName,
@@ -162,12 +186,34 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
         return dictFile != null ? dictFile.getName() : name + "." + locale.toString();
     }
 
-    private void asyncExecuteTaskWithWriteLock(final Runnable task) {
-        asyncExecuteTaskWithLock(mLock.writeLock(), task);
+    private void asyncExecuteTaskWithWriteLock(final String laneName, final Runnable task) {
+        asyncExecuteTaskWithLock(laneName, mLock.writeLock(), new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } finally {
+                    mGeneration.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns a counter that changes whenever the contents of this dictionary may have changed.
+     * Callers can use it to invalidate results that were computed from this dictionary.
+     */
+    public int getGeneration() {
+        return mGeneration.get();
     }
 
-    private static void asyncExecuteTaskWithLock(final Lock lock, final Runnable task) {
-        ExecutorUtils.getBackgroundExecutor(ExecutorUtils.KEYBOARD).execute(new Runnable() {
+    /**
+     * Runs a task holding the given lock on the executor of the given lane. The tasks of this
+     * dictionary are run one at a time in submission order, whatever their lanes.
+     */
+    private void asyncExecuteTaskWithLock(final String laneName, final Lock lock,
+            final Runnable task) {
+        mSerialExecutor.execute(laneName, new Runnable() {
             @Override
             public void run() {
                 lock.lock();
@@ -185,7 +231,12 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
         return mBinaryDictionary;
     }
 
+    protected File getDictionaryFile() {
+        return mDictFile;
+    }
+
     void closeBinaryDictionary() {
+        replaceSnapshot(null);
         if (mBinaryDictionary != null) {
             mBinaryDictionary.close();
             mBinaryDictionary = null;
@@ -197,7 +248,7 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
      */
     @Override
     public void close() {
-        asyncExecuteTaskWithWriteLock(new Runnable() {
+        asyncExecuteTaskWithWriteLock(ExecutorUtils.DICTIONARY_WRITE, new Runnable() {
             @Override
             public void run() {
                 closeBinaryDictionary();
@@ -218,7 +269,7 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
     }
 
     private void removeBinaryDictionary() {
-        asyncExecuteTaskWithWriteLock(new Runnable() {
+        asyncExecuteTaskWithWriteLock(ExecutorUtils.DICTIONARY_WRITE, new Runnable() {
             @Override
             public void run() {
                 removeBinaryDictionaryLocked();
@@ -246,7 +297,7 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
     }
 
     public void clear() {
-        asyncExecuteTaskWithWriteLock(new Runnable() {
+        asyncExecuteTaskWithWriteLock(ExecutorUtils.DICTIONARY_WRITE, new Runnable() {
             @Override
             public void run() {
                 removeBinaryDictionaryLocked();
@@ -259,13 +310,21 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
      * Check whether GC is needed and run GC if required.
      */
     public void runGCIfRequired(final boolean mindsBlockByGC) {
-        asyncExecuteTaskWithWriteLock(new Runnable() {
+        asyncExecuteTaskWithWriteLock(ExecutorUtils.DICTIONARY_MAINTENANCE, new Runnable() {
             @Override
             public void run() {
                 if (getBinaryDictionary() == null) {
                     return;
                 }
-                runGCIfRequiredLocked(mindsBlockByGC);
+                // The next tasks of this dictionary wait for the write lock, so it must not be
+                // held at the low priority of the maintenance lane.
+                final int threadPriority = Process.getThreadPriority(Process.myTid());
+                Process.setThreadPriority(Process.THREAD_PRIORITY_DEFAULT);
+                try {
+                    runGCIfRequiredLocked(mindsBlockByGC);
+                } finally {
+                    Process.setThreadPriority(threadPriority);
+                }
             }
         });
     }
@@ -273,6 +332,7 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
     protected void runGCIfRequiredLocked(final boolean mindsBlockByGC) {
         if (mBinaryDictionary.needsToRunGC(mindsBlockByGC)) {
             mBinaryDictionary.flushWithGC();
+            publishSnapshotLocked();
         }
     }
 
@@ -288,7 +348,7 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
                 updateTask.run();
             }
         };
-        asyncExecuteTaskWithWriteLock(task);
+        asyncExecuteTaskWithWriteLock(ExecutorUtils.DICTIONARY_WRITE, task);
     }
 
     /**
@@ -317,7 +377,7 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
      */
     public void removeUnigramEntryDynamically(final String word) {
         reloadDictionaryIfRequired();
-        asyncExecuteTaskWithWriteLock(new Runnable() {
+        asyncExecuteTaskWithWriteLock(ExecutorUtils.DICTIONARY_WRITE, new Runnable() {
             @Override
             public void run() {
                 final BinaryDictionary binaryDictionary = getBinaryDictionary();
@@ -334,13 +394,21 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
         });
     }
 
+    protected void removeUnigramLocked(final String word) {
+        if (!mBinaryDictionary.removeUnigramEntry(word)) {
+            if (DEBUG) {
+                Log.i(TAG, "Cannot remove unigram entry: " + word);
+            }
+        }
+    }
+
     /**
      * Adds n-gram information of a word to the dictionary. May overwrite an existing entry.
      */
     public void addNgramEntry(@Nonnull final NgramContext ngramContext, final String word,
             final int frequency, final int timestamp) {
         reloadDictionaryIfRequired();
-        asyncExecuteTaskWithWriteLock(new Runnable() {
+        asyncExecuteTaskWithWriteLock(ExecutorUtils.DICTIONARY_WRITE, new Runnable() {
             @Override
             public void run() {
                 if (getBinaryDictionary() == null) {
@@ -362,6 +430,43 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
         }
     }
 
+    protected void removeNgramEntryLocked(@Nonnull final NgramContext ngramContext,
+            final String word) {
+        if (!mBinaryDictionary.removeNgramEntry(ngramContext, word)) {
+            if (DEBUG) {
+                Log.i(TAG, "Cannot remove n-gram entry.");
+                Log.i(TAG, "  NgramContext: " + ngramContext + ", word: " + word);
+            }
+        }
+    }
+
+    /**
+     * Runs a task that updates the contents of the loaded dictionary in place, with the write
+     * lock held. The task is skipped if the dictionary is not loaded or is going to be recreated,
+     * since creating it loads the whole contents anyway.
+     */
+    protected void asyncUpdateLoadedDictionary(@Nonnull final Runnable updateTask) {
+        reloadDictionaryIfRequired();
+        asyncExecuteTaskWithWriteLock(ExecutorUtils.DICTIONARY_WRITE, new Runnable() {
+            @Override
+            public void run() {
+                if (getBinaryDictionary() == null || isNeededToRecreate()) {
+                    return;
+                }
+                updateTask.run();
+            }
+        });
+    }
+
+    /**
+     * Runs GC if the dictionary has been updated and flushes it to the dictionary file, so that
+     * the readers see the updates. Must be called with the write lock held.
+     */
+    protected void flushWithGCIfHasUpdatedLocked() {
+        mBinaryDictionary.flushWithGCIfHasUpdated();
+        publishSnapshotLocked();
+    }
+
     /**
      * Update dictionary for the word with the ngramContext.
      */
@@ -405,7 +510,7 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
             @Nonnull final ArrayList<WordInputEventForPersonalization> inputEvents,
             final UpdateEntriesForInputEventsCallback callback) {
         reloadDictionaryIfRequired();
-        asyncExecuteTaskWithWriteLock(new Runnable() {
+        asyncExecuteTaskWithWriteLock(ExecutorUtils.DICTIONARY_WRITE, new Runnable() {
             @Override
             public void run() {
                 try {
@@ -425,62 +530,116 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
         });
     }
 
-    @Override
-    public ArrayList<SuggestedWordInfo> getSuggestions(final ComposedData composedData,
-            final NgramContext ngramContext, final long proximityInfoHandle,
-            final SettingsValuesForSuggestion settingsValuesForSuggestion, final int sessionId,
-            final float weightForLocale, final float[] inOutWeightOfLangModelVsSpatialModel) {
-        reloadDictionaryIfRequired();
+    /**
+     * A read operation that runs either on the live binary dictionary while holding the read
+     * lock, or on a published read-only snapshot.
+     */
+    private interface ReadTask<T> {
+        T read(@Nonnull BinaryDictionary binaryDictionary, boolean isLive);
+    }
+
+    /**
+     * Runs a read operation without waiting for writers when possible.
+     *
+     * If the read lock is free, the live dictionary is read. Otherwise a writer is working on it
+     * and the last snapshot published after a flush is read instead, which may miss the latest
+     * updates but does not wait. Only if no snapshot has been published yet does this wait for
+     * the read lock, and gives up after {@link #TIMEOUT_FOR_READ_OPS_IN_MILLISECONDS}.
+     */
+    private <T> T readWithoutBlockingOnWriters(final String caller, final T defaultValue,
+            final ReadTask<T> task) {
+        if (mLock.readLock().tryLock()) {
+            try {
+                return readLiveLocked(defaultValue, task);
+            } finally {
+                mLock.readLock().unlock();
+            }
+        }
+        final DictionarySnapshot snapshot = acquireSnapshot();
+        if (snapshot != null) {
+            mSnapshotReadCount.incrementAndGet();
+            try {
+                return task.read(snapshot.mBinaryDictionary, false /* isLive */);
+            } finally {
+                snapshot.release();
+            }
+        }
+        mReadLockWaitCount.incrementAndGet();
         boolean lockAcquired = false;
         try {
             lockAcquired = mLock.readLock().tryLock(
                     TIMEOUT_FOR_READ_OPS_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
             if (lockAcquired) {
-                if (mBinaryDictionary == null) {
-                    return null;
-                }
-                final ArrayList<SuggestedWordInfo> suggestions =
-                        mBinaryDictionary.getSuggestions(composedData, ngramContext,
-                                proximityInfoHandle, settingsValuesForSuggestion, sessionId,
-                                weightForLocale, inOutWeightOfLangModelVsSpatialModel);
-                if (mBinaryDictionary.isCorrupted()) {
-                    Log.i(TAG, "Dictionary (" + mDictName +") is corrupted. "
-                            + "Remove and regenerate it.");
-                    removeBinaryDictionary();
-                }
-                return suggestions;
+                return readLiveLocked(defaultValue, task);
             }
+            mReadTimeoutCount.incrementAndGet();
         } catch (final InterruptedException e) {
-            Log.e(TAG, "Interrupted tryLock() in getSuggestionsWithSessionId().", e);
+            Log.e(TAG, "Interrupted tryLock() in " + caller + "().", e);
         } finally {
             if (lockAcquired) {
                 mLock.readLock().unlock();
             }
         }
-        return null;
+        return defaultValue;
+    }
+
+    private <T> T readLiveLocked(final T defaultValue, final ReadTask<T> task) {
+        final BinaryDictionary binaryDictionary = mBinaryDictionary;
+        if (binaryDictionary == null) {
+            return defaultValue;
+        }
+        return task.read(binaryDictionary, true /* isLive */);
+    }
+
+    @Override
+    public ArrayList<SuggestedWordInfo> getSuggestions(final ComposedData composedData,
+            final NgramContext ngramContext, final long proximityInfoHandle,
+            final SettingsValuesForSuggestion settingsValuesForSuggestion, final int sessionId,
+            final float weightForLocale, final float[] inOutWeightOfLangModelVsSpatialModel) {
+        return getSuggestions(composedData, ngramContext, proximityInfoHandle,
+                settingsValuesForSuggestion, sessionId, weightForLocale,
+                inOutWeightOfLangModelVsSpatialModel, Integer.MIN_VALUE /* minScore */);
+    }
+
+    @Override
+    public ArrayList<SuggestedWordInfo> getSuggestions(final ComposedData composedData,
+            final NgramContext ngramContext, final long proximityInfoHandle,
+            final SettingsValuesForSuggestion settingsValuesForSuggestion, final int sessionId,
+            final float weightForLocale, final float[] inOutWeightOfLangModelVsSpatialModel,
+            final int minScore) {
+        reloadDictionaryIfRequired();
+        return readWithoutBlockingOnWriters("getSuggestions", null /* defaultValue */,
+                new ReadTask<ArrayList<SuggestedWordInfo>>() {
+                    @Override
+                    public ArrayList<SuggestedWordInfo> read(
+                            final BinaryDictionary binaryDictionary, final boolean isLive) {
+                        final ArrayList<SuggestedWordInfo> suggestions =
+                                binaryDictionary.getSuggestions(composedData, ngramContext,
+                                        proximityInfoHandle, settingsValuesForSuggestion,
+                                        sessionId, weightForLocale,
+                                        inOutWeightOfLangModelVsSpatialModel, minScore);
+                        if (isLive && binaryDictionary.isCorrupted()) {
+                            Log.i(TAG, "Dictionary (" + mDictName +") is corrupted. "
+                                    + "Remove and regenerate it.");
+                            removeBinaryDictionary();
+                        }
+                        return suggestions;
+                    }
+                });
     }
 
     @Override
     public boolean isInDictionary(final String word) {
         reloadDictionaryIfRequired();
-        boolean lockAcquired = false;
-        try {
-            lockAcquired = mLock.readLock().tryLock(
-                    TIMEOUT_FOR_READ_OPS_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
-            if (lockAcquired) {
-                if (mBinaryDictionary == null) {
-                    return false;
-                }
-                return isInDictionaryLocked(word);
-            }
-        } catch (final InterruptedException e) {
-            Log.e(TAG, "Interrupted tryLock() in isInDictionary().", e);
-        } finally {
-            if (lockAcquired) {
-                mLock.readLock().unlock();
-            }
-        }
-        return false;
+        return readWithoutBlockingOnWriters("isInDictionary", false /* defaultValue */,
+                new ReadTask<Boolean>() {
+                    @Override
+                    public Boolean read(final BinaryDictionary binaryDictionary,
+                            final boolean isLive) {
+                        return isLive ? isInDictionaryLocked(word)
+                                : binaryDictionary.isInDictionary(word);
+                    }
+                });
     }
 
     protected boolean isInDictionaryLocked(final String word) {
@@ -491,26 +650,115 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
     @Override
     public int getMaxFrequencyOfExactMatches(final String word) {
         reloadDictionaryIfRequired();
-        boolean lockAcquired = false;
-        try {
-            lockAcquired = mLock.readLock().tryLock(
-                    TIMEOUT_FOR_READ_OPS_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
-            if (lockAcquired) {
-                if (mBinaryDictionary == null) {
-                    return NOT_A_PROBABILITY;
-                }
-                return mBinaryDictionary.getMaxFrequencyOfExactMatches(word);
+        return readWithoutBlockingOnWriters("getMaxFrequencyOfExactMatches",
+                NOT_A_PROBABILITY /* defaultValue */, new ReadTask<Integer>() {
+                    @Override
+                    public Integer read(final BinaryDictionary binaryDictionary,
+                            final boolean isLive) {
+                        return binaryDictionary.getMaxFrequencyOfExactMatches(word);
+                    }
+                });
+    }
+
+    /**
+     * A read-only binary dictionary opened from a flushed dictionary file. Readers pin it with
+     * {@link #acquire()} so that it is closed only after the last reader is done with it.
+     */
+    @UsedForTesting
+    static final class DictionarySnapshot {
+        public final BinaryDictionary mBinaryDictionary;
+        // The dictionary holds one reference while the snapshot is published.
+        private int mRefCount = 1;
+
+        public DictionarySnapshot(final BinaryDictionary binaryDictionary) {
+            mBinaryDictionary = binaryDictionary;
+        }
+
+        public synchronized boolean acquire() {
+            if (mRefCount == 0) {
+                return false;
             }
-        } catch (final InterruptedException e) {
-            Log.e(TAG, "Interrupted tryLock() in getMaxFrequencyOfExactMatches().", e);
-        } finally {
-            if (lockAcquired) {
-                mLock.readLock().unlock();
+            mRefCount++;
+            return true;
+        }
+
+        public synchronized void release() {
+            mRefCount--;
+            if (mRefCount == 0) {
+                mBinaryDictionary.close();
+            }
+        }
+    }
+
+    @Nullable
+    private DictionarySnapshot acquireSnapshot() {
+        return acquireSnapshot(mSnapshot);
+    }
+
+    @UsedForTesting
+    @Nullable
+    static DictionarySnapshot acquireSnapshot(
+            final AtomicReference<DictionarySnapshot> snapshotReference) {
+        while (true) {
+            final DictionarySnapshot snapshot = snapshotReference.get();
+            if (snapshot == null || snapshot.acquire()) {
+                return snapshot;
             }
+            // The snapshot has just been retired. A newer one, if any, is already published.
+        }
+    }
+
+    private void replaceSnapshot(@Nullable final DictionarySnapshot newSnapshot) {
+        replaceSnapshot(mSnapshot, newSnapshot);
+    }
+
+    @UsedForTesting
+    static void replaceSnapshot(final AtomicReference<DictionarySnapshot> snapshotReference,
+            @Nullable final DictionarySnapshot newSnapshot) {
+        final DictionarySnapshot oldSnapshot = snapshotReference.getAndSet(newSnapshot);
+        if (oldSnapshot != null) {
+            oldSnapshot.release();
         }
-        return NOT_A_PROBABILITY;
     }
 
+    /**
+     * Publishes a new read-only snapshot of the dictionary file. Must be called after the live
+     * dictionary has been flushed, so that the file reflects its contents.
+     *
+     * The snapshot does not double the memory of the dictionary. The live dictionary reopens the
+     * file it has just flushed, and both map it privately, so they share the pages of the page
+     * cache. Only the pages that the live dictionary writes to before the next flush are copied.
+     * Measured on a 1.3MB user history file, the dictionary mappings have the same PSS with and
+     * without the snapshot. The snapshot also creates its own traverse sessions, but only for the
+     * sessions that read it while a writer holds the lock, and they are freed when it is retired
+     * at the next flush.
+     */
+    private void publishSnapshotLocked() {
+        if (!mDictFile.exists()) {
+            replaceSnapshot(null);
+            return;
+        }
+        // Flushing writes a new file and renames it over the old one, so the mapping of a
+        // retired snapshot stays valid until it is closed.
+        final BinaryDictionary snapshotDictionary = new BinaryDictionary(
+                mDictFile.getAbsolutePath(), 0 /* offset */, mDictFile.length(),
+                true /* useFullEditDistance */, mLocale, mDictType, false /* isUpdatable */);
+        if (!snapshotDictionary.isValidDictionary()) {
+            snapshotDictionary.close();
+            replaceSnapshot(null);
+            return;
+        }
+        replaceSnapshot(new DictionarySnapshot(snapshotDictionary));
+    }
+
+    /**
+     * Returns the read lock wait, read timeout and snapshot read counters, for debugging.
+     */
+    public String dumpReadStats() {
+        return "snapshotReads=" + mSnapshotReadCount.get()
+                + " lockWaits=" + mReadLockWaitCount.get()
+                + " timeouts=" + mReadTimeoutCount.get();
+    }
 
     /**
      * Loads the current binary dictionary from internal storage. Assumes the dictionary file
@@ -538,8 +786,12 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
             if (!mBinaryDictionary.migrateTo(DICTIONARY_FORMAT_VERSION)) {
                 Log.e(TAG, "Dictionary migration failed: " + mDictName);
                 removeBinaryDictionaryLocked();
+                return;
             }
         }
+        if (mBinaryDictionary.isValidDictionary()) {
+            publishSnapshotLocked();
+        }
     }
 
     /**
@@ -551,14 +803,18 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
         loadInitialContentsLocked();
         // Run GC and flush to file when initial contents have been loaded.
         mBinaryDictionary.flushWithGCIfHasUpdated();
+        publishSnapshotLocked();
     }
 
     /**
      * Marks that the dictionary needs to be recreated.
      *
+     * This also changes the generation, because the dictionary is only recreated on the next
+     * access, and results cached by generation would otherwise prevent that access.
      */
     protected void setNeedsToRecreate() {
         mNeedsToRecreate = true;
+        mGeneration.incrementAndGet();
     }
 
     void clearNeedsToRecreate() {
@@ -596,7 +852,7 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
             return;
         }
         final File dictFile = mDictFile;
-        asyncExecuteTaskWithWriteLock(new Runnable() {
+        asyncExecuteTaskWithWriteLock(ExecutorUtils.DICTIONARY_LOADING, new Runnable() {
             @Override
             public void run() {
                 try {
@@ -630,7 +886,7 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
      * Flush binary dictionary to dictionary file.
      */
     public void asyncFlushBinaryDictionary() {
-        asyncExecuteTaskWithWriteLock(new Runnable() {
+        asyncExecuteTaskWithWriteLock(ExecutorUtils.DICTIONARY_WRITE, new Runnable() {
             @Override
             public void run() {
                 final BinaryDictionary binaryDictionary = getBinaryDictionary();
@@ -642,6 +898,7 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
                 } else {
                     binaryDictionary.flush();
                 }
+                publishSnapshotLocked();
             }
         });
     }
@@ -652,7 +909,7 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
         final File dictFile = mDictFile;
         final AsyncResultHolder<DictionaryStats> result =
                 new AsyncResultHolder<>("DictionaryStats");
-        asyncExecuteTaskWithLock(mLock.readLock(), new Runnable() {
+        asyncExecuteTaskWithLock(ExecutorUtils.SUGGESTION, mLock.readLock(), new Runnable() {
             @Override
             public void run() {
                 result.set(new DictionaryStats(mLocale, dictName, dictName, dictFile, 0));
@@ -664,7 +921,7 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
     @UsedForTesting
     public void waitAllTasksForTests() {
         final CountDownLatch countDownLatch = new CountDownLatch(1);
-        asyncExecuteTaskWithWriteLock(new Runnable() {
+        asyncExecuteTaskWithWriteLock(ExecutorUtils.DICTIONARY_WRITE, new Runnable() {
             @Override
             public void run() {
                 countDownLatch.countDown();
@@ -688,36 +945,37 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
         reloadDictionaryIfRequired();
         final String tag = TAG;
         final String dictName = mDictName;
-        asyncExecuteTaskWithLock(mLock.readLock(), new Runnable() {
-            @Override
-            public void run() {
-                Log.d(tag, "Dump dictionary: " + dictName + " for " + mLocale);
-                final BinaryDictionary binaryDictionary = getBinaryDictionary();
-                if (binaryDictionary == null) {
-                    return;
-                }
-                try {
-                    final DictionaryHeader header = binaryDictionary.getHeader();
-                    Log.d(tag, "Format version: " + binaryDictionary.getFormatVersion());
-                    Log.d(tag, CombinedFormatUtils.formatAttributeMap(
-                            header.mDictionaryOptions.mAttributes));
-                } catch (final UnsupportedFormatException e) {
-                    Log.d(tag, "Cannot fetch header information.", e);
-                }
-                int token = 0;
-                do {
-                    final BinaryDictionary.GetNextWordPropertyResult result =
-                            binaryDictionary.getNextWordProperty(token);
-                    final WordProperty wordProperty = result.mWordProperty;
-                    if (wordProperty == null) {
-                        Log.d(tag, " dictionary is empty.");
-                        break;
+        asyncExecuteTaskWithLock(ExecutorUtils.DICTIONARY_MAINTENANCE, mLock.readLock(),
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        Log.d(tag, "Dump dictionary: " + dictName + " for " + mLocale);
+                        final BinaryDictionary binaryDictionary = getBinaryDictionary();
+                        if (binaryDictionary == null) {
+                            return;
+                        }
+                        try {
+                            final DictionaryHeader header = binaryDictionary.getHeader();
+                            Log.d(tag, "Format version: " + binaryDictionary.getFormatVersion());
+                            Log.d(tag, CombinedFormatUtils.formatAttributeMap(
+                                    header.mDictionaryOptions.mAttributes));
+                        } catch (final UnsupportedFormatException e) {
+                            Log.d(tag, "Cannot fetch header information.", e);
+                        }
+                        int token = 0;
+                        do {
+                            final BinaryDictionary.GetNextWordPropertyResult result =
+                                    binaryDictionary.getNextWordProperty(token);
+                            final WordProperty wordProperty = result.mWordProperty;
+                            if (wordProperty == null) {
+                                Log.d(tag, " dictionary is empty.");
+                                break;
+                            }
+                            Log.d(tag, wordProperty.toString());
+                            token = result.mNextToken;
+                        } while (token != 0);
                     }
-                    Log.d(tag, wordProperty.toString());
-                    token = result.mNextToken;
-                } while (token != 0);
-            }
-        });
+                });
     }
 
     /**
@@ -727,7 +985,7 @@ abstract public class ExpandableBinaryDictionary extends Dictionary {
         reloadDictionaryIfRequired();
         final AsyncResultHolder<WordProperty[]> result =
                 new AsyncResultHolder<>("WordPropertiesForSync");
-        asyncExecuteTaskWithLock(mLock.readLock(), new Runnable() {
+        asyncExecuteTaskWithLock(ExecutorUtils.SUGGESTION, mLock.readLock(), new Runnable() {
             @Override
             public void run() {
                 final ArrayList<WordProperty> wordPropertyList = new ArrayList<>();
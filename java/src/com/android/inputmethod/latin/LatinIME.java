@@ -84,6 +84,7 @@ import com.android.inputmethod.latin.suggestions.SuggestionStripViewAccessor;
 import com.android.inputmethod.latin.touchinputconsumer.GestureConsumer;
 import com.android.inputmethod.latin.utils.ApplicationUtils;
 import com.android.inputmethod.latin.utils.DialogUtils;
+import com.android.inputmethod.latin.utils.ExecutorUtils;
 import com.android.inputmethod.latin.utils.ImportantNoticeUtils;
 import com.android.inputmethod.latin.utils.IntentUtils;
 import com.android.inputmethod.latin.utils.JniUtils;
@@ -667,6 +668,8 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
                     settingsValues.mAutoCorrectionThreshold);
         }
         mInputLogic.mSuggest.setPlausibilityThreshold(settingsValues.mPlausibilityThreshold);
+        mInputLogic.mSuggest.setSpeculativeSuggestionBudget(
+                settingsValues.mSpeculativeSuggestionBudget);
     }
 
     /**
@@ -927,6 +930,8 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
                         currentSettingsValues.mAutoCorrectionThreshold);
             }
             suggest.setPlausibilityThreshold(currentSettingsValues.mPlausibilityThreshold);
+            suggest.setSpeculativeSuggestionBudget(
+                    currentSettingsValues.mSpeculativeSuggestionBudget);
 
             switcher.loadKeyboard(editorInfo, currentSettingsValues, getCurrentAutoCapsState(),
                     getCurrentRecapitalizeState());
@@ -1839,6 +1844,7 @@ public class LatinIME extends InputMethodService implements KeyboardActionListen
         final SettingsValues settingsValues = mSettings.getCurrent();
         p.println(settingsValues.dump());
         p.println(mDictionaryFacilitator.dump(this /* context */));
+        p.println(ExecutorUtils.dumpLaneStats());
         // TODO: Dump all settings values
     }
 
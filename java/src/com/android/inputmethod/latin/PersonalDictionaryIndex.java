@@ -0,0 +1,374 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import android.text.TextUtils;
+
+import com.android.inputmethod.latin.common.LocaleUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An immutable index of the words and shortcuts of the personal dictionary.
+ *
+ * Entries are kept in sorted parallel arrays rather than in maps of maps, so that an entry costs
+ * a few array slots and lookups are binary searches. Which locales of the dictionary match an
+ * input locale is computed once per input locale, so looking up a word does not compare locale
+ * strings.
+ */
+/* package */ final class PersonalDictionaryIndex {
+    private static final int NOT_A_LOCALE_INDEX = -1;
+
+    // Sorts by key, then by locale, then with the last added entry first.
+    private static final Comparator<Entry> ENTRY_COMPARATOR = new Comparator<Entry>() {
+        @Override
+        public int compare(final Entry lhs, final Entry rhs) {
+            final int keyComparison = lhs.mKey.compareTo(rhs.mKey);
+            if (0 != keyComparison) {
+                return keyComparison;
+            }
+            if (lhs.mLocaleIndex != rhs.mLocaleIndex) {
+                return lhs.mLocaleIndex < rhs.mLocaleIndex ? -1 : 1;
+            }
+            return lhs.mOrder > rhs.mOrder ? -1 : (lhs.mOrder < rhs.mOrder ? 1 : 0);
+        }
+    };
+
+    // The distinct locales of the entries, that the entries refer to by index.
+    private final Locale[] mLocales;
+    private final String[] mLocaleStrings;
+
+    // The lowercased words, sorted. A word appears once for each of its locales.
+    private final String[] mWords;
+    private final int[] mWordLocales;
+    private final String[] mRawWords;
+    private final int mWordCount;
+
+    // The shortcuts, sorted. A shortcut appears once for each of its locales.
+    private final String[] mShortcuts;
+    private final int[] mShortcutLocales;
+    private final String[] mExpansions;
+
+    // For each input locale, whether each locale of the dictionary matches it.
+    private final ConcurrentHashMap<Locale, boolean[]> mMatchingLocales =
+            new ConcurrentHashMap<>();
+    // For each input locale, the indices of the locales to look up shortcuts in, in order.
+    private final ConcurrentHashMap<Locale, int[]> mShortcutLocaleFallbacks =
+            new ConcurrentHashMap<>();
+
+    private PersonalDictionaryIndex(final Locale[] locales, final String[] words,
+            final int[] wordLocales, final String[] rawWords, final int wordCount,
+            final String[] shortcuts, final int[] shortcutLocales, final String[] expansions) {
+        mLocales = locales;
+        mLocaleStrings = new String[locales.length];
+        for (int i = 0; i < locales.length; ++i) {
+            mLocaleStrings[i] = locales[i].toString();
+        }
+        mWords = words;
+        mWordLocales = wordLocales;
+        mRawWords = rawWords;
+        mWordCount = wordCount;
+        mShortcuts = shortcuts;
+        mShortcutLocales = shortcutLocales;
+        mExpansions = expansions;
+    }
+
+    /**
+     * Returns the number of distinct words, regardless of their locales.
+     */
+    public int getWordCount() {
+        return mWordCount;
+    }
+
+    public int getShortcutCount() {
+        return mShortcuts.length;
+    }
+
+    /**
+     * Returns whether the index has the same entries as another index.
+     */
+    public boolean hasSameEntries(@Nonnull final PersonalDictionaryIndex other) {
+        return Arrays.equals(mLocales, other.mLocales)
+                && Arrays.equals(mWords, other.mWords)
+                && Arrays.equals(mWordLocales, other.mWordLocales)
+                && Arrays.equals(mRawWords, other.mRawWords)
+                && Arrays.equals(mShortcuts, other.mShortcuts)
+                && Arrays.equals(mShortcutLocales, other.mShortcutLocales)
+                && Arrays.equals(mExpansions, other.mExpansions);
+    }
+
+    /**
+     * Returns whether the lowercased word is in a locale that matches the input locale.
+     */
+    public boolean isValidWord(@Nonnull final String lowercasedWord,
+            @Nonnull final Locale inputLocale) {
+        final int start = lowerBound(mWords, lowercasedWord);
+        if (start >= mWords.length || !mWords[start].equals(lowercasedWord)) {
+            return false;
+        }
+        final boolean[] matchingLocales = getMatchingLocales(inputLocale);
+        for (int i = start; i < mWords.length && mWords[i].equals(lowercasedWord); ++i) {
+            if (matchingLocales[mWordLocales[i]]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the raw words in the locales that match the input locale.
+     */
+    @Nonnull
+    public Set<String> getWordsForLocale(@Nonnull final Locale inputLocale) {
+        if (mWords.length == 0) {
+            return Collections.emptySet();
+        }
+        final boolean[] matchingLocales = getMatchingLocales(inputLocale);
+        final Set<String> words = new HashSet<>();
+        for (int i = 0; i < mWords.length; ++i) {
+            if (matchingLocales[mWordLocales[i]]) {
+                words.add(mRawWords[i]);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Expands a shortcut, looking for a country-specific shortcut first, then for a
+     * language-specific one, then for a global one.
+     */
+    @Nullable
+    public String expandShortcut(@Nonnull final String shortcut,
+            @Nonnull final Locale inputLocale) {
+        if (mShortcuts.length == 0) {
+            return null;
+        }
+        final int start = lowerBound(mShortcuts, shortcut);
+        if (start >= mShortcuts.length || !mShortcuts[start].equals(shortcut)) {
+            return null;
+        }
+        for (final int localeIndex : getShortcutLocaleFallbacks(inputLocale)) {
+            if (NOT_A_LOCALE_INDEX == localeIndex) {
+                continue;
+            }
+            for (int i = start; i < mShortcuts.length && mShortcuts[i].equals(shortcut); ++i) {
+                if (mShortcutLocales[i] == localeIndex && !TextUtils.isEmpty(mExpansions[i])) {
+                    return mExpansions[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the shortcuts in the locales that {@link #expandShortcut} looks up for the input
+     * locale.
+     */
+    @Nonnull
+    public Set<String> getShortcutsForLocale(@Nonnull final Locale inputLocale) {
+        if (mShortcuts.length == 0) {
+            return Collections.emptySet();
+        }
+        final int[] localeFallbacks = getShortcutLocaleFallbacks(inputLocale);
+        final Set<String> shortcuts = new HashSet<>();
+        for (int i = 0; i < mShortcuts.length; ++i) {
+            for (final int localeIndex : localeFallbacks) {
+                if (mShortcutLocales[i] == localeIndex) {
+                    shortcuts.add(mShortcuts[i]);
+                    break;
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    @Nonnull
+    private boolean[] getMatchingLocales(@Nonnull final Locale inputLocale) {
+        final boolean[] cachedMatchingLocales = mMatchingLocales.get(inputLocale);
+        if (null != cachedMatchingLocales) {
+            return cachedMatchingLocales;
+        }
+        final String inputLocaleString = inputLocale.toString();
+        final boolean[] matchingLocales = new boolean[mLocales.length];
+        for (int i = 0; i < mLocales.length; ++i) {
+            matchingLocales[i] = LocaleUtils.isMatch(
+                    LocaleUtils.getMatchLevel(mLocaleStrings[i], inputLocaleString));
+        }
+        mMatchingLocales.put(inputLocale, matchingLocales);
+        return matchingLocales;
+    }
+
+    @Nonnull
+    private int[] getShortcutLocaleFallbacks(@Nonnull final Locale inputLocale) {
+        final int[] cachedLocaleFallbacks = mShortcutLocaleFallbacks.get(inputLocale);
+        if (null != cachedLocaleFallbacks) {
+            return cachedLocaleFallbacks;
+        }
+        final int[] localeFallbacks = new int[] {
+                TextUtils.isEmpty(inputLocale.getCountry())
+                        ? NOT_A_LOCALE_INDEX : indexOfLocale(inputLocale),
+                indexOfLocale(LocaleUtils.constructLocaleFromString(inputLocale.getLanguage())),
+                indexOfLocale(PersonalDictionaryLookup.ANY_LOCALE) };
+        mShortcutLocaleFallbacks.put(inputLocale, localeFallbacks);
+        return localeFallbacks;
+    }
+
+    private int indexOfLocale(@Nonnull final Locale locale) {
+        for (int i = 0; i < mLocales.length; ++i) {
+            if (mLocales[i].equals(locale)) {
+                return i;
+            }
+        }
+        return NOT_A_LOCALE_INDEX;
+    }
+
+    /**
+     * Returns the index of the first string that is not less than the key.
+     */
+    private static int lowerBound(@Nonnull final String[] sortedStrings,
+            @Nonnull final String key) {
+        int low = 0;
+        int high = sortedStrings.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (sortedStrings[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Collects the entries of the personal dictionary and builds an index for them. When a word
+     * or a shortcut is added several times for the same locale, the last one is kept.
+     */
+    /* package */ static final class Builder {
+        private final ArrayList<Locale> mLocales = new ArrayList<>();
+        private final HashMap<Locale, Integer> mLocaleIndices = new HashMap<>();
+        private final ArrayList<Entry> mWordEntries = new ArrayList<>();
+        private final ArrayList<Entry> mShortcutEntries = new ArrayList<>();
+        private final HashSet<String> mDistinctWords = new HashSet<>();
+
+        /**
+         * Returns the number of distinct words added so far, regardless of their locales.
+         */
+        public int getWordCount() {
+            return mDistinctWords.size();
+        }
+
+        public void addWord(@Nonnull final String lowercasedWord, @Nonnull final String rawWord,
+                @Nonnull final Locale locale) {
+            mWordEntries.add(new Entry(lowercasedWord, getLocaleIndex(locale), rawWord,
+                    mWordEntries.size()));
+            mDistinctWords.add(lowercasedWord);
+        }
+
+        public void addShortcut(@Nonnull final String shortcut, @Nonnull final String expansion,
+                @Nonnull final Locale locale) {
+            mShortcutEntries.add(new Entry(shortcut, getLocaleIndex(locale), expansion,
+                    mShortcutEntries.size()));
+        }
+
+        @Nonnull
+        public PersonalDictionaryIndex build() {
+            final ArrayList<Entry> wordEntries = sortAndRemoveOverriddenEntries(mWordEntries);
+            final ArrayList<Entry> shortcutEntries =
+                    sortAndRemoveOverriddenEntries(mShortcutEntries);
+            final String[] words = new String[wordEntries.size()];
+            final int[] wordLocales = new int[wordEntries.size()];
+            final String[] rawWords = new String[wordEntries.size()];
+            for (int i = 0; i < wordEntries.size(); ++i) {
+                final Entry entry = wordEntries.get(i);
+                words[i] = entry.mKey;
+                wordLocales[i] = entry.mLocaleIndex;
+                rawWords[i] = entry.mValue;
+            }
+            final String[] shortcuts = new String[shortcutEntries.size()];
+            final int[] shortcutLocales = new int[shortcutEntries.size()];
+            final String[] expansions = new String[shortcutEntries.size()];
+            for (int i = 0; i < shortcutEntries.size(); ++i) {
+                final Entry entry = shortcutEntries.get(i);
+                shortcuts[i] = entry.mKey;
+                shortcutLocales[i] = entry.mLocaleIndex;
+                expansions[i] = entry.mValue;
+            }
+            return new PersonalDictionaryIndex(mLocales.toArray(new Locale[mLocales.size()]),
+                    words, wordLocales, rawWords, mDistinctWords.size(),
+                    shortcuts, shortcutLocales, expansions);
+        }
+
+        private int getLocaleIndex(@Nonnull final Locale locale) {
+            final Integer localeIndex = mLocaleIndices.get(locale);
+            if (null != localeIndex) {
+                return localeIndex;
+            }
+            mLocaleIndices.put(locale, mLocales.size());
+            mLocales.add(locale);
+            return mLocales.size() - 1;
+        }
+
+        /**
+         * Sorts the entries by key then locale, and keeps only the last added entry for each key
+         * and locale.
+         */
+        @Nonnull
+        private static ArrayList<Entry> sortAndRemoveOverriddenEntries(
+                @Nonnull final ArrayList<Entry> entries) {
+            final ArrayList<Entry> sortedEntries = new ArrayList<>(entries);
+            Collections.sort(sortedEntries, ENTRY_COMPARATOR);
+            final ArrayList<Entry> keptEntries = new ArrayList<>(sortedEntries.size());
+            Entry lastKeptEntry = null;
+            for (final Entry entry : sortedEntries) {
+                if (null != lastKeptEntry && lastKeptEntry.mKey.equals(entry.mKey)
+                        && lastKeptEntry.mLocaleIndex == entry.mLocaleIndex) {
+                    continue;
+                }
+                keptEntries.add(entry);
+                lastKeptEntry = entry;
+            }
+            return keptEntries;
+        }
+    }
+
+    private static final class Entry {
+        public final String mKey;
+        public final int mLocaleIndex;
+        public final String mValue;
+        public final int mOrder;
+
+        public Entry(final String key, final int localeIndex, final String value,
+                final int order) {
+            mKey = key;
+            mLocaleIndex = localeIndex;
+            mValue = value;
+            mOrder = order;
+        }
+    }
+}
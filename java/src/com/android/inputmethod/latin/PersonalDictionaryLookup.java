@@ -22,11 +22,9 @@ import android.database.ContentObserver;
 import android.database.Cursor;
 import android.net.Uri;
 import android.provider.UserDictionary;
-import android.text.TextUtils;
 import android.util.Log;
 
 import com.android.inputmethod.annotations.UsedForTesting;
-import com.android.inputmethod.latin.common.CollectionUtils;
 import com.android.inputmethod.latin.common.LocaleUtils;
 import com.android.inputmethod.latin.define.DebugFlags;
 import com.android.inputmethod.latin.utils.ExecutorUtils;
@@ -34,11 +32,9 @@ import com.android.inputmethod.latin.utils.ExecutorUtils;
 import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -68,9 +64,16 @@ public class PersonalDictionaryLookup implements Closeable {
     /**
      * To avoid loading too many dictionary entries in memory, we cap them at this number.  If
      * that number is exceeded, the lowest-frequency items will be dropped.  Note, there is no
-     * explicit cap on the number of locales in every entry.
+     * explicit cap on the number of locales in every entry.  An entry only costs a few array
+     * slots in a {@link PersonalDictionaryIndex}, on top of its strings.
      */
-    private static final int MAX_NUM_ENTRIES = 1000;
+    private static final int MAX_NUM_ENTRIES = 10000;
+
+    /**
+     * The columns of {@link UserDictionary.Words} that are loaded.
+     */
+    private static final String[] PROJECTION = { UserDictionary.Words.WORD,
+            UserDictionary.Words.LOCALE, UserDictionary.Words.SHORTCUT };
 
     /**
      * The delay (in milliseconds) to impose on reloads.  Previously scheduled reloads will be
@@ -196,16 +199,10 @@ public class PersonalDictionaryLookup implements Closeable {
     private AtomicBoolean mIsClosed = new AtomicBoolean(false);
 
     /**
-     * We store a map from a dictionary word to the set of locales & raw string(as it appears)
-     * We then iterate over the set of locales to find a match using LocaleUtils.
+     * The words and shortcuts of the personal dictionary, or null before the initial load. The
+     * index is immutable and replaced as a whole by each load.
      */
-    private volatile HashMap<String, HashMap<Locale, String>> mDictWords;
-
-    /**
-     * We store a map from a shortcut to a word for each locale.
-     * Shortcuts that apply to any locale are keyed by {@link #ANY_LOCALE}.
-     */
-    private volatile HashMap<Locale, HashMap<String, String>> mShortcutsPerLocale;
+    private volatile PersonalDictionaryIndex mIndex;
 
     /**
      *  The last-scheduled reload future.  Saved in order to cancel a pending reload if a new one
@@ -301,7 +298,7 @@ public class PersonalDictionaryLookup implements Closeable {
      * @return true if the initial load is successful
      */
     public boolean isLoaded() {
-        return mDictWords != null && mShortcutsPerLocale != null;
+        return mIndex != null;
     }
 
     /**
@@ -316,26 +313,11 @@ public class PersonalDictionaryLookup implements Closeable {
      * @return set of words that apply to the given locale.
      */
     public Set<String> getWordsForLocale(@Nonnull final Locale inputLocale) {
-        final HashMap<String, HashMap<Locale, String>> dictWords = mDictWords;
-        if (CollectionUtils.isNullOrEmpty(dictWords)) {
+        final PersonalDictionaryIndex index = mIndex;
+        if (null == index) {
             return Collections.emptySet();
         }
-
-        final Set<String> words = new HashSet<>();
-        final String inputLocaleString = inputLocale.toString();
-        for (String word : dictWords.keySet()) {
-            HashMap<Locale, String> localeStringMap = dictWords.get(word);
-                if (!CollectionUtils.isNullOrEmpty(localeStringMap)) {
-                    for (Locale wordLocale : localeStringMap.keySet()) {
-                        final String wordLocaleString = wordLocale.toString();
-                        final int match = LocaleUtils.getMatchLevel(wordLocaleString, inputLocaleString);
-                        if (LocaleUtils.isMatch(match)) {
-                            words.add(localeStringMap.get(wordLocale));
-                        }
-                    }
-            }
-        }
-        return words;
+        return index.getWordsForLocale(inputLocale);
     }
 
     /**
@@ -350,35 +332,11 @@ public class PersonalDictionaryLookup implements Closeable {
      * @return set of shortcuts that apply to the given locale.
      */
     public Set<String> getShortcutsForLocale(@Nonnull final Locale inputLocale) {
-        final Map<Locale, HashMap<String, String>> shortcutsPerLocale = mShortcutsPerLocale;
-        if (CollectionUtils.isNullOrEmpty(shortcutsPerLocale)) {
+        final PersonalDictionaryIndex index = mIndex;
+        if (null == index) {
             return Collections.emptySet();
         }
-
-        final Set<String> shortcuts = new HashSet<>();
-        if (!TextUtils.isEmpty(inputLocale.getCountry())) {
-            // First look for the country-specific shortcut: en_US, en_UK, fr_FR, etc.
-            final Map<String, String> countryShortcuts = shortcutsPerLocale.get(inputLocale);
-            if (!CollectionUtils.isNullOrEmpty(countryShortcuts)) {
-                shortcuts.addAll(countryShortcuts.keySet());
-            }
-        }
-
-        // Next look for the language-specific shortcut: en, fr, etc.
-        final Locale languageOnlyLocale =
-                LocaleUtils.constructLocaleFromString(inputLocale.getLanguage());
-        final Map<String, String> languageShortcuts = shortcutsPerLocale.get(languageOnlyLocale);
-        if (!CollectionUtils.isNullOrEmpty(languageShortcuts)) {
-            shortcuts.addAll(languageShortcuts.keySet());
-        }
-
-        // If all else fails, look for a global shortcut.
-        final Map<String, String> globalShortcuts = shortcutsPerLocale.get(ANY_LOCALE);
-        if (!CollectionUtils.isNullOrEmpty(globalShortcuts)) {
-            shortcuts.addAll(globalShortcuts.keySet());
-        }
-
-        return shortcuts;
+        return index.getShortcutsForLocale(inputLocale);
     }
 
     /**
@@ -392,7 +350,9 @@ public class PersonalDictionaryLookup implements Closeable {
      * @return true iff the word has been matched for this locale in the dictionary.
      */
     public boolean isValidWord(@Nonnull final String word, @Nonnull final Locale inputLocale) {
-        if (!isLoaded()) {
+        // Atomically obtain the current copy of the index.
+        final PersonalDictionaryIndex index = mIndex;
+        if (null == index) {
             // This is a corner case in the event the initial load of the dictionary has not
             // completed. In that case, we assume the word is not a valid word in the dictionary.
             if (DebugFlags.DEBUG_ENABLED) {
@@ -401,50 +361,17 @@ public class PersonalDictionaryLookup implements Closeable {
             return false;
         }
 
-        if (DebugFlags.DEBUG_ENABLED) {
-            Log.d(mTag, "isValidWord() : Word [" + word + "] in Locale [" + inputLocale + "]");
-        }
-        // Atomically obtain the current copy of mDictWords;
-        final HashMap<String, HashMap<Locale, String>> dictWords = mDictWords;
         // Lowercase the word using the given locale. Note, that dictionary
         // words are lowercased using their locale, and theoretically the
         // lowercasing between two matching locales may differ. For simplicity
         // we ignore that possibility.
         final String lowercased = word.toLowerCase(inputLocale);
-        final HashMap<Locale, String> dictLocales = dictWords.get(lowercased);
-
-        if (CollectionUtils.isNullOrEmpty(dictLocales)) {
-            if (DebugFlags.DEBUG_ENABLED) {
-                Log.d(mTag, "isValidWord() : No entry for word [" + word + "]");
-            }
-            return false;
-        } else {
-            if (DebugFlags.DEBUG_ENABLED) {
-                Log.d(mTag, "isValidWord() : Found entry for word [" + word + "]");
-            }
-            // Iterate over the locales this word is in.
-            for (final Locale dictLocale : dictLocales.keySet()) {
-                final int matchLevel = LocaleUtils.getMatchLevel(dictLocale.toString(),
-                        inputLocale.toString());
-                if (DebugFlags.DEBUG_ENABLED) {
-                    Log.d(mTag, "isValidWord() : MatchLevel for DictLocale [" + dictLocale
-                            + "] and InputLocale [" + inputLocale + "] is " + matchLevel);
-                }
-                if (LocaleUtils.isMatch(matchLevel)) {
-                    if (DebugFlags.DEBUG_ENABLED) {
-                        Log.d(mTag, "isValidWord() : MatchLevel " + matchLevel + " IS a match");
-                    }
-                    return true;
-                }
-                if (DebugFlags.DEBUG_ENABLED) {
-                    Log.d(mTag, "isValidWord() : MatchLevel " + matchLevel + " is NOT a match");
-                }
-            }
-            if (DebugFlags.DEBUG_ENABLED) {
-                Log.d(mTag, "isValidWord() : False, since none of the locales matched");
-            }
-            return false;
+        final boolean isValid = index.isValidWord(lowercased, inputLocale);
+        if (DebugFlags.DEBUG_ENABLED) {
+            Log.d(mTag, "isValidWord() : Word [" + word + "] in Locale [" + inputLocale + "] is "
+                    + (isValid ? "" : "NOT ") + "valid");
         }
+        return isValid;
     }
 
     /**
@@ -456,67 +383,18 @@ public class PersonalDictionaryLookup implements Closeable {
      */
     @Nullable public String expandShortcut(
             @Nonnull final String shortcut, @Nonnull final Locale inputLocale) {
-        if (DebugFlags.DEBUG_ENABLED) {
-            Log.d(mTag, "expandShortcut() : Shortcut [" + shortcut + "] for [" + inputLocale + "]");
-        }
-
-        // Atomically obtain the current copy of mShortcuts;
-        final HashMap<Locale, HashMap<String, String>> shortcutsPerLocale = mShortcutsPerLocale;
-
-        // Exit as early as possible. Most users don't use shortcuts.
-        if (CollectionUtils.isNullOrEmpty(shortcutsPerLocale)) {
-            if (DebugFlags.DEBUG_ENABLED) {
-                Log.d(mTag, "expandShortcut() : User has no shortcuts");
-            }
+        // Atomically obtain the current copy of the index.
+        final PersonalDictionaryIndex index = mIndex;
+        if (null == index) {
             return null;
         }
-
-        if (!TextUtils.isEmpty(inputLocale.getCountry())) {
-            // First look for the country-specific shortcut: en_US, en_UK, fr_FR, etc.
-            final String expansionForCountry = expandShortcut(
-                    shortcutsPerLocale, shortcut, inputLocale);
-            if (!TextUtils.isEmpty(expansionForCountry)) {
-                if (DebugFlags.DEBUG_ENABLED) {
-                    Log.d(mTag, "expandShortcut() : Country expansion is ["
-                            + expansionForCountry + "]");
-                }
-                return expansionForCountry;
-            }
-        }
-
-        // Next look for the language-specific shortcut: en, fr, etc.
-        final Locale languageOnlyLocale =
-                LocaleUtils.constructLocaleFromString(inputLocale.getLanguage());
-        final String expansionForLanguage = expandShortcut(
-                shortcutsPerLocale, shortcut, languageOnlyLocale);
-        if (!TextUtils.isEmpty(expansionForLanguage)) {
-            if (DebugFlags.DEBUG_ENABLED) {
-                Log.d(mTag, "expandShortcut() : Language expansion is ["
-                        + expansionForLanguage + "]");
-            }
-            return expansionForLanguage;
-        }
-
-        // If all else fails, look for a global shortcut.
-        final String expansionForGlobal = expandShortcut(shortcutsPerLocale, shortcut, ANY_LOCALE);
-        if (!TextUtils.isEmpty(expansionForGlobal) && DebugFlags.DEBUG_ENABLED) {
-            Log.d(mTag, "expandShortcut() : Global expansion is [" + expansionForGlobal + "]");
-        }
-        return expansionForGlobal;
-    }
-
-    @Nullable private String expandShortcut(
-            @Nullable final HashMap<Locale, HashMap<String, String>> shortcutsPerLocale,
-            @Nonnull final String shortcut,
-            @Nonnull final Locale locale) {
-        if (CollectionUtils.isNullOrEmpty(shortcutsPerLocale)) {
-            return null;
-        }
-        final HashMap<String, String> localeShortcuts = shortcutsPerLocale.get(locale);
-        if (CollectionUtils.isNullOrEmpty(localeShortcuts)) {
-            return null;
+        // Country-specific shortcuts come first, then language-specific, then global ones.
+        final String expansion = index.expandShortcut(shortcut, inputLocale);
+        if (DebugFlags.DEBUG_ENABLED) {
+            Log.d(mTag, "expandShortcut() : Shortcut [" + shortcut + "] for [" + inputLocale
+                    + "] expands to [" + expansion + "]");
         }
-        return localeShortcuts.get(shortcut);
+        return expansion;
     }
 
     /**
@@ -531,121 +409,116 @@ public class PersonalDictionaryLookup implements Closeable {
             return;
         }
         Log.i(mTag, "loadPersonalDictionary() : Start Loading");
-        HashMap<String, HashMap<Locale, String>> dictWords = new HashMap<>();
-        HashMap<Locale, HashMap<String, String>> shortcutsPerLocale = new HashMap<>();
+        final PersonalDictionaryIndex.Builder builder = new PersonalDictionaryIndex.Builder();
         // Load the dictionary.  Items are returned in the default sort order (by frequency).
-        Cursor cursor = mResolver.query(UserDictionary.Words.CONTENT_URI,
-                null, null, null, UserDictionary.Words.DEFAULT_SORT_ORDER);
-        if (null == cursor || cursor.getCount() < 1) {
-            Log.i(mTag, "loadPersonalDictionary() : Empty");
-        } else {
-            // Iterate over the entries in the personal dictionary.  Note, that iteration is in
-            // descending frequency by default.
-            while (dictWords.size() < MAX_NUM_ENTRIES && cursor.moveToNext()) {
-                // If there is no column for locale, skip this entry. An empty
-                // locale on the other hand will not be skipped.
-                final int dictLocaleIndex = cursor.getColumnIndex(UserDictionary.Words.LOCALE);
-                if (dictLocaleIndex < 0) {
-                    if (DebugFlags.DEBUG_ENABLED) {
-                        Log.d(mTag, "loadPersonalDictionary() : Entry without LOCALE, skipping");
-                    }
-                    continue;
-                }
-                // If there is no column for word, skip this entry.
-                final int dictWordIndex = cursor.getColumnIndex(UserDictionary.Words.WORD);
-                if (dictWordIndex < 0) {
-                    if (DebugFlags.DEBUG_ENABLED) {
-                        Log.d(mTag, "loadPersonalDictionary() : Entry without WORD, skipping");
-                    }
-                    continue;
-                }
-                // If the word is null, skip this entry.
-                final String rawDictWord = cursor.getString(dictWordIndex);
-                if (null == rawDictWord) {
-                    if (DebugFlags.DEBUG_ENABLED) {
-                        Log.d(mTag, "loadPersonalDictionary() : Null word");
-                    }
-                    continue;
-                }
-                // If the locale is null, that's interpreted to mean all locales. Note, the special
-                // zz locale for an Alphabet (QWERTY) layout will not match any actual language.
-                String localeString = cursor.getString(dictLocaleIndex);
-                if (null == localeString) {
-                    if (DebugFlags.DEBUG_ENABLED) {
-                        Log.d(mTag, "loadPersonalDictionary() : Null locale for word [" +
-                                rawDictWord + "], assuming all locales");
-                    }
-                    // For purposes of LocaleUtils, an empty locale matches everything.
-                    localeString = "";
-                }
-                final Locale dictLocale = LocaleUtils.constructLocaleFromString(localeString);
-                // Lowercase the word before storing it.
-                final String dictWord = rawDictWord.toLowerCase(dictLocale);
-                if (DebugFlags.DEBUG_ENABLED) {
-                    Log.d(mTag, "loadPersonalDictionary() : Adding word [" + dictWord
-                            + "] for locale " + dictLocale + "with value" + rawDictWord);
-                }
-                // Check if there is an existing entry for this word.
-                HashMap<Locale, String> dictLocales = dictWords.get(dictWord);
-                if (CollectionUtils.isNullOrEmpty(dictLocales)) {
-                    // If there is no entry for this word, create one.
-                    if (DebugFlags.DEBUG_ENABLED) {
-                        Log.d(mTag, "loadPersonalDictionary() : Word [" + dictWord +
-                                "] not seen for other locales, creating new entry");
-                    }
-                    dictLocales = new HashMap<>();
-                    dictWords.put(dictWord, dictLocales);
-                }
-                // Append the locale to the list of locales this word is in.
-                dictLocales.put(dictLocale, rawDictWord);
-
-                // If there is no column for a shortcut, we're done.
-                final int shortcutIndex = cursor.getColumnIndex(UserDictionary.Words.SHORTCUT);
-                if (shortcutIndex < 0) {
-                    if (DebugFlags.DEBUG_ENABLED) {
-                        Log.d(mTag, "loadPersonalDictionary() : Entry without SHORTCUT, done");
-                    }
-                    continue;
-                }
-                // If the shortcut is null, we're done.
-                final String shortcut = cursor.getString(shortcutIndex);
-                if (shortcut == null) {
-                    if (DebugFlags.DEBUG_ENABLED) {
-                        Log.d(mTag, "loadPersonalDictionary() : Null shortcut");
-                    }
-                    continue;
-                }
-                // Else, save the shortcut.
-                HashMap<String, String> localeShortcuts = shortcutsPerLocale.get(dictLocale);
-                if (localeShortcuts == null) {
-                    localeShortcuts = new HashMap<>();
-                    shortcutsPerLocale.put(dictLocale, localeShortcuts);
-                }
-                // Map to the raw input, which might be capitalized.
-                // This lets the user create a shortcut from "gm" to "General Motors".
-                localeShortcuts.put(shortcut, rawDictWord);
+        final Cursor cursor = mResolver.query(UserDictionary.Words.CONTENT_URI,
+                PROJECTION, null, null, UserDictionary.Words.DEFAULT_SORT_ORDER);
+        try {
+            if (null == cursor || cursor.getCount() < 1) {
+                Log.i(mTag, "loadPersonalDictionary() : Empty");
+            } else {
+                loadEntries(cursor, builder);
+            }
+        } finally {
+            if (null != cursor) {
+                cursor.close();
             }
         }
+        final PersonalDictionaryIndex index = builder.build();
 
         List<DictionaryStats> stats = new ArrayList<>();
-        stats.add(new DictionaryStats(ANY_LOCALE, Dictionary.TYPE_USER, dictWords.size()));
-        int numShortcuts = 0;
-        for (HashMap<String, String> shortcuts : shortcutsPerLocale.values()) {
-            numShortcuts += shortcuts.size();
-        }
-        stats.add(new DictionaryStats(ANY_LOCALE, Dictionary.TYPE_USER_SHORTCUT, numShortcuts));
+        stats.add(new DictionaryStats(ANY_LOCALE, Dictionary.TYPE_USER, index.getWordCount()));
+        stats.add(new DictionaryStats(ANY_LOCALE, Dictionary.TYPE_USER_SHORTCUT,
+                index.getShortcutCount()));
         mDictionaryStats = stats;
 
-        // Atomically replace the copy of mDictWords and mShortcuts.
-        mDictWords = dictWords;
-        mShortcutsPerLocale = shortcutsPerLocale;
+        // The dictionary is often notified several times for the same edit. Keep the current
+        // index and don't bother the listeners when nothing changed.
+        final PersonalDictionaryIndex previousIndex = mIndex;
+        final boolean hasChanged = null == previousIndex || !previousIndex.hasSameEntries(index);
+        if (hasChanged) {
+            // Atomically replace the index.
+            mIndex = index;
+        }
 
         // Allow other calls to loadPersonalDictionary to execute now.
         mIsLoading.set(false);
 
-        Log.i(mTag, "loadPersonalDictionary() : Loaded " + mDictWords.size()
-                + " words and " + numShortcuts + " shortcuts");
+        Log.i(mTag, "loadPersonalDictionary() : Loaded " + index.getWordCount()
+                + " words and " + index.getShortcutCount() + " shortcuts"
+                + (hasChanged ? "" : ", unchanged"));
+
+        if (hasChanged) {
+            notifyListeners();
+        }
+    }
+
+    private void loadEntries(@Nonnull final Cursor cursor,
+            @Nonnull final PersonalDictionaryIndex.Builder builder) {
+        // If there is no column for locale or for word, skip all entries. An empty
+        // locale on the other hand will not be skipped.
+        final int dictLocaleIndex = cursor.getColumnIndex(UserDictionary.Words.LOCALE);
+        if (dictLocaleIndex < 0) {
+            if (DebugFlags.DEBUG_ENABLED) {
+                Log.d(mTag, "loadPersonalDictionary() : Entries without LOCALE, skipping");
+            }
+            return;
+        }
+        final int dictWordIndex = cursor.getColumnIndex(UserDictionary.Words.WORD);
+        if (dictWordIndex < 0) {
+            if (DebugFlags.DEBUG_ENABLED) {
+                Log.d(mTag, "loadPersonalDictionary() : Entries without WORD, skipping");
+            }
+            return;
+        }
+        final int shortcutIndex = cursor.getColumnIndex(UserDictionary.Words.SHORTCUT);
+        // Iterate over the entries in the personal dictionary.  Note, that iteration is in
+        // descending frequency by default.
+        while (builder.getWordCount() < MAX_NUM_ENTRIES && cursor.moveToNext()) {
+            // If the word is null, skip this entry.
+            final String rawDictWord = cursor.getString(dictWordIndex);
+            if (null == rawDictWord) {
+                if (DebugFlags.DEBUG_ENABLED) {
+                    Log.d(mTag, "loadPersonalDictionary() : Null word");
+                }
+                continue;
+            }
+            // If the locale is null, that's interpreted to mean all locales. Note, the special
+            // zz locale for an Alphabet (QWERTY) layout will not match any actual language.
+            String localeString = cursor.getString(dictLocaleIndex);
+            if (null == localeString) {
+                if (DebugFlags.DEBUG_ENABLED) {
+                    Log.d(mTag, "loadPersonalDictionary() : Null locale for word [" +
+                            rawDictWord + "], assuming all locales");
+                }
+                // For purposes of LocaleUtils, an empty locale matches everything.
+                localeString = "";
+            }
+            final Locale dictLocale = LocaleUtils.constructLocaleFromString(localeString);
+            // Lowercase the word before storing it.
+            final String dictWord = rawDictWord.toLowerCase(dictLocale);
+            if (DebugFlags.DEBUG_ENABLED) {
+                Log.d(mTag, "loadPersonalDictionary() : Adding word [" + dictWord
+                        + "] for locale " + dictLocale + "with value" + rawDictWord);
+            }
+            builder.addWord(dictWord, rawDictWord, dictLocale);
 
-        notifyListeners();
+            // If there is no column for a shortcut, we're done.
+            if (shortcutIndex < 0) {
+                continue;
+            }
+            // If the shortcut is null, we're done.
+            final String shortcut = cursor.getString(shortcutIndex);
+            if (shortcut == null) {
+                if (DebugFlags.DEBUG_ENABLED) {
+                    Log.d(mTag, "loadPersonalDictionary() : Null shortcut");
+                }
+                continue;
+            }
+            // Else, save the shortcut.
+            // Map to the raw input, which might be capitalized.
+            // This lets the user create a shortcut from "gm" to "General Motors".
+            builder.addShortcut(shortcut, rawDictWord, dictLocale);
+        }
     }
 }
@@ -55,11 +55,22 @@ public final class ReadOnlyBinaryDictionary extends Dictionary {
             final SettingsValuesForSuggestion settingsValuesForSuggestion,
             final int sessionId, final float weightForLocale,
             final float[] inOutWeightOfLangModelVsSpatialModel) {
+        return getSuggestions(composedData, ngramContext, proximityInfoHandle,
+                settingsValuesForSuggestion, sessionId, weightForLocale,
+                inOutWeightOfLangModelVsSpatialModel, Integer.MIN_VALUE /* minScore */);
+    }
+
+    @Override
+    public ArrayList<SuggestedWordInfo> getSuggestions(final ComposedData composedData,
+            final NgramContext ngramContext, final long proximityInfoHandle,
+            final SettingsValuesForSuggestion settingsValuesForSuggestion,
+            final int sessionId, final float weightForLocale,
+            final float[] inOutWeightOfLangModelVsSpatialModel, final int minScore) {
         if (mLock.readLock().tryLock()) {
             try {
                 return mBinaryDictionary.getSuggestions(composedData, ngramContext,
                         proximityInfoHandle, settingsValuesForSuggestion, sessionId,
-                        weightForLocale, inOutWeightOfLangModelVsSpatialModel);
+                        weightForLocale, inOutWeightOfLangModelVsSpatialModel, minScore);
             } finally {
                 mLock.readLock().unlock();
             }
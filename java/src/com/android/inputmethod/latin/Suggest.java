@@ -23,6 +23,7 @@ import static com.android.inputmethod.latin.define.DecoderSpecificConstants.SHOU
 
 import com.android.inputmethod.keyboard.Keyboard;
 import com.android.inputmethod.latin.SuggestedWords.SuggestedWordInfo;
+import com.android.inputmethod.latin.common.ComposedData;
 import com.android.inputmethod.latin.common.Constants;
 import com.android.inputmethod.latin.common.StringUtils;
 import com.android.inputmethod.latin.define.DebugFlags;
@@ -49,12 +50,17 @@ public final class Suggest {
     // We are sharing the same ID between typing and gesture to save RAM footprint.
     public static final int SESSION_ID_TYPING = 0;
     public static final int SESSION_ID_GESTURE = 0;
+    // Session id for the speculative queries of {@link SuggestionPrefetcher}, which run
+    // concurrently with the typing session.
+    public static final int SESSION_ID_SPECULATION = 1;
 
     // Close to -2**31
     private static final int SUPPRESS_SUGGEST_THRESHOLD = -2000000000;
 
     private static final boolean DBG = DebugFlags.DEBUG_ENABLED;
     private final DictionaryFacilitator mDictionaryFacilitator;
+    private final SuggestionResultsCache mSuggestionResultsCache = new SuggestionResultsCache();
+    private final SuggestionPrefetcher mSuggestionPrefetcher;
 
     private static final int MAXIMUM_AUTO_CORRECT_LENGTH_FOR_GERMAN = 12;
     private static final HashMap<String, Integer> sLanguageToMaximumAutoCorrectionWithSpaceLength =
@@ -68,9 +74,12 @@ public final class Suggest {
 
     private float mAutoCorrectionThreshold;
     private float mPlausibilityThreshold;
+    private int mSpeculativeSuggestionBudget;
 
     public Suggest(final DictionaryFacilitator dictionaryFacilitator) {
         mDictionaryFacilitator = dictionaryFacilitator;
+        mSuggestionPrefetcher = new SuggestionPrefetcher(dictionaryFacilitator,
+                SESSION_ID_SPECULATION);
     }
 
     /**
@@ -91,6 +100,25 @@ public final class Suggest {
         mPlausibilityThreshold = threshold;
     }
 
+    /**
+     * Set the number of likely next keys to precompute the suggestions for after each keystroke.
+     * @param budget the number of keys, 0 to disable speculative suggestions
+     */
+    public void setSpeculativeSuggestionBudget(final int budget) {
+        mSpeculativeSuggestionBudget = budget;
+        if (budget <= 0) {
+            mSuggestionPrefetcher.clear();
+        }
+    }
+
+    /**
+     * Drops the cached suggestion results. Call this when input starts in a new editor.
+     */
+    public void clearSuggestionResultsCache() {
+        mSuggestionResultsCache.clear();
+        mSuggestionPrefetcher.clear();
+    }
+
     public interface OnGetSuggestedWordsCallback {
         public void onGetSuggestedWords(final SuggestedWords suggestedWords);
     }
@@ -161,9 +189,9 @@ public final class Suggest {
                 ? typedWordString.substring(0, typedWordString.length() - trailingSingleQuotesCount)
                 : typedWordString;
 
-        final SuggestionResults suggestionResults = mDictionaryFacilitator.getSuggestionResults(
+        final SuggestionResults suggestionResults = getSuggestionResultsForNonBatchInput(
                 wordComposer.getComposedDataSnapshot(), ngramContext, keyboard,
-                settingsValuesForSuggestion, SESSION_ID_TYPING, inputStyleIfNotPrediction);
+                settingsValuesForSuggestion, inputStyleIfNotPrediction);
         final Locale locale = mDictionaryFacilitator.getLocale();
         final ArrayList<SuggestedWordInfo> suggestionsContainer =
                 getTransformedSuggestedWordInfoList(wordComposer, suggestionResults,
@@ -284,6 +312,39 @@ public final class Suggest {
                 false /* isObsoleteSuggestions */, inputStyle, sequenceNumber));
     }
 
+    // Returns the suggestion results for non-batch input, reusing the results of a previous call
+    // with the same composed data or the prefetched results for the last key if the dictionaries
+    // have not been updated since. Then prefetches the results for the likely next keys.
+    private SuggestionResults getSuggestionResultsForNonBatchInput(
+            final ComposedData composedData, final NgramContext ngramContext,
+            final Keyboard keyboard, final SettingsValuesForSuggestion settingsValuesForSuggestion,
+            final int inputStyle) {
+        final long dictionaryGeneration = mDictionaryFacilitator.getDictionaryGeneration();
+        SuggestionResults suggestionResults = mSuggestionResultsCache.get(composedData,
+                ngramContext, keyboard.mId, settingsValuesForSuggestion, inputStyle,
+                dictionaryGeneration);
+        if (null == suggestionResults) {
+            suggestionResults = mSuggestionPrefetcher.get(composedData, ngramContext, keyboard,
+                    settingsValuesForSuggestion, inputStyle, dictionaryGeneration);
+            if (null == suggestionResults) {
+                suggestionResults = mDictionaryFacilitator.getSuggestionResults(composedData,
+                        ngramContext, keyboard, settingsValuesForSuggestion, SESSION_ID_TYPING,
+                        inputStyle);
+            }
+            mSuggestionResultsCache.put(composedData, ngramContext, keyboard.mId,
+                    settingsValuesForSuggestion, inputStyle, dictionaryGeneration,
+                    suggestionResults);
+        }
+        // Predictions use a different n-gram context than the word typed next, so only the
+        // results of a word being composed can be extended.
+        if (!composedData.mTypedWord.isEmpty()) {
+            mSuggestionPrefetcher.prefetch(composedData, ngramContext, keyboard,
+                    settingsValuesForSuggestion, inputStyle, suggestionResults,
+                    mSpeculativeSuggestionBudget);
+        }
+        return suggestionResults;
+    }
+
     // Retrieves suggestions for the batch input
     // and calls the callback function with the suggestions.
     private void getSuggestedWordsForBatchInput(final WordComposer wordComposer,
@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import android.os.SystemClock;
+
+import com.android.inputmethod.keyboard.Key;
+import com.android.inputmethod.keyboard.Keyboard;
+import com.android.inputmethod.latin.SuggestedWords.SuggestedWordInfo;
+import com.android.inputmethod.latin.common.ComposedData;
+import com.android.inputmethod.latin.common.InputPointers;
+import com.android.inputmethod.latin.settings.SettingsValuesForSuggestion;
+import com.android.inputmethod.latin.utils.ExecutorUtils;
+import com.android.inputmethod.latin.utils.SuggestionResults;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Precomputes the suggestion results for the most likely next keys between keystrokes.
+ *
+ * After the suggestions for a typed word are computed, the next characters of the top
+ * suggestions that extend the typed word are taken as the likely next keys. For each of them,
+ * the typed word is extended with a tap at the center of the key and its suggestion results are
+ * computed on the {@link ExecutorUtils#SPECULATION} lane with a traverse session of its own.
+ * When the next tap falls on one of these keys, its results are used instead of querying the
+ * dictionaries again.
+ *
+ * The results were computed for the center of the key rather than for the actual tap, so the
+ * spatial scores of the suggestions can differ slightly from an exact query. They expire quickly
+ * and are dropped when the dictionaries are updated.
+ */
+public final class SuggestionPrefetcher {
+    // The number of keys that can be predicted for one keystroke.
+    public static final int MAX_BUDGET = 3;
+    private static final long PREFETCHED_RESULTS_LIFETIME_MILLIS = 2000;
+    private static final int PREFETCH_POINTER_ID = 0;
+    private static final int PREFETCH_TIME_DELTA_MILLIS = 100;
+
+    private final DictionaryFacilitator mDictionaryFacilitator;
+    private final int mSessionId;
+    private final ArrayList<PrefetchedResults> mPrefetchedResults = new ArrayList<>();
+    // Incremented for each prefetch request, so that a stale task stops early.
+    private int mRequestId; // synchronized using {@code this}.
+
+    public SuggestionPrefetcher(final DictionaryFacilitator dictionaryFacilitator,
+            final int sessionId) {
+        mDictionaryFacilitator = dictionaryFacilitator;
+        mSessionId = sessionId;
+    }
+
+    /**
+     * Schedules the computation of the suggestion results for the most likely next keys.
+     *
+     * @param budget the maximum number of keys to compute the results for. 0 disables it.
+     */
+    public void prefetch(@Nonnull final ComposedData composedData,
+            @Nonnull final NgramContext ngramContext, @Nonnull final Keyboard keyboard,
+            @Nonnull final SettingsValuesForSuggestion settingsValuesForSuggestion,
+            final int inputStyle, @Nonnull final SuggestionResults currentResults,
+            final int budget) {
+        final int requestId;
+        synchronized (this) {
+            requestId = ++mRequestId;
+            mPrefetchedResults.clear();
+        }
+        if (budget <= 0 || composedData.mIsBatchMode) {
+            return;
+        }
+        final ArrayList<Key> nextKeys = getLikelyNextKeys(composedData.mTypedWord,
+                currentResults, keyboard, Math.min(budget, MAX_BUDGET));
+        if (nextKeys.isEmpty()) {
+            return;
+        }
+        // The input pointers are shared with the word composer and modified in place, so they
+        // have to be copied on this thread.
+        final InputPointers inputPointers = composedData.mInputPointers;
+        final InputPointers basePointers = new InputPointers(inputPointers.getPointerSize() + 1);
+        basePointers.copy(inputPointers);
+        final String typedWord = composedData.mTypedWord;
+        final long dictionaryGeneration = mDictionaryFacilitator.getDictionaryGeneration();
+        ExecutorUtils.getBackgroundExecutor(ExecutorUtils.SPECULATION).execute(new Runnable() {
+            @Override
+            public void run() {
+                for (final Key key : nextKeys) {
+                    if (!isCurrentRequest(requestId)) {
+                        return;
+                    }
+                    final ComposedData nextComposedData =
+                            getNextComposedData(basePointers, typedWord, key);
+                    final SuggestionResults results =
+                            mDictionaryFacilitator.getSuggestionResults(nextComposedData,
+                                    ngramContext, keyboard, settingsValuesForSuggestion,
+                                    mSessionId, inputStyle);
+                    addPrefetchedResults(requestId, new PrefetchedResults(nextComposedData,
+                            key, ngramContext, keyboard, settingsValuesForSuggestion,
+                            inputStyle, dictionaryGeneration, results));
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the prefetched results for the composed data, or null if there is none. The typed
+     * word and all the taps but the last one must match exactly, and the last tap must fall on
+     * the predicted key.
+     */
+    @Nullable
+    public synchronized SuggestionResults get(@Nonnull final ComposedData composedData,
+            @Nonnull final NgramContext ngramContext, @Nonnull final Keyboard keyboard,
+            @Nonnull final SettingsValuesForSuggestion settingsValuesForSuggestion,
+            final int inputStyle, final long dictionaryGeneration) {
+        final long now = SystemClock.uptimeMillis();
+        for (final PrefetchedResults prefetchedResults : mPrefetchedResults) {
+            if (prefetchedResults.matches(composedData, ngramContext, keyboard,
+                    settingsValuesForSuggestion, inputStyle, dictionaryGeneration, now)) {
+                return prefetchedResults.mSuggestionResults;
+            }
+        }
+        return null;
+    }
+
+    public synchronized void clear() {
+        ++mRequestId;
+        mPrefetchedResults.clear();
+    }
+
+    private synchronized boolean isCurrentRequest(final int requestId) {
+        return requestId == mRequestId;
+    }
+
+    private synchronized void addPrefetchedResults(final int requestId,
+            final PrefetchedResults prefetchedResults) {
+        if (requestId == mRequestId && !prefetchedResults.mSuggestionResults.isIncomplete()) {
+            mPrefetchedResults.add(prefetchedResults);
+        }
+    }
+
+    /**
+     * Returns the keys of the characters that follow the typed word in the best suggestions,
+     * best first and without duplicates.
+     */
+    private static ArrayList<Key> getLikelyNextKeys(final String typedWord,
+            final SuggestionResults currentResults, final Keyboard keyboard, final int maxCount) {
+        final ArrayList<Key> nextKeys = new ArrayList<>();
+        final int typedWordLength = typedWord.length();
+        for (final SuggestedWordInfo info : currentResults) {
+            if (nextKeys.size() >= maxCount) {
+                break;
+            }
+            final String word = info.mWord;
+            if (word.length() <= typedWordLength
+                    || !word.regionMatches(true /* ignoreCase */, 0, typedWord, 0,
+                            typedWordLength)) {
+                continue;
+            }
+            final int nextCodePoint = word.codePointAt(typedWordLength);
+            Key key = keyboard.getKey(nextCodePoint);
+            if (null == key) {
+                key = keyboard.getKey(Character.toLowerCase(nextCodePoint));
+            }
+            if (null != key && !nextKeys.contains(key)) {
+                nextKeys.add(key);
+            }
+        }
+        return nextKeys;
+    }
+
+    private static ComposedData getNextComposedData(final InputPointers basePointers,
+            final String typedWord, final Key key) {
+        final int pointerSize = basePointers.getPointerSize();
+        final InputPointers nextPointers = new InputPointers(pointerSize + 1);
+        nextPointers.copy(basePointers);
+        final int time = pointerSize > 0
+                ? basePointers.getTimes()[pointerSize - 1] + PREFETCH_TIME_DELTA_MILLIS : 0;
+        nextPointers.addPointer(key.getX() + key.getWidth() / 2,
+                key.getY() + key.getHeight() / 2, PREFETCH_POINTER_ID, time);
+        return new ComposedData(nextPointers, false /* isBatchMode */,
+                typedWord + new String(Character.toChars(key.getCode())));
+    }
+
+    private static final class PrefetchedResults {
+        private final String mTypedWord;
+        private final int[] mXCoordinates;
+        private final int[] mYCoordinates;
+        private final Key mNextKey;
+        private final NgramContext mNgramContext;
+        private final Keyboard mKeyboard;
+        private final boolean mBlockPotentiallyOffensive;
+        private final int mInputStyle;
+        private final long mDictionaryGeneration;
+        private final long mExpirationTime;
+        public final SuggestionResults mSuggestionResults;
+
+        public PrefetchedResults(final ComposedData composedData, final Key nextKey,
+                final NgramContext ngramContext, final Keyboard keyboard,
+                final SettingsValuesForSuggestion settingsValuesForSuggestion,
+                final int inputStyle, final long dictionaryGeneration,
+                final SuggestionResults suggestionResults) {
+            final InputPointers inputPointers = composedData.mInputPointers;
+            // The last tap is only checked against the key.
+            final int pointerSize = inputPointers.getPointerSize() - 1;
+            mTypedWord = composedData.mTypedWord;
+            mXCoordinates = Arrays.copyOf(inputPointers.getXCoordinates(), pointerSize);
+            mYCoordinates = Arrays.copyOf(inputPointers.getYCoordinates(), pointerSize);
+            mNextKey = nextKey;
+            mNgramContext = ngramContext;
+            mKeyboard = keyboard;
+            mBlockPotentiallyOffensive = settingsValuesForSuggestion.mBlockPotentiallyOffensive;
+            mInputStyle = inputStyle;
+            mDictionaryGeneration = dictionaryGeneration;
+            mExpirationTime = SystemClock.uptimeMillis() + PREFETCHED_RESULTS_LIFETIME_MILLIS;
+            mSuggestionResults = suggestionResults;
+        }
+
+        public boolean matches(final ComposedData composedData, final NgramContext ngramContext,
+                final Keyboard keyboard,
+                final SettingsValuesForSuggestion settingsValuesForSuggestion,
+                final int inputStyle, final long dictionaryGeneration, final long now) {
+            if (now > mExpirationTime || composedData.mIsBatchMode
+                    || mDictionaryGeneration != dictionaryGeneration
+                    || mInputStyle != inputStyle
+                    || mBlockPotentiallyOffensive
+                            != settingsValuesForSuggestion.mBlockPotentiallyOffensive
+                    || mKeyboard != keyboard
+                    || !mTypedWord.equals(composedData.mTypedWord)
+                    || !mNgramContext.equals(ngramContext)) {
+                return false;
+            }
+            final InputPointers inputPointers = composedData.mInputPointers;
+            final int pointerSize = inputPointers.getPointerSize();
+            if (pointerSize != mXCoordinates.length + 1) {
+                return false;
+            }
+            final int[] xCoordinates = inputPointers.getXCoordinates();
+            final int[] yCoordinates = inputPointers.getYCoordinates();
+            for (int i = 0; i < mXCoordinates.length; ++i) {
+                if (xCoordinates[i] != mXCoordinates[i] || yCoordinates[i] != mYCoordinates[i]) {
+                    return false;
+                }
+            }
+            return mNextKey.isOnKey(xCoordinates[pointerSize - 1],
+                    yCoordinates[pointerSize - 1]);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import android.util.LruCache;
+
+import com.android.inputmethod.annotations.UsedForTesting;
+import com.android.inputmethod.keyboard.KeyboardId;
+import com.android.inputmethod.latin.common.ComposedData;
+import com.android.inputmethod.latin.common.InputPointers;
+import com.android.inputmethod.latin.settings.SettingsValuesForSuggestion;
+import com.android.inputmethod.latin.utils.SuggestionResults;
+
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A small LRU cache of the last {@link SuggestionResults} computed for non-batch input.
+ *
+ * Typing a character, deleting it and typing it again at the same place produces exactly the
+ * same composed data, so the results of the previous dictionary lookup can be reused instead of
+ * traversing all the dictionaries again. Entries are keyed by everything that is passed to
+ * {@link DictionaryFacilitator#getSuggestionResults}, including the touch coordinates, and the
+ * whole cache is dropped as soon as the dictionary generation reported by
+ * {@link DictionaryFacilitator#getDictionaryGeneration()} changes.
+ */
+public final class SuggestionResultsCache {
+    private static final int DEFAULT_MAX_CACHE_SIZE = 16;
+
+    private final LruCache<CacheKey, SuggestionResults> mCache;
+    private long mDictionaryGeneration;
+
+    public SuggestionResultsCache() {
+        this(DEFAULT_MAX_CACHE_SIZE);
+    }
+
+    @UsedForTesting
+    SuggestionResultsCache(final int maxSize) {
+        mCache = new LruCache<>(maxSize);
+    }
+
+    @Nullable
+    public synchronized SuggestionResults get(@Nonnull final ComposedData composedData,
+            @Nonnull final NgramContext ngramContext, @Nullable final KeyboardId keyboardId,
+            @Nonnull final SettingsValuesForSuggestion settingsValuesForSuggestion,
+            final int inputStyle, final long dictionaryGeneration) {
+        if (dictionaryGeneration != mDictionaryGeneration) {
+            mCache.evictAll();
+            mDictionaryGeneration = dictionaryGeneration;
+            return null;
+        }
+        return mCache.get(new CacheKey(composedData, ngramContext, keyboardId,
+                settingsValuesForSuggestion, inputStyle));
+    }
+
+    /**
+     * Stores results in the cache.
+     *
+     * @param dictionaryGeneration the dictionary generation read *before* the results were
+     * computed. If the dictionaries were updated in the meantime, the results are not cached.
+     * Incomplete results are not cached either.
+     */
+    public synchronized void put(@Nonnull final ComposedData composedData,
+            @Nonnull final NgramContext ngramContext, @Nullable final KeyboardId keyboardId,
+            @Nonnull final SettingsValuesForSuggestion settingsValuesForSuggestion,
+            final int inputStyle, final long dictionaryGeneration,
+            @Nonnull final SuggestionResults suggestionResults) {
+        if (dictionaryGeneration != mDictionaryGeneration || suggestionResults.isIncomplete()) {
+            return;
+        }
+        mCache.put(new CacheKey(composedData, ngramContext, keyboardId,
+                settingsValuesForSuggestion, inputStyle), suggestionResults);
+    }
+
+    public synchronized void clear() {
+        mCache.evictAll();
+    }
+
+    @UsedForTesting
+    synchronized int size() {
+        return mCache.size();
+    }
+
+    private static final class CacheKey {
+        private final String mTypedWord;
+        private final int[] mXCoordinates;
+        private final int[] mYCoordinates;
+        private final NgramContext mNgramContext;
+        private final KeyboardId mKeyboardId;
+        private final boolean mBlockPotentiallyOffensive;
+        private final int mInputStyle;
+        private final int mHashCode;
+
+        public CacheKey(final ComposedData composedData, final NgramContext ngramContext,
+                final KeyboardId keyboardId,
+                final SettingsValuesForSuggestion settingsValuesForSuggestion,
+                final int inputStyle) {
+            final InputPointers inputPointers = composedData.mInputPointers;
+            final int pointerSize = inputPointers.getPointerSize();
+            mTypedWord = composedData.mTypedWord;
+            // The input pointers are shared with the word composer and modified in place, so
+            // the coordinates have to be copied.
+            mXCoordinates = Arrays.copyOf(inputPointers.getXCoordinates(), pointerSize);
+            mYCoordinates = Arrays.copyOf(inputPointers.getYCoordinates(), pointerSize);
+            mNgramContext = ngramContext;
+            mKeyboardId = keyboardId;
+            mBlockPotentiallyOffensive = settingsValuesForSuggestion.mBlockPotentiallyOffensive;
+            mInputStyle = inputStyle;
+            mHashCode = Arrays.hashCode(new Object[] {
+                    mTypedWord,
+                    Arrays.hashCode(mXCoordinates),
+                    Arrays.hashCode(mYCoordinates),
+                    mNgramContext,
+                    mKeyboardId,
+                    mBlockPotentiallyOffensive,
+                    mInputStyle
+            });
+        }
+
+        @Override
+        public int hashCode() {
+            return mHashCode;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (o == this) return true;
+            if (!(o instanceof CacheKey)) return false;
+            final CacheKey other = (CacheKey)o;
+            return mHashCode == other.mHashCode
+                    && mBlockPotentiallyOffensive == other.mBlockPotentiallyOffensive
+                    && mInputStyle == other.mInputStyle
+                    && mTypedWord.equals(other.mTypedWord)
+                    && Arrays.equals(mXCoordinates, other.mXCoordinates)
+                    && Arrays.equals(mYCoordinates, other.mYCoordinates)
+                    && mNgramContext.equals(other.mNgramContext)
+                    && equals(mKeyboardId, other.mKeyboardId);
+        }
+
+        private static boolean equals(final KeyboardId a, final KeyboardId b) {
+            if (null == a) {
+                return null == b;
+            }
+            return a.equals(b);
+        }
+    }
+}
@@ -27,10 +27,15 @@ import com.android.inputmethod.latin.NgramContext;
 import com.android.inputmethod.latin.define.DecoderSpecificConstants;
 import com.android.inputmethod.latin.define.ProductionFlags;
 import com.android.inputmethod.latin.makedict.DictionaryHeader;
+import com.android.inputmethod.latin.utils.ExecutorUtils;
+import com.android.inputmethod.latin.utils.WordInputEventForPersonalization;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -43,6 +48,16 @@ import javax.annotation.Nullable;
 public class UserHistoryDictionary extends ExpandableBinaryDictionary {
     static final String NAME = UserHistoryDictionary.class.getSimpleName();
 
+    // Learning events are written to the native dictionary in batches: when this many distinct
+    // entries are pending, when the delay below has passed since the first pending event, or
+    // when the input is finished.
+    private static final int MAX_PENDING_LEARNING_ENTRY_COUNT = 32;
+    private static final long LEARNING_FLUSH_DELAY_IN_MILLISECONDS = TimeUnit.SECONDS.toMillis(5);
+
+    private final UserHistoryLearningBuffer mLearningBuffer =
+            new UserHistoryLearningBuffer(MAX_PENDING_LEARNING_ENTRY_COUNT);
+    private final AtomicBoolean mIsLearningFlushScheduled = new AtomicBoolean(false);
+
     // TODO: Make this constructor private
     UserHistoryDictionary(final Context context, final Locale locale,
             @Nullable final String account) {
@@ -102,17 +117,73 @@ public class UserHistoryDictionary extends ExpandableBinaryDictionary {
         if (word.length() > BinaryDictionary.DICTIONARY_MAX_WORD_LENGTH) {
             return;
         }
+        if (userHistoryDictionary instanceof UserHistoryDictionary) {
+            ((UserHistoryDictionary)userHistoryDictionary).addToLearningBuffer(ngramContext, word,
+                    isValid, timestamp);
+            return;
+        }
         userHistoryDictionary.updateEntriesForWord(ngramContext, word,
                 isValid, 1 /* count */, timestamp);
     }
 
+    private void addToLearningBuffer(@Nonnull final NgramContext ngramContext,
+            @Nonnull final String word, final boolean isValid, final int timestamp) {
+        if (mLearningBuffer.add(ngramContext, word, isValid, timestamp)) {
+            flushLearningBuffer();
+            return;
+        }
+        if (!mIsLearningFlushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        ExecutorUtils.getBackgroundExecutor(ExecutorUtils.DICTIONARY_WRITE).schedule(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        mIsLearningFlushScheduled.set(false);
+                        flushLearningBuffer();
+                    }
+                }, LEARNING_FLUSH_DELAY_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the pending learning events to the dictionary. The write itself is asynchronous but
+     * is ordered before any dictionary task that is submitted after this call.
+     */
+    public void flushLearningBuffer() {
+        final ArrayList<WordInputEventForPersonalization> inputEvents = mLearningBuffer.drain();
+        if (inputEvents.isEmpty()) {
+            return;
+        }
+        updateEntriesForInputEvents(inputEvents, null /* callback */);
+    }
+
+    @Override
+    public void removeUnigramEntryDynamically(final String word) {
+        // Pending learning events must not resurrect the removed word.
+        flushLearningBuffer();
+        super.removeUnigramEntryDynamically(word);
+    }
+
+    @Override
+    public void clear() {
+        mLearningBuffer.drain();
+        super.clear();
+    }
+
     @Override
     public void close() {
         // Flush pending writes.
+        flushLearningBuffer();
         asyncFlushBinaryDictionary();
         super.close();
     }
 
+    @Override
+    public void waitAllTasksForTests() {
+        flushLearningBuffer();
+        super.waitAllTasksForTests();
+    }
+
     @Override
     protected Map<String, String> getHeaderAttributeMap() {
         final Map<String, String> attributeMap = super.getHeaderAttributeMap();
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.personalization;
+
+import com.android.inputmethod.annotations.UsedForTesting;
+import com.android.inputmethod.latin.NgramContext;
+import com.android.inputmethod.latin.utils.WordInputEventForPersonalization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Accumulates learning events for the user history dictionary so that they can be written to the
+ * native dictionary in one batch instead of one write task per committed word.
+ *
+ * Events for the same word in the same n-gram context are merged while they are pending: the
+ * count is incremented and the latest timestamp is kept. They are returned as one input event per
+ * occurrence, in the order they were first added, because native code counts each input event
+ * once in the total count that the unigram probabilities are computed from.
+ */
+final class UserHistoryLearningBuffer {
+    private final int mMaxPendingEntryCount;
+    private final LinkedHashMap<PendingKey, PendingEntry> mPendingEntries = new LinkedHashMap<>();
+
+    public UserHistoryLearningBuffer(final int maxPendingEntryCount) {
+        mMaxPendingEntryCount = maxPendingEntryCount;
+    }
+
+    /**
+     * Adds a learning event.
+     *
+     * @return true if the buffer is full and should be flushed now.
+     */
+    public synchronized boolean add(@Nonnull final NgramContext ngramContext,
+            @Nonnull final String word, final boolean isValid, final int timestamp) {
+        final PendingKey key = new PendingKey(ngramContext, word, isValid);
+        final PendingEntry entry = mPendingEntries.get(key);
+        if (entry == null) {
+            mPendingEntries.put(key, new PendingEntry(timestamp));
+        } else {
+            entry.mCount++;
+            entry.mTimestamp = Math.max(entry.mTimestamp, timestamp);
+        }
+        return mPendingEntries.size() >= mMaxPendingEntryCount;
+    }
+
+    /**
+     * Removes all the pending events and returns them as input events, one per occurrence.
+     */
+    @Nonnull
+    public synchronized ArrayList<WordInputEventForPersonalization> drain() {
+        final ArrayList<WordInputEventForPersonalization> inputEvents = new ArrayList<>();
+        for (final Map.Entry<PendingKey, PendingEntry> pendingEntry : mPendingEntries.entrySet()) {
+            final PendingKey key = pendingEntry.getKey();
+            final PendingEntry entry = pendingEntry.getValue();
+            for (int i = 0; i < entry.mCount; ++i) {
+                inputEvents.add(new WordInputEventForPersonalization(key.mWord,
+                        key.mNgramContext, key.mIsValid, 1 /* count */, entry.mTimestamp));
+            }
+        }
+        mPendingEntries.clear();
+        return inputEvents;
+    }
+
+    @UsedForTesting
+    synchronized int size() {
+        return mPendingEntries.size();
+    }
+
+    private static final class PendingKey {
+        public final NgramContext mNgramContext;
+        public final String mWord;
+        public final boolean mIsValid;
+        private final int mHashCode;
+
+        public PendingKey(final NgramContext ngramContext, final String word,
+                final boolean isValid) {
+            mNgramContext = ngramContext;
+            mWord = word;
+            mIsValid = isValid;
+            mHashCode = Arrays.hashCode(new Object[] { mNgramContext, mWord, mIsValid });
+        }
+
+        @Override
+        public int hashCode() {
+            return mHashCode;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (o == this) return true;
+            if (!(o instanceof PendingKey)) return false;
+            final PendingKey other = (PendingKey)o;
+            return mIsValid == other.mIsValid && mWord.equals(other.mWord)
+                    && mNgramContext.equals(other.mNgramContext);
+        }
+    }
+
+    private static final class PendingEntry {
+        public int mCount;
+        public int mTimestamp;
+
+        public PendingEntry(final int timestamp) {
+            mCount = 1;
+            mTimestamp = timestamp;
+        }
+    }
+}
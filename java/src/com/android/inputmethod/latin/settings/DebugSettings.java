@@ -43,9 +43,13 @@ public final class DebugSettings {
             "pref_key_preview_show_up_start_x_scale";
     public static final String PREF_KEY_PREVIEW_SHOW_UP_START_Y_SCALE =
             "pref_key_preview_show_up_start_y_scale";
+    public static final String PREF_PARALLEL_DICTIONARY_QUERIES =
+            "pref_parallel_dictionary_queries";
     public static final String PREF_SHOULD_SHOW_LXX_SUGGESTION_UI =
             "pref_should_show_lxx_suggestion_ui";
     public static final String PREF_SLIDING_KEY_INPUT_PREVIEW = "pref_sliding_key_input_preview";
+    public static final String PREF_SPECULATIVE_SUGGESTION_BUDGET =
+            "pref_speculative_suggestion_budget";
 
     private DebugSettings() {
         // This class is not publicly instantiable.
@@ -30,6 +30,7 @@ import android.preference.TwoStatePreference;
 import com.android.inputmethod.latin.DictionaryDumpBroadcastReceiver;
 import com.android.inputmethod.latin.DictionaryFacilitatorImpl;
 import com.android.inputmethod.latin.R;
+import com.android.inputmethod.latin.spellcheck.SpellCheckResultCache;
 import com.android.inputmethod.latin.utils.ApplicationUtils;
 import com.android.inputmethod.latin.utils.ResourceUtils;
 
@@ -44,6 +45,8 @@ public final class DebugSettingsFragment extends SubScreenFragment
         implements OnPreferenceClickListener {
     private static final String PREF_KEY_DUMP_DICTS = "pref_key_dump_dictionaries";
     private static final String PREF_KEY_DUMP_DICT_PREFIX = "pref_key_dump_dictionaries";
+    private static final String PREF_KEY_SPELL_CHECKER_CACHE_STATS =
+            "pref_spell_checker_cache_stats";
 
     private boolean mServiceNeedsRestart = false;
     private TwoStatePreference mDebugMode;
@@ -83,6 +86,7 @@ public final class DebugSettingsFragment extends SubScreenFragment
                 defaultKeyPreviewDismissEndScale);
         setupKeyboardHeight(
                 DebugSettings.PREF_KEYBOARD_HEIGHT_SCALE, SettingsValues.DEFAULT_SIZE_SCALE);
+        setupSpeculativeSuggestionBudget(DebugSettings.PREF_SPECULATIVE_SUGGESTION_BUDGET);
 
         mServiceNeedsRestart = false;
         mDebugMode = (TwoStatePreference) findPreference(DebugSettings.PREF_DEBUG_MODE);
@@ -115,6 +119,15 @@ public final class DebugSettingsFragment extends SubScreenFragment
         return true;
     }
 
+    @Override
+    public void onResume() {
+        super.onResume();
+        final Preference cacheStats = findPreference(PREF_KEY_SPELL_CHECKER_CACHE_STATS);
+        if (cacheStats != null) {
+            cacheStats.setSummary(SpellCheckResultCache.getInstance().toString());
+        }
+    }
+
     @Override
     public void onStop() {
         super.onStop();
@@ -240,6 +253,43 @@ public final class DebugSettingsFragment extends SubScreenFragment
         });
     }
 
+    private void setupSpeculativeSuggestionBudget(final String prefKey) {
+        final SharedPreferences prefs = getSharedPreferences();
+        final SeekBarDialogPreference pref = (SeekBarDialogPreference)findPreference(prefKey);
+        if (pref == null) {
+            return;
+        }
+        pref.setInterface(new SeekBarDialogPreference.ValueProxy() {
+            @Override
+            public void writeValue(final int value, final String key) {
+                prefs.edit().putInt(key, value).apply();
+            }
+
+            @Override
+            public void writeDefaultValue(final String key) {
+                prefs.edit().remove(key).apply();
+            }
+
+            @Override
+            public int readValue(final String key) {
+                return Settings.readSpeculativeSuggestionBudget(prefs);
+            }
+
+            @Override
+            public int readDefaultValue(final String key) {
+                return Settings.DEFAULT_SPECULATIVE_SUGGESTION_BUDGET;
+            }
+
+            @Override
+            public String getValueText(final int value) {
+                return Integer.toString(value);
+            }
+
+            @Override
+            public void feedbackValue(final int value) {}
+        });
+    }
+
     private void setupKeyboardHeight(final String prefKey, final float defaultValue) {
         final SharedPreferences prefs = getSharedPreferences();
         final SeekBarDialogPreference pref = (SeekBarDialogPreference)findPreference(prefKey);
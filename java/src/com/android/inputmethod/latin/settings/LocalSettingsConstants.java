@@ -48,6 +48,7 @@ public class LocalSettingsConstants {
         DebugSettings.PREF_FORCE_NON_DISTINCT_MULTITOUCH,
         DebugSettings.PREF_HAS_CUSTOM_KEY_PREVIEW_ANIMATION_PARAMS,
         DebugSettings.PREF_KEYBOARD_HEIGHT_SCALE,
+        DebugSettings.PREF_PARALLEL_DICTIONARY_QUERIES,
         DebugSettings.PREF_KEY_PREVIEW_DISMISS_DURATION,
         DebugSettings.PREF_KEY_PREVIEW_DISMISS_END_X_SCALE,
         DebugSettings.PREF_KEY_PREVIEW_DISMISS_END_Y_SCALE,
@@ -56,6 +57,7 @@ public class LocalSettingsConstants {
         DebugSettings.PREF_KEY_PREVIEW_SHOW_UP_START_Y_SCALE,
         DebugSettings.PREF_RESIZE_KEYBOARD,
         DebugSettings.PREF_SHOULD_SHOW_LXX_SUGGESTION_UI,
-        DebugSettings.PREF_SLIDING_KEY_INPUT_PREVIEW
+        DebugSettings.PREF_SLIDING_KEY_INPUT_PREVIEW,
+        DebugSettings.PREF_SPECULATIVE_SUGGESTION_BUDGET
     };
 }
@@ -119,6 +119,8 @@ public final class Settings implements SharedPreferences.OnSharedPreferenceChang
 
     private static final float UNDEFINED_PREFERENCE_VALUE_FLOAT = -1.0f;
     private static final int UNDEFINED_PREFERENCE_VALUE_INT = -1;
+    // Speculative suggestions are off unless enabled in the debug settings.
+    public static final int DEFAULT_SPECULATIVE_SUGGESTION_BUDGET = 0;
 
     private Context mContext;
     private Resources mRes;
@@ -342,6 +344,13 @@ public final class Settings implements SharedPreferences.OnSharedPreferenceChang
         return (milliseconds != UNDEFINED_PREFERENCE_VALUE_INT) ? milliseconds : defaultValue;
     }
 
+    public static int readSpeculativeSuggestionBudget(final SharedPreferences prefs) {
+        final int budget = prefs.getInt(DebugSettings.PREF_SPECULATIVE_SUGGESTION_BUDGET,
+                UNDEFINED_PREFERENCE_VALUE_INT);
+        return (budget != UNDEFINED_PREFERENCE_VALUE_INT) ? budget
+                : DEFAULT_SPECULATIVE_SUGGESTION_BUDGET;
+    }
+
     public static float readKeyboardHeight(final SharedPreferences prefs,
             final float defaultValue) {
         final float percentage = prefs.getFloat(
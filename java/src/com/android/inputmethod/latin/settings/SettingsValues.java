@@ -29,6 +29,7 @@ import com.android.inputmethod.compat.AppWorkaroundsUtils;
 import com.android.inputmethod.latin.InputAttributes;
 import com.android.inputmethod.latin.R;
 import com.android.inputmethod.latin.RichInputMethodManager;
+import com.android.inputmethod.latin.define.ProductionFlags;
 import com.android.inputmethod.latin.utils.AsyncResultHolder;
 import com.android.inputmethod.latin.utils.ResourceUtils;
 import com.android.inputmethod.latin.utils.TargetPackageInfoGetterTask;
@@ -116,6 +117,8 @@ public class SettingsValues {
     public final float mKeyPreviewShowUpStartYScale;
     public final float mKeyPreviewDismissEndXScale;
     public final float mKeyPreviewDismissEndYScale;
+    public final int mSpeculativeSuggestionBudget;
+    public final boolean mUseParallelDictionaryQueries;
 
     @Nullable public final String mAccount;
 
@@ -212,6 +215,10 @@ public class SettingsValues {
         mKeyPreviewDismissEndYScale = Settings.readKeyPreviewAnimationScale(
                 prefs, DebugSettings.PREF_KEY_PREVIEW_DISMISS_END_Y_SCALE,
                 defaultKeyPreviewDismissEndScale);
+        mSpeculativeSuggestionBudget = Settings.readSpeculativeSuggestionBudget(prefs);
+        mUseParallelDictionaryQueries = prefs.getBoolean(
+                DebugSettings.PREF_PARALLEL_DICTIONARY_QUERIES,
+                ProductionFlags.ENABLE_PARALLEL_DICTIONARY_QUERIES);
         mDisplayOrientation = res.getConfiguration().orientation;
         mAppWorkarounds = new AsyncResultHolder<>("AppWorkarounds");
         final PackageInfo packageInfo = TargetPackageInfoGetterTask.getCachedPackageInfo(
@@ -447,6 +454,10 @@ public class SettingsValues {
         sb.append("" + mKeyPreviewDismissEndXScale);
         sb.append("\n   mKeyPreviewDismissEndScaleY = ");
         sb.append("" + mKeyPreviewDismissEndYScale);
+        sb.append("\n   mSpeculativeSuggestionBudget = ");
+        sb.append("" + mSpeculativeSuggestionBudget);
+        sb.append("\n   mUseParallelDictionaryQueries = ");
+        sb.append("" + mUseParallelDictionaryQueries);
         return sb.toString();
     }
 }
@@ -16,10 +16,19 @@
 
 package com.android.inputmethod.latin.settings;
 
+import com.android.inputmethod.latin.define.ProductionFlags;
+
 public class SettingsValuesForSuggestion {
     public final boolean mBlockPotentiallyOffensive;
+    public final boolean mUseParallelDictionaryQueries;
 
     public SettingsValuesForSuggestion(final boolean blockPotentiallyOffensive) {
+        this(blockPotentiallyOffensive, ProductionFlags.ENABLE_PARALLEL_DICTIONARY_QUERIES);
+    }
+
+    public SettingsValuesForSuggestion(final boolean blockPotentiallyOffensive,
+            final boolean useParallelDictionaryQueries) {
         mBlockPotentiallyOffensive = blockPotentiallyOffensive;
+        mUseParallelDictionaryQueries = useParallelDictionaryQueries;
     }
 }
@@ -18,6 +18,7 @@ package com.android.inputmethod.latin.spellcheck;
 
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.os.SystemClock;
 import android.preference.PreferenceManager;
 import android.service.textservice.SpellCheckerService;
 import android.text.InputType;
@@ -40,10 +41,13 @@ import com.android.inputmethod.latin.utils.AdditionalSubtypeUtils;
 import com.android.inputmethod.latin.utils.ScriptUtils;
 import com.android.inputmethod.latin.utils.SuggestionResults;
 
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
 import java.util.Locale;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.Nonnull;
 
@@ -64,11 +68,21 @@ public final class AndroidSpellCheckerService extends SpellCheckerService
 
     private static final String[] EMPTY_STRING_ARRAY = new String[0];
 
-    private final int MAX_NUM_OF_THREADS_READ_DICTIONARY = 2;
+    // Each read of the dictionaries uses its own traverse session, and the sessions are created
+    // on demand, so one read per core can run at the same time. The fair semaphore grants the
+    // reads in the order they were requested, which is not fair between clients by itself: each
+    // session also limits its own reads to MAX_NUM_OF_READS_PER_CLIENT, so that one client
+    // can't take all the reads and queue ahead of the others.
+    private static final int MIN_NUM_OF_THREADS_READ_DICTIONARY = 2;
+    /* package */ static final int MAX_NUM_OF_THREADS_READ_DICTIONARY = Math.max(
+            MIN_NUM_OF_THREADS_READ_DICTIONARY, Runtime.getRuntime().availableProcessors());
+    /* package */ static final int MAX_NUM_OF_READS_PER_CLIENT =
+            Math.max(1, MAX_NUM_OF_THREADS_READ_DICTIONARY / 2);
     private final Semaphore mSemaphore = new Semaphore(MAX_NUM_OF_THREADS_READ_DICTIONARY,
             true /* fair */);
     // TODO: Make each spell checker session has its own session id.
     private final ConcurrentLinkedQueue<Integer> mSessionIdPool = new ConcurrentLinkedQueue<>();
+    private final ReadStats mReadStats = new ReadStats();
 
     private final DictionaryFacilitatorLruCache mDictionaryFacilitatorCache =
             new DictionaryFacilitatorLruCache(this /* context */, DICTIONARY_NAME_PREFIX);
@@ -157,14 +171,31 @@ public final class AndroidSpellCheckerService extends SpellCheckerService
                 EMPTY_STRING_ARRAY);
     }
 
-    public boolean isValidWord(final Locale locale, final String word) {
+    /**
+     * Waits for one of the dictionary reads that can run at the same time.
+     * @return the time the read was allowed to start, to be passed to {@link #endRead(long)}.
+     */
+    private long startRead() {
+        final long requestTime = SystemClock.uptimeMillis();
         mSemaphore.acquireUninterruptibly();
+        final long startTime = SystemClock.uptimeMillis();
+        mReadStats.onReadStarted(startTime - requestTime);
+        return startTime;
+    }
+
+    private void endRead(final long startTime) {
+        mReadStats.onReadEnded(SystemClock.uptimeMillis() - startTime);
+        mSemaphore.release();
+    }
+
+    public boolean isValidWord(final Locale locale, final String word) {
+        final long startTime = startRead();
         try {
             DictionaryFacilitator dictionaryFacilitatorForLocale =
                     mDictionaryFacilitatorCache.get(locale);
             return dictionaryFacilitatorForLocale.isValidSpellingWord(word);
         } finally {
-            mSemaphore.release();
+            endRead(startTime);
         }
     }
 
@@ -172,7 +203,7 @@ public final class AndroidSpellCheckerService extends SpellCheckerService
             final ComposedData composedData, final NgramContext ngramContext,
             @Nonnull final Keyboard keyboard) {
         Integer sessionId = null;
-        mSemaphore.acquireUninterruptibly();
+        final long startTime = startRead();
         try {
             sessionId = mSessionIdPool.poll();
             DictionaryFacilitator dictionaryFacilitatorForLocale =
@@ -184,18 +215,26 @@ public final class AndroidSpellCheckerService extends SpellCheckerService
             if (sessionId != null) {
                 mSessionIdPool.add(sessionId);
             }
-            mSemaphore.release();
+            endRead(startTime);
         }
     }
 
+    /**
+     * Returns a counter that changes whenever the dictionaries of the locale may have changed,
+     * to invalidate the cached spell checking results.
+     */
+    public long getDictionaryGeneration(final Locale locale) {
+        return mDictionaryFacilitatorCache.get(locale).getDictionaryGeneration();
+    }
+
     public boolean hasMainDictionaryForLocale(final Locale locale) {
-        mSemaphore.acquireUninterruptibly();
+        final long startTime = startRead();
         try {
             final DictionaryFacilitator dictionaryFacilitator =
                     mDictionaryFacilitatorCache.get(locale);
             return dictionaryFacilitator.hasAtLeastOneInitializedMainDictionary();
         } finally {
-            mSemaphore.release();
+            endRead(startTime);
         }
     }
 
@@ -208,6 +247,7 @@ public final class AndroidSpellCheckerService extends SpellCheckerService
             mSemaphore.release(MAX_NUM_OF_THREADS_READ_DICTIONARY);
         }
         mKeyboardCache.clear();
+        SpellCheckResultCache.getInstance().clear();
         return false;
     }
 
@@ -241,4 +281,59 @@ public final class AndroidSpellCheckerService extends SpellCheckerService
         builder.disableTouchPositionCorrectionData();
         return builder.build();
     }
+
+    @Override
+    protected void dump(final FileDescriptor fd, final PrintWriter fout, final String[] args) {
+        super.dump(fd, fout, args);
+        fout.println("AndroidSpellCheckerService state :");
+        fout.println("  Max concurrent reads = " + MAX_NUM_OF_THREADS_READ_DICTIONARY);
+        fout.println("  Max concurrent reads per client = " + MAX_NUM_OF_READS_PER_CLIENT);
+        fout.println("  Waiting reads = " + mSemaphore.getQueueLength());
+        fout.println("  " + mReadStats);
+        fout.println("  " + SpellCheckResultCache.getInstance());
+    }
+
+    /**
+     * Records how long the dictionary reads waited for their turn and how long they took.
+     */
+    private static final class ReadStats {
+        private final AtomicLong mInFlightReadCount = new AtomicLong();
+        private final AtomicLong mReadCount = new AtomicLong();
+        private final AtomicLong mTotalWaitTimeMillis = new AtomicLong();
+        private final AtomicLong mMaxWaitTimeMillis = new AtomicLong();
+        private final AtomicLong mTotalReadTimeMillis = new AtomicLong();
+        private final AtomicLong mMaxReadTimeMillis = new AtomicLong();
+
+        public void onReadStarted(final long waitTimeMillis) {
+            mReadCount.incrementAndGet();
+            mInFlightReadCount.incrementAndGet();
+            mTotalWaitTimeMillis.addAndGet(waitTimeMillis);
+            updateMax(mMaxWaitTimeMillis, waitTimeMillis);
+        }
+
+        public void onReadEnded(final long readTimeMillis) {
+            mTotalReadTimeMillis.addAndGet(readTimeMillis);
+            updateMax(mMaxReadTimeMillis, readTimeMillis);
+            mInFlightReadCount.decrementAndGet();
+        }
+
+        private static void updateMax(final AtomicLong max, final long value) {
+            long currentMax = max.get();
+            while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+                currentMax = max.get();
+            }
+        }
+
+        @Override
+        public String toString() {
+            final long inFlightReadCount = mInFlightReadCount.get();
+            final long readCount = mReadCount.get();
+            final long doneReadCount = readCount - inFlightReadCount;
+            return "Reads: inFlight=" + inFlightReadCount + " started=" + readCount
+                    + " avgWait=" + (readCount <= 0 ? 0 : mTotalWaitTimeMillis.get() / readCount)
+                    + "ms maxWait=" + mMaxWaitTimeMillis.get() + "ms avgLatency="
+                    + (doneReadCount <= 0 ? 0 : mTotalReadTimeMillis.get() / doneReadCount)
+                    + "ms maxLatency=" + mMaxReadTimeMillis.get() + "ms";
+        }
+    }
 }
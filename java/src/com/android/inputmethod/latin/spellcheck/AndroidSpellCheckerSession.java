@@ -26,16 +26,28 @@ import android.view.textservice.SentenceSuggestionsInfo;
 import android.view.textservice.SuggestionsInfo;
 import android.view.textservice.TextInfo;
 
+import com.android.inputmethod.annotations.UsedForTesting;
 import com.android.inputmethod.compat.TextInfoCompatUtils;
 import com.android.inputmethod.latin.NgramContext;
+import com.android.inputmethod.latin.utils.ExecutorUtils;
 import com.android.inputmethod.latin.utils.SpannableStringUtils;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 public final class AndroidSpellCheckerSession extends AndroidWordLevelSpellCheckerSession {
     private static final String TAG = AndroidSpellCheckerSession.class.getSimpleName();
     private static final boolean DBG = false;
+    // Below this number of words per chunk, handing words to other threads costs more than
+    // checking them on the calling thread.
+    private static final int MIN_WORDS_PER_CHUNK = 8;
+    // Cannot appear in a word, since words are split on whitespace.
+    private static final char WORD_KEY_SEPARATOR = ' ';
     private final Resources mResources;
     private SentenceLevelAdapter mSentenceLevelAdapter;
 
@@ -84,7 +96,7 @@ public final class AndroidSpellCheckerSession extends AndroidWordLevelSpellCheck
                 if (TextUtils.isEmpty(splitText)) {
                     continue;
                 }
-                if (mSuggestionsCache.getSuggestionsFromCache(splitText.toString()) == null) {
+                if (!hasCachedSuggestions(splitText.toString())) {
                     continue;
                 }
                 final int newLength = splitText.length();
@@ -174,24 +186,189 @@ public final class AndroidSpellCheckerSession extends AndroidWordLevelSpellCheck
             return SentenceLevelAdapter.getEmptySentenceSuggestionsInfo();
         }
         final int infosSize = textInfos.length;
+        final SentenceLevelAdapter.SentenceTextInfoParams[] textInfoParams =
+                new SentenceLevelAdapter.SentenceTextInfoParams[infosSize];
+        for (int i = 0; i < infosSize; ++i) {
+            textInfoParams[i] = sentenceLevelAdapter.getSplitWords(textInfos[i]);
+        }
+        return getSuggestionsOfSentences(textInfoParams, suggestionsLimit, mWordChecker,
+                ExecutorUtils.getBackgroundExecutor(ExecutorUtils.SPELLING),
+                AndroidSpellCheckerService.MAX_NUM_OF_READS_PER_CLIENT);
+    }
+
+    /**
+     * Checks one word with its previous words.
+     */
+    /* package */ interface WordChecker {
+        SuggestionsInfo getSuggestions(TextInfo textInfo, NgramContext ngramContext,
+                int suggestionsLimit);
+    }
+
+    private final WordChecker mWordChecker = new WordChecker() {
+        @Override
+        public SuggestionsInfo getSuggestions(final TextInfo textInfo,
+                final NgramContext ngramContext, final int suggestionsLimit) {
+            final long ident = Binder.clearCallingIdentity();
+            try {
+                return onGetSuggestionsInternal(textInfo, ngramContext, suggestionsLimit);
+            } finally {
+                Binder.restoreCallingIdentity(ident);
+            }
+        }
+    };
+
+    /**
+     * Gets the suggestions of the words of split sentences. Each word with its previous word is
+     * checked only once for the whole batch, so that a word repeated over a long text is looked
+     * up only once.
+     * @param maxChunkCount the maximum number of threads that check the words of this batch at
+     * the same time, including the calling thread
+     */
+    @UsedForTesting
+    /* package */ static SentenceSuggestionsInfo[] getSuggestionsOfSentences(
+            final SentenceLevelAdapter.SentenceTextInfoParams[] textInfoParams,
+            final int suggestionsLimit, final WordChecker wordChecker,
+            final ExecutorService executor, final int maxChunkCount) {
+        final int infosSize = textInfoParams.length;
+        final int[][] uniqueWordIndices = new int[infosSize][];
+        final HashMap<String, Integer> uniqueWordIndexMap = new HashMap<>();
+        final ArrayList<TextInfo> uniqueWords = new ArrayList<>();
+        final ArrayList<CharSequence> uniquePrevWords = new ArrayList<>();
+        for (int i = 0; i < infosSize; ++i) {
+            final ArrayList<SentenceLevelAdapter.SentenceWordItem> items =
+                    textInfoParams[i].mItems;
+            final int itemsSize = items.size();
+            uniqueWordIndices[i] = new int[itemsSize];
+            CharSequence prevWord = null;
+            for (int j = 0; j < itemsSize; ++j) {
+                final TextInfo textInfo = items.get(j).mTextInfo;
+                final CharSequence word = TextInfoCompatUtils.getCharSequenceOrString(textInfo);
+                final String key = (null == prevWord ? "" : prevWord.toString())
+                        + WORD_KEY_SEPARATOR + word;
+                Integer uniqueWordIndex = uniqueWordIndexMap.get(key);
+                if (null == uniqueWordIndex) {
+                    uniqueWordIndex = uniqueWords.size();
+                    uniqueWordIndexMap.put(key, uniqueWordIndex);
+                    uniqueWords.add(textInfo);
+                    uniquePrevWords.add(prevWord);
+                }
+                uniqueWordIndices[i][j] = uniqueWordIndex;
+                // Note that an empty string would be used to indicate the initial word
+                // in the future.
+                prevWord = TextUtils.isEmpty(word) ? null : word;
+            }
+        }
+        final SuggestionsInfo[] uniqueResults = getSuggestionsOfUniqueWords(uniqueWords,
+                uniquePrevWords, suggestionsLimit, wordChecker, executor, maxChunkCount);
+        // SentenceLevelAdapter#reconstructSuggestions sets the cookie and the sequence of the
+        // sentence on the results, so each sentence gets its own copies.
         final SentenceSuggestionsInfo[] retval = new SentenceSuggestionsInfo[infosSize];
         for (int i = 0; i < infosSize; ++i) {
-            final SentenceLevelAdapter.SentenceTextInfoParams textInfoParams =
-                    sentenceLevelAdapter.getSplitWords(textInfos[i]);
-            final ArrayList<SentenceLevelAdapter.SentenceWordItem> mItems =
-                    textInfoParams.mItems;
-            final int itemsSize = mItems.size();
-            final TextInfo[] splitTextInfos = new TextInfo[itemsSize];
+            final ArrayList<SentenceLevelAdapter.SentenceWordItem> items =
+                    textInfoParams[i].mItems;
+            final int itemsSize = items.size();
+            final SuggestionsInfo[] results = new SuggestionsInfo[itemsSize];
             for (int j = 0; j < itemsSize; ++j) {
-                splitTextInfos[j] = mItems.get(j).mTextInfo;
+                final TextInfo textInfo = items.get(j).mTextInfo;
+                results[j] = copySuggestionsInfo(uniqueResults[uniqueWordIndices[i][j]],
+                        textInfo.getCookie(), textInfo.getSequence());
             }
-            retval[i] = SentenceLevelAdapter.reconstructSuggestions(
-                    textInfoParams, onGetSuggestionsMultiple(
-                            splitTextInfos, suggestionsLimit, true));
+            retval[i] = SentenceLevelAdapter.reconstructSuggestions(textInfoParams[i], results);
         }
         return retval;
     }
 
+    /**
+     * Gets the suggestions of each word with its previous word. When there are enough words, they
+     * are split in at most maxChunkCount chunks that are checked concurrently on the executor,
+     * the last one being checked on the calling thread.
+     */
+    private static SuggestionsInfo[] getSuggestionsOfUniqueWords(final ArrayList<TextInfo> words,
+            final ArrayList<CharSequence> prevWords, final int suggestionsLimit,
+            final WordChecker wordChecker, final ExecutorService executor,
+            final int maxChunkCount) {
+        final int wordCount = words.size();
+        final SuggestionsInfo[] results = new SuggestionsInfo[wordCount];
+        final int chunkCount = Math.min(maxChunkCount,
+                (wordCount + MIN_WORDS_PER_CHUNK - 1) / MIN_WORDS_PER_CHUNK);
+        if (chunkCount <= 1) {
+            getSuggestionsOfWords(words, prevWords, 0, wordCount, suggestionsLimit, wordChecker,
+                    results);
+            return results;
+        }
+        final int chunkSize = (wordCount + chunkCount - 1) / chunkCount;
+        final ArrayList<Future<?>> futures = new ArrayList<>();
+        int start = 0;
+        for (; start + chunkSize < wordCount; start += chunkSize) {
+            final int chunkStart = start;
+            try {
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        getSuggestionsOfWords(words, prevWords, chunkStart,
+                                chunkStart + chunkSize, suggestionsLimit, wordChecker, results);
+                    }
+                }));
+            } catch (final RejectedExecutionException e) {
+                Log.w(TAG, "Checking a chunk of words on the calling thread", e);
+                getSuggestionsOfWords(words, prevWords, chunkStart, chunkStart + chunkSize,
+                        suggestionsLimit, wordChecker, results);
+            }
+        }
+        getSuggestionsOfWords(words, prevWords, start, wordCount, suggestionsLimit, wordChecker,
+                results);
+        boolean interrupted = false;
+        for (final Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                } catch (final ExecutionException e) {
+                    Log.e(TAG, "Exception while spellchecking", e);
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        // A chunk that failed leaves its words unchecked, which is reported as if they were not
+        // in the dictionary rather than as typos.
+        for (int i = 0; i < wordCount; ++i) {
+            if (null == results[i]) {
+                results[i] = AndroidSpellCheckerService.getNotInDictEmptySuggestions(
+                        false /* reportAsTypo */);
+            }
+        }
+        return results;
+    }
+
+    private static void getSuggestionsOfWords(final ArrayList<TextInfo> words,
+            final ArrayList<CharSequence> prevWords, final int start, final int end,
+            final int suggestionsLimit, final WordChecker wordChecker,
+            final SuggestionsInfo[] outResults) {
+        for (int i = start; i < end; ++i) {
+            final NgramContext ngramContext =
+                    new NgramContext(new NgramContext.WordInfo(prevWords.get(i)));
+            outResults[i] = wordChecker.getSuggestions(words.get(i), ngramContext,
+                    suggestionsLimit);
+        }
+    }
+
+    private static SuggestionsInfo copySuggestionsInfo(final SuggestionsInfo suggestionsInfo,
+            final int cookie, final int sequence) {
+        final int suggestionsCount = suggestionsInfo.getSuggestionsCount();
+        // A count of -1 means that no suggestions are available, which a null array keeps.
+        final String[] suggestions = suggestionsCount < 0 ? null : new String[suggestionsCount];
+        for (int i = 0; i < suggestionsCount; ++i) {
+            suggestions[i] = suggestionsInfo.getSuggestionAt(i);
+        }
+        return new SuggestionsInfo(suggestionsInfo.getSuggestionsAttributes(), suggestions,
+                cookie, sequence);
+    }
+
     @Override
     public SuggestionsInfo[] onGetSuggestionsMultiple(TextInfo[] textInfos,
             int suggestionsLimit, boolean sequentialWords) {
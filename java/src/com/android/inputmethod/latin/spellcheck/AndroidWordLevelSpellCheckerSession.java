@@ -16,14 +16,10 @@
 
 package com.android.inputmethod.latin.spellcheck;
 
-import android.content.ContentResolver;
-import android.database.ContentObserver;
 import android.os.Binder;
-import android.provider.UserDictionary.Words;
 import android.service.textservice.SpellCheckerService.Session;
 import android.text.TextUtils;
 import android.util.Log;
-import android.util.LruCache;
 import android.view.textservice.SuggestionsInfo;
 import android.view.textservice.TextInfo;
 
@@ -44,6 +40,9 @@ import com.android.inputmethod.latin.utils.SuggestionResults;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.Nullable;
 
 public abstract class AndroidWordLevelSpellCheckerSession extends Session {
     private static final String TAG = AndroidWordLevelSpellCheckerSession.class.getSimpleName();
@@ -55,60 +54,17 @@ public abstract class AndroidWordLevelSpellCheckerSession extends Session {
     // Cache this for performance
     private int mScript; // One of SCRIPT_LATIN or SCRIPT_CYRILLIC for now.
     private final AndroidSpellCheckerService mService;
-    protected final SuggestionsCache mSuggestionsCache = new SuggestionsCache();
-    private final ContentObserver mObserver;
+    private final SpellCheckResultCache mResultCache = SpellCheckResultCache.getInstance();
+    // Each session is the connection of one client. Its words are checked at most
+    // MAX_NUM_OF_READS_PER_CLIENT at a time, so that it leaves reads for the other clients.
+    private final Semaphore mReadSemaphore = new Semaphore(
+            AndroidSpellCheckerService.MAX_NUM_OF_READS_PER_CLIENT, true /* fair */);
 
     private static final String quotesRegexp =
             "(\\u0022|\\u0027|\\u0060|\\u00B4|\\u2018|\\u2018|\\u201C|\\u201D)";
 
-    private static final class SuggestionsParams {
-        public final String[] mSuggestions;
-        public final int mFlags;
-        public SuggestionsParams(String[] suggestions, int flags) {
-            mSuggestions = suggestions;
-            mFlags = flags;
-        }
-    }
-
-    protected static final class SuggestionsCache {
-        private static final int MAX_CACHE_SIZE = 50;
-        private final LruCache<String, SuggestionsParams> mUnigramSuggestionsInfoCache =
-                new LruCache<>(MAX_CACHE_SIZE);
-
-        private static String generateKey(final String query) {
-            return query + "";
-        }
-
-        public SuggestionsParams getSuggestionsFromCache(final String query) {
-            return mUnigramSuggestionsInfoCache.get(query);
-        }
-
-        public void putSuggestionsToCache(
-                final String query, final String[] suggestions, final int flags) {
-            if (suggestions == null || TextUtils.isEmpty(query)) {
-                return;
-            }
-            mUnigramSuggestionsInfoCache.put(
-                    generateKey(query),
-                    new SuggestionsParams(suggestions, flags));
-        }
-
-        public void clearCache() {
-            mUnigramSuggestionsInfoCache.evictAll();
-        }
-    }
-
     AndroidWordLevelSpellCheckerSession(final AndroidSpellCheckerService service) {
         mService = service;
-        final ContentResolver cres = service.getContentResolver();
-
-        mObserver = new ContentObserver(null) {
-            @Override
-            public void onChange(boolean self) {
-                mSuggestionsCache.clearCache();
-            }
-        };
-        cres.registerContentObserver(Words.CONTENT_URI, true, mObserver);
     }
 
     @Override
@@ -119,12 +75,6 @@ public abstract class AndroidWordLevelSpellCheckerSession extends Session {
         mScript = ScriptUtils.getScriptFromSpellCheckerLocale(mLocale);
     }
 
-    @Override
-    public void onClose() {
-        final ContentResolver cres = mService.getContentResolver();
-        cres.unregisterContentObserver(mObserver);
-    }
-
     private static final int CHECKABILITY_CHECKABLE = 0;
     private static final int CHECKABILITY_TOO_MANY_NON_LETTERS = 1;
     private static final int CHECKABILITY_CONTAINS_PERIOD = 2;
@@ -222,6 +172,16 @@ public abstract class AndroidWordLevelSpellCheckerSession extends Session {
 
     protected SuggestionsInfo onGetSuggestionsInternal(
             final TextInfo textInfo, final NgramContext ngramContext, final int suggestionsLimit) {
+        mReadSemaphore.acquireUninterruptibly();
+        try {
+            return getSuggestions(textInfo, ngramContext, suggestionsLimit);
+        } finally {
+            mReadSemaphore.release();
+        }
+    }
+
+    private SuggestionsInfo getSuggestions(
+            final TextInfo textInfo, final NgramContext ngramContext, final int suggestionsLimit) {
         try {
             final String text = textInfo.getText().
                     replaceAll(AndroidSpellCheckerService.APOSTROPHE,
@@ -234,29 +194,22 @@ public abstract class AndroidWordLevelSpellCheckerSession extends Session {
                         false /* reportAsTypo */);
             }
 
+            final String prevWord = getPrevWord(ngramContext);
+            final long dictionaryGeneration = mService.getDictionaryGeneration(mLocale);
+            final SuggestionsInfo cachedSuggestionsInfo = mResultCache.get(mLocale, text,
+                    prevWord, suggestionsLimit, dictionaryGeneration);
+            if (null != cachedSuggestionsInfo) {
+                return cachedSuggestionsInfo;
+            }
+
             // Handle special patterns like email, URI, telephone number.
             final int checkability = getCheckabilityInScript(text, mScript);
             if (CHECKABILITY_CHECKABLE != checkability) {
-                if (CHECKABILITY_CONTAINS_PERIOD == checkability) {
-                    final String[] splitText = text.split(Constants.REGEXP_PERIOD);
-                    boolean allWordsAreValid = true;
-                    for (final String word : splitText) {
-                        if (!mService.isValidWord(mLocale, word)) {
-                            allWordsAreValid = false;
-                            break;
-                        }
-                    }
-                    if (allWordsAreValid) {
-                        return new SuggestionsInfo(SuggestionsInfo.RESULT_ATTR_LOOKS_LIKE_TYPO
-                                | SuggestionsInfo.RESULT_ATTR_HAS_RECOMMENDED_SUGGESTIONS,
-                                new String[] {
-                                        TextUtils.join(Constants.STRING_SPACE, splitText) });
-                    }
-                }
-                return mService.isValidWord(mLocale, text) ?
-                        AndroidSpellCheckerService.getInDictEmptySuggestions() :
-                        AndroidSpellCheckerService.getNotInDictEmptySuggestions(
-                                CHECKABILITY_CONTAINS_PERIOD == checkability /* reportAsTypo */);
+                final SuggestionsInfo suggestionsInfo =
+                        getSuggestionsForNonCheckableText(text, checkability);
+                mResultCache.putContextFreeResult(mLocale, text, dictionaryGeneration,
+                        suggestionsInfo);
+                return suggestionsInfo;
             }
 
             // Handle normal words.
@@ -266,7 +219,11 @@ public abstract class AndroidWordLevelSpellCheckerSession extends Session {
                 if (DebugFlags.DEBUG_ENABLED) {
                     Log.i(TAG, "onGetSuggestionsInternal() : [" + text + "] is a valid word");
                 }
-                return AndroidSpellCheckerService.getInDictEmptySuggestions();
+                final SuggestionsInfo suggestionsInfo =
+                        AndroidSpellCheckerService.getInDictEmptySuggestions();
+                mResultCache.putContextFreeResult(mLocale, text, dictionaryGeneration,
+                        suggestionsInfo);
+                return suggestionsInfo;
             }
             if (DebugFlags.DEBUG_ENABLED) {
                 Log.i(TAG, "onGetSuggestionsInternal() : [" + text + "] is NOT a valid word");
@@ -316,7 +273,8 @@ public abstract class AndroidWordLevelSpellCheckerSession extends Session {
                                     .getValueOf_RESULT_ATTR_HAS_RECOMMENDED_SUGGESTIONS()
                             : 0);
             final SuggestionsInfo retval = new SuggestionsInfo(flags, result.mSuggestions);
-            mSuggestionsCache.putSuggestionsToCache(text, result.mSuggestions, flags);
+            mResultCache.putResult(mLocale, text, prevWord, suggestionsLimit, dictionaryGeneration,
+                    retval);
             return retval;
         } catch (RuntimeException e) {
             // Don't kill the keyboard if there is a bug in the spell checker
@@ -326,6 +284,50 @@ public abstract class AndroidWordLevelSpellCheckerSession extends Session {
         }
     }
 
+    /**
+     * Checks a text that does not look like a word, like an email address, a URI or a telephone
+     * number. The result does not depend on the previous word.
+     */
+    private SuggestionsInfo getSuggestionsForNonCheckableText(final String text,
+            final int checkability) {
+        if (CHECKABILITY_CONTAINS_PERIOD == checkability) {
+            final String[] splitText = text.split(Constants.REGEXP_PERIOD);
+            boolean allWordsAreValid = true;
+            for (final String word : splitText) {
+                if (!mService.isValidWord(mLocale, word)) {
+                    allWordsAreValid = false;
+                    break;
+                }
+            }
+            if (allWordsAreValid) {
+                return new SuggestionsInfo(SuggestionsInfo.RESULT_ATTR_LOOKS_LIKE_TYPO
+                        | SuggestionsInfo.RESULT_ATTR_HAS_RECOMMENDED_SUGGESTIONS,
+                        new String[] {
+                                TextUtils.join(Constants.STRING_SPACE, splitText) });
+            }
+        }
+        return mService.isValidWord(mLocale, text) ?
+                AndroidSpellCheckerService.getInDictEmptySuggestions() :
+                AndroidSpellCheckerService.getNotInDictEmptySuggestions(
+                        CHECKABILITY_CONTAINS_PERIOD == checkability /* reportAsTypo */);
+    }
+
+    /**
+     * Returns whether the word was recently found to be a typo that has suggestions.
+     */
+    protected boolean hasCachedSuggestions(final String word) {
+        return null != mLocale && mResultCache.hasSuggestions(mLocale, word);
+    }
+
+    @Nullable
+    private static String getPrevWord(@Nullable final NgramContext ngramContext) {
+        if (null == ngramContext) {
+            return null;
+        }
+        final CharSequence prevWord = ngramContext.getNthPrevWord(1);
+        return null == prevWord ? null : prevWord.toString();
+    }
+
     private static final class Result {
         public final String[] mSuggestions;
         public final boolean mHasRecommendedSuggestions;
@@ -0,0 +1,346 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.spellcheck;
+
+import android.text.TextUtils;
+import android.util.LruCache;
+import android.view.textservice.SuggestionsInfo;
+
+import com.android.inputmethod.annotations.UsedForTesting;
+import com.android.inputmethod.latin.DictionaryFacilitator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A cache of the results of the spell checker, shared by all the sessions of the process.
+ *
+ * Entries are keyed by locale and word. Whether a word is in the dictionary does not depend on
+ * the previous word, so such a result is stored once for the word. The suggestions for a typo
+ * do, so the entry of a typo keeps the results for its last few previous words. Results without
+ * suggestions are cached as well, so checking the same text again does not look anything up.
+ *
+ * The results of a locale are dropped as soon as the dictionary generation of that locale, as
+ * reported by {@link DictionaryFacilitator#getDictionaryGeneration()}, changes. The other locales
+ * keep theirs. The size of the cache is bounded by an estimate of the memory used by the entries.
+ */
+public final class SpellCheckResultCache {
+    private static final int DEFAULT_MAX_SIZE_IN_BYTES = 256 * 1024;
+    private static final int MAX_CONTEXTUAL_RESULTS_PER_WORD = 4;
+    // A rough estimate of the memory used by an object with a few fields, excluding the strings
+    // it refers to.
+    private static final int OBJECT_SIZE_IN_BYTES = 32;
+
+    private static final SpellCheckResultCache sInstance = new SpellCheckResultCache();
+
+    private final LruCache<CacheKey, WordEntry> mCache;
+    // The dictionary generation that the cached results of each locale were computed with.
+    private final HashMap<Locale, Long> mDictionaryGenerations = new HashMap<>();
+    private long mHitCount;
+    private long mMissCount;
+    private long mInvalidationCount;
+
+    public static SpellCheckResultCache getInstance() {
+        return sInstance;
+    }
+
+    private SpellCheckResultCache() {
+        this(DEFAULT_MAX_SIZE_IN_BYTES);
+    }
+
+    @UsedForTesting
+    SpellCheckResultCache(final int maxSizeInBytes) {
+        mCache = new LruCache<CacheKey, WordEntry>(maxSizeInBytes) {
+            @Override
+            protected int sizeOf(final CacheKey key, final WordEntry value) {
+                return key.getSizeInBytes() + value.getSizeInBytes();
+            }
+        };
+    }
+
+    /**
+     * Returns a new {@link SuggestionsInfo} holding the cached result for a word, or null if
+     * there is none.
+     *
+     * @param dictionaryGeneration the current dictionary generation of the locale. If it changed,
+     * the results of the locale are dropped.
+     */
+    @Nullable
+    public synchronized SuggestionsInfo get(@Nonnull final Locale locale,
+            @Nonnull final String word, @Nullable final String prevWord,
+            final int suggestionsLimit, final long dictionaryGeneration) {
+        final Long cachedDictionaryGeneration = mDictionaryGenerations.get(locale);
+        if (null == cachedDictionaryGeneration
+                || dictionaryGeneration != cachedDictionaryGeneration) {
+            invalidateLocked(locale, dictionaryGeneration);
+            ++mMissCount;
+            return null;
+        }
+        final WordEntry entry = mCache.get(new CacheKey(locale, word));
+        final Result result = null == entry ? null : entry.getResult(prevWord, suggestionsLimit);
+        if (null == result) {
+            ++mMissCount;
+            return null;
+        }
+        ++mHitCount;
+        return new SuggestionsInfo(result.mFlags, result.mSuggestions);
+    }
+
+    /**
+     * Stores a result that does not depend on the previous word nor on the number of requested
+     * suggestions, like the result for a word in the dictionary.
+     *
+     * @param dictionaryGeneration the dictionary generation read *before* the result was
+     * computed. If the dictionaries were updated in the meantime, the result is not cached.
+     */
+    public synchronized void putContextFreeResult(@Nonnull final Locale locale,
+            @Nonnull final String word, final long dictionaryGeneration,
+            @Nonnull final SuggestionsInfo suggestionsInfo) {
+        if (!canPutLocked(locale, dictionaryGeneration) || TextUtils.isEmpty(word)) {
+            return;
+        }
+        mCache.put(new CacheKey(locale, word), new WordEntry(
+                new Result(null /* prevWord */, 0 /* suggestionsLimit */, suggestionsInfo),
+                null /* contextualResults */));
+    }
+
+    /**
+     * Stores the result for a typo, which depends on the previous word and on the number of
+     * requested suggestions.
+     *
+     * @param dictionaryGeneration the dictionary generation read *before* the result was
+     * computed. If the dictionaries were updated in the meantime, the result is not cached.
+     */
+    public synchronized void putResult(@Nonnull final Locale locale, @Nonnull final String word,
+            @Nullable final String prevWord, final int suggestionsLimit,
+            final long dictionaryGeneration, @Nonnull final SuggestionsInfo suggestionsInfo) {
+        if (!canPutLocked(locale, dictionaryGeneration) || TextUtils.isEmpty(word)) {
+            return;
+        }
+        final CacheKey key = new CacheKey(locale, word);
+        final WordEntry entry = mCache.get(key);
+        final Result result = new Result(prevWord, suggestionsLimit, suggestionsInfo);
+        // Entries are immutable, because the size of an entry must not change while it is in
+        // the cache.
+        mCache.put(key, null == entry ? new WordEntry(null /* contextFreeResult */,
+                new Result[] { result }) : entry.withContextualResult(result));
+    }
+
+    /**
+     * Returns whether the word was recently found to be a typo that has suggestions, for any
+     * previous word.
+     */
+    public synchronized boolean hasSuggestions(@Nonnull final Locale locale,
+            @Nonnull final String word) {
+        final WordEntry entry = mCache.get(new CacheKey(locale, word));
+        return null != entry && entry.hasContextualSuggestions();
+    }
+
+    public synchronized void clear() {
+        mCache.evictAll();
+        mDictionaryGenerations.clear();
+    }
+
+    /**
+     * Returns whether results computed with the generation can be stored for the locale, which
+     * they can unless the cached results of the locale were computed with another generation.
+     */
+    private boolean canPutLocked(@Nonnull final Locale locale, final long dictionaryGeneration) {
+        final Long cachedDictionaryGeneration = mDictionaryGenerations.get(locale);
+        if (null == cachedDictionaryGeneration) {
+            // The next lookup checks the generation before returning anything.
+            mDictionaryGenerations.put(locale, dictionaryGeneration);
+            return true;
+        }
+        return dictionaryGeneration == cachedDictionaryGeneration;
+    }
+
+    private void invalidateLocked(@Nonnull final Locale locale,
+            final long dictionaryGeneration) {
+        boolean removed = false;
+        for (final CacheKey key : mCache.snapshot().keySet()) {
+            if (key.mLocale.equals(locale)) {
+                mCache.remove(key);
+                removed = true;
+            }
+        }
+        if (removed) {
+            ++mInvalidationCount;
+        }
+        mDictionaryGenerations.put(locale, dictionaryGeneration);
+    }
+
+    @UsedForTesting
+    synchronized int getWordCount() {
+        return mCache.snapshot().size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        final long lookupCount = mHitCount + mMissCount;
+        return "Results cache: words=" + mCache.snapshot().size()
+                + " size=" + mCache.size() + "/" + mCache.maxSize() + "bytes"
+                + " hits=" + mHitCount + " misses=" + mMissCount
+                + " hitRatio=" + (lookupCount == 0 ? 0 : mHitCount * 100 / lookupCount) + "%"
+                + " evictions=" + mCache.evictionCount()
+                + " invalidations=" + mInvalidationCount;
+    }
+
+    private static int getSizeInBytes(@Nullable final String string) {
+        return null == string ? 0 : OBJECT_SIZE_IN_BYTES + string.length() * 2;
+    }
+
+    private static final class Result {
+        public final String mPrevWord;
+        public final int mSuggestionsLimit;
+        public final int mFlags;
+        // Null when no suggestions are available, which SuggestionsInfo reports as a count of -1.
+        @Nullable
+        public final String[] mSuggestions;
+
+        public Result(final String prevWord, final int suggestionsLimit,
+                final SuggestionsInfo suggestionsInfo) {
+            mPrevWord = prevWord;
+            mSuggestionsLimit = suggestionsLimit;
+            mFlags = suggestionsInfo.getSuggestionsAttributes();
+            final int suggestionsCount = suggestionsInfo.getSuggestionsCount();
+            mSuggestions = suggestionsCount < 0 ? null : new String[suggestionsCount];
+            for (int i = 0; i < suggestionsCount; ++i) {
+                mSuggestions[i] = suggestionsInfo.getSuggestionAt(i);
+            }
+        }
+
+        public boolean matches(final String prevWord, final int suggestionsLimit) {
+            return mSuggestionsLimit == suggestionsLimit && TextUtils.equals(mPrevWord, prevWord);
+        }
+
+        public int getSizeInBytes() {
+            int size = OBJECT_SIZE_IN_BYTES + SpellCheckResultCache.getSizeInBytes(mPrevWord);
+            if (null != mSuggestions) {
+                for (final String suggestion : mSuggestions) {
+                    size += SpellCheckResultCache.getSizeInBytes(suggestion);
+                }
+            }
+            return size;
+        }
+    }
+
+    private static final class WordEntry {
+        private final Result mContextFreeResult;
+        // The most recent result first.
+        private final Result[] mContextualResults;
+
+        public WordEntry(@Nullable final Result contextFreeResult,
+                @Nullable final Result[] contextualResults) {
+            mContextFreeResult = contextFreeResult;
+            mContextualResults = contextualResults;
+        }
+
+        @Nullable
+        public Result getResult(final String prevWord, final int suggestionsLimit) {
+            if (null != mContextFreeResult) {
+                return mContextFreeResult;
+            }
+            for (final Result result : mContextualResults) {
+                if (result.matches(prevWord, suggestionsLimit)) {
+                    return result;
+                }
+            }
+            return null;
+        }
+
+        public boolean hasContextualSuggestions() {
+            if (null == mContextualResults) {
+                return false;
+            }
+            for (final Result result : mContextualResults) {
+                if (null != result.mSuggestions && result.mSuggestions.length > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Nonnull
+        public WordEntry withContextualResult(@Nonnull final Result result) {
+            if (null == mContextualResults) {
+                return new WordEntry(null /* contextFreeResult */, new Result[] { result });
+            }
+            final int length =
+                    Math.min(mContextualResults.length + 1, MAX_CONTEXTUAL_RESULTS_PER_WORD);
+            final Result[] contextualResults = new Result[length];
+            contextualResults[0] = result;
+            int index = 1;
+            for (final Result oldResult : mContextualResults) {
+                if (index >= length) break;
+                if (oldResult.matches(result.mPrevWord, result.mSuggestionsLimit)) continue;
+                contextualResults[index++] = oldResult;
+            }
+            return new WordEntry(null /* contextFreeResult */,
+                    index == length ? contextualResults
+                            : Arrays.copyOf(contextualResults, index));
+        }
+
+        public int getSizeInBytes() {
+            int size = OBJECT_SIZE_IN_BYTES;
+            if (null != mContextFreeResult) {
+                size += mContextFreeResult.getSizeInBytes();
+            }
+            if (null != mContextualResults) {
+                for (final Result result : mContextualResults) {
+                    size += result.getSizeInBytes();
+                }
+            }
+            return size;
+        }
+    }
+
+    private static final class CacheKey {
+        private final Locale mLocale;
+        private final String mWord;
+        private final int mHashCode;
+
+        public CacheKey(final Locale locale, final String word) {
+            mLocale = locale;
+            mWord = word;
+            mHashCode = 31 * locale.hashCode() + word.hashCode();
+        }
+
+        public int getSizeInBytes() {
+            // The locale is shared with the session, so only the word is counted.
+            return OBJECT_SIZE_IN_BYTES + SpellCheckResultCache.getSizeInBytes(mWord);
+        }
+
+        @Override
+        public int hashCode() {
+            return mHashCode;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (o == this) return true;
+            if (!(o instanceof CacheKey)) return false;
+            final CacheKey other = (CacheKey)o;
+            return mHashCode == other.mHashCode && mWord.equals(other.mWord)
+                    && mLocale.equals(other.mLocale);
+        }
+    }
+}
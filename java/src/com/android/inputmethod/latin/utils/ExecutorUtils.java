@@ -16,18 +16,36 @@
 
 package com.android.inputmethod.latin.utils;
 
+import android.os.Process;
+import android.os.SystemClock;
 import android.util.Log;
 
 import com.android.inputmethod.annotations.UsedForTesting;
 
 import java.lang.Thread.UncaughtExceptionHandler;
-import java.util.concurrent.Executors;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utilities to manage executors.
+ *
+ * Background work is split into named lanes, each with its own threads and thread priority, so
+ * that a long task in one lane (for example a dictionary GC) does not delay tasks in the other
+ * lanes (for example loading the main dictionary after a locale switch). Tasks that must run in
+ * order across lanes, like the tasks of a given dictionary, go through a {@link SerialExecutor}.
  */
 public class ExecutorUtils {
 
@@ -35,24 +53,89 @@ public class ExecutorUtils {
 
     public static final String KEYBOARD = "Keyboard";
     public static final String SPELLING = "Spelling";
+    // Lane for interactive reads, like the dictionary queries for the suggestion strip.
+    public static final String SUGGESTION = "Suggestion";
+    // Lane for loading and creating dictionaries.
+    public static final String DICTIONARY_LOADING = "DictionaryLoading";
+    // Lane for updating and flushing dictionaries.
+    public static final String DICTIONARY_WRITE = "DictionaryWrite";
+    // Lane for maintenance tasks like dictionary GC.
+    public static final String DICTIONARY_MAINTENANCE = "DictionaryMaintenance";
+    // Lane for speculative suggestion queries that run between keystrokes.
+    public static final String SPECULATION = "Speculation";
+
+    private static final String[] EXECUTOR_NAMES = new String[] {
+            KEYBOARD,
+            SPELLING,
+            SUGGESTION,
+            DICTIONARY_LOADING,
+            DICTIONARY_WRITE,
+            DICTIONARY_MAINTENANCE,
+            SPECULATION };
+
+    // One thread for each dynamic dictionary that can be queried at the same time.
+    private static final int SUGGESTION_THREAD_COUNT = 3;
+    // Two threads so that creating a large contacts dictionary does not delay loading the main
+    // dictionary.
+    private static final int DICTIONARY_LOADING_THREAD_COUNT = 2;
+    // One thread per processor so that the words of a long text can be checked concurrently.
+    private static final int SPELLING_THREAD_COUNT =
+            Math.max(2, Runtime.getRuntime().availableProcessors());
 
-    private static ScheduledExecutorService sKeyboardExecutorService = newExecutorService(KEYBOARD);
-    private static ScheduledExecutorService sSpellingExecutorService = newExecutorService(SPELLING);
+    private static final ConcurrentHashMap<String, LaneExecutorService> sExecutorServices =
+            new ConcurrentHashMap<>();
+    static {
+        for (final String name : EXECUTOR_NAMES) {
+            sExecutorServices.put(name, newExecutorService(name));
+        }
+    }
 
-    private static ScheduledExecutorService newExecutorService(final String name) {
-        return Executors.newSingleThreadScheduledExecutor(new ExecutorFactory(name));
+    private static LaneExecutorService newExecutorService(final String name) {
+        switch (name) {
+            case KEYBOARD:
+                return new LaneExecutorService(name, 1 /* threadCount */,
+                        Process.THREAD_PRIORITY_DEFAULT);
+            case SPELLING:
+                return new LaneExecutorService(name, SPELLING_THREAD_COUNT,
+                        Process.THREAD_PRIORITY_DEFAULT);
+            case SUGGESTION:
+                return new LaneExecutorService(name, SUGGESTION_THREAD_COUNT,
+                        Process.THREAD_PRIORITY_DEFAULT);
+            case DICTIONARY_LOADING:
+                return new LaneExecutorService(name, DICTIONARY_LOADING_THREAD_COUNT,
+                        Process.THREAD_PRIORITY_DEFAULT);
+            case DICTIONARY_WRITE:
+                return new LaneExecutorService(name, 1 /* threadCount */,
+                        Process.THREAD_PRIORITY_BACKGROUND);
+            case DICTIONARY_MAINTENANCE:
+                return new LaneExecutorService(name, 1 /* threadCount */,
+                        Process.THREAD_PRIORITY_LOWEST);
+            case SPECULATION:
+                return new LaneExecutorService(name, 1 /* threadCount */,
+                        Process.THREAD_PRIORITY_BACKGROUND);
+            default:
+                throw new IllegalArgumentException("Invalid executor: " + name);
+        }
     }
 
     private static class ExecutorFactory implements ThreadFactory {
         private final String mName;
+        private final int mThreadPriority;
 
-        private ExecutorFactory(final String name) {
+        private ExecutorFactory(final String name, final int threadPriority) {
             mName = name;
+            mThreadPriority = threadPriority;
         }
 
         @Override
         public Thread newThread(final Runnable runnable) {
-            Thread thread = new Thread(runnable, TAG);
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(mThreadPriority);
+                    runnable.run();
+                }
+            }, TAG);
             thread.setUncaughtExceptionHandler(new UncaughtExceptionHandler() {
                 @Override
                 public void uncaughtException(Thread thread, Throwable ex) {
@@ -63,6 +146,109 @@ public class ExecutorUtils {
         }
     }
 
+    /**
+     * A scheduled executor that records how many tasks it ran and how long they waited in the
+     * queue.
+     *
+     * {@link #execute} and {@link #submit} both go through {@link #schedule}, so overriding the
+     * latter is enough to time every task.
+     */
+    private static final class LaneExecutorService extends ScheduledThreadPoolExecutor {
+        private final String mName;
+        private final AtomicLong mExecutedTaskCount = new AtomicLong();
+        private final AtomicLong mTotalWaitTimeMillis = new AtomicLong();
+        private final AtomicLong mMaxWaitTimeMillis = new AtomicLong();
+
+        public LaneExecutorService(final String name, final int threadCount,
+                final int threadPriority) {
+            super(threadCount, new ExecutorFactory(name, threadPriority));
+            mName = name;
+        }
+
+        void onTaskStarted(final long scheduledTimeMillis) {
+            final long waitTimeMillis =
+                    Math.max(0, SystemClock.uptimeMillis() - scheduledTimeMillis);
+            mExecutedTaskCount.incrementAndGet();
+            mTotalWaitTimeMillis.addAndGet(waitTimeMillis);
+            long maxWaitTimeMillis = mMaxWaitTimeMillis.get();
+            while (waitTimeMillis > maxWaitTimeMillis
+                    && !mMaxWaitTimeMillis.compareAndSet(maxWaitTimeMillis, waitTimeMillis)) {
+                maxWaitTimeMillis = mMaxWaitTimeMillis.get();
+            }
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(final Runnable command, final long delay,
+                final TimeUnit unit) {
+            final long scheduledTimeMillis = SystemClock.uptimeMillis() + unit.toMillis(delay);
+            return super.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    onTaskStarted(scheduledTimeMillis);
+                    command.run();
+                }
+            }, delay, unit);
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(final Callable<V> callable, final long delay,
+                final TimeUnit unit) {
+            final long scheduledTimeMillis = SystemClock.uptimeMillis() + unit.toMillis(delay);
+            return super.schedule(new Callable<V>() {
+                @Override
+                public V call() throws Exception {
+                    onTaskStarted(scheduledTimeMillis);
+                    return callable.call();
+                }
+            }, delay, unit);
+        }
+
+        public LaneStats getStats() {
+            return new LaneStats(mName, getQueue().size(), getActiveCount(),
+                    mExecutedTaskCount.get(), mTotalWaitTimeMillis.get(),
+                    mMaxWaitTimeMillis.get());
+        }
+    }
+
+    /**
+     * A snapshot of the metrics of a lane.
+     */
+    public static final class LaneStats {
+        public final String mName;
+        public final int mQueueDepth;
+        public final int mActiveTaskCount;
+        public final long mExecutedTaskCount;
+        public final long mTotalWaitTimeMillis;
+        public final long mMaxWaitTimeMillis;
+
+        public LaneStats(final String name, final int queueDepth, final int activeTaskCount,
+                final long executedTaskCount, final long totalWaitTimeMillis,
+                final long maxWaitTimeMillis) {
+            mName = name;
+            mQueueDepth = queueDepth;
+            mActiveTaskCount = activeTaskCount;
+            mExecutedTaskCount = executedTaskCount;
+            mTotalWaitTimeMillis = totalWaitTimeMillis;
+            mMaxWaitTimeMillis = maxWaitTimeMillis;
+        }
+
+        public long getAverageWaitTimeMillis() {
+            return mExecutedTaskCount == 0 ? 0 : mTotalWaitTimeMillis / mExecutedTaskCount;
+        }
+
+        @Override
+        public String toString() {
+            return mName + ": queued=" + mQueueDepth + " active=" + mActiveTaskCount
+                    + " executed=" + mExecutedTaskCount
+                    + " avgWait=" + getAverageWaitTimeMillis() + "ms"
+                    + " maxWait=" + mMaxWaitTimeMillis + "ms";
+        }
+    }
+
+    // All the live serial executors, to recover the ones whose current task was killed.
+    private static final Set<SerialExecutor> sSerialExecutors =
+            Collections.newSetFromMap(new WeakHashMap<SerialExecutor, Boolean>());
+
     @UsedForTesting
     private static ScheduledExecutorService sExecutorServiceForTests;
 
@@ -84,37 +270,141 @@ public class ExecutorUtils {
         if (sExecutorServiceForTests != null) {
             return sExecutorServiceForTests;
         }
-        switch (name) {
-            case KEYBOARD:
-                return sKeyboardExecutorService;
-            case SPELLING:
-                return sSpellingExecutorService;
-            default:
-                throw new IllegalArgumentException("Invalid executor: " + name);
+        final ScheduledExecutorService executorService = sExecutorServices.get(name);
+        if (executorService == null) {
+            throw new IllegalArgumentException("Invalid executor: " + name);
+        }
+        return executorService;
+    }
+
+    /**
+     * @param name Executor's name.
+     * @return a snapshot of the queue depth and wait time metrics of the executor.
+     */
+    public static LaneStats getLaneStats(final String name) {
+        final LaneExecutorService executorService = sExecutorServices.get(name);
+        if (executorService == null) {
+            throw new IllegalArgumentException("Invalid executor: " + name);
         }
+        return executorService.getStats();
+    }
+
+    public static String dumpLaneStats() {
+        final StringBuilder sb = new StringBuilder("  Executors :");
+        for (final String name : EXECUTOR_NAMES) {
+            sb.append("\n    ").append(getLaneStats(name));
+        }
+        return sb.toString();
     }
 
     public static void killTasks(final String name) {
         final ScheduledExecutorService executorService = getBackgroundExecutor(name);
         executorService.shutdownNow();
+        // Replace the executor first so that the tasks that are still running can schedule the
+        // next tasks of their serial executors on the new one.
+        if (executorService != sExecutorServiceForTests) {
+            sExecutorServices.put(name, newExecutorService(name));
+        }
         try {
             executorService.awaitTermination(5, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
             Log.wtf(TAG, "Failed to shut down: " + name);
         }
-        if (executorService == sExecutorServiceForTests) {
-            // Don't do anything to the test service.
-            return;
+        final ArrayList<SerialExecutor> serialExecutors;
+        synchronized (sSerialExecutors) {
+            serialExecutors = new ArrayList<>(sSerialExecutors);
         }
-        switch (name) {
-            case KEYBOARD:
-                sKeyboardExecutorService = newExecutorService(KEYBOARD);
-                break;
-            case SPELLING:
-                sSpellingExecutorService = newExecutorService(SPELLING);
-                break;
-            default:
-                throw new IllegalArgumentException("Invalid executor: " + name);
+        for (final SerialExecutor serialExecutor : serialExecutors) {
+            serialExecutor.onExecutorShutDown(executorService);
+        }
+    }
+
+    /**
+     * Runs tasks one at a time, in the order they were submitted, each one on the executor of the
+     * lane it was submitted for. This preserves the ordering of the tasks of a single client
+     * while letting unrelated clients use the lanes concurrently.
+     *
+     * A task that is rejected by its lane, or dropped by {@link #killTasks} before it started, is
+     * skipped and the next task is scheduled.
+     */
+    public static final class SerialExecutor {
+        private final ArrayDeque<LaneTask> mTasks = new ArrayDeque<>();
+        // The task that was handed to a lane executor and has not finished yet, or null.
+        private LaneTask mCurrentTask = null;
+
+        private final class LaneTask implements Runnable {
+            public final String mLaneName;
+            public final Runnable mTask;
+            // The following fields are guarded by the lock of the SerialExecutor.
+            public ExecutorService mExecutor;
+            public boolean mIsStarted = false;
+            public boolean mIsAbandoned = false;
+
+            public LaneTask(final String laneName, final Runnable task) {
+                mLaneName = laneName;
+                mTask = task;
+            }
+
+            @Override
+            public void run() {
+                synchronized (SerialExecutor.this) {
+                    if (mIsAbandoned) {
+                        // The next task has already been scheduled.
+                        return;
+                    }
+                    mIsStarted = true;
+                }
+                try {
+                    mTask.run();
+                } finally {
+                    synchronized (SerialExecutor.this) {
+                        scheduleNextLocked();
+                    }
+                }
+            }
+        }
+
+        public SerialExecutor() {
+            synchronized (sSerialExecutors) {
+                sSerialExecutors.add(this);
+            }
+        }
+
+        public synchronized void execute(final String laneName, final Runnable task) {
+            mTasks.offer(new LaneTask(laneName, task));
+            if (mCurrentTask == null) {
+                scheduleNextLocked();
+            }
+        }
+
+        private void scheduleNextLocked() {
+            LaneTask laneTask;
+            while ((laneTask = mTasks.poll()) != null) {
+                try {
+                    laneTask.mExecutor = getBackgroundExecutor(laneTask.mLaneName);
+                    laneTask.mExecutor.execute(laneTask);
+                    mCurrentTask = laneTask;
+                    return;
+                } catch (final RejectedExecutionException e) {
+                    Log.w(TAG, "Dropped a task rejected by: " + laneTask.mLaneName, e);
+                }
+            }
+            mCurrentTask = null;
+        }
+
+        /**
+         * Called after the given executor has been shut down. A task that it dropped before it
+         * started would never schedule the next one, so it is abandoned here instead.
+         */
+        synchronized void onExecutorShutDown(final ExecutorService executor) {
+            final LaneTask currentTask = mCurrentTask;
+            if (currentTask == null || currentTask.mExecutor != executor
+                    || currentTask.mIsStarted) {
+                return;
+            }
+            Log.w(TAG, "Dropped a task killed in: " + currentTask.mLaneName);
+            currentTask.mIsAbandoned = true;
+            scheduleNextLocked();
         }
     }
 
@@ -35,6 +35,9 @@ public final class SuggestionResults extends TreeSet<SuggestedWordInfo> {
     public final boolean mIsBeginningOfSentence;
     public final boolean mFirstSuggestionExceedsConfidenceThreshold;
     private final int mCapacity;
+    // Whether the suggestions of some dictionaries were dropped because they were not ready in
+    // time. Such results must not be reused for a later query.
+    private volatile boolean mIsIncomplete;
 
     public SuggestionResults(final int capacity, final boolean isBeginningOfSentence,
             final boolean firstSuggestionExceedsConfidenceThreshold) {
@@ -65,6 +68,26 @@ public final class SuggestionResults extends TreeSet<SuggestedWordInfo> {
         return true;
     }
 
+    /**
+     * Returns the lowest score a new suggestion needs to have a chance to be added. Suggestions
+     * with a lower score would be dropped by the capacity bound, so dictionaries don't need to
+     * create them at all.
+     */
+    public int getMinScoreToAdd() {
+        // Raw suggestions keep every candidate.
+        if (null != mRawSuggestions || size() < mCapacity) return Integer.MIN_VALUE;
+        // A suggestion with the same score may still rank higher than the last one.
+        return last().mScore;
+    }
+
+    public void setIncomplete() {
+        mIsIncomplete = true;
+    }
+
+    public boolean isIncomplete() {
+        return mIsIncomplete;
+    }
+
     @Override
     public boolean addAll(final Collection<? extends SuggestedWordInfo> e) {
         if (null == e) return false;
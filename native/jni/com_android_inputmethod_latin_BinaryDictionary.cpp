@@ -175,26 +175,24 @@ static int latinime_BinaryDictionary_getFormatVersion(JNIEnv *env, jclass clazz,
     return headerPolicy->getFormatVersionNumber();
 }
 
-static void latinime_BinaryDictionary_getSuggestions(JNIEnv *env, jclass clazz, jlong dict,
-        jlong proximityInfo, jlong dicTraverseSession, jintArray xCoordinatesArray,
-        jintArray yCoordinatesArray, jintArray timesArray, jintArray pointerIdsArray,
-        jintArray inputCodePointsArray, jint inputSize, jintArray suggestOptions,
-        jobjectArray prevWordCodePointArrays, jbooleanArray isBeginningOfSentenceArray,
-        jint prevWordCount, jintArray outSuggestionCount, jintArray outCodePointsArray,
-        jintArray outScoresArray, jintArray outSpaceIndicesArray, jintArray outTypesArray,
-        jintArray outAutoCommitFirstWordConfidenceArray,
-        jfloatArray inOutWeightOfLangModelVsSpatialModel) {
+// Runs the query and leaves the results in outSuggestionResults. Returns false if there is no
+// dictionary or traverse session to run it with.
+static bool getSuggestionResults(JNIEnv *env, jlong dict, jlong proximityInfo,
+        jlong dicTraverseSession, jintArray xCoordinatesArray, jintArray yCoordinatesArray,
+        jintArray timesArray, jintArray pointerIdsArray, jintArray inputCodePointsArray,
+        jint inputSize, jintArray suggestOptions, jobjectArray prevWordCodePointArrays,
+        jbooleanArray isBeginningOfSentenceArray, jint prevWordCount,
+        jfloatArray inOutWeightOfLangModelVsSpatialModel,
+        SuggestionResults *const outSuggestionResults) {
     Dictionary *dictionary = reinterpret_cast<Dictionary *>(dict);
-    // Assign 0 to outSuggestionCount here in case of returning earlier in this method.
-    JniDataUtils::putIntToArray(env, outSuggestionCount, 0 /* index */, 0);
     if (!dictionary) {
-        return;
+        return false;
     }
     ProximityInfo *pInfo = reinterpret_cast<ProximityInfo *>(proximityInfo);
     DicTraverseSession *traverseSession =
             reinterpret_cast<DicTraverseSession *>(dicTraverseSession);
     if (!traverseSession) {
-        return;
+        return false;
     }
     // Input values
     int xCoordinates[inputSize];
@@ -214,6 +212,36 @@ static void latinime_BinaryDictionary_getSuggestions(JNIEnv *env, jclass clazz,
     env->GetIntArrayRegion(suggestOptions, 0, numberOfOptions, options);
     SuggestOptions givenSuggestOptions(options, numberOfOptions);
 
+    float weightOfLangModelVsSpatialModel;
+    env->GetFloatArrayRegion(inOutWeightOfLangModelVsSpatialModel, 0, 1 /* len */,
+            &weightOfLangModelVsSpatialModel);
+    const NgramContext ngramContext = JniDataUtils::constructNgramContext(env,
+            prevWordCodePointArrays, isBeginningOfSentenceArray, prevWordCount);
+    if (givenSuggestOptions.isGesture() || inputSize > 0) {
+        // TODO: Use SuggestionResults to return suggestions.
+        dictionary->getSuggestions(pInfo, traverseSession, xCoordinates, yCoordinates,
+                times, pointerIds, inputCodePoints, inputSize, &ngramContext,
+                &givenSuggestOptions, weightOfLangModelVsSpatialModel, outSuggestionResults);
+    } else {
+        dictionary->getPredictions(&ngramContext, outSuggestionResults);
+    }
+    if (DEBUG_DICT) {
+        outSuggestionResults->dumpSuggestions();
+    }
+    return true;
+}
+
+static void latinime_BinaryDictionary_getSuggestions(JNIEnv *env, jclass clazz, jlong dict,
+        jlong proximityInfo, jlong dicTraverseSession, jintArray xCoordinatesArray,
+        jintArray yCoordinatesArray, jintArray timesArray, jintArray pointerIdsArray,
+        jintArray inputCodePointsArray, jint inputSize, jintArray suggestOptions,
+        jobjectArray prevWordCodePointArrays, jbooleanArray isBeginningOfSentenceArray,
+        jint prevWordCount, jintArray outSuggestionCount, jintArray outCodePointsArray,
+        jintArray outScoresArray, jintArray outSpaceIndicesArray, jintArray outTypesArray,
+        jintArray outAutoCommitFirstWordConfidenceArray,
+        jfloatArray inOutWeightOfLangModelVsSpatialModel) {
+    // Assign 0 to outSuggestionCount here in case of returning earlier in this method.
+    JniDataUtils::putIntToArray(env, outSuggestionCount, 0 /* index */, 0);
     // Output values
     /* By the way, let's check the output array length here to make sure */
     const jsize outputCodePointsLength = env->GetArrayLength(outCodePointsArray);
@@ -238,28 +266,51 @@ static void latinime_BinaryDictionary_getSuggestions(JNIEnv *env, jclass clazz,
         ASSERT(false);
         return;
     }
-    float weightOfLangModelVsSpatialModel;
-    env->GetFloatArrayRegion(inOutWeightOfLangModelVsSpatialModel, 0, 1 /* len */,
-            &weightOfLangModelVsSpatialModel);
     SuggestionResults suggestionResults(MAX_RESULTS);
-    const NgramContext ngramContext = JniDataUtils::constructNgramContext(env,
-            prevWordCodePointArrays, isBeginningOfSentenceArray, prevWordCount);
-    if (givenSuggestOptions.isGesture() || inputSize > 0) {
-        // TODO: Use SuggestionResults to return suggestions.
-        dictionary->getSuggestions(pInfo, traverseSession, xCoordinates, yCoordinates,
-                times, pointerIds, inputCodePoints, inputSize, &ngramContext,
-                &givenSuggestOptions, weightOfLangModelVsSpatialModel, &suggestionResults);
-    } else {
-        dictionary->getPredictions(&ngramContext, &suggestionResults);
-    }
-    if (DEBUG_DICT) {
-        suggestionResults.dumpSuggestions();
+    if (!getSuggestionResults(env, dict, proximityInfo, dicTraverseSession, xCoordinatesArray,
+            yCoordinatesArray, timesArray, pointerIdsArray, inputCodePointsArray, inputSize,
+            suggestOptions, prevWordCodePointArrays, isBeginningOfSentenceArray, prevWordCount,
+            inOutWeightOfLangModelVsSpatialModel, &suggestionResults)) {
+        return;
     }
     suggestionResults.outputSuggestions(env, outSuggestionCount, outCodePointsArray,
             outScoresArray, outSpaceIndicesArray, outTypesArray,
             outAutoCommitFirstWordConfidenceArray, inOutWeightOfLangModelVsSpatialModel);
 }
 
+// Same as getSuggestions, but the results are written to a direct ByteBuffer owned by the
+// traverse session, which saves a JNI call for every output value.
+static void latinime_BinaryDictionary_getSuggestionsToBuffer(JNIEnv *env, jclass clazz,
+        jlong dict, jlong proximityInfo, jlong dicTraverseSession, jintArray xCoordinatesArray,
+        jintArray yCoordinatesArray, jintArray timesArray, jintArray pointerIdsArray,
+        jintArray inputCodePointsArray, jint inputSize, jintArray suggestOptions,
+        jobjectArray prevWordCodePointArrays, jbooleanArray isBeginningOfSentenceArray,
+        jint prevWordCount, jfloatArray inWeightOfLangModelVsSpatialModel,
+        jobject outputBuffer) {
+    int *const output = static_cast<int *>(env->GetDirectBufferAddress(outputBuffer));
+    const jlong outputCapacity = env->GetDirectBufferCapacity(outputBuffer);
+    if (!output || outputCapacity < static_cast<jlong>(
+            SuggestionResults::OUTPUT_BUFFER_SIZE * sizeof(int))) {
+        AKLOGE("Invalid output buffer. capacity: %lld", static_cast<long long>(outputCapacity));
+        ASSERT(false);
+        return;
+    }
+    // Assign 0 to the suggestion count and pass the input weight through here in case of
+    // returning earlier in this method.
+    output[SuggestionResults::OUTPUT_BUFFER_SUGGESTION_COUNT_INDEX] = 0;
+    env->GetFloatArrayRegion(inWeightOfLangModelVsSpatialModel, 0, 1 /* len */,
+            reinterpret_cast<float *>(&output[
+                    SuggestionResults::OUTPUT_BUFFER_WEIGHT_OF_LANG_MODEL_VS_SPATIAL_MODEL_INDEX]));
+    SuggestionResults suggestionResults(MAX_RESULTS);
+    if (!getSuggestionResults(env, dict, proximityInfo, dicTraverseSession, xCoordinatesArray,
+            yCoordinatesArray, timesArray, pointerIdsArray, inputCodePointsArray, inputSize,
+            suggestOptions, prevWordCodePointArrays, isBeginningOfSentenceArray, prevWordCount,
+            inWeightOfLangModelVsSpatialModel, &suggestionResults)) {
+        return;
+    }
+    suggestionResults.outputSuggestionsToBuffer(output);
+}
+
 static jint latinime_BinaryDictionary_getProbability(JNIEnv *env, jclass clazz, jlong dict,
         jintArray word) {
     Dictionary *dictionary = reinterpret_cast<Dictionary *>(dict);
@@ -473,6 +524,7 @@ static int latinime_BinaryDictionary_updateEntriesForInputEvents(JNIEnv *env, jc
     jfieldID isPrevWordBoSArrayFieldId =
             env->GetFieldID(wordInputEventClass, "mIsPrevWordBeginningOfSentenceArray", "[Z");
     jfieldID isValidFieldId = env->GetFieldID(wordInputEventClass, "mIsValid", "Z");
+    jfieldID countFieldId = env->GetFieldID(wordInputEventClass, "mCount", "I");
     jfieldID timestampFieldId = env->GetFieldID(wordInputEventClass, "mTimestamp", "I");
     env->DeleteLocalRef(wordInputEventClass);
 
@@ -491,13 +543,13 @@ static int latinime_BinaryDictionary_updateEntriesForInputEvents(JNIEnv *env, jc
         jbooleanArray isPrevWordBeginningOfSentenceArray = static_cast<jbooleanArray>(
                 env->GetObjectField(inputEvent, isPrevWordBoSArrayFieldId));
         jboolean isValid = env->GetBooleanField(inputEvent, isValidFieldId);
+        jint count = env->GetIntField(inputEvent, countFieldId);
         jint timestamp = env->GetIntField(inputEvent, timestampFieldId);
         const NgramContext ngramContext = JniDataUtils::constructNgramContext(env,
                 prevWordArray, isPrevWordBeginningOfSentenceArray, prevWordCount);
-        // Use 1 for count to indicate the word has inputted.
         dictionary->updateEntriesForWordWithNgramContext(&ngramContext,
                 CodePointArrayView(wordCodePoints, wordLength), isValid,
-                HistoricalInfo(timestamp, 0 /* level */, 1 /* count */));
+                HistoricalInfo(timestamp, 0 /* level */, count));
         if (dictionary->needsToRunGC(true /* mindsBlockByGC */)) {
             return i + 1;
         }
@@ -662,6 +714,11 @@ static const JNINativeMethod sMethods[] = {
         const_cast<char *>("(JJJ[I[I[I[I[II[I[[I[ZI[I[I[I[I[I[I[F)V"),
         reinterpret_cast<void *>(latinime_BinaryDictionary_getSuggestions)
     },
+    {
+        const_cast<char *>("getSuggestionsToBufferNative"),
+        const_cast<char *>("(JJJ[I[I[I[I[II[I[[I[ZI[FLjava/nio/ByteBuffer;)V"),
+        reinterpret_cast<void *>(latinime_BinaryDictionary_getSuggestionsToBuffer)
+    },
     {
         const_cast<char *>("getProbabilityNative"),
         const_cast<char *>("(J[I)I"),
@@ -16,6 +16,8 @@
 
 #include "suggest/core/result/suggestion_results.h"
 
+#include <cstring>
+
 #include "utils/jni_data_utils.h"
 
 namespace latinime {
@@ -48,6 +50,33 @@ void SuggestionResults::outputSuggestions(JNIEnv *env, jintArray outSuggestionCo
             mWeightOfLangModelVsSpatialModel);
 }
 
+void SuggestionResults::outputSuggestionsToBuffer(int *const outputBuffer) {
+    int outputIndex = 0;
+    while (!mSuggestedWords.empty()) {
+        const SuggestedWord &suggestedWord = mSuggestedWords.top();
+        int *const suggestionBuffer = outputBuffer + OUTPUT_BUFFER_HEADER_SIZE
+                + outputIndex * OUTPUT_BUFFER_SUGGESTION_SIZE;
+        JniDataUtils::outputCodePointsToBuffer(
+                suggestionBuffer + OUTPUT_BUFFER_CODE_POINTS_OFFSET,
+                MAX_WORD_LENGTH /* maxLength */, suggestedWord.getCodePoint(),
+                suggestedWord.getCodePointCount(), true /* needsNullTermination */);
+        suggestionBuffer[OUTPUT_BUFFER_SCORE_OFFSET] = suggestedWord.getScore();
+        suggestionBuffer[OUTPUT_BUFFER_SPACE_INDEX_OFFSET] =
+                suggestedWord.getIndexToPartialCommit();
+        suggestionBuffer[OUTPUT_BUFFER_TYPE_OFFSET] = suggestedWord.getType();
+        if (mSuggestedWords.size() == 1) {
+            outputBuffer[OUTPUT_BUFFER_AUTO_COMMIT_FIRST_WORD_CONFIDENCE_INDEX] =
+                    suggestedWord.getAutoCommitFirstWordConfidence();
+        }
+        ++outputIndex;
+        mSuggestedWords.pop();
+    }
+    outputBuffer[OUTPUT_BUFFER_SUGGESTION_COUNT_INDEX] = outputIndex;
+    // The Java side reads the float from its raw int bits.
+    memcpy(&outputBuffer[OUTPUT_BUFFER_WEIGHT_OF_LANG_MODEL_VS_SPATIAL_MODEL_INDEX],
+            &mWeightOfLangModelVsSpatialModel, sizeof(float));
+}
+
 void SuggestionResults::addPrediction(const int *const codePoints, const int codePointCount,
         const int probability) {
     if (probability == NOT_A_PROBABILITY) {
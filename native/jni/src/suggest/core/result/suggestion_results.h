@@ -28,6 +28,22 @@ namespace latinime {
 
 class SuggestionResults {
  public:
+    // Layout of the buffer filled by outputSuggestionsToBuffer(), in ints. Must be equal to the
+    // constants in DicTraverseSession.java.
+    static const int OUTPUT_BUFFER_SUGGESTION_COUNT_INDEX = 0;
+    static const int OUTPUT_BUFFER_AUTO_COMMIT_FIRST_WORD_CONFIDENCE_INDEX = 1;
+    static const int OUTPUT_BUFFER_WEIGHT_OF_LANG_MODEL_VS_SPATIAL_MODEL_INDEX = 2;
+    static const int OUTPUT_BUFFER_HEADER_SIZE = 3;
+    // Each suggestion is stored as its score, space index, type and MAX_WORD_LENGTH code points.
+    static const int OUTPUT_BUFFER_SCORE_OFFSET = 0;
+    static const int OUTPUT_BUFFER_SPACE_INDEX_OFFSET = 1;
+    static const int OUTPUT_BUFFER_TYPE_OFFSET = 2;
+    static const int OUTPUT_BUFFER_CODE_POINTS_OFFSET = 3;
+    static const int OUTPUT_BUFFER_SUGGESTION_SIZE = OUTPUT_BUFFER_CODE_POINTS_OFFSET
+            + MAX_WORD_LENGTH;
+    static const int OUTPUT_BUFFER_SIZE = OUTPUT_BUFFER_HEADER_SIZE
+            + OUTPUT_BUFFER_SUGGESTION_SIZE * MAX_RESULTS;
+
     explicit SuggestionResults(const int maxSuggestionCount)
             : mMaxSuggestionCount(maxSuggestionCount),
               mWeightOfLangModelVsSpatialModel(NOT_A_WEIGHT_OF_LANG_MODEL_VS_SPATIAL_MODEL),
@@ -38,6 +54,9 @@ class SuggestionResults {
             jintArray outScoresArray, jintArray outSpaceIndicesArray, jintArray outTypesArray,
             jintArray outAutoCommitFirstWordConfidenceArray,
             jfloatArray outWeightOfLangModelVsSpatialModel);
+    // Same as outputSuggestions, but writes to a buffer of OUTPUT_BUFFER_SIZE ints without
+    // going through JNI.
+    void outputSuggestionsToBuffer(int *const outputBuffer);
     void addPrediction(const int *const codePoints, const int codePointCount, const int score);
     void addSuggestion(const int *const codePoints, const int codePointCount,
             const int score, const int type, const int indexToPartialCommit,
@@ -75,22 +75,8 @@ class JniDataUtils {
             const bool needsNullTermination) {
         const int codePointBufSize = std::min(maxLength, codePointCount);
         int outputCodePonts[codePointBufSize];
-        int outputCodePointCount = 0;
-        for (int i = 0; i < codePointBufSize; ++i) {
-            const int codePoint = codePoints[i];
-            int codePointToOutput = codePoint;
-            if (!CharUtils::isInUnicodeSpace(codePoint)) {
-                if (codePoint == CODE_POINT_BEGINNING_OF_SENTENCE) {
-                    // Just skip Beginning-of-Sentence marker.
-                    continue;
-                }
-                codePointToOutput = CODE_POINT_REPLACEMENT_CHARACTER;
-            } else if (codePoint >= 0x01 && codePoint <= 0x1F) {
-                // Control code.
-                codePointToOutput = CODE_POINT_REPLACEMENT_CHARACTER;
-            }
-            outputCodePonts[outputCodePointCount++] = codePointToOutput;
-        }
+        const int outputCodePointCount = sanitizeCodePoints(codePoints, codePointBufSize,
+                outputCodePonts);
         env->SetIntArrayRegion(intArrayToOutputCodePoints, start, outputCodePointCount,
                 outputCodePonts);
         if (needsNullTermination && outputCodePointCount < maxLength) {
@@ -99,6 +85,18 @@ class JniDataUtils {
         }
     }
 
+    // Same as outputCodePoints, but writes to a native buffer, such as the memory of a direct
+    // ByteBuffer, without going through JNI.
+    static void outputCodePointsToBuffer(int *const outCodePoints, const int maxLength,
+            const int *const codePoints, const int codePointCount,
+            const bool needsNullTermination) {
+        const int outputCodePointCount = sanitizeCodePoints(codePoints,
+                std::min(maxLength, codePointCount), outCodePoints);
+        if (needsNullTermination && outputCodePointCount < maxLength) {
+            outCodePoints[outputCodePointCount] = CODE_POINT_NULL;
+        }
+    }
+
     static NgramContext constructNgramContext(JNIEnv *env, jobjectArray prevWordCodePointArrays,
             jbooleanArray isBeginningOfSentenceArray, const size_t prevWordCount) {
         int prevWordCodePoints[MAX_PREV_WORD_COUNT_FOR_N_GRAM][MAX_WORD_LENGTH];
@@ -152,6 +150,29 @@ class JniDataUtils {
 
     static const int CODE_POINT_REPLACEMENT_CHARACTER;
     static const int CODE_POINT_NULL;
+
+    // Skips Beginning-of-Sentence markers and replaces invalid and control code points. Returns
+    // the number of code points written to outCodePoints.
+    static int sanitizeCodePoints(const int *const codePoints, const int codePointCount,
+            int *const outCodePoints) {
+        int outputCodePointCount = 0;
+        for (int i = 0; i < codePointCount; ++i) {
+            const int codePoint = codePoints[i];
+            int codePointToOutput = codePoint;
+            if (!CharUtils::isInUnicodeSpace(codePoint)) {
+                if (codePoint == CODE_POINT_BEGINNING_OF_SENTENCE) {
+                    // Just skip Beginning-of-Sentence marker.
+                    continue;
+                }
+                codePointToOutput = CODE_POINT_REPLACEMENT_CHARACTER;
+            } else if (codePoint >= 0x01 && codePoint <= 0x1F) {
+                // Control code.
+                codePointToOutput = CODE_POINT_REPLACEMENT_CHARACTER;
+            }
+            outCodePoints[outputCodePointCount++] = codePointToOutput;
+        }
+        return outputCodePointCount;
+    }
 };
 } // namespace latinime
 #endif // LATINIME_JNI_DATA_UTILS_H
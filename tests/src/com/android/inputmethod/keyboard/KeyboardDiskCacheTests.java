@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.keyboard;
+
+import android.test.suitebuilder.annotation.MediumTest;
+import android.text.InputType;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputMethodSubtype;
+
+import com.android.inputmethod.keyboard.internal.KeyVisualAttributes;
+import com.android.inputmethod.keyboard.internal.KeyboardBuilder;
+import com.android.inputmethod.keyboard.internal.KeyboardIconsSet;
+import com.android.inputmethod.keyboard.internal.KeyboardParams;
+import com.android.inputmethod.keyboard.internal.TouchPositionCorrection;
+import com.android.inputmethod.latin.R;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Unit tests for {@link KeyboardDiskCache}.
+ */
+@MediumTest
+public class KeyboardDiskCacheTests extends KeyboardLayoutSetTestsBase {
+    private static final String CACHE_KEY = "KeyboardDiskCacheTests";
+    private static final String OTHER_CACHE_KEY = "KeyboardDiskCacheTests:other";
+
+    private KeyboardDiskCache mDiskCache;
+
+    @Override
+    protected int getKeyboardThemeForTests() {
+        return KeyboardTheme.THEME_ID_LXX_LIGHT;
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mDiskCache = new KeyboardDiskCache(getContext());
+        deleteCacheFiles();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        deleteCacheFiles();
+        super.tearDown();
+    }
+
+    private void deleteCacheFiles() {
+        mDiskCache.getFile(CACHE_KEY).delete();
+        mDiskCache.getFile(OTHER_CACHE_KEY).delete();
+    }
+
+    /**
+     * Builds the alphabet keyboard of the English QWERTY layout from XML, the same way
+     * {@link KeyboardLayoutSet} does, and returns its params.
+     */
+    private KeyboardParams buildKeyboardParams() {
+        final InputMethodSubtype subtype = getSubtype(Locale.US, "qwerty");
+        final EditorInfo editorInfo = new EditorInfo();
+        editorInfo.inputType = InputType.TYPE_CLASS_TEXT;
+        final KeyboardId id = createKeyboardLayoutSet(subtype, editorInfo)
+                .getKeyboard(KeyboardId.ELEMENT_ALPHABET).mId;
+        final KeyboardParams params = new KeyboardParams();
+        final KeyboardBuilder<KeyboardParams> builder =
+                new KeyboardBuilder<>(getContext(), params);
+        builder.load(R.xml.kbd_qwerty, id);
+        builder.build();
+        return params;
+    }
+
+    private KeyboardParams readKeyboardParams(final String cacheKey, final KeyboardId id) {
+        final KeyboardParams params = new KeyboardParams();
+        params.mId = id;
+        return mDiskCache.read(cacheKey, params) ? params : null;
+    }
+
+    private static void writeIntAt(final File file, final long position, final int value)
+            throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.seek(position);
+            randomAccessFile.writeInt(value);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private static int readIntAt(final File file, final long position) throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            randomAccessFile.seek(position);
+            return randomAccessFile.readInt();
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private static void truncate(final File file, final long length) throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(length);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    public void testRoundTrip() {
+        final KeyboardParams expected = buildKeyboardParams();
+        assertFalse(expected.mSortedKeys.isEmpty());
+        mDiskCache.write(CACHE_KEY, expected);
+        assertTrue(mDiskCache.contains(CACHE_KEY));
+
+        final KeyboardParams actual = readKeyboardParams(CACHE_KEY, expected.mId);
+        assertNotNull(actual);
+        assertParamsEquals(expected, actual);
+    }
+
+    public void testMissingFileIsRejected() {
+        assertFalse(mDiskCache.contains(CACHE_KEY));
+        assertNull(readKeyboardParams(CACHE_KEY, null));
+    }
+
+    public void testTruncatedFileIsRejected() throws IOException {
+        final KeyboardParams params = buildKeyboardParams();
+        mDiskCache.write(CACHE_KEY, params);
+        final File file = mDiskCache.getFile(CACHE_KEY);
+        truncate(file, file.length() / 2);
+        assertNull(readKeyboardParams(CACHE_KEY, params.mId));
+        // A broken file is removed so that it is written again.
+        assertFalse(file.exists());
+    }
+
+    public void testCorruptFileIsRejected() throws IOException {
+        final KeyboardParams params = buildKeyboardParams();
+        mDiskCache.write(CACHE_KEY, params);
+        final File file = mDiskCache.getFile(CACHE_KEY);
+        // The length of the cache key, which follows the magic number and the format version,
+        // does not fit in the file.
+        writeIntAt(file, 8, Integer.MAX_VALUE);
+        assertNull(readKeyboardParams(CACHE_KEY, params.mId));
+        assertFalse(file.exists());
+
+        mDiskCache.write(CACHE_KEY, params);
+        writeIntAt(file, 0 /* magic number */, 0);
+        assertNull(readKeyboardParams(CACHE_KEY, params.mId));
+    }
+
+    public void testVersionMismatchIsRejected() throws IOException {
+        final KeyboardParams params = buildKeyboardParams();
+        mDiskCache.write(CACHE_KEY, params);
+        final File file = mDiskCache.getFile(CACHE_KEY);
+        // The format version follows the magic number.
+        writeIntAt(file, 4, readIntAt(file, 4) + 1);
+        assertNull(readKeyboardParams(CACHE_KEY, params.mId));
+    }
+
+    public void testCacheKeyMismatchIsRejected() throws IOException {
+        final KeyboardParams params = buildKeyboardParams();
+        mDiskCache.write(CACHE_KEY, params);
+        // A file written for another key, e.g. by another version of the application, must not
+        // be used even if its name collides.
+        assertTrue(mDiskCache.getFile(CACHE_KEY).renameTo(mDiskCache.getFile(OTHER_CACHE_KEY)));
+        assertTrue(mDiskCache.contains(OTHER_CACHE_KEY));
+        assertNull(readKeyboardParams(OTHER_CACHE_KEY, params.mId));
+    }
+
+    private static void assertParamsEquals(final KeyboardParams expected,
+            final KeyboardParams actual) {
+        assertEquals(expected.mThemeId, actual.mThemeId);
+        assertEquals(expected.mOccupiedHeight, actual.mOccupiedHeight);
+        assertEquals(expected.mOccupiedWidth, actual.mOccupiedWidth);
+        assertEquals(expected.mBaseHeight, actual.mBaseHeight);
+        assertEquals(expected.mBaseWidth, actual.mBaseWidth);
+        assertEquals(expected.mTopPadding, actual.mTopPadding);
+        assertEquals(expected.mBottomPadding, actual.mBottomPadding);
+        assertEquals(expected.mLeftPadding, actual.mLeftPadding);
+        assertEquals(expected.mRightPadding, actual.mRightPadding);
+        assertEquals(expected.mDefaultRowHeight, actual.mDefaultRowHeight);
+        assertEquals(expected.mDefaultKeyWidth, actual.mDefaultKeyWidth);
+        assertEquals(expected.mHorizontalGap, actual.mHorizontalGap);
+        assertEquals(expected.mVerticalGap, actual.mVerticalGap);
+        assertEquals(expected.mMoreKeysTemplate, actual.mMoreKeysTemplate);
+        assertEquals(expected.mMaxMoreKeysKeyboardColumn, actual.mMaxMoreKeysKeyboardColumn);
+        assertEquals(expected.GRID_WIDTH, actual.GRID_WIDTH);
+        assertEquals(expected.GRID_HEIGHT, actual.GRID_HEIGHT);
+        assertEquals(expected.mMostCommonKeyHeight, actual.mMostCommonKeyHeight);
+        assertEquals(expected.mMostCommonKeyWidth, actual.mMostCommonKeyWidth);
+        assertVisualAttributesEquals(expected.mKeyVisualAttributes, actual.mKeyVisualAttributes);
+        assertIconsEquals(expected.mIconsSet, actual.mIconsSet);
+        assertTouchPositionCorrectionEquals(expected.mTouchPositionCorrection,
+                actual.mTouchPositionCorrection);
+
+        assertEquals(expected.mSortedKeys.size(), actual.mSortedKeys.size());
+        final Iterator<Key> actualKeys = actual.mSortedKeys.iterator();
+        for (final Key expectedKey : expected.mSortedKeys) {
+            final Key actualKey = actualKeys.next();
+            assertKeyEquals(expectedKey, actualKey);
+            assertDisabledIconEquals(expectedKey, actualKey, expected.mIconsSet);
+        }
+        assertEquals(expected.mShiftKeys.size(), actual.mShiftKeys.size());
+        assertEquals(expected.mAltCodeKeysWhileTyping.size(),
+                actual.mAltCodeKeysWhileTyping.size());
+    }
+
+    private static void assertKeyEquals(final Key expected, final Key actual) {
+        final String message = expected.toLongString();
+        assertSame(message, expected.getClass(), actual.getClass());
+        // This covers the background type and the label and action flags.
+        assertEquals(message, expected, actual);
+        assertEquals(message, expected.hashCode(), actual.hashCode());
+        assertEquals(message, expected.getCode(), actual.getCode());
+        assertEquals(message, expected.getLabel(), actual.getLabel());
+        assertEquals(message, expected.getHintLabel(), actual.getHintLabel());
+        assertEquals(message, expected.getIconId(), actual.getIconId());
+        assertEquals(message, expected.getWidth(), actual.getWidth());
+        assertEquals(message, expected.getHeight(), actual.getHeight());
+        assertEquals(message, expected.getHorizontalGap(), actual.getHorizontalGap());
+        assertEquals(message, expected.getVerticalGap(), actual.getVerticalGap());
+        assertEquals(message, expected.getX(), actual.getX());
+        assertEquals(message, expected.getY(), actual.getY());
+        assertEquals(message, expected.getHitBox(), actual.getHitBox());
+        assertTrue(message, Arrays.equals(expected.getMoreKeys(), actual.getMoreKeys()));
+        assertEquals(message, expected.getMoreKeysColumnNumber(),
+                actual.getMoreKeysColumnNumber());
+        assertEquals(message, expected.isMoreKeysFixedColumn(), actual.isMoreKeysFixedColumn());
+        assertEquals(message, expected.isMoreKeysFixedOrder(), actual.isMoreKeysFixedOrder());
+        assertEquals(message, expected.hasLabelsInMoreKeys(), actual.hasLabelsInMoreKeys());
+        assertEquals(message, expected.needsDividersInMoreKeys(),
+                actual.needsDividersInMoreKeys());
+        assertEquals(message, expected.hasNoPanelAutoMoreKey(), actual.hasNoPanelAutoMoreKey());
+        assertEquals(message, expected.getOutputText(), actual.getOutputText());
+        assertEquals(message, expected.getAltCode(), actual.getAltCode());
+        assertEquals(message, expected.getDrawX(), actual.getDrawX());
+        assertEquals(message, expected.getDrawWidth(), actual.getDrawWidth());
+        assertEquals(message, expected.isEnabled(), actual.isEnabled());
+        assertVisualAttributesEquals(expected.getVisualAttributes(),
+                actual.getVisualAttributes());
+    }
+
+    private static void assertDisabledIconEquals(final Key expected, final Key actual,
+            final KeyboardIconsSet iconsSet) {
+        // The icon of a disabled key comes from its optional attributes and is only reachable
+        // through the drawable, so both keys are looked up in the same icons set.
+        final boolean expectedEnabled = expected.isEnabled();
+        final boolean actualEnabled = actual.isEnabled();
+        expected.setEnabled(false);
+        actual.setEnabled(false);
+        try {
+            assertSame(expected.toLongString(), expected.getIcon(iconsSet, 255 /* alpha */),
+                    actual.getIcon(iconsSet, 255 /* alpha */));
+        } finally {
+            expected.setEnabled(expectedEnabled);
+            actual.setEnabled(actualEnabled);
+        }
+    }
+
+    private static void assertVisualAttributesEquals(final KeyVisualAttributes expected,
+            final KeyVisualAttributes actual) {
+        if (null == expected) {
+            assertNull(actual);
+            return;
+        }
+        assertNotNull(actual);
+        assertEquals(expected.mTypeface, actual.mTypeface);
+        assertEquals(expected.mLetterRatio, actual.mLetterRatio);
+        assertEquals(expected.mLetterSize, actual.mLetterSize);
+        assertEquals(expected.mLabelRatio, actual.mLabelRatio);
+        assertEquals(expected.mLabelSize, actual.mLabelSize);
+        assertEquals(expected.mLargeLetterRatio, actual.mLargeLetterRatio);
+        assertEquals(expected.mHintLetterRatio, actual.mHintLetterRatio);
+        assertEquals(expected.mShiftedLetterHintRatio, actual.mShiftedLetterHintRatio);
+        assertEquals(expected.mHintLabelRatio, actual.mHintLabelRatio);
+        assertEquals(expected.mPreviewTextRatio, actual.mPreviewTextRatio);
+        assertEquals(expected.mTextColor, actual.mTextColor);
+        assertEquals(expected.mTextInactivatedColor, actual.mTextInactivatedColor);
+        assertEquals(expected.mTextShadowColor, actual.mTextShadowColor);
+        assertEquals(expected.mFunctionalTextColor, actual.mFunctionalTextColor);
+        assertEquals(expected.mHintLetterColor, actual.mHintLetterColor);
+        assertEquals(expected.mHintLabelColor, actual.mHintLabelColor);
+        assertEquals(expected.mShiftedLetterHintInactivatedColor,
+                actual.mShiftedLetterHintInactivatedColor);
+        assertEquals(expected.mShiftedLetterHintActivatedColor,
+                actual.mShiftedLetterHintActivatedColor);
+        assertEquals(expected.mPreviewTextColor, actual.mPreviewTextColor);
+        assertEquals(expected.mHintLabelVerticalAdjustment,
+                actual.mHintLabelVerticalAdjustment);
+        assertEquals(expected.mLabelOffCenterRatio, actual.mLabelOffCenterRatio);
+        assertEquals(expected.mHintLabelOffCenterRatio, actual.mHintLabelOffCenterRatio);
+    }
+
+    private static void assertIconsEquals(final KeyboardIconsSet expected,
+            final KeyboardIconsSet actual) {
+        final ArrayList<String> iconNames = new ArrayList<>();
+        for (int iconId = KeyboardIconsSet.ICON_UNDEFINED + 1; ; ++iconId) {
+            final String iconName = KeyboardIconsSet.getIconName(iconId);
+            if (iconName.startsWith("unknown")) {
+                break;
+            }
+            iconNames.add(iconName);
+        }
+        assertFalse(iconNames.isEmpty());
+        for (final String iconName : iconNames) {
+            final int resourceId = expected.getIconResourceId(iconName);
+            assertEquals(iconName, resourceId, actual.getIconResourceId(iconName));
+            final int iconId = KeyboardIconsSet.getIconId(iconName);
+            assertEquals(iconName, expected.getIconDrawable(iconId) != null,
+                    actual.getIconDrawable(iconId) != null);
+        }
+    }
+
+    private static void assertTouchPositionCorrectionEquals(
+            final TouchPositionCorrection expected, final TouchPositionCorrection actual) {
+        assertEquals(expected.isValid(), actual.isValid());
+        if (!expected.isValid()) {
+            return;
+        }
+        assertEquals(expected.getRows(), actual.getRows());
+        for (int row = 0; row < expected.getRows(); ++row) {
+            assertEquals(expected.getX(row), actual.getX(row));
+            assertEquals(expected.getY(row), actual.getY(row));
+            assertEquals(expected.getRadius(row), actual.getRadius(row));
+        }
+    }
+}
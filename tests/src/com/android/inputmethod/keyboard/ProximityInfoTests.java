@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.keyboard;
+
+import android.graphics.Rect;
+import android.test.suitebuilder.annotation.MediumTest;
+import android.text.InputType;
+import android.view.inputmethod.EditorInfo;
+
+import com.android.inputmethod.keyboard.internal.KeyboardBuilder;
+import com.android.inputmethod.keyboard.internal.KeyboardParams;
+import com.android.inputmethod.latin.R;
+import com.android.inputmethod.latin.utils.ExecutorUtils;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link ProximityInfo}.
+ */
+@MediumTest
+public class ProximityInfoTests extends KeyboardLayoutSetTestsBase {
+    private static final long TIMEOUT_IN_SECONDS = 5;
+
+    private ScheduledExecutorService mExecutor;
+    private KeyboardParams mParams;
+
+    /**
+     * The keys of a keyboard, whose reads can be blocked to hold the creation of the native
+     * proximity info while it runs.
+     */
+    private static class BlockingKeyList extends AbstractList<Key> {
+        private final List<Key> mKeys;
+        public volatile CountDownLatch mGate;
+        public final CountDownLatch mBlocked = new CountDownLatch(1);
+
+        public BlockingKeyList(final List<Key> keys) {
+            mKeys = keys;
+        }
+
+        @Override
+        public Key get(final int index) {
+            final CountDownLatch gate = mGate;
+            if (null != gate) {
+                mBlocked.countDown();
+                boolean done = false;
+                while (!done) {
+                    try {
+                        done = gate.await(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+                    } catch (final InterruptedException e) {
+                        // Keep waiting.
+                    }
+                }
+            }
+            return mKeys.get(index);
+        }
+
+        @Override
+        public int size() {
+            return mKeys.size();
+        }
+    }
+
+    @Override
+    protected int getKeyboardThemeForTests() {
+        return KeyboardTheme.THEME_ID_LXX_LIGHT;
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mExecutor = Executors.newSingleThreadScheduledExecutor();
+        ExecutorUtils.setExecutorServiceForTests(mExecutor);
+        mParams = buildKeyboardParams();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ExecutorUtils.setExecutorServiceForTests(null);
+        mExecutor.shutdownNow();
+        mExecutor.awaitTermination(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+        super.tearDown();
+    }
+
+    private Keyboard getKeyboard(final Locale locale, final String keyboardLayout,
+            final int elementId) {
+        final EditorInfo editorInfo = new EditorInfo();
+        editorInfo.inputType = InputType.TYPE_CLASS_TEXT;
+        return createKeyboardLayoutSet(getSubtype(locale, keyboardLayout), editorInfo)
+                .getKeyboard(elementId);
+    }
+
+    /**
+     * Builds the alphabet keyboard of the English QWERTY layout from XML, the same way
+     * {@link KeyboardLayoutSet} does, and returns its params.
+     */
+    private KeyboardParams buildKeyboardParams() {
+        final KeyboardId id = getKeyboard(Locale.US, "qwerty", KeyboardId.ELEMENT_ALPHABET).mId;
+        final KeyboardParams params = new KeyboardParams();
+        final KeyboardBuilder<KeyboardParams> builder =
+                new KeyboardBuilder<>(getContext(), params);
+        builder.load(R.xml.kbd_qwerty, id);
+        builder.build();
+        return params;
+    }
+
+    private ProximityInfo newProximityInfo(final List<Key> sortedKeys) {
+        return new ProximityInfo(mParams.GRID_WIDTH, mParams.GRID_HEIGHT,
+                mParams.mOccupiedWidth, mParams.mOccupiedHeight, mParams.mMostCommonKeyWidth,
+                mParams.mMostCommonKeyHeight, sortedKeys, mParams.mTouchPositionCorrection);
+    }
+
+    private void waitForExecutor() throws Exception {
+        mExecutor.submit(new Runnable() {
+            @Override
+            public void run() {}
+        }).get(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * The hit test that KeyDetector did on the keys of the touched cell before the keyboard
+     * indexed its keys. Looking at all the keys gives the same result, since the keys whose hit
+     * box has the point are always near its cell.
+     */
+    private static Key detectHitKeyInList(final List<Key> keys, final int x, final int y) {
+        int minDistance = Integer.MAX_VALUE;
+        Key primaryKey = null;
+        for (final Key key: keys) {
+            if (!key.isOnKey(x, y)) {
+                continue;
+            }
+            final int distance = key.squaredDistanceToEdge(x, y);
+            if (distance > minDistance) {
+                continue;
+            }
+            if (primaryKey == null || distance < minDistance
+                    || key.getCode() > primaryKey.getCode()) {
+                minDistance = distance;
+                primaryKey = key;
+            }
+        }
+        return primaryKey;
+    }
+
+    private static void assertSameHitKey(final Keyboard keyboard, final int x, final int y) {
+        final List<Key> keys = keyboard.getSortedKeys();
+        final Key expectedKey = detectHitKeyInList(keys, x, y);
+        final int keyIndex = keyboard.getProximityInfo().detectHitKeyIndex(x, y);
+        final Key key = (ProximityInfo.NOT_A_KEY_INDEX == keyIndex) ? null : keys.get(keyIndex);
+        assertSame(keyboard + " x=" + x + " y=" + y, expectedKey, key);
+        assertSame(keyboard + " x=" + x + " y=" + y, expectedKey, keyboard.detectHitKey(x, y));
+    }
+
+    /**
+     * Compares the hit test of the keyboard with the list-based one on a grid of points that
+     * covers the keyboard and a margin around it, and on both sides of the edges of each hit box,
+     * where the edge keys, the gaps and the overlapping hit boxes are.
+     */
+    private static void assertSameHitKeys(final Keyboard keyboard) {
+        final int margin = keyboard.mMostCommonKeyWidth;
+        for (int y = -margin; y < keyboard.mOccupiedHeight + margin; y += 3) {
+            for (int x = -margin; x < keyboard.mOccupiedWidth + margin; x += 3) {
+                assertSameHitKey(keyboard, x, y);
+            }
+        }
+        for (final Key key : keyboard.getSortedKeys()) {
+            final Rect hitBox = key.getHitBox();
+            final int[] xs = { hitBox.left - 1, hitBox.left, hitBox.centerX(), hitBox.right - 1,
+                    hitBox.right };
+            final int[] ys = { hitBox.top - 1, hitBox.top, hitBox.centerY(), hitBox.bottom - 1,
+                    hitBox.bottom };
+            for (final int y : ys) {
+                for (final int x : xs) {
+                    assertSameHitKey(keyboard, x, y);
+                }
+            }
+        }
+    }
+
+    public void testPreparedAsync() throws Exception {
+        final BlockingKeyList keys = new BlockingKeyList(new ArrayList<>(mParams.mSortedKeys));
+        final ProximityInfo proximityInfo = newProximityInfo(keys);
+        keys.mGate = new CountDownLatch(1);
+        proximityInfo.prepareNativeProximityInfoAsync();
+        // The creation runs on the background lane, not on the calling thread.
+        assertTrue(keys.mBlocked.await(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS));
+        keys.mGate.countDown();
+        waitForExecutor();
+        final long nativeProximityInfo = proximityInfo.getNativeProximityInfo();
+        assertTrue(0 != nativeProximityInfo);
+        assertEquals(nativeProximityInfo, proximityInfo.getNativeProximityInfo());
+        // Preparing it again does not create another one.
+        proximityInfo.prepareNativeProximityInfoAsync();
+        waitForExecutor();
+        assertEquals(nativeProximityInfo, proximityInfo.getNativeProximityInfo());
+    }
+
+    public void testNeverPrepared() throws Exception {
+        final ProximityInfo proximityInfo =
+                newProximityInfo(new ArrayList<>(mParams.mSortedKeys));
+        // Created on the calling thread when it was never started.
+        final long nativeProximityInfo = proximityInfo.getNativeProximityInfo();
+        assertTrue(0 != nativeProximityInfo);
+        assertEquals(nativeProximityInfo, proximityInfo.getNativeProximityInfo());
+        proximityInfo.prepareNativeProximityInfoAsync();
+        waitForExecutor();
+        assertEquals(nativeProximityInfo, proximityInfo.getNativeProximityInfo());
+    }
+
+    public void testInterruptedWhileWaiting() throws Exception {
+        final BlockingKeyList keys = new BlockingKeyList(new ArrayList<>(mParams.mSortedKeys));
+        final ProximityInfo proximityInfo = newProximityInfo(keys);
+        final CountDownLatch gate = new CountDownLatch(1);
+        keys.mGate = gate;
+        proximityInfo.prepareNativeProximityInfoAsync();
+        assertTrue(keys.mBlocked.await(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS));
+        // Lets the creation finish once the calling thread had to wait for it.
+        final Thread releaser = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (final InterruptedException e) {
+                    // Release it now.
+                }
+                gate.countDown();
+            }
+        };
+        releaser.start();
+        Thread.currentThread().interrupt();
+        final long nativeProximityInfo = proximityInfo.getNativeProximityInfo();
+        // The interrupt does not cut the wait short, and it is kept for the caller.
+        assertTrue(Thread.interrupted());
+        assertTrue(0 != nativeProximityInfo);
+        assertEquals(nativeProximityInfo, proximityInfo.getNativeProximityInfo());
+        releaser.join();
+    }
+
+    public void testKeyboardWithoutProximity() {
+        final ProximityInfo proximityInfo = new ProximityInfo(mParams.GRID_WIDTH,
+                mParams.GRID_HEIGHT, 0 /* minWidth */, 0 /* height */,
+                mParams.mMostCommonKeyWidth, mParams.mMostCommonKeyHeight,
+                new ArrayList<Key>(), mParams.mTouchPositionCorrection);
+        proximityInfo.prepareNativeProximityInfoAsync();
+        assertEquals(0, proximityInfo.getNativeProximityInfo());
+    }
+
+    public void testDetectHitKeyIndexMatchesKeyList() {
+        assertSameHitKeys(getKeyboard(Locale.US, "qwerty", KeyboardId.ELEMENT_ALPHABET));
+        assertSameHitKeys(getKeyboard(Locale.US, "qwerty", KeyboardId.ELEMENT_SYMBOLS));
+        // The Swiss layout has spacers between its keys.
+        assertSameHitKeys(getKeyboard(new Locale("de", "CH"), "swiss",
+                KeyboardId.ELEMENT_ALPHABET));
+    }
+}
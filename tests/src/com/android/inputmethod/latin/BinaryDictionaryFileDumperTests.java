@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.ContentProviderClient;
+import android.content.res.AssetFileDescriptor;
+import android.net.Uri;
+import android.os.RemoteException;
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.android.inputmethod.dictionarypack.MD5Calculator;
+import com.android.inputmethod.latin.common.FileUtils;
+import com.android.inputmethod.latin.define.DecoderSpecificConstants;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Unit tests for the plain word list path of {@link BinaryDictionaryFileDumper}.
+ */
+@SmallTest
+public class BinaryDictionaryFileDumperTests extends AndroidTestCase {
+    private static final String WORDLIST_ID = "main:en_us";
+    private static final byte[] MAGIC_NUMBER =
+            new byte[] { (byte)0x9B, (byte)0xC1, (byte)0x3A, (byte)0xFE };
+    private static final byte[] COMPRESSED_MAGIC_NUMBER = new byte[] { (byte)0x1F, (byte)0x8B };
+
+    private File mDirectory;
+    private File mSourceFile;
+    private File mOutputFile;
+    private File mFinalFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mDirectory = new File(getContext().getCacheDir(), "BinaryDictionaryFileDumperTests");
+        FileUtils.deleteRecursively(mDirectory);
+        mDirectory.mkdirs();
+        mSourceFile = new File(mDirectory, "source");
+        mOutputFile = new File(mDirectory, "output");
+        mFinalFile = new File(mDirectory, "final");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteRecursively(mDirectory);
+        super.tearDown();
+    }
+
+    private static byte[] newWordList(final byte[] magicNumber, final int size) {
+        final byte[] wordList = new byte[size];
+        for (int i = 0; i < size; ++i) {
+            wordList[i] = (byte)i;
+        }
+        System.arraycopy(magicNumber, 0, wordList, 0, magicNumber.length);
+        return wordList;
+    }
+
+    private static String getChecksum(final byte[] wordList) throws IOException {
+        return MD5Calculator.checksum(new ByteArrayInputStream(wordList));
+    }
+
+    private static byte[] readFile(final File file) throws IOException {
+        final byte[] contents = new byte[(int)file.length()];
+        final InputStream inputStream = new FileInputStream(file);
+        try {
+            int offset = 0;
+            while (offset < contents.length) {
+                offset += inputStream.read(contents, offset, contents.length - offset);
+            }
+        } finally {
+            inputStream.close();
+        }
+        return contents;
+    }
+
+    /**
+     * Writes the word list to the source file after a header, like a word list stored in a
+     * larger file of the provider, and returns a client that serves it.
+     */
+    private ContentProviderClient newProviderClient(final byte[] wordList, final int startOffset)
+            throws IOException, RemoteException {
+        final FileOutputStream outputStream = new FileOutputStream(mSourceFile);
+        try {
+            outputStream.write(new byte[startOffset]);
+            outputStream.write(wordList);
+        } finally {
+            outputStream.close();
+        }
+        final AssetFileDescriptor afd = mock(AssetFileDescriptor.class);
+        when(afd.createInputStream()).thenReturn(new FileInputStream(mSourceFile));
+        when(afd.getStartOffset()).thenReturn((long)startOffset);
+        when(afd.getLength()).thenReturn((long)wordList.length);
+        final ContentProviderClient providerClient = mock(ContentProviderClient.class);
+        when(providerClient.openAssetFile(any(Uri.class), anyString())).thenReturn(afd);
+        when(providerClient.delete(any(Uri.class), anyString(), any(String[].class)))
+                .thenReturn(1);
+        return providerClient;
+    }
+
+    private boolean install(final ContentProviderClient providerClient, final String checksum) {
+        return BinaryDictionaryFileDumper.installPlainWordListToStaging(WORDLIST_ID, checksum,
+                providerClient, Uri.parse("content://dictionarypack/datafile").buildUpon(),
+                mOutputFile, mFinalFile);
+    }
+
+    public void testInstallPlainWordList() throws Exception {
+        final byte[] wordList = newWordList(MAGIC_NUMBER, 10000);
+        final ContentProviderClient providerClient = newProviderClient(wordList, 123);
+        assertTrue(install(providerClient, getChecksum(wordList)));
+        assertTrue(Arrays.equals(wordList, readFile(mFinalFile)));
+        assertFalse(mOutputFile.exists());
+        verify(providerClient, times(1)).delete(any(Uri.class), anyString(),
+                any(String[].class));
+    }
+
+    public void testFailingToNotifyDoesNotFallBack() throws Exception {
+        final byte[] wordList = newWordList(MAGIC_NUMBER, 10000);
+        final ContentProviderClient providerClient = newProviderClient(wordList, 0);
+        when(providerClient.delete(any(Uri.class), anyString(), any(String[].class)))
+                .thenThrow(new RemoteException());
+        // The word list has been renamed to its final file, so it must not be installed again
+        // through the stream path.
+        assertTrue(install(providerClient, getChecksum(wordList)));
+        assertTrue(Arrays.equals(wordList, readFile(mFinalFile)));
+        assertFalse(mOutputFile.exists());
+    }
+
+    public void testCompressedWordListFallsBack() throws Exception {
+        final byte[] wordList = newWordList(COMPRESSED_MAGIC_NUMBER, 10000);
+        final ContentProviderClient providerClient = newProviderClient(wordList, 0);
+        assertFalse(install(providerClient, getChecksum(wordList)));
+        assertFalse(mFinalFile.exists());
+        assertFalse(mOutputFile.exists());
+        verify(providerClient, never()).delete(any(Uri.class), anyString(),
+                any(String[].class));
+    }
+
+    public void testBrokenWordListFallsBack() throws Exception {
+        if (!DecoderSpecificConstants.SHOULD_VERIFY_CHECKSUM) {
+            return;
+        }
+        final byte[] wordList = newWordList(MAGIC_NUMBER, 10000);
+        final ContentProviderClient providerClient = newProviderClient(wordList, 0);
+        assertFalse(install(providerClient, getChecksum(new byte[] { 1 })));
+        assertFalse(mFinalFile.exists());
+        assertFalse(mOutputFile.exists());
+        verify(providerClient, never()).delete(any(Uri.class), anyString(),
+                any(String[].class));
+    }
+
+    public void testMissingWordListFallsBack() throws Exception {
+        final ContentProviderClient providerClient = mock(ContentProviderClient.class);
+        when(providerClient.openAssetFile(any(Uri.class), anyString())).thenReturn(null);
+        assertFalse(install(providerClient, null));
+        assertFalse(mFinalFile.exists());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+@SmallTest
+public class ContactNamesSnapshotTests extends AndroidTestCase {
+    private File mFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mFile = File.createTempFile("contacts", ".names", getContext().getCacheDir());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mFile.delete();
+        super.tearDown();
+    }
+
+    public void testWriteAndRead() {
+        final ContactNamesSnapshot snapshot = new ContactNamesSnapshot(
+                Arrays.asList("someone@example.com"), Arrays.asList("Alice Smith"),
+                Arrays.asList("Bob Jones", "Carol"));
+        assertTrue(snapshot.write(mFile));
+        final ContactNamesSnapshot readSnapshot = ContactNamesSnapshot.read(mFile);
+        assertNotNull(readSnapshot);
+        assertEquals(snapshot.mAccountWords, readSnapshot.mAccountWords);
+        assertEquals(snapshot.mProfileNames, readSnapshot.mProfileNames);
+        assertEquals(snapshot.mContactNames, readSnapshot.mContactNames);
+    }
+
+    public void testWithContactNames() {
+        final ContactNamesSnapshot snapshot = new ContactNamesSnapshot(
+                Arrays.asList("someone@example.com"), Arrays.asList("Alice Smith"),
+                Arrays.asList("Bob Jones"));
+        final ContactNamesSnapshot newSnapshot = snapshot.withContactNames(
+                Arrays.asList("Dave"));
+        assertEquals(snapshot.mAccountWords, newSnapshot.mAccountWords);
+        assertEquals(snapshot.mProfileNames, newSnapshot.mProfileNames);
+        assertEquals(1, newSnapshot.mContactNames.size());
+        assertTrue(newSnapshot.mContactNames.contains("Dave"));
+    }
+
+    public void testReadInvalidFile() throws IOException {
+        final FileOutputStream out = new FileOutputStream(mFile);
+        try {
+            out.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        } finally {
+            out.close();
+        }
+        assertNull(ContactNamesSnapshot.read(mFile));
+        mFile.delete();
+        assertNull(ContactNamesSnapshot.read(mFile));
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.net.Uri;
+import android.provider.ContactsContract;
+import android.provider.ContactsContract.Contacts;
+import android.test.AndroidTestCase;
+import android.test.mock.MockContentProvider;
+import android.test.mock.MockContentResolver;
+import android.test.suitebuilder.annotation.MediumTest;
+
+import com.android.inputmethod.latin.ContactsManagerTest.ContextWithMockContentResolver;
+import com.android.inputmethod.latin.common.FileUtils;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+
+/**
+ * Unit tests for the updates of {@link ContactsBinaryDictionary} when the contacts change.
+ */
+@MediumTest
+public class ContactsBinaryDictionaryTests extends AndroidTestCase {
+    private static final String DICT_NAME = "ContactsBinaryDictionaryTests";
+
+    private FakeContactsContentProvider mContactsContentProvider;
+    private ContextWithMockContentResolver mContextWithContacts;
+    private File mDictFile;
+    private File mNamesFile;
+    private ContactsBinaryDictionary mDictionary;
+
+    /**
+     * Returns a new cursor over the current contact names on each query, since the dictionary
+     * closes the cursors it reads.
+     */
+    private static class FakeContactsContentProvider extends MockContentProvider {
+        private volatile String[] mContactNames = new String[0];
+
+        @Override
+        public Cursor query(final Uri uri, final String[] projection, final String selection,
+                final String[] selectionArgs, final String sortOrder) {
+            final MatrixCursor cursor = new MatrixCursor(ContactsDictionaryConstants.PROJECTION);
+            if (!uri.equals(Contacts.CONTENT_URI)) {
+                return cursor;
+            }
+            final String[] contactNames = mContactNames;
+            for (int i = 0; i < contactNames.length; ++i) {
+                cursor.addRow(new Object[] { i, contactNames[i], 0, 0, 0 });
+            }
+            return cursor;
+        }
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mContactsContentProvider = new FakeContactsContentProvider();
+        final MockContentResolver contentResolver = new MockContentResolver();
+        contentResolver.addProvider(ContactsContract.AUTHORITY, mContactsContentProvider);
+        mContextWithContacts = new ContextWithMockContentResolver(getContext());
+        mContextWithContacts.setContentResolver(contentResolver);
+        mDictFile = new File(getContext().getCacheDir(), DICT_NAME + ".dict");
+        mNamesFile = new File(mDictFile.getPath() + ".names");
+        deleteFiles();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        closeDictionary();
+        deleteFiles();
+        super.tearDown();
+    }
+
+    private void deleteFiles() {
+        FileUtils.deleteRecursively(mDictFile);
+        mNamesFile.delete();
+    }
+
+    private void setContactNames(final String... contactNames) {
+        mContactsContentProvider.mContactNames = contactNames;
+    }
+
+    private void closeDictionary() {
+        if (null == mDictionary) {
+            return;
+        }
+        mDictionary.close();
+        mDictionary.waitAllTasksForTests();
+        mDictionary = null;
+    }
+
+    private void openDictionary() {
+        closeDictionary();
+        mDictionary = new ContactsBinaryDictionary(mContextWithContacts, Locale.US, mDictFile,
+                DICT_NAME);
+        mDictionary.waitAllTasksForTests();
+    }
+
+    private void changeContactNames(final String... contactNames) {
+        setContactNames(contactNames);
+        mDictionary.onContactsChange();
+        mDictionary.waitAllTasksForTests();
+    }
+
+    private void assertInDictionary(final String... words) {
+        for (final String word : words) {
+            assertTrue(word, mDictionary.isInDictionary(word));
+        }
+    }
+
+    private void assertNotInDictionary(final String... words) {
+        for (final String word : words) {
+            assertFalse(word, mDictionary.isInDictionary(word));
+        }
+    }
+
+    private void assertNamesFile(final String... contactNames) {
+        final ContactNamesSnapshot names = ContactNamesSnapshot.read(mNamesFile);
+        assertNotNull(names);
+        assertEquals(new HashSet<>(Arrays.asList(contactNames)), names.mContactNames);
+    }
+
+    public void testRenamedRemovedAndUnchangedContacts() {
+        setContactNames("Larry Page", "Sergey Brin", "Eric Schmidt");
+        openDictionary();
+        assertInDictionary("Larry", "Page", "Sergey", "Brin", "Eric", "Schmidt");
+        assertNamesFile("Larry Page", "Sergey Brin", "Eric Schmidt");
+
+        // Sergey Brin is renamed, Eric Schmidt is removed and Larry Page is unchanged.
+        changeContactNames("Larry Page", "Sergey Bryn");
+        assertInDictionary("Larry", "Page", "Sergey", "Bryn");
+        assertNotInDictionary("Brin", "Eric", "Schmidt");
+        assertNamesFile("Larry Page", "Sergey Bryn");
+    }
+
+    public void testWordsSharedWithAnotherContactAreKept() {
+        setContactNames("Larry Page", "Larry King");
+        openDictionary();
+        changeContactNames("Larry King");
+        assertInDictionary("Larry", "King");
+        assertNotInDictionary("Page");
+    }
+
+    public void testChangesAreAppliedAfterARestart() {
+        setContactNames("Larry Page", "Sergey Brin");
+        openDictionary();
+        // The dictionary file and the names file are read again.
+        openDictionary();
+        changeContactNames("Larry Page");
+        assertInDictionary("Larry", "Page");
+        assertNotInDictionary("Sergey", "Brin");
+        assertNamesFile("Larry Page");
+    }
+
+    public void testMissingNamesFileRecreatesTheDictionary() {
+        setContactNames("Larry Page", "Sergey Brin");
+        openDictionary();
+        // Like a process that died after changing the dictionary file but before writing the
+        // names file, which is removed before the dictionary file changes.
+        closeDictionary();
+        assertTrue(mNamesFile.delete());
+        openDictionary();
+        changeContactNames("Larry Page");
+        // The next access recreates the dictionary from the contacts.
+        mDictionary.reloadDictionaryIfRequired();
+        mDictionary.waitAllTasksForTests();
+        assertInDictionary("Larry", "Page");
+        assertNotInDictionary("Sergey", "Brin");
+        assertNamesFile("Larry Page");
+    }
+}
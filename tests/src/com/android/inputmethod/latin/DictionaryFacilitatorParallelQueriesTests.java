@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import android.os.SystemClock;
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.MediumTest;
+
+import com.android.inputmethod.latin.SuggestedWords.SuggestedWordInfo;
+import com.android.inputmethod.latin.common.ComposedData;
+import com.android.inputmethod.latin.common.InputPointers;
+import com.android.inputmethod.latin.settings.SettingsValuesForSuggestion;
+import com.android.inputmethod.latin.utils.SuggestionResults;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@MediumTest
+public class DictionaryFacilitatorParallelQueriesTests extends AndroidTestCase {
+    private static final SettingsValuesForSuggestion SETTINGS = new SettingsValuesForSuggestion(
+            false /* blockPotentiallyOffensive */, true /* useParallelDictionaryQueries */);
+    private static final long LONG_TIMEOUT_IN_MILLISECONDS = 5000;
+    private static final long SHORT_TIMEOUT_IN_MILLISECONDS = 50;
+
+    private ExecutorService mExecutor;
+    private final ArrayList<CountDownLatch> mLatches = new ArrayList<>();
+
+    private static class FakeDictionary extends Dictionary {
+        private final String mWord;
+        private final int mScore;
+        public final AtomicInteger mQueryCount = new AtomicInteger();
+        public volatile CountDownLatch mLatch;
+        public volatile int mBlockedSessionId = -1;
+        // The weight this dictionary computes, if it is queried first.
+        public volatile float mWeightOfLangModelVsSpatialModel =
+                Dictionary.NOT_A_WEIGHT_OF_LANG_MODEL_VS_SPATIAL_MODEL;
+        public volatile float mReceivedWeightOfLangModelVsSpatialModel;
+
+        public FakeDictionary(final String dictType, final String word, final int score) {
+            super(dictType, Locale.ENGLISH);
+            mWord = word;
+            mScore = score;
+        }
+
+        @Override
+        public ArrayList<SuggestedWordInfo> getSuggestions(final ComposedData composedData,
+                final NgramContext ngramContext, final long proximityInfoHandle,
+                final SettingsValuesForSuggestion settingsValuesForSuggestion,
+                final int sessionId, final float weightForLocale,
+                final float[] inOutWeightOfLangModelVsSpatialModel) {
+            mQueryCount.incrementAndGet();
+            mReceivedWeightOfLangModelVsSpatialModel = inOutWeightOfLangModelVsSpatialModel[0];
+            if (Dictionary.NOT_A_WEIGHT_OF_LANG_MODEL_VS_SPATIAL_MODEL
+                    == inOutWeightOfLangModelVsSpatialModel[0]) {
+                inOutWeightOfLangModelVsSpatialModel[0] = mWeightOfLangModelVsSpatialModel;
+            }
+            final CountDownLatch latch = mLatch;
+            if (null != latch && sessionId == mBlockedSessionId) {
+                // Like native code, a running query cannot be interrupted.
+                boolean done = false;
+                while (!done) {
+                    try {
+                        latch.await();
+                        done = true;
+                    } catch (final InterruptedException e) {
+                        // Keep waiting.
+                    }
+                }
+            }
+            final ArrayList<SuggestedWordInfo> suggestions = new ArrayList<>();
+            suggestions.add(new SuggestedWordInfo(mWord, "" /* prevWordsContext */, mScore,
+                    SuggestedWordInfo.KIND_CORRECTION, this,
+                    SuggestedWordInfo.NOT_AN_INDEX /* indexOfTouchPointOfSecondWord */,
+                    SuggestedWordInfo.NOT_A_CONFIDENCE /* autoCommitFirstWordConfidence */));
+            return suggestions;
+        }
+
+        @Override
+        public boolean isInDictionary(final String word) {
+            return mWord.equals(word);
+        }
+
+        public void block(final CountDownLatch latch, final int sessionId) {
+            mBlockedSessionId = sessionId;
+            mLatch = latch;
+        }
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mExecutor = Executors.newFixedThreadPool(4);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (final CountDownLatch latch : mLatches) {
+            latch.countDown();
+        }
+        mExecutor.shutdownNow();
+        mExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        super.tearDown();
+    }
+
+    private CountDownLatch newLatch() {
+        final CountDownLatch latch = new CountDownLatch(1);
+        mLatches.add(latch);
+        return latch;
+    }
+
+    private SuggestionResults query(final List<Dictionary> dictionaries, final int sessionId,
+            final long timeoutInMillis) {
+        final SuggestionResults suggestionResults = new SuggestionResults(
+                SuggestedWords.MAX_SUGGESTIONS, false /* isBeginningOfSentence */,
+                false /* firstSuggestionExceedsConfidenceThreshold */);
+        final ComposedData composedData =
+                new ComposedData(new InputPointers(1), false /* isBatchMode */, "a");
+        DictionaryFacilitatorImpl.getSuggestionResultsInParallel(suggestionResults, dictionaries,
+                mExecutor, timeoutInMillis, composedData, NgramContext.EMPTY_PREV_WORDS_INFO,
+                0 /* proximityInfoHandle */, SETTINGS, sessionId, 1.0f /* weightForLocale */,
+                new float[] { Dictionary.NOT_A_WEIGHT_OF_LANG_MODEL_VS_SPATIAL_MODEL });
+        return suggestionResults;
+    }
+
+    private static ArrayList<String> getWords(final SuggestionResults suggestionResults) {
+        final ArrayList<String> words = new ArrayList<>();
+        for (final SuggestedWordInfo info : suggestionResults) {
+            words.add(info.mWord);
+        }
+        return words;
+    }
+
+    public void testMergesAllDictionaries() {
+        final FakeDictionary mainDict = new FakeDictionary(Dictionary.TYPE_MAIN, "main", 100);
+        final FakeDictionary contactsDict =
+                new FakeDictionary(Dictionary.TYPE_CONTACTS, "contacts", 300);
+        final FakeDictionary userDict = new FakeDictionary(Dictionary.TYPE_USER, "user", 200);
+        final SuggestionResults suggestionResults = query(
+                Arrays.<Dictionary>asList(mainDict, contactsDict, userDict), 0 /* sessionId */,
+                LONG_TIMEOUT_IN_MILLISECONDS);
+        assertEquals(Arrays.asList("contacts", "user", "main"), getWords(suggestionResults));
+        assertFalse(suggestionResults.isIncomplete());
+        assertEquals(1, mainDict.mQueryCount.get());
+        assertEquals(1, contactsDict.mQueryCount.get());
+        assertEquals(1, userDict.mQueryCount.get());
+    }
+
+    public void testSlowDictionaryIsDropped() {
+        final FakeDictionary mainDict = new FakeDictionary(Dictionary.TYPE_MAIN, "main", 100);
+        final FakeDictionary slowDict =
+                new FakeDictionary(Dictionary.TYPE_CONTACTS, "contacts", 300);
+        final FakeDictionary userDict = new FakeDictionary(Dictionary.TYPE_USER, "user", 200);
+        slowDict.block(newLatch(), 0 /* sessionId */);
+        final long startTime = SystemClock.uptimeMillis();
+        final SuggestionResults suggestionResults = query(
+                Arrays.<Dictionary>asList(mainDict, slowDict, userDict), 0 /* sessionId */,
+                SHORT_TIMEOUT_IN_MILLISECONDS);
+        assertTrue(SystemClock.uptimeMillis() - startTime < LONG_TIMEOUT_IN_MILLISECONDS);
+        assertEquals(Arrays.asList("user", "main"), getWords(suggestionResults));
+        assertTrue(suggestionResults.isIncomplete());
+    }
+
+    public void testTimedOutQueryDoesNotHoldTheDictionary() {
+        final FakeDictionary mainDict = new FakeDictionary(Dictionary.TYPE_MAIN, "main", 100);
+        final FakeDictionary slowDict =
+                new FakeDictionary(Dictionary.TYPE_CONTACTS, "contacts", 300);
+        final CountDownLatch latch = newLatch();
+        slowDict.block(latch, 0 /* sessionId */);
+        final List<Dictionary> dictionaries = Arrays.<Dictionary>asList(mainDict, slowDict);
+        assertTrue(query(dictionaries, 0 /* sessionId */, SHORT_TIMEOUT_IN_MILLISECONDS)
+                .isIncomplete());
+
+        // The stale query still uses the session, so the next query for the same session gives
+        // up at its own deadline instead of waiting for it.
+        final long startTime = SystemClock.uptimeMillis();
+        final SuggestionResults sameSessionResults =
+                query(dictionaries, 0 /* sessionId */, SHORT_TIMEOUT_IN_MILLISECONDS);
+        assertTrue(SystemClock.uptimeMillis() - startTime < LONG_TIMEOUT_IN_MILLISECONDS);
+        assertTrue(sameSessionResults.isIncomplete());
+        assertEquals(Arrays.asList("main"), getWords(sameSessionResults));
+        assertEquals(1, slowDict.mQueryCount.get());
+
+        // Other sessions of the same dictionary are not blocked.
+        final SuggestionResults otherSessionResults =
+                query(dictionaries, 1 /* sessionId */, LONG_TIMEOUT_IN_MILLISECONDS);
+        assertFalse(otherSessionResults.isIncomplete());
+        assertEquals(Arrays.asList("contacts", "main"), getWords(otherSessionResults));
+
+        // Once the stale query is done, the session can be used again.
+        slowDict.block(null, 0 /* sessionId */);
+        latch.countDown();
+        final SuggestionResults laterResults =
+                query(dictionaries, 0 /* sessionId */, LONG_TIMEOUT_IN_MILLISECONDS);
+        assertFalse(laterResults.isIncomplete());
+        assertEquals(Arrays.asList("contacts", "main"), getWords(laterResults));
+    }
+
+    public void testOtherDictionariesReuseTheWeightOfTheMainDictionary() {
+        final FakeDictionary mainDict = new FakeDictionary(Dictionary.TYPE_MAIN, "main", 100);
+        final FakeDictionary contactsDict =
+                new FakeDictionary(Dictionary.TYPE_CONTACTS, "contacts", 300);
+        final FakeDictionary userDict = new FakeDictionary(Dictionary.TYPE_USER, "user", 200);
+        mainDict.mWeightOfLangModelVsSpatialModel = 0.5f;
+        contactsDict.mWeightOfLangModelVsSpatialModel = 0.25f;
+        userDict.mWeightOfLangModelVsSpatialModel = 0.25f;
+        query(Arrays.<Dictionary>asList(mainDict, contactsDict, userDict), 0 /* sessionId */,
+                LONG_TIMEOUT_IN_MILLISECONDS);
+        assertEquals(Dictionary.NOT_A_WEIGHT_OF_LANG_MODEL_VS_SPATIAL_MODEL,
+                mainDict.mReceivedWeightOfLangModelVsSpatialModel);
+        assertEquals(0.5f, contactsDict.mReceivedWeightOfLangModelVsSpatialModel);
+        assertEquals(0.5f, userDict.mReceivedWeightOfLangModelVsSpatialModel);
+    }
+
+    public void testWithoutMainDictionary() {
+        final FakeDictionary mainDict = new FakeDictionary(Dictionary.TYPE_MAIN, "main", 100);
+        final FakeDictionary slowDict =
+                new FakeDictionary(Dictionary.TYPE_CONTACTS, "contacts", 300);
+        final FakeDictionary userDict = new FakeDictionary(Dictionary.TYPE_USER, "user", 200);
+        final CountDownLatch latch = newLatch();
+        slowDict.block(latch, 0 /* sessionId */);
+        assertTrue(query(Arrays.<Dictionary>asList(mainDict, slowDict), 0 /* sessionId */,
+                SHORT_TIMEOUT_IN_MILLISECONDS).isIncomplete());
+
+        // The main dictionary is gone, so the first dictionary is the one that the stale query
+        // still uses. The calling thread gives up on it at the deadline instead of sharing its
+        // session.
+        final List<Dictionary> dictionaries = Arrays.<Dictionary>asList(slowDict, userDict);
+        final long startTime = SystemClock.uptimeMillis();
+        final SuggestionResults staleResults =
+                query(dictionaries, 0 /* sessionId */, SHORT_TIMEOUT_IN_MILLISECONDS);
+        assertTrue(SystemClock.uptimeMillis() - startTime < LONG_TIMEOUT_IN_MILLISECONDS);
+        assertTrue(staleResults.isIncomplete());
+        assertEquals(Arrays.asList("user"), getWords(staleResults));
+        assertEquals(1, slowDict.mQueryCount.get());
+
+        slowDict.block(null, 0 /* sessionId */);
+        latch.countDown();
+        slowDict.mWeightOfLangModelVsSpatialModel = 0.5f;
+        final SuggestionResults laterResults =
+                query(dictionaries, 0 /* sessionId */, LONG_TIMEOUT_IN_MILLISECONDS);
+        assertFalse(laterResults.isIncomplete());
+        assertEquals(Arrays.asList("contacts", "user"), getWords(laterResults));
+        assertEquals(0.5f, userDict.mReceivedWeightOfLangModelVsSpatialModel);
+    }
+
+    public void testQueryThatCouldNotStartInTimeIsSkipped() throws Exception {
+        mExecutor.shutdownNow();
+        mExecutor = Executors.newSingleThreadExecutor();
+        final CountDownLatch latch = newLatch();
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (final InterruptedException e) {
+                    // Exit.
+                }
+            }
+        });
+        final FakeDictionary mainDict = new FakeDictionary(Dictionary.TYPE_MAIN, "main", 100);
+        final FakeDictionary userDict = new FakeDictionary(Dictionary.TYPE_USER, "user", 200);
+        final SuggestionResults suggestionResults = query(
+                Arrays.<Dictionary>asList(mainDict, userDict), 0 /* sessionId */,
+                SHORT_TIMEOUT_IN_MILLISECONDS);
+        assertTrue(suggestionResults.isIncomplete());
+        assertEquals(Arrays.asList("main"), getWords(suggestionResults));
+        latch.countDown();
+        mExecutor.submit(new Runnable() {
+            @Override
+            public void run() {}
+        }).get(LONG_TIMEOUT_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
+        assertEquals(0, userDict.mQueryCount.get());
+    }
+}
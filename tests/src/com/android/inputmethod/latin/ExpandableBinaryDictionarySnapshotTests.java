@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.MediumTest;
+
+import com.android.inputmethod.latin.ExpandableBinaryDictionary.DictionarySnapshot;
+import com.android.inputmethod.latin.common.FileUtils;
+import com.android.inputmethod.latin.makedict.FormatSpec;
+import com.android.inputmethod.latin.utils.BinaryDictionaryUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit tests for the reference counting of {@link DictionarySnapshot}.
+ */
+@MediumTest
+public class ExpandableBinaryDictionarySnapshotTests extends AndroidTestCase {
+    private static final String TEST_DICT_FILE_EXTENSION = ".testDict";
+    private static final String DICTIONARY_ID = "TestSnapshotDictionary";
+    private static final String WORD = "aaa";
+
+    private File mDictFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mDictFile = File.createTempFile(DICTIONARY_ID, TEST_DICT_FILE_EXTENSION,
+                getContext().getCacheDir());
+        mDictFile.delete();
+        mDictFile.mkdir();
+        if (!BinaryDictionaryUtils.createEmptyDictFile(mDictFile.getAbsolutePath(),
+                FormatSpec.VERSION403, Locale.ENGLISH, new HashMap<String, String>())) {
+            throw new IOException("Empty dictionary cannot be created.");
+        }
+        final BinaryDictionary binaryDictionary = new BinaryDictionary(
+                mDictFile.getAbsolutePath(), 0 /* offset */, mDictFile.length(),
+                true /* useFullEditDistance */, Locale.ENGLISH, DICTIONARY_ID,
+                true /* isUpdatable */);
+        binaryDictionary.addUnigramEntry(WORD, 100 /* probability */,
+                false /* isBeginningOfSentence */, false /* isNotAWord */,
+                false /* isPossiblyOffensive */, BinaryDictionary.NOT_A_VALID_TIMESTAMP);
+        binaryDictionary.flush();
+        binaryDictionary.close();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteRecursively(mDictFile);
+        super.tearDown();
+    }
+
+    private DictionarySnapshot newSnapshot() {
+        final BinaryDictionary binaryDictionary = new BinaryDictionary(
+                mDictFile.getAbsolutePath(), 0 /* offset */, mDictFile.length(),
+                true /* useFullEditDistance */, Locale.ENGLISH, DICTIONARY_ID,
+                false /* isUpdatable */);
+        assertTrue(binaryDictionary.isValidDictionary());
+        return new DictionarySnapshot(binaryDictionary);
+    }
+
+    public void testLastReleaseClosesTheSnapshot() {
+        final DictionarySnapshot snapshot = newSnapshot();
+        assertTrue(snapshot.acquire());
+        assertTrue(snapshot.acquire());
+        // The publisher retires the snapshot.
+        snapshot.release();
+        snapshot.release();
+        assertTrue(snapshot.mBinaryDictionary.isValidDictionary());
+        assertTrue(snapshot.mBinaryDictionary.isInDictionary(WORD));
+        snapshot.release();
+        assertFalse(snapshot.mBinaryDictionary.isValidDictionary());
+        assertFalse(snapshot.acquire());
+    }
+
+    public void testSnapshotReplacedWhileInUse() {
+        final AtomicReference<DictionarySnapshot> snapshotReference = new AtomicReference<>();
+        final DictionarySnapshot oldSnapshot = newSnapshot();
+        ExpandableBinaryDictionary.replaceSnapshot(snapshotReference, oldSnapshot);
+        assertSame(oldSnapshot, ExpandableBinaryDictionary.acquireSnapshot(snapshotReference));
+
+        final DictionarySnapshot newSnapshot = newSnapshot();
+        ExpandableBinaryDictionary.replaceSnapshot(snapshotReference, newSnapshot);
+        // The reader still holds the retired snapshot, which stays open.
+        assertTrue(oldSnapshot.mBinaryDictionary.isInDictionary(WORD));
+        // New readers get the new snapshot.
+        final DictionarySnapshot acquiredSnapshot =
+                ExpandableBinaryDictionary.acquireSnapshot(snapshotReference);
+        assertSame(newSnapshot, acquiredSnapshot);
+        acquiredSnapshot.release();
+
+        oldSnapshot.release();
+        assertFalse(oldSnapshot.mBinaryDictionary.isValidDictionary());
+        assertTrue(newSnapshot.mBinaryDictionary.isValidDictionary());
+
+        ExpandableBinaryDictionary.replaceSnapshot(snapshotReference, null);
+        assertFalse(newSnapshot.mBinaryDictionary.isValidDictionary());
+        assertNull(ExpandableBinaryDictionary.acquireSnapshot(snapshotReference));
+    }
+
+    public void testCloseRacingReaders() throws InterruptedException {
+        final int readerCount = 4;
+        final int replacementCount = 50;
+        final AtomicReference<DictionarySnapshot> snapshotReference = new AtomicReference<>();
+        final ArrayList<DictionarySnapshot> snapshots = new ArrayList<>();
+        final DictionarySnapshot firstSnapshot = newSnapshot();
+        snapshots.add(firstSnapshot);
+        ExpandableBinaryDictionary.replaceSnapshot(snapshotReference, firstSnapshot);
+
+        final AtomicBoolean isDone = new AtomicBoolean(false);
+        final AtomicInteger failedReadCount = new AtomicInteger(0);
+        final CountDownLatch readersStarted = new CountDownLatch(readerCount);
+        final CountDownLatch readersDone = new CountDownLatch(readerCount);
+        for (int i = 0; i < readerCount; ++i) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    boolean hasRead = false;
+                    while (!isDone.get()) {
+                        final DictionarySnapshot snapshot =
+                                ExpandableBinaryDictionary.acquireSnapshot(snapshotReference);
+                        if (snapshot == null) continue;
+                        try {
+                            // A pinned snapshot must never be closed under the reader.
+                            if (!snapshot.mBinaryDictionary.isValidDictionary()
+                                    || !snapshot.mBinaryDictionary.isInDictionary(WORD)) {
+                                failedReadCount.incrementAndGet();
+                            }
+                        } finally {
+                            snapshot.release();
+                        }
+                        if (!hasRead) {
+                            hasRead = true;
+                            readersStarted.countDown();
+                        }
+                    }
+                    readersDone.countDown();
+                }
+            }).start();
+        }
+        assertTrue(readersStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < replacementCount; ++i) {
+            final DictionarySnapshot snapshot = newSnapshot();
+            snapshots.add(snapshot);
+            ExpandableBinaryDictionary.replaceSnapshot(snapshotReference, snapshot);
+        }
+        // Closing the dictionary retires the last snapshot while readers may still use it.
+        ExpandableBinaryDictionary.replaceSnapshot(snapshotReference, null);
+        isDone.set(true);
+        assertTrue(readersDone.await(5, TimeUnit.SECONDS));
+
+        assertEquals(0, failedReadCount.get());
+        for (final DictionarySnapshot snapshot : snapshots) {
+            assertFalse(snapshot.mBinaryDictionary.isValidDictionary());
+            assertFalse(snapshot.acquire());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import static com.android.inputmethod.latin.PersonalDictionaryLookup.ANY_LOCALE;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import java.util.Locale;
+
+@SmallTest
+public class PersonalDictionaryIndexTests extends AndroidTestCase {
+    public void testWordLocaleMatching() {
+        final PersonalDictionaryIndex.Builder builder = new PersonalDictionaryIndex.Builder();
+        builder.addWord("foo", "Foo", Locale.US);
+        builder.addWord("bar", "bar", Locale.ENGLISH);
+        builder.addWord("baz", "baz", ANY_LOCALE);
+        builder.addWord("foo", "fOo", Locale.FRENCH);
+        final PersonalDictionaryIndex index = builder.build();
+
+        assertEquals(3, index.getWordCount());
+        assertTrue(index.isValidWord("foo", Locale.US));
+        assertTrue(index.isValidWord("foo", Locale.FRENCH));
+        assertFalse(index.isValidWord("foo", Locale.ENGLISH));
+        assertFalse(index.isValidWord("foo", Locale.UK));
+        assertTrue(index.isValidWord("bar", Locale.ENGLISH));
+        assertTrue(index.isValidWord("bar", Locale.UK));
+        assertFalse(index.isValidWord("bar", Locale.FRENCH));
+        assertTrue(index.isValidWord("baz", Locale.GERMANY));
+        assertFalse(index.isValidWord("fo", Locale.US));
+        assertFalse(index.isValidWord("fooo", Locale.US));
+
+        assertTrue(index.getWordsForLocale(Locale.US).contains("Foo"));
+        assertTrue(index.getWordsForLocale(Locale.US).contains("bar"));
+        assertFalse(index.getWordsForLocale(Locale.US).contains("fOo"));
+    }
+
+    public void testShortcutFallback() {
+        final PersonalDictionaryIndex.Builder builder = new PersonalDictionaryIndex.Builder();
+        builder.addShortcut("gm", "General Motors", ANY_LOCALE);
+        builder.addShortcut("gm", "Good morning", Locale.ENGLISH);
+        builder.addShortcut("gm", "Good morning!", Locale.US);
+        final PersonalDictionaryIndex index = builder.build();
+
+        assertEquals("Good morning!", index.expandShortcut("gm", Locale.US));
+        assertEquals("Good morning", index.expandShortcut("gm", Locale.UK));
+        assertEquals("Good morning", index.expandShortcut("gm", Locale.ENGLISH));
+        assertEquals("General Motors", index.expandShortcut("gm", Locale.FRENCH));
+        assertNull(index.expandShortcut("GM", Locale.US));
+        assertEquals(1, index.getShortcutsForLocale(Locale.UK).size());
+        assertTrue(index.getShortcutsForLocale(Locale.UK).contains("gm"));
+    }
+
+    public void testLastEntryWins() {
+        final PersonalDictionaryIndex.Builder builder = new PersonalDictionaryIndex.Builder();
+        builder.addWord("foo", "Foo", Locale.US);
+        builder.addWord("foo", "FOO", Locale.US);
+        builder.addShortcut("f", "Foo", Locale.US);
+        builder.addShortcut("f", "FOO", Locale.US);
+        final PersonalDictionaryIndex index = builder.build();
+
+        assertEquals(1, index.getWordCount());
+        assertEquals(1, index.getShortcutCount());
+        assertTrue(index.getWordsForLocale(Locale.US).contains("FOO"));
+        assertEquals("FOO", index.expandShortcut("f", Locale.US));
+    }
+
+    public void testHasSameEntries() {
+        final PersonalDictionaryIndex.Builder builder = new PersonalDictionaryIndex.Builder();
+        builder.addWord("foo", "Foo", Locale.US);
+        builder.addShortcut("f", "Foo", Locale.US);
+        final PersonalDictionaryIndex.Builder sameBuilder = new PersonalDictionaryIndex.Builder();
+        sameBuilder.addWord("foo", "Foo", Locale.US);
+        sameBuilder.addShortcut("f", "Foo", Locale.US);
+        final PersonalDictionaryIndex.Builder otherBuilder = new PersonalDictionaryIndex.Builder();
+        otherBuilder.addWord("foo", "Foo", Locale.UK);
+        otherBuilder.addShortcut("f", "Foo", Locale.UK);
+
+        assertTrue(builder.build().hasSameEntries(sameBuilder.build()));
+        assertFalse(builder.build().hasSameEntries(otherBuilder.build()));
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.android.inputmethod.keyboard.Key;
+import com.android.inputmethod.keyboard.Keyboard;
+import com.android.inputmethod.latin.SuggestedWords.SuggestedWordInfo;
+import com.android.inputmethod.latin.common.ComposedData;
+import com.android.inputmethod.latin.common.InputPointers;
+import com.android.inputmethod.latin.settings.SettingsValuesForSuggestion;
+import com.android.inputmethod.latin.utils.ExecutorUtils;
+import com.android.inputmethod.latin.utils.SuggestionResults;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link SuggestionPrefetcher}.
+ */
+@SmallTest
+public class SuggestionPrefetcherTests extends AndroidTestCase {
+    private static final SettingsValuesForSuggestion SETTINGS =
+            new SettingsValuesForSuggestion(false /* blockPotentiallyOffensive */);
+    private static final int INPUT_STYLE = SuggestedWords.INPUT_STYLE_TYPING;
+    private static final int SESSION_ID = 0;
+    private static final int KEY_SIZE = 100;
+    // The keys are laid out on one row, in this order.
+    private static final String KEY_LETTERS = "theoar";
+
+    private ScheduledExecutorService mExecutor;
+    private DictionaryFacilitator mDictionaryFacilitator;
+    private Keyboard mKeyboard;
+    private SuggestionPrefetcher mPrefetcher;
+    // The typed words the dictionaries have been queried for, in order.
+    private final List<String> mQueriedWords =
+            Collections.synchronizedList(new ArrayList<String>());
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mExecutor = Executors.newSingleThreadScheduledExecutor();
+        ExecutorUtils.setExecutorServiceForTests(mExecutor);
+        mDictionaryFacilitator = mock(DictionaryFacilitator.class);
+        when(mDictionaryFacilitator.getSuggestionResults(any(ComposedData.class),
+                any(NgramContext.class), any(Keyboard.class),
+                any(SettingsValuesForSuggestion.class), anyInt(), anyInt())).thenAnswer(
+                        new Answer<SuggestionResults>() {
+                            @Override
+                            public SuggestionResults answer(final InvocationOnMock invocation) {
+                                final String typedWord =
+                                        ((ComposedData)invocation.getArguments()[0]).mTypedWord;
+                                mQueriedWords.add(typedWord);
+                                return newSuggestionResults(typedWord);
+                            }
+                        });
+        mKeyboard = mock(Keyboard.class);
+        for (int i = 0; i < KEY_LETTERS.length(); ++i) {
+            final int code = KEY_LETTERS.charAt(i);
+            final Key key = new Key(null /* label */, 0 /* iconId */, code,
+                    null /* outputText */, null /* hintLabel */, 0 /* labelFlags */,
+                    0 /* backgroundType */, i * KEY_SIZE, 0 /* y */, KEY_SIZE, KEY_SIZE,
+                    0 /* horizontalGap */, 0 /* verticalGap */);
+            when(mKeyboard.getKey(code)).thenReturn(key);
+        }
+        mPrefetcher = new SuggestionPrefetcher(mDictionaryFacilitator, SESSION_ID);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ExecutorUtils.setExecutorServiceForTests(null);
+        mExecutor.shutdownNow();
+        mExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        super.tearDown();
+    }
+
+    private static SuggestionResults newSuggestionResults(final String... words) {
+        final SuggestionResults results = new SuggestionResults(SuggestedWords.MAX_SUGGESTIONS,
+                false /* isBeginningOfSentence */,
+                false /* firstSuggestionExceedsConfidenceThreshold */);
+        int score = words.length;
+        for (final String word : words) {
+            results.add(new SuggestedWordInfo(word, "" /* prevWordsContext */, score--,
+                    SuggestedWordInfo.KIND_CORRECTION, Dictionary.DICTIONARY_USER_TYPED,
+                    SuggestedWordInfo.NOT_AN_INDEX /* indexOfTouchPointOfSecondWord */,
+                    SuggestedWordInfo.NOT_A_CONFIDENCE /* autoCommitFirstWordConfidence */));
+        }
+        return results;
+    }
+
+    private static int getKeyX(final char letter) {
+        return KEY_LETTERS.indexOf(letter) * KEY_SIZE;
+    }
+
+    /**
+     * Returns the composed data for taps on the keys of the letters of the word. The last tap is
+     * at the given offset of the top left corner of its key, and the others at the center.
+     */
+    private static ComposedData newComposedData(final String word, final int lastOffset) {
+        final InputPointers inputPointers = new InputPointers(word.length());
+        for (int i = 0; i < word.length(); ++i) {
+            final int offset = (i == word.length() - 1) ? lastOffset : KEY_SIZE / 2;
+            inputPointers.addPointer(getKeyX(word.charAt(i)) + offset, offset,
+                    0 /* pointerId */, i * 100 /* time */);
+        }
+        return new ComposedData(inputPointers, false /* isBatchMode */, word);
+    }
+
+    private void prefetch(final ComposedData composedData, final SuggestionResults results,
+            final int budget) throws Exception {
+        mPrefetcher.prefetch(composedData, NgramContext.EMPTY_PREV_WORDS_INFO, mKeyboard,
+                SETTINGS, INPUT_STYLE, results, budget);
+        // Wait for the prefetch task to be done.
+        mExecutor.submit(new Runnable() {
+            @Override
+            public void run() {}
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    private SuggestionResults get(final ComposedData composedData) {
+        return get(composedData, 0 /* dictionaryGeneration */);
+    }
+
+    private SuggestionResults get(final ComposedData composedData,
+            final long dictionaryGeneration) {
+        return mPrefetcher.get(composedData, NgramContext.EMPTY_PREV_WORDS_INFO, mKeyboard,
+                SETTINGS, INPUT_STYLE, dictionaryGeneration);
+    }
+
+    private static String getFirstWord(final SuggestionResults results) {
+        return results.first().mWord;
+    }
+
+    public void testPrefetchedResultsAreUsed() throws Exception {
+        prefetch(newComposedData("t", 50), newSuggestionResults("the", "to", "tea"),
+                SuggestionPrefetcher.MAX_BUDGET);
+        assertEquals(Arrays.asList("th", "to", "te"), mQueriedWords);
+        // The next tap does not have to be at the center of the key.
+        assertEquals("th", getFirstWord(get(newComposedData("th", 10))));
+        assertEquals("to", getFirstWord(get(newComposedData("to", 90))));
+        assertEquals("te", getFirstWord(get(newComposedData("te", 50))));
+        // No results for a key that was not predicted.
+        assertNull(get(newComposedData("ta", 50)));
+    }
+
+    public void testChangedInputInvalidatesPrefetchedResults() throws Exception {
+        prefetch(newComposedData("t", 50), newSuggestionResults("the"),
+                SuggestionPrefetcher.MAX_BUDGET);
+        assertNotNull(get(newComposedData("th", 50)));
+        // The previous tap moved.
+        final ComposedData movedComposedData = newComposedData("th", 50);
+        movedComposedData.mInputPointers.getXCoordinates()[0] += 1;
+        assertNull(get(movedComposedData));
+        // The dictionaries have been updated.
+        assertNull(get(newComposedData("th", 50), 1 /* dictionaryGeneration */));
+        // Another word has been typed.
+        prefetch(newComposedData("o", 50), newSuggestionResults("or"),
+                SuggestionPrefetcher.MAX_BUDGET);
+        assertNull(get(newComposedData("th", 50)));
+        assertNotNull(get(newComposedData("or", 50)));
+        // The input has been reset.
+        mPrefetcher.clear();
+        assertNull(get(newComposedData("or", 50)));
+    }
+
+    public void testPrefetchesAreLimitedByTheBudget() throws Exception {
+        final SuggestionResults results =
+                newSuggestionResults("the", "theory", "to", "tea", "tar", "try");
+        prefetch(newComposedData("t", 50), results, 0 /* budget */);
+        assertTrue(mQueriedWords.isEmpty());
+
+        prefetch(newComposedData("t", 50), results, 2 /* budget */);
+        // The keys of the best suggestions, without duplicates.
+        assertEquals(Arrays.asList("th", "to"), mQueriedWords);
+        assertNull(get(newComposedData("te", 50)));
+
+        mQueriedWords.clear();
+        prefetch(newComposedData("t", 50), results, 10 /* budget */);
+        assertEquals(SuggestionPrefetcher.MAX_BUDGET, mQueriedWords.size());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.android.inputmethod.latin.NgramContext.WordInfo;
+import com.android.inputmethod.latin.common.ComposedData;
+import com.android.inputmethod.latin.common.InputPointers;
+import com.android.inputmethod.latin.settings.SettingsValuesForSuggestion;
+import com.android.inputmethod.latin.utils.SuggestionResults;
+
+@SmallTest
+public class SuggestionResultsCacheTests extends AndroidTestCase {
+    private static final SettingsValuesForSuggestion SETTINGS =
+            new SettingsValuesForSuggestion(false /* blockPotentiallyOffensive */);
+    private static final int INPUT_STYLE = SuggestedWords.INPUT_STYLE_TYPING;
+
+    private static ComposedData createComposedData(final String typedWord, final int[] xs) {
+        final InputPointers inputPointers = new InputPointers(xs.length);
+        for (int i = 0; i < xs.length; ++i) {
+            inputPointers.addPointer(xs[i], 10 /* y */, 0 /* pointerId */, i /* time */);
+        }
+        return new ComposedData(inputPointers, false /* isBatchMode */, typedWord);
+    }
+
+    private static SuggestionResults createResults() {
+        return new SuggestionResults(SuggestedWords.MAX_SUGGESTIONS,
+                false /* isBeginningOfSentence */,
+                false /* firstSuggestionExceedsConfidenceThreshold */);
+    }
+
+    public void testHitAndMiss() {
+        final SuggestionResultsCache cache = new SuggestionResultsCache();
+        final NgramContext ngramContext = new NgramContext(new WordInfo("a"));
+        final SuggestionResults results = createResults();
+        assertNull(cache.get(createComposedData("ab", new int[] { 1, 2 }), ngramContext,
+                null /* keyboardId */, SETTINGS, INPUT_STYLE, 0 /* dictionaryGeneration */));
+        cache.put(createComposedData("ab", new int[] { 1, 2 }), ngramContext,
+                null /* keyboardId */, SETTINGS, INPUT_STYLE, 0 /* dictionaryGeneration */,
+                results);
+        assertSame(results, cache.get(createComposedData("ab", new int[] { 1, 2 }),
+                new NgramContext(new WordInfo("a")), null /* keyboardId */, SETTINGS,
+                INPUT_STYLE, 0 /* dictionaryGeneration */));
+        // Different coordinates.
+        assertNull(cache.get(createComposedData("ab", new int[] { 1, 3 }), ngramContext,
+                null /* keyboardId */, SETTINGS, INPUT_STYLE, 0 /* dictionaryGeneration */));
+        // Different context.
+        assertNull(cache.get(createComposedData("ab", new int[] { 1, 2 }),
+                new NgramContext(new WordInfo("b")), null /* keyboardId */, SETTINGS,
+                INPUT_STYLE, 0 /* dictionaryGeneration */));
+        // Different settings.
+        assertNull(cache.get(createComposedData("ab", new int[] { 1, 2 }), ngramContext,
+                null /* keyboardId */, new SettingsValuesForSuggestion(true), INPUT_STYLE,
+                0 /* dictionaryGeneration */));
+    }
+
+    public void testInputPointersAreCopied() {
+        final SuggestionResultsCache cache = new SuggestionResultsCache();
+        final NgramContext ngramContext = new NgramContext(new WordInfo("a"));
+        final ComposedData composedData = createComposedData("ab", new int[] { 1, 2 });
+        cache.put(composedData, ngramContext, null /* keyboardId */, SETTINGS, INPUT_STYLE,
+                0 /* dictionaryGeneration */, createResults());
+        composedData.mInputPointers.addPointerAt(1, 5, 10, 0, 1);
+        assertNull(cache.get(composedData, ngramContext, null /* keyboardId */, SETTINGS,
+                INPUT_STYLE, 0 /* dictionaryGeneration */));
+    }
+
+    public void testInvalidationByDictionaryGeneration() {
+        final SuggestionResultsCache cache = new SuggestionResultsCache();
+        final NgramContext ngramContext = new NgramContext(new WordInfo("a"));
+        final ComposedData composedData = createComposedData("ab", new int[] { 1, 2 });
+        cache.put(composedData, ngramContext, null /* keyboardId */, SETTINGS, INPUT_STYLE,
+                0 /* dictionaryGeneration */, createResults());
+        assertEquals(1, cache.size());
+        assertNull(cache.get(composedData, ngramContext, null /* keyboardId */, SETTINGS,
+                INPUT_STYLE, 1 /* dictionaryGeneration */));
+        assertEquals(0, cache.size());
+        // Results computed with a stale generation must not be cached.
+        cache.put(composedData, ngramContext, null /* keyboardId */, SETTINGS, INPUT_STYLE,
+                0 /* dictionaryGeneration */, createResults());
+        assertEquals(0, cache.size());
+    }
+
+    public void testIncompleteResultsAreNotCached() {
+        final SuggestionResultsCache cache = new SuggestionResultsCache();
+        final NgramContext ngramContext = new NgramContext(new WordInfo("a"));
+        final ComposedData composedData = createComposedData("ab", new int[] { 1, 2 });
+        final SuggestionResults results = createResults();
+        results.setIncomplete();
+        cache.put(composedData, ngramContext, null /* keyboardId */, SETTINGS, INPUT_STYLE,
+                0 /* dictionaryGeneration */, results);
+        assertEquals(0, cache.size());
+    }
+
+    public void testLruEviction() {
+        final SuggestionResultsCache cache = new SuggestionResultsCache(2 /* maxSize */);
+        final NgramContext ngramContext = new NgramContext(new WordInfo("a"));
+        cache.put(createComposedData("a", new int[] { 1 }), ngramContext, null /* keyboardId */,
+                SETTINGS, INPUT_STYLE, 0 /* dictionaryGeneration */, createResults());
+        cache.put(createComposedData("ab", new int[] { 1, 2 }), ngramContext,
+                null /* keyboardId */, SETTINGS, INPUT_STYLE, 0 /* dictionaryGeneration */,
+                createResults());
+        cache.put(createComposedData("abc", new int[] { 1, 2, 3 }), ngramContext,
+                null /* keyboardId */, SETTINGS, INPUT_STYLE, 0 /* dictionaryGeneration */,
+                createResults());
+        assertEquals(2, cache.size());
+        assertNull(cache.get(createComposedData("a", new int[] { 1 }), ngramContext,
+                null /* keyboardId */, SETTINGS, INPUT_STYLE, 0 /* dictionaryGeneration */));
+    }
+}
@@ -49,6 +49,27 @@ public class InputPointersTests extends AndroidTestCase {
         assertNotSame("times after reset", times, src.getTimes());
     }
 
+    public void testResetWithCapacity() {
+        final InputPointers src = new InputPointers(DEFAULT_CAPACITY);
+        src.addPointer(1, 2, 3, 4);
+        final int[] xCoordinates = src.getXCoordinates();
+
+        src.reset(DEFAULT_CAPACITY * 4);
+        assertEquals("size after reset", 0, src.getPointerSize());
+        assertNotSame("xCoordinates after reset", xCoordinates, src.getXCoordinates());
+        assertEquals("xCoordinates capacity after reset",
+                DEFAULT_CAPACITY * 4, src.getXCoordinates().length);
+        assertEquals("yCoordinates capacity after reset",
+                DEFAULT_CAPACITY * 4, src.getYCoordinates().length);
+        assertEquals("pointerIds capacity after reset",
+                DEFAULT_CAPACITY * 4, src.getPointerIds().length);
+        assertEquals("times capacity after reset", DEFAULT_CAPACITY * 4, src.getTimes().length);
+
+        src.reset(DEFAULT_CAPACITY / 2);
+        assertEquals("xCoordinates capacity after smaller reset",
+                DEFAULT_CAPACITY, src.getXCoordinates().length);
+    }
+
     public void testAdd() {
         final InputPointers src = new InputPointers(DEFAULT_CAPACITY);
         final int limit = src.getXCoordinates().length * 2 + 10;
@@ -314,11 +314,13 @@ public class BinaryDictEncoderUtils {
      *
      * @param ptNodeArray the node array to compute the size of.
      * @param dict the dictionary in which the word/attributes are to be found.
+     * @param wordToPtNodeCache the PtNodes of the words that have already been looked up in dict.
      * @return false if none of the cached addresses inside the node array changed, true otherwise.
      */
     private static boolean computeActualPtNodeArraySize(final PtNodeArray ptNodeArray,
             final FusionDictionary dict,
-            final HashMap<Integer, Integer> codePointToOneByteCodeMap) {
+            final HashMap<Integer, Integer> codePointToOneByteCodeMap,
+            final HashMap<String, PtNode> wordToPtNodeCache) {
         boolean changed = false;
         int size = getPtNodeCountSize(ptNodeArray);
         for (PtNode ptNode : ptNodeArray.mData) {
@@ -338,7 +340,7 @@ public class BinaryDictEncoderUtils {
                 for (WeightedString bigram : ptNode.mBigrams) {
                     final int offset = getOffsetToTargetPtNodeDuringUpdate(ptNodeArray,
                             nodeSize + size + FormatSpec.PTNODE_ATTRIBUTE_FLAGS_SIZE,
-                            FusionDictionary.findWordInTree(dict.mRootNodeArray, bigram.mWord));
+                            findWordInTree(dict, bigram.mWord, wordToPtNodeCache));
                     nodeSize += getByteSize(offset) + FormatSpec.PTNODE_ATTRIBUTE_FLAGS_SIZE;
                 }
             }
@@ -352,6 +354,22 @@ public class BinaryDictEncoderUtils {
         return changed;
     }
 
+    /**
+     * Finds the PtNode of a word, looking it up in the dictionary only the first time.
+     *
+     * The addresses are computed in several passes over all the node arrays, so caching the
+     * PtNodes of the bigram targets saves a tree search per bigram in each pass.
+     */
+    private static PtNode findWordInTree(final FusionDictionary dict, final String word,
+            final HashMap<String, PtNode> wordToPtNodeCache) {
+        PtNode ptNode = wordToPtNodeCache.get(word);
+        if (null == ptNode && !wordToPtNodeCache.containsKey(word)) {
+            ptNode = FusionDictionary.findWordInTree(dict.mRootNodeArray, word);
+            wordToPtNodeCache.put(word, ptNode);
+        }
+        return ptNode;
+    }
+
     /**
      * Initializes the cached addresses of node arrays and their containing nodes from their size.
      *
@@ -415,16 +433,18 @@ public class BinaryDictEncoderUtils {
         MakedictLog.i("Compressing the array addresses. Original size : " + offset);
         MakedictLog.i("(Recursively seen size : " + offset + ")");
 
+        final HashMap<String, PtNode> wordToPtNodeCache = new HashMap<>();
         int passes = 0;
         boolean changesDone = false;
         do {
+            final long passStartTime = System.currentTimeMillis();
             changesDone = false;
             int ptNodeArrayStartOffset = 0;
             for (final PtNodeArray ptNodeArray : flatNodes) {
                 ptNodeArray.mCachedAddressAfterUpdate = ptNodeArrayStartOffset;
                 final int oldNodeArraySize = ptNodeArray.mCachedSize;
                 final boolean changed = computeActualPtNodeArraySize(ptNodeArray, dict,
-                        codePointToOneByteCodeMap);
+                        codePointToOneByteCodeMap, wordToPtNodeCache);
                 final int newNodeArraySize = ptNodeArray.mCachedSize;
                 if (oldNodeArraySize < newNodeArraySize) {
                     throw new RuntimeException("Increased size ?!");
@@ -434,6 +454,8 @@ public class BinaryDictEncoderUtils {
             }
             updatePtNodeArraysCachedAddresses(flatNodes);
             ++passes;
+            MakedictLog.i("Pass " + passes + " : size " + ptNodeArrayStartOffset + " in "
+                    + (System.currentTimeMillis() - passStartTime) + " ms");
             if (passes > MAX_PASSES) throw new RuntimeException("Too many passes - probably a bug");
         } while (changesDone);
 
@@ -681,25 +703,63 @@ public class BinaryDictEncoderUtils {
     }
 
     /**
-     * Dumps a collection of useful statistics about a list of PtNode arrays.
+     * Statistics about the PtNode arrays of a dictionary, once their addresses have been computed.
+     */
+    public static final class DictionaryStatistics {
+        public final int mSize;
+        public final int mPtNodeArrayCount;
+        public final int mPtNodeCount;
+        public final int mFirstTerminalAddress;
+        public final int mLastTerminalAddress;
+        public final int mMaxPtNodesPerArray;
+
+        private DictionaryStatistics(final int size, final int ptNodeArrayCount,
+                final int ptNodeCount, final int firstTerminalAddress,
+                final int lastTerminalAddress, final int maxPtNodesPerArray) {
+            mSize = size;
+            mPtNodeArrayCount = ptNodeArrayCount;
+            mPtNodeCount = ptNodeCount;
+            mFirstTerminalAddress = firstTerminalAddress;
+            mLastTerminalAddress = lastTerminalAddress;
+            mMaxPtNodesPerArray = maxPtNodesPerArray;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics:\n"
+                    + "  Total file size " + mSize + "\n"
+                    + "  " + mPtNodeArrayCount + " node arrays\n"
+                    + "  " + mPtNodeCount + " PtNodes ("
+                            + ((float)mPtNodeCount / mPtNodeArrayCount) + " PtNodes per node)\n"
+                    + "  First terminal at " + mFirstTerminalAddress + "\n"
+                    + "  Last terminal at " + mLastTerminalAddress + "\n"
+                    + "  PtNode stats : max = " + mMaxPtNodesPerArray;
+        }
+    }
+
+    /**
+     * Computes the statistics of a dictionary that has been written by a {@link DictEncoder}.
      *
-     * This prints purely informative stuff, like the total estimated file size, the
-     * number of PtNode arrays, of PtNodes, the repartition of each address size, etc
+     * The addresses of the PtNode arrays are the ones computed by the last encoding of the
+     * dictionary, so this must be called after the dictionary has been written.
      *
-     * @param ptNodeArrays the list of PtNode arrays.
+     * @param dict the dictionary.
+     * @return the statistics of the dictionary.
      */
-    /* package */ static void showStatistics(ArrayList<PtNodeArray> ptNodeArrays) {
+    public static DictionaryStatistics getStatistics(final FusionDictionary dict) {
+        return getStatistics(flattenTree(dict.mRootNodeArray));
+    }
+
+    private static DictionaryStatistics getStatistics(final ArrayList<PtNodeArray> ptNodeArrays) {
         int firstTerminalAddress = Integer.MAX_VALUE;
         int lastTerminalAddress = Integer.MIN_VALUE;
         int size = 0;
         int ptNodes = 0;
         int maxNodes = 0;
-        int maxRuns = 0;
         for (final PtNodeArray ptNodeArray : ptNodeArrays) {
             if (maxNodes < ptNodeArray.mData.size()) maxNodes = ptNodeArray.mData.size();
             for (final PtNode ptNode : ptNodeArray.mData) {
                 ++ptNodes;
-                if (ptNode.mChars.length > maxRuns) maxRuns = ptNode.mChars.length;
                 if (ptNode.isTerminal()) {
                     if (ptNodeArray.mCachedAddressAfterUpdate < firstTerminalAddress)
                         firstTerminalAddress = ptNodeArray.mCachedAddressAfterUpdate;
@@ -711,23 +771,20 @@ public class BinaryDictEncoderUtils {
                 size = ptNodeArray.mCachedAddressAfterUpdate + ptNodeArray.mCachedSize;
             }
         }
-        final int[] ptNodeCounts = new int[maxNodes + 1];
-        final int[] runCounts = new int[maxRuns + 1];
-        for (final PtNodeArray ptNodeArray : ptNodeArrays) {
-            ++ptNodeCounts[ptNodeArray.mData.size()];
-            for (final PtNode ptNode : ptNodeArray.mData) {
-                ++runCounts[ptNode.mChars.length];
-            }
-        }
+        return new DictionaryStatistics(size, ptNodeArrays.size(), ptNodes, firstTerminalAddress,
+                lastTerminalAddress, maxNodes);
+    }
 
-        MakedictLog.i("Statistics:\n"
-                + "  Total file size " + size + "\n"
-                + "  " + ptNodeArrays.size() + " node arrays\n"
-                + "  " + ptNodes + " PtNodes (" + ((float)ptNodes / ptNodeArrays.size())
-                        + " PtNodes per node)\n"
-                + "  First terminal at " + firstTerminalAddress + "\n"
-                + "  Last terminal at " + lastTerminalAddress + "\n"
-                + "  PtNode stats : max = " + maxNodes);
+    /**
+     * Dumps a collection of useful statistics about a list of PtNode arrays.
+     *
+     * This prints purely informative stuff, like the total estimated file size, the
+     * number of PtNode arrays, of PtNodes, the repartition of each address size, etc
+     *
+     * @param ptNodeArrays the list of PtNode arrays.
+     */
+    /* package */ static void showStatistics(ArrayList<PtNodeArray> ptNodeArrays) {
+        MakedictLog.i(getStatistics(ptNodeArrays).toString());
     }
 
     /**
@@ -229,6 +229,10 @@ public final class FusionDictionary implements Iterable<WordProperty> {
 
     public final DictionaryOptions mOptions;
     public final PtNodeArray mRootNodeArray;
+    // Probability infos without historical info are immutable values, so a single instance is
+    // shared by all the words and bigrams with the same probability.
+    private final ProbabilityInfo[] mSharedProbabilityInfos =
+            new ProbabilityInfo[FormatSpec.MAX_TERMINAL_FREQUENCY + 1];
 
     public FusionDictionary(final PtNodeArray rootNodeArray, final DictionaryOptions options) {
         mRootNodeArray = rootNodeArray;
@@ -239,6 +243,40 @@ public final class FusionDictionary implements Iterable<WordProperty> {
         mOptions.mAttributes.put(key, value);
     }
 
+    /**
+     * Returns the shared instance that is equal to the passed probability info, if any.
+     */
+    private ProbabilityInfo getSharedProbabilityInfo(final ProbabilityInfo probabilityInfo) {
+        if (probabilityInfo.hasHistoricalInfo() || probabilityInfo.mProbability < 0
+                || probabilityInfo.mProbability >= mSharedProbabilityInfos.length) {
+            return probabilityInfo;
+        }
+        final ProbabilityInfo sharedProbabilityInfo =
+                mSharedProbabilityInfos[probabilityInfo.mProbability];
+        if (null != sharedProbabilityInfo) {
+            return sharedProbabilityInfo;
+        }
+        mSharedProbabilityInfos[probabilityInfo.mProbability] = probabilityInfo;
+        return probabilityInfo;
+    }
+
+    /**
+     * Releases the memory that has been reserved for growing the node arrays and the bigram
+     * lists. This is worth calling once all the words and bigrams of a large dictionary have
+     * been added, since most node arrays only hold a few PtNodes.
+     */
+    public void trimToSize() {
+        trimToSize(mRootNodeArray);
+    }
+
+    private static void trimToSize(final PtNodeArray ptNodeArray) {
+        ptNodeArray.mData.trimToSize();
+        for (final PtNode ptNode : ptNodeArray.mData) {
+            if (null != ptNode.mBigrams) ptNode.mBigrams.trimToSize();
+            if (null != ptNode.mChildren) trimToSize(ptNode.mChildren);
+        }
+    }
+
     /**
      * Helper method to convert a String to an int array.
      */
@@ -314,7 +352,7 @@ public final class FusionDictionary implements Iterable<WordProperty> {
                 // a cutting point until now. In this case, we need to refresh ptNode.
                 ptNode0 = findWordInTree(mRootNodeArray, word0);
             }
-            ptNode0.addBigram(word1, probabilityInfo);
+            ptNode0.addBigram(word1, getSharedProbabilityInfo(probabilityInfo));
         } else {
             throw new RuntimeException("First word of bigram not found " + word0);
         }
@@ -330,13 +368,14 @@ public final class FusionDictionary implements Iterable<WordProperty> {
      * @param isNotAWord true if this is not a word for spellchecking purposes (shortcut only or so)
      * @param isPossiblyOffensive true if this word is possibly offensive
      */
-    private void add(final int[] word, final ProbabilityInfo probabilityInfo,
+    private void add(final int[] word, final ProbabilityInfo originalProbabilityInfo,
             final boolean isNotAWord, final boolean isPossiblyOffensive) {
-        assert(probabilityInfo.mProbability <= FormatSpec.MAX_TERMINAL_FREQUENCY);
+        assert(originalProbabilityInfo.mProbability <= FormatSpec.MAX_TERMINAL_FREQUENCY);
         if (word.length >= DecoderSpecificConstants.DICTIONARY_MAX_WORD_LENGTH) {
             MakedictLog.w("Ignoring a word that is too long: word.length = " + word.length);
             return;
         }
+        final ProbabilityInfo probabilityInfo = getSharedProbabilityInfo(originalProbabilityInfo);
 
         PtNodeArray currentNodeArray = mRootNodeArray;
         int charIndex = 0;
@@ -476,12 +515,24 @@ public final class FusionDictionary implements Iterable<WordProperty> {
      * Finds the insertion index of a character within a node array.
      */
     private static int findInsertionIndex(final PtNodeArray nodeArray, int character) {
+        // This is called for each character of each word that is added or searched, so the
+        // binary search is done on the first characters directly instead of allocating a
+        // reference PtNode for Collections#binarySearch.
         final ArrayList<PtNode> data = nodeArray.mData;
-        final PtNode reference = new PtNode(new int[] { character },
-                null /* bigrams */, null /* probabilityInfo */,
-                false /* isNotAWord */, false /* isPossiblyOffensive */);
-        int result = Collections.binarySearch(data, reference, PTNODE_COMPARATOR);
-        return result >= 0 ? result : -result - 1;
+        int low = 0;
+        int high = data.size() - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int midCharacter = data.get(mid).mChars[0];
+            if (midCharacter < character) {
+                low = mid + 1;
+            } else if (midCharacter > character) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return low;
     }
 
     /**
@@ -99,6 +99,7 @@ public class Ver4DictDecoder extends AbstractDictDecoder {
             }
         }
         binaryDictionary.close();
+        fusionDict.trimToSize();
         return fusionDict;
     }
 }
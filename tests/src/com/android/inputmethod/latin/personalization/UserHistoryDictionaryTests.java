@@ -21,9 +21,12 @@ import android.test.suitebuilder.annotation.LargeTest;
 import android.util.Log;
 
 import com.android.inputmethod.latin.ExpandableBinaryDictionary;
+import com.android.inputmethod.latin.NgramContext;
+import com.android.inputmethod.latin.NgramContext.WordInfo;
 import com.android.inputmethod.latin.utils.BinaryDictionaryUtils;
 
 import java.io.File;
+import java.util.List;
 import java.util.Locale;
 import java.util.Random;
 
@@ -210,4 +213,41 @@ public class UserHistoryDictionaryTests extends AndroidTestCase {
                 numberOfWords, random, true /* checksContents */, mCurrentTime));
         assertDictionaryExists(dict, dictFile);
     }
-}
\ No newline at end of file
+
+    public void testBufferedLearningMatchesUnbufferedLearning() {
+        final UserHistoryDictionary bufferedDict = PersonalizationHelper.getUserHistoryDictionary(
+                getContext(), UserHistoryDictionaryTestsHelper.getDummyLocale("buffered"),
+                TEST_ACCOUNT);
+        final UserHistoryDictionary unbufferedDict =
+                PersonalizationHelper.getUserHistoryDictionary(getContext(),
+                        UserHistoryDictionaryTestsHelper.getDummyLocale("unbuffered"),
+                        TEST_ACCOUNT);
+        clearHistory(bufferedDict);
+        clearHistory(unbufferedDict);
+
+        // Few distinct words so that the buffer merges many of the events, and sometimes invalid
+        // ones, which native code does not count the first time they are seen.
+        final Random random = new Random(123456);
+        final List<String> words = UserHistoryDictionaryTestsHelper.generateWords(20, random);
+        NgramContext ngramContext = NgramContext.BEGINNING_OF_SENTENCE;
+        for (int i = 0; i < 500; i++) {
+            final String word = words.get(random.nextInt(words.size()));
+            final boolean isValid = random.nextInt(4) != 0;
+            UserHistoryDictionary.addToDictionary(bufferedDict, ngramContext, word, isValid,
+                    mCurrentTime);
+            // Calling the ExpandableBinaryDictionary method directly bypasses the buffer.
+            unbufferedDict.updateEntriesForWord(ngramContext, word, isValid, 1 /* count */,
+                    mCurrentTime);
+            ngramContext = (i % 10 == 9) ? NgramContext.BEGINNING_OF_SENTENCE
+                    : new NgramContext(new WordInfo(word));
+        }
+        bufferedDict.waitAllTasksForTests();
+        unbufferedDict.waitAllTasksForTests();
+        for (final String word : words) {
+            assertEquals(word, unbufferedDict.isInDictionary(word),
+                    bufferedDict.isInDictionary(word));
+            assertEquals(word, unbufferedDict.getMaxFrequencyOfExactMatches(word),
+                    bufferedDict.getMaxFrequencyOfExactMatches(word));
+        }
+    }
+}
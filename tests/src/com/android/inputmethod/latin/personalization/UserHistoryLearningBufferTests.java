@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.personalization;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.android.inputmethod.latin.NgramContext;
+import com.android.inputmethod.latin.NgramContext.WordInfo;
+import com.android.inputmethod.latin.common.StringUtils;
+import com.android.inputmethod.latin.utils.WordInputEventForPersonalization;
+
+import java.util.ArrayList;
+
+@SmallTest
+public class UserHistoryLearningBufferTests extends AndroidTestCase {
+    public void testMergeEventsForSameWordAndContext() {
+        final UserHistoryLearningBuffer buffer = new UserHistoryLearningBuffer(10);
+        final NgramContext ngramContext = new NgramContext(new WordInfo("a"));
+        assertFalse(buffer.add(ngramContext, "b", true /* isValid */, 100 /* timestamp */));
+        assertFalse(buffer.add(new NgramContext(new WordInfo("a")), "b", true /* isValid */,
+                200 /* timestamp */));
+        assertFalse(buffer.add(ngramContext, "c", true /* isValid */, 300 /* timestamp */));
+        assertFalse(buffer.add(ngramContext, "b", false /* isValid */, 400 /* timestamp */));
+        assertEquals(3, buffer.size());
+
+        // The merged entry is returned as one event per occurrence.
+        final ArrayList<WordInputEventForPersonalization> inputEvents = buffer.drain();
+        assertEquals(0, buffer.size());
+        assertEquals(4, inputEvents.size());
+        for (int i = 0; i < 2; ++i) {
+            final WordInputEventForPersonalization merged = inputEvents.get(i);
+            assertEquals("b", StringUtils.getStringFromNullTerminatedCodePointArray(
+                    merged.mTargetWord));
+            assertTrue(merged.mIsValid);
+            assertEquals(1, merged.mCount);
+            assertEquals(200, merged.mTimestamp);
+        }
+        assertEquals("c", StringUtils.getStringFromNullTerminatedCodePointArray(
+                inputEvents.get(2).mTargetWord));
+        assertEquals(1, inputEvents.get(2).mCount);
+        assertFalse(inputEvents.get(3).mIsValid);
+    }
+
+    public void testFullBuffer() {
+        final UserHistoryLearningBuffer buffer = new UserHistoryLearningBuffer(2);
+        final NgramContext ngramContext = NgramContext.EMPTY_PREV_WORDS_INFO;
+        assertFalse(buffer.add(ngramContext, "a", true /* isValid */, 0 /* timestamp */));
+        assertFalse(buffer.add(ngramContext, "a", true /* isValid */, 0 /* timestamp */));
+        assertTrue(buffer.add(ngramContext, "b", true /* isValid */, 0 /* timestamp */));
+        buffer.drain();
+        assertFalse(buffer.add(ngramContext, "b", true /* isValid */, 0 /* timestamp */));
+    }
+}
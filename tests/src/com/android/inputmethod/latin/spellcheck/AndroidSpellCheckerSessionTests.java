@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.spellcheck;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+import android.view.textservice.SentenceSuggestionsInfo;
+import android.view.textservice.SuggestionsInfo;
+import android.view.textservice.TextInfo;
+
+import com.android.inputmethod.latin.NgramContext;
+import com.android.inputmethod.latin.spellcheck.SentenceLevelAdapter.SentenceTextInfoParams;
+import com.android.inputmethod.latin.spellcheck.SentenceLevelAdapter.SentenceWordItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for the batch checking of {@link AndroidSpellCheckerSession}.
+ */
+@SmallTest
+public class AndroidSpellCheckerSessionTests extends AndroidTestCase {
+    private static final int SUGGESTIONS_LIMIT = 5;
+    private static final int THREAD_COUNT = 4;
+    private static final int SENTENCE_COOKIE = 42;
+
+    private ExecutorService mExecutor;
+
+    /**
+     * Suggests the word with its previous word, and records the words it checked.
+     */
+    private static class FakeWordChecker implements AndroidSpellCheckerSession.WordChecker {
+        public final List<String> mCheckedWords =
+                Collections.synchronizedList(new ArrayList<String>());
+        public final List<Thread> mThreads = Collections.synchronizedList(new ArrayList<Thread>());
+        public final AtomicInteger mMaxConcurrentChecks = new AtomicInteger(0);
+        private final AtomicInteger mConcurrentChecks = new AtomicInteger(0);
+
+        @Override
+        public SuggestionsInfo getSuggestions(final TextInfo textInfo,
+                final NgramContext ngramContext, final int suggestionsLimit) {
+            final int concurrentChecks = mConcurrentChecks.incrementAndGet();
+            try {
+                int maxConcurrentChecks;
+                do {
+                    maxConcurrentChecks = mMaxConcurrentChecks.get();
+                } while (concurrentChecks > maxConcurrentChecks && !mMaxConcurrentChecks
+                        .compareAndSet(maxConcurrentChecks, concurrentChecks));
+                final String word = textInfo.getText();
+                mCheckedWords.add(word);
+                mThreads.add(Thread.currentThread());
+                // Lets the chunks finish out of order.
+                sleep(word.length() % 3);
+                return new SuggestionsInfo(SuggestionsInfo.RESULT_ATTR_LOOKS_LIKE_TYPO,
+                        new String[] { getSuggestion(ngramContext.getNthPrevWord(1), word) });
+            } finally {
+                mConcurrentChecks.decrementAndGet();
+            }
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String getSuggestion(final CharSequence prevWord, final String word) {
+        return (null == prevWord ? "" : prevWord + "-") + word;
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mExecutor = Executors.newFixedThreadPool(THREAD_COUNT);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mExecutor.shutdownNow();
+        mExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        super.tearDown();
+    }
+
+    /**
+     * Returns the split words of a sentence made of the words separated by spaces. Each word has
+     * its own sequence, which the results are matched with.
+     */
+    private static SentenceTextInfoParams newSentence(final String... words) {
+        final StringBuilder text = new StringBuilder();
+        final ArrayList<SentenceWordItem> items = new ArrayList<>();
+        for (int i = 0; i < words.length; ++i) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            final int start = text.length();
+            text.append(words[i]);
+            items.add(new SentenceWordItem(new TextInfo(words[i], 0 /* cookie */, i /* sequence */),
+                    start, text.length()));
+        }
+        return new SentenceTextInfoParams(
+                new TextInfo(text.toString(), SENTENCE_COOKIE, 0 /* sequence */), items);
+    }
+
+    private static String[] newWords(final String prefix, final int count) {
+        final String[] words = new String[count];
+        for (int i = 0; i < count; ++i) {
+            words[i] = prefix + i;
+        }
+        return words;
+    }
+
+    private SentenceSuggestionsInfo[] check(final AndroidSpellCheckerSession.WordChecker checker,
+            final int maxChunkCount, final SentenceTextInfoParams... sentences) {
+        return AndroidSpellCheckerSession.getSuggestionsOfSentences(sentences, SUGGESTIONS_LIMIT,
+                checker, mExecutor, maxChunkCount);
+    }
+
+    /**
+     * Checks that the results of the sentence are the suggestions of its words, in order.
+     */
+    private static void assertSentence(final SentenceSuggestionsInfo result,
+            final String... words) {
+        assertEquals(words.length, result.getSuggestionsCount());
+        int offset = 0;
+        String prevWord = null;
+        for (int i = 0; i < words.length; ++i) {
+            assertEquals(offset, result.getOffsetAt(i));
+            assertEquals(words[i].length(), result.getLengthAt(i));
+            final SuggestionsInfo suggestionsInfo = result.getSuggestionsInfoAt(i);
+            assertEquals(SENTENCE_COOKIE, suggestionsInfo.getCookie());
+            assertEquals(1, suggestionsInfo.getSuggestionsCount());
+            assertEquals(getSuggestion(prevWord, words[i]), suggestionsInfo.getSuggestionAt(0));
+            offset += words[i].length() + 1;
+            prevWord = words[i];
+        }
+    }
+
+    public void testDuplicateWordsAreCheckedOnce() {
+        final FakeWordChecker checker = new FakeWordChecker();
+        final String[] firstWords = new String[] { "a", "b", "a", "b", "c" };
+        final String[] secondWords = new String[] { "a", "b", "b" };
+        final SentenceSuggestionsInfo[] results = check(checker, 1 /* maxChunkCount */,
+                newSentence(firstWords), newSentence(secondWords));
+        assertEquals(2, results.length);
+        assertSentence(results[0], firstWords);
+        assertSentence(results[1], secondWords);
+        // The same word after another previous word is checked again.
+        assertEquals(Arrays.asList("a", "b", "a", "c", "b"), checker.mCheckedWords);
+        // Each word gets its own copy of the shared result.
+        assertNotSame(results[0].getSuggestionsInfoAt(0), results[1].getSuggestionsInfoAt(0));
+    }
+
+    public void testResultsAreInOrder() {
+        final FakeWordChecker checker = new FakeWordChecker();
+        final String[] firstWords = newWords("first", 50);
+        final String[] secondWords = newWords("second", 30);
+        final SentenceSuggestionsInfo[] results = check(checker, THREAD_COUNT,
+                newSentence(firstWords), newSentence(secondWords));
+        assertEquals(2, results.length);
+        assertSentence(results[0], firstWords);
+        assertSentence(results[1], secondWords);
+        assertEquals(firstWords.length + secondWords.length, checker.mCheckedWords.size());
+        assertTrue(new HashSet<>(checker.mThreads).size() > 1);
+    }
+
+    public void testMixedCachedAndUncachedWords() {
+        final SpellCheckResultCache cache = new SpellCheckResultCache(1024 * 1024);
+        final FakeWordChecker dictionaryChecker = new FakeWordChecker();
+        // Checks the cache first, like AndroidWordLevelSpellCheckerSession.
+        final AndroidSpellCheckerSession.WordChecker checker =
+                new AndroidSpellCheckerSession.WordChecker() {
+                    @Override
+                    public SuggestionsInfo getSuggestions(final TextInfo textInfo,
+                            final NgramContext ngramContext, final int suggestionsLimit) {
+                        final String word = textInfo.getText();
+                        final CharSequence prevWord = ngramContext.getNthPrevWord(1);
+                        final String prevWordString =
+                                null == prevWord ? null : prevWord.toString();
+                        final SuggestionsInfo cachedSuggestionsInfo = cache.get(Locale.US, word,
+                                prevWordString, suggestionsLimit, 0 /* dictionaryGeneration */);
+                        if (null != cachedSuggestionsInfo) {
+                            return cachedSuggestionsInfo;
+                        }
+                        final SuggestionsInfo suggestionsInfo =
+                                dictionaryChecker.getSuggestions(textInfo, ngramContext,
+                                        suggestionsLimit);
+                        cache.putResult(Locale.US, word, prevWordString, suggestionsLimit,
+                                0 /* dictionaryGeneration */, suggestionsInfo);
+                        return suggestionsInfo;
+                    }
+                };
+        final String[] words = newWords("word", 40);
+        // The even words have been checked before.
+        final ArrayList<String> uncachedWords = new ArrayList<>();
+        for (int i = 0; i < words.length; ++i) {
+            final String prevWord = (0 == i) ? null : words[i - 1];
+            if (0 == i % 2) {
+                cache.putResult(Locale.US, words[i], prevWord, SUGGESTIONS_LIMIT,
+                        0 /* dictionaryGeneration */, new SuggestionsInfo(
+                                SuggestionsInfo.RESULT_ATTR_LOOKS_LIKE_TYPO,
+                                new String[] { getSuggestion(prevWord, words[i]) }));
+            } else {
+                uncachedWords.add(words[i]);
+            }
+        }
+        final SentenceSuggestionsInfo[] results =
+                check(checker, THREAD_COUNT, newSentence(words));
+        assertEquals(1, results.length);
+        assertSentence(results[0], words);
+        final ArrayList<String> checkedWords = new ArrayList<>(dictionaryChecker.mCheckedWords);
+        Collections.sort(checkedWords);
+        Collections.sort(uncachedWords);
+        assertEquals(uncachedWords, checkedWords);
+
+        // All the words are cached now.
+        dictionaryChecker.mCheckedWords.clear();
+        assertSentence(check(checker, THREAD_COUNT, newSentence(words))[0], words);
+        assertTrue(dictionaryChecker.mCheckedWords.isEmpty());
+    }
+
+    public void testConcurrentChecksAreLimited() {
+        final FakeWordChecker checker = new FakeWordChecker();
+        final String[] words = newWords("word", 100);
+        assertSentence(check(checker, 2 /* maxChunkCount */, newSentence(words))[0], words);
+        assertTrue(checker.mMaxConcurrentChecks.get() <= 2);
+        assertTrue(new HashSet<>(checker.mThreads).size() <= 2);
+
+        // A single chunk is checked on the calling thread.
+        final FakeWordChecker singleChunkChecker = new FakeWordChecker();
+        assertSentence(check(singleChunkChecker, 1 /* maxChunkCount */, newSentence(words))[0],
+                words);
+        assertEquals(Collections.singleton(Thread.currentThread()),
+                new HashSet<>(singleChunkChecker.mThreads));
+    }
+
+    public void testUnavailableSuggestionsArePreserved() {
+        final AndroidSpellCheckerSession.WordChecker checker =
+                new AndroidSpellCheckerSession.WordChecker() {
+                    @Override
+                    public SuggestionsInfo getSuggestions(final TextInfo textInfo,
+                            final NgramContext ngramContext, final int suggestionsLimit) {
+                        return new SuggestionsInfo(0 /* suggestionsAttributes */,
+                                null /* suggestions */);
+                    }
+                };
+        final SentenceSuggestionsInfo[] results =
+                check(checker, 1 /* maxChunkCount */, newSentence("a", "b"));
+        assertEquals(-1, results[0].getSuggestionsInfoAt(0).getSuggestionsCount());
+        assertEquals(-1, results[0].getSuggestionsInfoAt(1).getSuggestionsCount());
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.spellcheck;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+import android.view.textservice.SuggestionsInfo;
+
+import java.util.HashMap;
+import java.util.Locale;
+
+@SmallTest
+public class SpellCheckResultCacheTests extends AndroidTestCase {
+    private static final int SUGGESTIONS_LIMIT = 5;
+    private static final int TYPO_FLAGS = SuggestionsInfo.RESULT_ATTR_LOOKS_LIKE_TYPO;
+
+    // The dictionary generation of each locale, 0 if not set.
+    private final HashMap<Locale, Long> mDictionaryGenerations = new HashMap<>();
+
+    private long getDictionaryGeneration(final Locale locale) {
+        final Long dictionaryGeneration = mDictionaryGenerations.get(locale);
+        return null == dictionaryGeneration ? 0 : dictionaryGeneration;
+    }
+
+    private static SuggestionsInfo createTypo(final String... suggestions) {
+        return new SuggestionsInfo(TYPO_FLAGS, suggestions);
+    }
+
+    public void testContextFreeResult() {
+        final SpellCheckResultCache cache = new SpellCheckResultCache(1024 /* maxSizeInBytes */);
+        assertNull(cache.get(Locale.US, "word", null /* prevWord */, SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.US)));
+        cache.putContextFreeResult(Locale.US, "word", 0 /* dictionaryGeneration */,
+                AndroidSpellCheckerService.getInDictEmptySuggestions());
+        final SuggestionsInfo result = cache.get(Locale.US, "word", "previous",
+                SUGGESTIONS_LIMIT + 1, getDictionaryGeneration(Locale.US));
+        assertNotNull(result);
+        assertEquals(SuggestionsInfo.RESULT_ATTR_IN_THE_DICTIONARY,
+                result.getSuggestionsAttributes());
+        // Different locale.
+        assertNull(cache.get(Locale.FRANCE, "word", null /* prevWord */, SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.FRANCE)));
+    }
+
+    public void testContextualResult() {
+        final SpellCheckResultCache cache = new SpellCheckResultCache(1024 /* maxSizeInBytes */);
+        cache.get(Locale.US, "wrod", "a", SUGGESTIONS_LIMIT, getDictionaryGeneration(Locale.US));
+        cache.putResult(Locale.US, "wrod", "a", SUGGESTIONS_LIMIT, 0 /* dictionaryGeneration */,
+                createTypo("word", "wood"));
+        final SuggestionsInfo result = cache.get(Locale.US, "wrod", "a", SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.US));
+        assertNotNull(result);
+        assertEquals(TYPO_FLAGS, result.getSuggestionsAttributes());
+        assertEquals(2, result.getSuggestionsCount());
+        assertEquals("word", result.getSuggestionAt(0));
+        // Different previous word.
+        assertNull(cache.get(Locale.US, "wrod", "b", SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.US)));
+        // Different limit.
+        assertNull(cache.get(Locale.US, "wrod", "a", SUGGESTIONS_LIMIT + 1,
+                getDictionaryGeneration(Locale.US)));
+        cache.putResult(Locale.US, "wrod", "b", SUGGESTIONS_LIMIT, 0 /* dictionaryGeneration */,
+                createTypo("wood"));
+        assertNotNull(cache.get(Locale.US, "wrod", "a", SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.US)));
+        assertNotNull(cache.get(Locale.US, "wrod", "b", SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.US)));
+    }
+
+    public void testResultsAreNotShared() {
+        final SpellCheckResultCache cache = new SpellCheckResultCache(1024 /* maxSizeInBytes */);
+        cache.putContextFreeResult(Locale.US, "word", 0 /* dictionaryGeneration */,
+                AndroidSpellCheckerService.getInDictEmptySuggestions());
+        final SuggestionsInfo result = cache.get(Locale.US, "word", null /* prevWord */,
+                SUGGESTIONS_LIMIT, getDictionaryGeneration(Locale.US));
+        result.setCookieAndSequence(1 /* cookie */, 2 /* sequence */);
+        final SuggestionsInfo otherResult = cache.get(Locale.US, "word", null /* prevWord */,
+                SUGGESTIONS_LIMIT, getDictionaryGeneration(Locale.US));
+        assertNotSame(result, otherResult);
+        assertEquals(0, otherResult.getCookie());
+    }
+
+    public void testDictionaryGenerationChange() {
+        final SpellCheckResultCache cache = new SpellCheckResultCache(1024 /* maxSizeInBytes */);
+        cache.putContextFreeResult(Locale.US, "word", 0 /* dictionaryGeneration */,
+                AndroidSpellCheckerService.getInDictEmptySuggestions());
+        mDictionaryGenerations.put(Locale.US, 1L);
+        assertNull(cache.get(Locale.US, "word", null /* prevWord */, SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.US)));
+        assertEquals(0, cache.getWordCount());
+        // A result computed before the change is not cached.
+        cache.putContextFreeResult(Locale.US, "word", 0 /* dictionaryGeneration */,
+                AndroidSpellCheckerService.getInDictEmptySuggestions());
+        assertEquals(0, cache.getWordCount());
+    }
+
+    public void testLocalesAtDifferentGenerations() {
+        final SpellCheckResultCache cache = new SpellCheckResultCache(1024 /* maxSizeInBytes */);
+        mDictionaryGenerations.put(Locale.US, 3L);
+        mDictionaryGenerations.put(Locale.FRANCE, 7L);
+        cache.get(Locale.US, "word", null /* prevWord */, SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.US));
+        cache.putContextFreeResult(Locale.US, "word", 3 /* dictionaryGeneration */,
+                AndroidSpellCheckerService.getInDictEmptySuggestions());
+        cache.get(Locale.FRANCE, "mot", null /* prevWord */, SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.FRANCE));
+        cache.putContextFreeResult(Locale.FRANCE, "mot", 7 /* dictionaryGeneration */,
+                AndroidSpellCheckerService.getInDictEmptySuggestions());
+        // Looking up one locale does not drop the results of the other one.
+        for (int i = 0; i < 2; ++i) {
+            assertNotNull(cache.get(Locale.US, "word", null /* prevWord */, SUGGESTIONS_LIMIT,
+                    getDictionaryGeneration(Locale.US)));
+            assertNotNull(cache.get(Locale.FRANCE, "mot", null /* prevWord */,
+                    SUGGESTIONS_LIMIT, getDictionaryGeneration(Locale.FRANCE)));
+        }
+        assertEquals(2, cache.getWordCount());
+
+        // A result of a locale computed with the generation of the other one is not cached.
+        cache.putContextFreeResult(Locale.US, "other", 7 /* dictionaryGeneration */,
+                AndroidSpellCheckerService.getInDictEmptySuggestions());
+        assertEquals(2, cache.getWordCount());
+
+        // Updating the dictionaries of a locale only drops its own results.
+        mDictionaryGenerations.put(Locale.US, 4L);
+        assertNull(cache.get(Locale.US, "word", null /* prevWord */, SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.US)));
+        assertNotNull(cache.get(Locale.FRANCE, "mot", null /* prevWord */, SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.FRANCE)));
+        assertEquals(1, cache.getWordCount());
+    }
+
+    public void testResultComputedBeforeAnUpdateIsNotCached() {
+        final SpellCheckResultCache cache = new SpellCheckResultCache(1024 /* maxSizeInBytes */);
+        // A lookup read generation 1 after the dictionaries were updated, while a result was
+        // being computed with generation 0.
+        mDictionaryGenerations.put(Locale.US, 1L);
+        assertNull(cache.get(Locale.US, "word", null /* prevWord */, SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.US)));
+        cache.putContextFreeResult(Locale.US, "word", 0 /* dictionaryGeneration */,
+                AndroidSpellCheckerService.getInDictEmptySuggestions());
+        assertEquals(0, cache.getWordCount());
+        cache.putContextFreeResult(Locale.US, "word", 1 /* dictionaryGeneration */,
+                AndroidSpellCheckerService.getInDictEmptySuggestions());
+        assertNotNull(cache.get(Locale.US, "word", null /* prevWord */, SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.US)));
+    }
+
+    public void testUnavailableSuggestionsArePreserved() {
+        final SpellCheckResultCache cache = new SpellCheckResultCache(1024 /* maxSizeInBytes */);
+        cache.putResult(Locale.US, "wrod", "a", SUGGESTIONS_LIMIT, 0 /* dictionaryGeneration */,
+                new SuggestionsInfo(TYPO_FLAGS, null /* suggestions */));
+        final SuggestionsInfo result = cache.get(Locale.US, "wrod", "a", SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.US));
+        assertNotNull(result);
+        assertEquals(-1, result.getSuggestionsCount());
+        assertFalse(cache.hasSuggestions(Locale.US, "wrod"));
+    }
+
+    public void testHasSuggestions() {
+        final SpellCheckResultCache cache = new SpellCheckResultCache(1024 /* maxSizeInBytes */);
+        cache.putResult(Locale.US, "wrod", "a", SUGGESTIONS_LIMIT, 0 /* dictionaryGeneration */,
+                createTypo("word"));
+        cache.putResult(Locale.US, "xqz", "a", SUGGESTIONS_LIMIT, 0 /* dictionaryGeneration */,
+                createTypo());
+        cache.putContextFreeResult(Locale.US, "word", 0 /* dictionaryGeneration */,
+                AndroidSpellCheckerService.getInDictEmptySuggestions());
+        assertTrue(cache.hasSuggestions(Locale.US, "wrod"));
+        assertFalse(cache.hasSuggestions(Locale.US, "xqz"));
+        assertFalse(cache.hasSuggestions(Locale.US, "word"));
+        assertFalse(cache.hasSuggestions(Locale.US, "unknown"));
+    }
+
+    public void testSizeIsBounded() {
+        final SpellCheckResultCache cache = new SpellCheckResultCache(1024 /* maxSizeInBytes */);
+        for (int i = 0; i < 100; ++i) {
+            cache.putResult(Locale.US, "word" + i, null /* prevWord */, SUGGESTIONS_LIMIT,
+                    0 /* dictionaryGeneration */, createTypo("suggestion" + i));
+        }
+        assertTrue(cache.getWordCount() < 100);
+        // The most recent words are kept.
+        assertNotNull(cache.get(Locale.US, "word99", null /* prevWord */, SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.US)));
+        assertNull(cache.get(Locale.US, "word0", null /* prevWord */, SUGGESTIONS_LIMIT,
+                getDictionaryGeneration(Locale.US)));
+    }
+}
@@ -20,7 +20,11 @@ import android.test.AndroidTestCase;
 import android.test.suitebuilder.annotation.MediumTest;
 import android.util.Log;
 
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -54,4 +58,121 @@ public class ExecutorUtilsTests extends AndroidTestCase {
 
         assertEquals(NUM_OF_TASKS, v.get());
     }
+
+    public void testSerialExecutorKeepsOrderAcrossLanes() throws InterruptedException {
+        final String[] lanes = new String[] {
+                ExecutorUtils.DICTIONARY_LOADING,
+                ExecutorUtils.DICTIONARY_WRITE,
+                ExecutorUtils.DICTIONARY_MAINTENANCE };
+        final ExecutorUtils.SerialExecutor serialExecutor = new ExecutorUtils.SerialExecutor();
+        final ArrayList<Integer> order = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(NUM_OF_TASKS);
+        for (int i = 0; i < NUM_OF_TASKS; ++i) {
+            final int index = i;
+            serialExecutor.execute(lanes[i % lanes.length], new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (order) {
+                        order.add(index);
+                    }
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(DELAY_FOR_WAITING_TASKS_MILLISECONDS, TimeUnit.MILLISECONDS));
+        synchronized (order) {
+            for (int i = 0; i < NUM_OF_TASKS; ++i) {
+                assertEquals(i, (int) order.get(i));
+            }
+        }
+    }
+
+    public void testLaneStats() throws InterruptedException {
+        final String lane = ExecutorUtils.DICTIONARY_MAINTENANCE;
+        final long executedTaskCount = ExecutorUtils.getLaneStats(lane).mExecutedTaskCount;
+        final CountDownLatch latch = new CountDownLatch(NUM_OF_TASKS);
+        final ExecutorService executor = ExecutorUtils.getBackgroundExecutor(lane);
+        for (int i = 0; i < NUM_OF_TASKS; ++i) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(DELAY_FOR_WAITING_TASKS_MILLISECONDS, TimeUnit.MILLISECONDS));
+        assertTrue(ExecutorUtils.getLaneStats(lane).mExecutedTaskCount
+                >= executedTaskCount + NUM_OF_TASKS);
+    }
+
+    public void testSerialExecutorSkipsRejectedTask() throws InterruptedException {
+        final ExecutorUtils.SerialExecutor serialExecutor = new ExecutorUtils.SerialExecutor();
+        final ScheduledExecutorService shutDownExecutor = Executors.newScheduledThreadPool(1);
+        shutDownExecutor.shutdown();
+        final AtomicInteger rejectedTaskRunCount = new AtomicInteger(0);
+        ExecutorUtils.setExecutorServiceForTests(shutDownExecutor);
+        try {
+            serialExecutor.execute(ExecutorUtils.DICTIONARY_WRITE, new Runnable() {
+                @Override
+                public void run() {
+                    rejectedTaskRunCount.incrementAndGet();
+                }
+            });
+        } finally {
+            ExecutorUtils.setExecutorServiceForTests(null);
+        }
+        final CountDownLatch latch = new CountDownLatch(1);
+        serialExecutor.execute(ExecutorUtils.DICTIONARY_WRITE, new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(DELAY_FOR_WAITING_TASKS_MILLISECONDS, TimeUnit.MILLISECONDS));
+        assertEquals(0, rejectedTaskRunCount.get());
+    }
+
+    public void testSerialExecutorDrainsAfterKill() throws InterruptedException {
+        final String killedLane = ExecutorUtils.DICTIONARY_MAINTENANCE;
+        // Keep the only thread of the lane busy so that the next task stays in its queue.
+        final CountDownLatch blockerStarted = new CountDownLatch(1);
+        ExecutorUtils.getBackgroundExecutor(killedLane).execute(new Runnable() {
+            @Override
+            public void run() {
+                blockerStarted.countDown();
+                try {
+                    Thread.sleep(DELAY_FOR_WAITING_TASKS_MILLISECONDS * 10);
+                } catch (final InterruptedException e) {
+                    // Killed.
+                }
+            }
+        });
+        assertTrue(blockerStarted.await(DELAY_FOR_WAITING_TASKS_MILLISECONDS,
+                TimeUnit.MILLISECONDS));
+
+        final ExecutorUtils.SerialExecutor serialExecutor = new ExecutorUtils.SerialExecutor();
+        final AtomicInteger killedTaskRunCount = new AtomicInteger(0);
+        final CountDownLatch latch = new CountDownLatch(2);
+        serialExecutor.execute(killedLane, new Runnable() {
+            @Override
+            public void run() {
+                killedTaskRunCount.incrementAndGet();
+            }
+        });
+        serialExecutor.execute(ExecutorUtils.DICTIONARY_WRITE, new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+        ExecutorUtils.killTasks(killedLane);
+        serialExecutor.execute(killedLane, new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(DELAY_FOR_WAITING_TASKS_MILLISECONDS, TimeUnit.MILLISECONDS));
+        assertEquals(0, killedTaskRunCount.get());
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.utils;
+
+import android.test.AndroidTestCase;
+import android.test.suitebuilder.annotation.SmallTest;
+
+import com.android.inputmethod.latin.SuggestedWords.SuggestedWordInfo;
+import com.android.inputmethod.latin.define.ProductionFlags;
+
+@SmallTest
+public class SuggestionResultsTests extends AndroidTestCase {
+    private static SuggestedWordInfo createWordInfo(final String word, final int score) {
+        return new SuggestedWordInfo(word, "" /* prevWordsContext */, score,
+                SuggestedWordInfo.KIND_CORRECTION,
+                null /* sourceDict */,
+                SuggestedWordInfo.NOT_AN_INDEX /* indexOfTouchPointOfSecondWord */,
+                SuggestedWordInfo.NOT_A_CONFIDENCE /* autoCommitFirstWordConfidence */);
+    }
+
+    public void testMinScoreToAdd() {
+        if (ProductionFlags.INCLUDE_RAW_SUGGESTIONS) {
+            return;
+        }
+        final SuggestionResults results = new SuggestionResults(2 /* capacity */,
+                false /* isBeginningOfSentence */,
+                false /* firstSuggestionExceedsConfidenceThreshold */);
+        assertEquals(Integer.MIN_VALUE, results.getMinScoreToAdd());
+        results.add(createWordInfo("a", 10));
+        assertEquals(Integer.MIN_VALUE, results.getMinScoreToAdd());
+        results.add(createWordInfo("b", 20));
+        assertEquals(10, results.getMinScoreToAdd());
+
+        // Anything below the minimum score is dropped by the bound anyway.
+        assertFalse(results.add(createWordInfo("c", 9)));
+        // A suggestion with the minimum score may still be added.
+        assertTrue(results.add(createWordInfo("", 10)));
+        results.add(createWordInfo("d", 30));
+        assertEquals(20, results.getMinScoreToAdd());
+    }
+}
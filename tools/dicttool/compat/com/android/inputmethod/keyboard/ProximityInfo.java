@@ -17,7 +17,40 @@
 package com.android.inputmethod.keyboard;
 
 public class ProximityInfo {
-    public long getNativeProximityInfo() { return 0l; }
+    // Must be equal to MAX_PROXIMITY_CHARS_SIZE in native/jni/src/defines.h
+    public static final int MAX_PROXIMITY_CHARS_SIZE = 16;
+
+    private long mNativeProximityInfo;
+
+    public ProximityInfo() {
+        mNativeProximityInfo = 0;
+    }
+
+    /**
+     * Creates native proximity info from an explicit key layout. Dicttool has no keyboard
+     * resources, so the caller computes the layout and the proximity grid itself.
+     */
+    public ProximityInfo(final int displayWidth, final int displayHeight, final int gridWidth,
+            final int gridHeight, final int mostCommonKeyWidth, final int mostCommonKeyHeight,
+            final int[] proximityCharsArray, final int[] keyXCoordinates,
+            final int[] keyYCoordinates, final int[] keyWidths, final int[] keyHeights,
+            final int[] keyCharCodes) {
+        mNativeProximityInfo = setProximityInfoNative(displayWidth, displayHeight, gridWidth,
+                gridHeight, mostCommonKeyWidth, mostCommonKeyHeight, proximityCharsArray,
+                keyCharCodes.length, keyXCoordinates, keyYCoordinates, keyWidths, keyHeights,
+                keyCharCodes, null /* sweetSpotCenterXs */, null /* sweetSpotCenterYs */,
+                null /* sweetSpotRadii */);
+    }
+
+    public long getNativeProximityInfo() { return mNativeProximityInfo; }
+
+    public void close() {
+        if (mNativeProximityInfo != 0) {
+            releaseProximityInfoNative(mNativeProximityInfo);
+            mNativeProximityInfo = 0;
+        }
+    }
+
     private static native long setProximityInfoNative(int displayWidth, int displayHeight,
             int gridWidth, int gridHeight, int mostCommonKeyWidth, int mostCommonKeyHeight,
             int[] proximityCharsArray, int keyCount, int[] keyXCoordinates, int[] keyYCoordinates,
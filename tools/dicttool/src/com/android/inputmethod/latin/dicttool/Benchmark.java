@@ -0,0 +1,395 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.dicttool;
+
+import com.android.inputmethod.keyboard.ProximityInfo;
+import com.android.inputmethod.latin.BinaryDictionary;
+import com.android.inputmethod.latin.Dictionary;
+import com.android.inputmethod.latin.NgramContext;
+import com.android.inputmethod.latin.NgramContext.WordInfo;
+import com.android.inputmethod.latin.SuggestedWords.SuggestedWordInfo;
+import com.android.inputmethod.latin.common.ComposedData;
+import com.android.inputmethod.latin.common.FileUtils;
+import com.android.inputmethod.latin.common.InputPointers;
+import com.android.inputmethod.latin.common.LocaleUtils;
+import com.android.inputmethod.latin.makedict.DictionaryHeader;
+import com.android.inputmethod.latin.makedict.FormatSpec;
+import com.android.inputmethod.latin.makedict.FormatSpec.DictionaryOptions;
+import com.android.inputmethod.latin.makedict.FusionDictionary;
+import com.android.inputmethod.latin.makedict.FusionDictionary.PtNodeArray;
+import com.android.inputmethod.latin.makedict.NgramProperty;
+import com.android.inputmethod.latin.makedict.ProbabilityInfo;
+import com.android.inputmethod.latin.makedict.WordProperty;
+import com.android.inputmethod.latin.settings.SettingsValuesForSuggestion;
+import com.android.inputmethod.latin.utils.JniUtils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * Dicttool command that measures the latency of BinaryDictionary#getSuggestions on the host.
+ *
+ * The dictionary is read from a combined-format file or a plain word list and loaded into a
+ * native dictionary. Each trace is then replayed the way the IME queries the main dictionary: a
+ * typing trace issues one query per keystroke with the taps at the key centers of a fixed QWERTY
+ * layout, and a gesture trace issues one batch query with the recorded points.
+ */
+public class Benchmark extends Dicttool.Command {
+    public static final String COMMAND = "benchmark";
+    private static final String TRACE_TYPE = "type";
+    private static final String TRACE_GESTURE = "gesture";
+    private static final String NO_PREVIOUS_WORD = "-";
+    private static final String COMMENT_LINE_STARTER = "#";
+    private static final int DEFAULT_WARMUP_ITERATIONS = 3;
+    private static final int DEFAULT_ITERATIONS = 10;
+    private static final int SESSION_ID = 0;
+    private static final int DEFAULT_WORD_LIST_PROBABILITY = 100;
+
+    static final class Query {
+        public final NgramContext mNgramContext;
+        public final ComposedData mComposedData;
+
+        public Query(final NgramContext ngramContext, final ComposedData composedData) {
+            mNgramContext = ngramContext;
+            mComposedData = composedData;
+        }
+    }
+
+    public Benchmark() {
+    }
+
+    @Override
+    public String getHelp() {
+        return COMMAND + " [-w warmupIterations] [-i iterations] [-p maxP99Micros] [-b]"
+                + " <dictionary> <trace file>\n"
+                + "Replays the traces against the dictionary and reports the latency"
+                + " percentiles, the throughput and the allocations per suggestion call.\n"
+                + "The dictionary is either in the combined format or a plain word list with"
+                + " one word per line, optionally followed by its probability (default "
+                + DEFAULT_WORD_LIST_PROBABILITY + ").\n"
+                + "Each line of the trace file is one of:\n"
+                + "  type <previous word or -> <word>\n"
+                + "  gesture <previous word or -> <x>,<y>,<time> <x>,<y>,<time>...\n"
+                + "Gesture traces only get suggestions if the native library registers a gesture"
+                + " suggest policy.\n"
+                + "If -p is given, the command fails when the p99 latency exceeds it.\n"
+                + "If -b is given, the results are read from the direct output buffer instead of"
+                + " the JNI output arrays, to compare the two.";
+    }
+
+    @Override
+    public void run() throws Exception {
+        int warmupIterations = DEFAULT_WARMUP_ITERATIONS;
+        int iterations = DEFAULT_ITERATIONS;
+        long maxP99Micros = -1;
+        boolean usesDirectOutputBuffer = false;
+        final ArrayList<String> fileNames = new ArrayList<>();
+        int i = 0;
+        while (i < mArgs.length) {
+            final String arg = mArgs[i++];
+            if ("-w".equals(arg)) {
+                warmupIterations = Integer.parseInt(mArgs[i++]);
+            } else if ("-i".equals(arg)) {
+                iterations = Integer.parseInt(mArgs[i++]);
+            } else if ("-p".equals(arg)) {
+                maxP99Micros = Long.parseLong(mArgs[i++]);
+            } else if ("-b".equals(arg)) {
+                usesDirectOutputBuffer = true;
+            } else {
+                fileNames.add(arg);
+            }
+        }
+        if (fileNames.size() != 2 || iterations <= 0) {
+            throw new IllegalArgumentException(getHelp());
+        }
+        JniUtils.loadNativeLibrary();
+        final BenchmarkKeyboard keyboard = new BenchmarkKeyboard();
+        final ArrayList<Query> queries;
+        try (final BufferedReader reader = newReader(fileNames.get(1))) {
+            queries = readTraces(reader, keyboard);
+        }
+        if (queries.isEmpty()) {
+            throw new IllegalArgumentException("No trace to replay in " + fileNames.get(1));
+        }
+        final File tmpDir = Files.createTempDirectory(COMMAND).toFile();
+        final ProximityInfo proximityInfo = keyboard.createProximityInfo();
+        BinaryDictionary binaryDictionary = null;
+        try {
+            binaryDictionary = loadDictionary(fileNames.get(0), tmpDir);
+            binaryDictionary.setUsesDirectOutputBuffer(usesDirectOutputBuffer);
+            for (int iteration = 0; iteration < warmupIterations; ++iteration) {
+                replay(binaryDictionary, proximityInfo, queries, null /* latencies */);
+            }
+            final long[] latencies = new long[queries.size() * iterations];
+            final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+            final long allocatedBytesBefore = getAllocatedBytes(threadBean);
+            final long startTime = System.nanoTime();
+            int suggestionCount = 0;
+            for (int iteration = 0; iteration < iterations; ++iteration) {
+                final long[] iterationLatencies = new long[queries.size()];
+                suggestionCount += replay(binaryDictionary, proximityInfo, queries,
+                        iterationLatencies);
+                System.arraycopy(iterationLatencies, 0, latencies, iteration * queries.size(),
+                        queries.size());
+            }
+            final long elapsedTime = System.nanoTime() - startTime;
+            final long allocatedBytesAfter = getAllocatedBytes(threadBean);
+            report(usesDirectOutputBuffer, latencies, elapsedTime, suggestionCount,
+                    (allocatedBytesBefore < 0 || allocatedBytesAfter < 0) ? -1
+                            : allocatedBytesAfter - allocatedBytesBefore);
+            final long p99Micros = getPercentile(latencies, 99) / 1000;
+            if (maxP99Micros >= 0 && p99Micros > maxP99Micros) {
+                throw new RuntimeException("p99 latency " + p99Micros + "us exceeds "
+                        + maxP99Micros + "us");
+            }
+        } finally {
+            if (null != binaryDictionary) {
+                binaryDictionary.close();
+            }
+            proximityInfo.close();
+            FileUtils.deleteRecursively(tmpDir);
+        }
+    }
+
+    /**
+     * Replays all the queries once.
+     *
+     * @param latencies the array to store the latency of each query in nanoseconds, or null.
+     * @return the total number of suggestions returned.
+     */
+    private static int replay(final BinaryDictionary binaryDictionary,
+            final ProximityInfo proximityInfo, final ArrayList<Query> queries,
+            final long[] latencies) {
+        final SettingsValuesForSuggestion settingsValuesForSuggestion =
+                new SettingsValuesForSuggestion(false /* blockPotentiallyOffensive */);
+        final float[] weightOfLangModelVsSpatialModel = new float[1];
+        int suggestionCount = 0;
+        for (int i = 0; i < queries.size(); ++i) {
+            final Query query = queries.get(i);
+            weightOfLangModelVsSpatialModel[0] =
+                    Dictionary.NOT_A_WEIGHT_OF_LANG_MODEL_VS_SPATIAL_MODEL;
+            final long startTime = System.nanoTime();
+            final ArrayList<SuggestedWordInfo> suggestions = binaryDictionary.getSuggestions(
+                    query.mComposedData, query.mNgramContext,
+                    proximityInfo.getNativeProximityInfo(), settingsValuesForSuggestion,
+                    SESSION_ID, 1.0f /* weightForLocale */, weightOfLangModelVsSpatialModel);
+            if (null != latencies) {
+                latencies[i] = System.nanoTime() - startTime;
+            }
+            if (null != suggestions) {
+                suggestionCount += suggestions.size();
+            }
+        }
+        return suggestionCount;
+    }
+
+    private static void report(final boolean usesDirectOutputBuffer, final long[] latencies,
+            final long elapsedTimeNanos, final int suggestionCount, final long allocatedBytes) {
+        System.out.println("Output: " + (usesDirectOutputBuffer ? "direct buffer" : "JNI arrays"));
+        System.out.println("Suggestion calls: " + latencies.length);
+        System.out.println("Suggestions per call: "
+                + String.format(Locale.ROOT, "%.2f", (float)suggestionCount / latencies.length));
+        System.out.println("Throughput: " + String.format(Locale.ROOT, "%.1f",
+                latencies.length * 1e9 / elapsedTimeNanos) + " calls/s");
+        System.out.println("Latency (us): p50=" + getPercentile(latencies, 50) / 1000
+                + " p90=" + getPercentile(latencies, 90) / 1000
+                + " p99=" + getPercentile(latencies, 99) / 1000
+                + " max=" + getPercentile(latencies, 100) / 1000);
+        if (allocatedBytes >= 0) {
+            System.out.println("Allocated bytes per call: " + allocatedBytes / latencies.length);
+        } else {
+            System.out.println("Allocated bytes per call: not supported by this JVM");
+        }
+    }
+
+    /**
+     * Returns the nearest-rank percentile. Sorts the array.
+     */
+    static long getPercentile(final long[] values, final int percentile) {
+        Arrays.sort(values);
+        final int rank = (int)Math.ceil(percentile / 100.0 * values.length);
+        return values[Math.max(0, Math.min(values.length, rank) - 1)];
+    }
+
+    /**
+     * @return the bytes allocated so far by the current thread, or -1 if the JVM does not
+     * support measuring it.
+     */
+    private static long getAllocatedBytes(final ThreadMXBean threadBean) {
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        final com.sun.management.ThreadMXBean sunThreadBean =
+                (com.sun.management.ThreadMXBean)threadBean;
+        if (!sunThreadBean.isThreadAllocatedMemorySupported()
+                || !sunThreadBean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return sunThreadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static BufferedReader newReader(final String filename) throws IOException {
+        return new BufferedReader(new InputStreamReader(new FileInputStream(filename), "UTF-8"));
+    }
+
+    private static BinaryDictionary loadDictionary(final String filename, final File tmpDir)
+            throws IOException {
+        final FusionDictionary fusionDictionary;
+        try (final BufferedReader reader = newReader(filename)) {
+            fusionDictionary = CombinedInputOutput.isCombinedDictionary(filename)
+                    ? CombinedInputOutput.readDictionaryCombined(reader)
+                    : readWordList(reader);
+        }
+        final String localeString = fusionDictionary.mOptions.mAttributes.get(
+                DictionaryHeader.DICTIONARY_LOCALE_KEY);
+        final Locale locale = (null == localeString) ? Locale.ROOT
+                : LocaleUtils.constructLocaleFromString(localeString);
+        // The format writers are not part of the host tool, so the dictionary is built with the
+        // native dynamic dictionary instead.
+        final BinaryDictionary binaryDictionary = new BinaryDictionary(
+                new File(tmpDir, "main.dict").getAbsolutePath(),
+                false /* useFullEditDistance */, locale, Dictionary.TYPE_MAIN,
+                FormatSpec.VERSION4, fusionDictionary.mOptions.mAttributes);
+        for (final WordProperty wordProperty : fusionDictionary) {
+            binaryDictionary.addUnigramEntry(wordProperty.mWord,
+                    wordProperty.getProbability(), wordProperty.mIsBeginningOfSentence,
+                    wordProperty.mIsNotAWord, wordProperty.mIsPossiblyOffensive,
+                    BinaryDictionary.NOT_A_VALID_TIMESTAMP);
+            if (binaryDictionary.needsToRunGC(true /* mindsBlockByGC */)) {
+                binaryDictionary.flushWithGC();
+            }
+        }
+        for (final WordProperty wordProperty : fusionDictionary) {
+            if (!wordProperty.mHasNgrams) {
+                continue;
+            }
+            for (final NgramProperty ngramProperty : wordProperty.mNgrams) {
+                binaryDictionary.addNgramEntry(ngramProperty.mNgramContext,
+                        ngramProperty.mTargetWord.mWord,
+                        ngramProperty.mTargetWord.getProbability(),
+                        BinaryDictionary.NOT_A_VALID_TIMESTAMP);
+            }
+            if (binaryDictionary.needsToRunGC(true /* mindsBlockByGC */)) {
+                binaryDictionary.flushWithGC();
+            }
+        }
+        binaryDictionary.flushWithGC();
+        return binaryDictionary;
+    }
+
+    /**
+     * Reads a plain word list: one word per line, optionally followed by its probability.
+     */
+    static FusionDictionary readWordList(final BufferedReader reader) throws IOException {
+        final FusionDictionary fusionDictionary = new FusionDictionary(new PtNodeArray(),
+                new DictionaryOptions(new HashMap<String, String>()));
+        int lineNumber = 0;
+        for (String line = reader.readLine(); null != line; line = reader.readLine()) {
+            ++lineNumber;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith(COMMENT_LINE_STARTER)) {
+                continue;
+            }
+            final String[] elements = line.split("\\s+");
+            if (elements.length > 2) {
+                throw new IOException("Malformed word at line " + lineNumber + ": " + line);
+            }
+            final int probability = (1 == elements.length) ? DEFAULT_WORD_LIST_PROBABILITY
+                    : Integer.parseInt(elements[1]);
+            fusionDictionary.add(elements[0], new ProbabilityInfo(probability),
+                    false /* isNotAWord */, false /* isPossiblyOffensive */);
+        }
+        return fusionDictionary;
+    }
+
+    static ArrayList<Query> readTraces(final BufferedReader reader,
+            final BenchmarkKeyboard keyboard) throws IOException {
+        final ArrayList<Query> queries = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line = reader.readLine(); null != line; line = reader.readLine()) {
+            ++lineNumber;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith(COMMENT_LINE_STARTER)) {
+                continue;
+            }
+            final String[] elements = line.split("\\s+");
+            if (elements.length < 3) {
+                throw new IOException("Malformed trace at line " + lineNumber + ": " + line);
+            }
+            final NgramContext ngramContext = NO_PREVIOUS_WORD.equals(elements[1])
+                    ? NgramContext.BEGINNING_OF_SENTENCE
+                    : new NgramContext(new WordInfo(elements[1]));
+            if (TRACE_TYPE.equals(elements[0])) {
+                addTypingQueries(queries, ngramContext, elements[2], keyboard);
+            } else if (TRACE_GESTURE.equals(elements[0])) {
+                queries.add(new Query(ngramContext, readGesture(elements, lineNumber)));
+            } else {
+                throw new IOException("Unknown trace type at line " + lineNumber + ": "
+                        + elements[0]);
+            }
+        }
+        return queries;
+    }
+
+    private static void addTypingQueries(final ArrayList<Query> queries,
+            final NgramContext ngramContext, final String word, final BenchmarkKeyboard keyboard) {
+        for (int i = 0; i < word.length(); i = word.offsetByCodePoints(i, 1)) {
+            if (!keyboard.hasKey(word.codePointAt(i))) {
+                // The layout can't type this word.
+                return;
+            }
+        }
+        final InputPointers inputPointers = new InputPointers(word.length());
+        int time = 0;
+        for (int i = 0; i < word.length(); i = word.offsetByCodePoints(i, 1)) {
+            final int codePoint = word.codePointAt(i);
+            inputPointers.addPointer(keyboard.getKeyCenterX(codePoint),
+                    keyboard.getKeyCenterY(codePoint), 0 /* pointerId */, time);
+            time += 100;
+            // Each query gets its own copy, since the pointers of the word keep growing.
+            final InputPointers prefixPointers = new InputPointers(inputPointers.getPointerSize());
+            prefixPointers.copy(inputPointers);
+            queries.add(new Query(ngramContext, new ComposedData(prefixPointers,
+                    false /* isBatchMode */, word.substring(0, word.offsetByCodePoints(i, 1)))));
+        }
+    }
+
+    private static ComposedData readGesture(final String[] elements, final int lineNumber)
+            throws IOException {
+        final InputPointers inputPointers = new InputPointers(elements.length - 2);
+        for (int i = 2; i < elements.length; ++i) {
+            final String[] point = elements[i].split(",");
+            if (point.length != 3) {
+                throw new IOException("Malformed gesture point at line " + lineNumber + ": "
+                        + elements[i]);
+            }
+            inputPointers.addPointer(Integer.parseInt(point[0]), Integer.parseInt(point[1]),
+                    0 /* pointerId */, Integer.parseInt(point[2]));
+        }
+        return new ComposedData(inputPointers, true /* isBatchMode */, "" /* typedWord */);
+    }
+}
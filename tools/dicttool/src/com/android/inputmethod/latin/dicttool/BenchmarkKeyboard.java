@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.dicttool;
+
+import com.android.inputmethod.keyboard.ProximityInfo;
+import com.android.inputmethod.latin.common.Constants;
+
+import java.util.Arrays;
+
+/**
+ * A fixed QWERTY layout used to replay typing traces on the host, where no keyboard resources
+ * are available. The proximity grid is computed the same way as the on-device ProximityInfo:
+ * a key is a neighbor of a grid cell if its edge is within 1.2 key widths of the cell center.
+ */
+public final class BenchmarkKeyboard {
+    private static final String[] ROWS = { "qwertyuiop", "asdfghjkl", "zxcvbnm" };
+    private static final int[] ROW_X_OFFSETS = { 0, 50, 150 };
+    private static final int KEY_WIDTH = 100;
+    private static final int KEY_HEIGHT = 150;
+    private static final int KEYBOARD_WIDTH = KEY_WIDTH * ROWS[0].length();
+    private static final int KEYBOARD_HEIGHT = KEY_HEIGHT * ROWS.length;
+    private static final int GRID_WIDTH = 32;
+    private static final int GRID_HEIGHT = 16;
+    private static final float SEARCH_DISTANCE = 1.2f;
+
+    private final int[] mKeyXCoordinates;
+    private final int[] mKeyYCoordinates;
+    private final int[] mKeyCodes;
+
+    public BenchmarkKeyboard() {
+        int keyCount = 0;
+        for (final String row : ROWS) {
+            keyCount += row.length();
+        }
+        mKeyXCoordinates = new int[keyCount];
+        mKeyYCoordinates = new int[keyCount];
+        mKeyCodes = new int[keyCount];
+        int keyIndex = 0;
+        for (int rowIndex = 0; rowIndex < ROWS.length; ++rowIndex) {
+            final String row = ROWS[rowIndex];
+            for (int i = 0; i < row.length(); ++i) {
+                mKeyXCoordinates[keyIndex] = ROW_X_OFFSETS[rowIndex] + i * KEY_WIDTH;
+                mKeyYCoordinates[keyIndex] = rowIndex * KEY_HEIGHT;
+                mKeyCodes[keyIndex] = row.charAt(i);
+                ++keyIndex;
+            }
+        }
+    }
+
+    /**
+     * Creates the native proximity info for this layout. The caller must close it.
+     */
+    public ProximityInfo createProximityInfo() {
+        final int keyCount = mKeyCodes.length;
+        final int[] keyWidths = new int[keyCount];
+        final int[] keyHeights = new int[keyCount];
+        Arrays.fill(keyWidths, KEY_WIDTH);
+        Arrays.fill(keyHeights, KEY_HEIGHT);
+        return new ProximityInfo(KEYBOARD_WIDTH, KEYBOARD_HEIGHT, GRID_WIDTH, GRID_HEIGHT,
+                KEY_WIDTH, KEY_HEIGHT, computeProximityChars(), mKeyXCoordinates,
+                mKeyYCoordinates, keyWidths, keyHeights, mKeyCodes);
+    }
+
+    private int[] computeProximityChars() {
+        final int cellWidth = (KEYBOARD_WIDTH + GRID_WIDTH - 1) / GRID_WIDTH;
+        final int cellHeight = (KEYBOARD_HEIGHT + GRID_HEIGHT - 1) / GRID_HEIGHT;
+        final int threshold = (int)(KEY_WIDTH * SEARCH_DISTANCE);
+        final int thresholdSquared = threshold * threshold;
+        final int maxProximityChars = ProximityInfo.MAX_PROXIMITY_CHARS_SIZE;
+        final int[] proximityChars = new int[GRID_WIDTH * GRID_HEIGHT * maxProximityChars];
+        Arrays.fill(proximityChars, Constants.NOT_A_CODE);
+        for (int cellIndex = 0; cellIndex < GRID_WIDTH * GRID_HEIGHT; ++cellIndex) {
+            final int centerX = (cellIndex % GRID_WIDTH) * cellWidth + cellWidth / 2;
+            final int centerY = (cellIndex / GRID_WIDTH) * cellHeight + cellHeight / 2;
+            int neighborCount = 0;
+            for (int keyIndex = 0; keyIndex < mKeyCodes.length
+                    && neighborCount < maxProximityChars; ++keyIndex) {
+                if (squaredDistanceToEdge(keyIndex, centerX, centerY) < thresholdSquared) {
+                    proximityChars[cellIndex * maxProximityChars + neighborCount] =
+                            mKeyCodes[keyIndex];
+                    ++neighborCount;
+                }
+            }
+        }
+        return proximityChars;
+    }
+
+    private int squaredDistanceToEdge(final int keyIndex, final int x, final int y) {
+        final int left = mKeyXCoordinates[keyIndex];
+        final int top = mKeyYCoordinates[keyIndex];
+        final int edgeX = Math.max(left, Math.min(x, left + KEY_WIDTH));
+        final int edgeY = Math.max(top, Math.min(y, top + KEY_HEIGHT));
+        final int dx = x - edgeX;
+        final int dy = y - edgeY;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * @return the index of the key for this code point, or -1 if the layout does not have it.
+     */
+    private int getKeyIndex(final int codePoint) {
+        final int lowerCodePoint = Character.toLowerCase(codePoint);
+        for (int i = 0; i < mKeyCodes.length; ++i) {
+            if (mKeyCodes[i] == lowerCodePoint) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean hasKey(final int codePoint) {
+        return getKeyIndex(codePoint) >= 0;
+    }
+
+    public int getKeyCenterX(final int codePoint) {
+        return mKeyXCoordinates[getKeyIndex(codePoint)] + KEY_WIDTH / 2;
+    }
+
+    public int getKeyCenterY(final int codePoint) {
+        return mKeyYCoordinates[getKeyIndex(codePoint)] + KEY_HEIGHT / 2;
+    }
+}
@@ -16,7 +16,6 @@
 
 package com.android.inputmethod.latin.dicttool;
 
-import com.android.inputmethod.latin.makedict.FormatSpec;
 import com.android.inputmethod.latin.makedict.FormatSpec.DictionaryOptions;
 import com.android.inputmethod.latin.makedict.FusionDictionary;
 import com.android.inputmethod.latin.makedict.FusionDictionary.PtNodeArray;
@@ -39,10 +38,8 @@ import java.util.TreeSet;
  * All functions in this class are static.
  */
 public class CombinedInputOutput {
-    private static final String WHITELIST_TAG = "whitelist";
     private static final String OPTIONS_TAG = "options";
     private static final String COMMENT_LINE_STARTER = "#";
-    private static final int HISTORICAL_INFO_ELEMENT_COUNT = 3;
 
     /**
      * Basic test to find out whether the file is in the combined format or not.
@@ -94,105 +91,59 @@ public class CombinedInputOutput {
         final FusionDictionary dict =
                 new FusionDictionary(new PtNodeArray(), new DictionaryOptions(attributes));
 
+        final AttributeTokenizer tokenizer = new AttributeTokenizer();
         String line;
         String word = null;
         ProbabilityInfo probabilityInfo = new ProbabilityInfo(0);
         boolean isNotAWord = false;
         boolean isPossiblyOffensive = false;
         ArrayList<WeightedString> bigrams = new ArrayList<>();
-        ArrayList<WeightedString> shortcuts = new ArrayList<>();
         while (null != (line = reader.readLine())) {
             if (line.startsWith(COMMENT_LINE_STARTER)) continue;
-            final String args[] = line.trim().split(",");
-            if (args[0].matches(CombinedFormatUtils.WORD_TAG + "=.*")) {
+            tokenizer.reset(line);
+            if (tokenizer.startsWithKey(CombinedFormatUtils.WORD_TAG)) {
                 if (null != word) {
-                    dict.add(word, probabilityInfo, shortcuts.isEmpty() ? null : shortcuts,
-                            isNotAWord, isPossiblyOffensive);
+                    dict.add(word, probabilityInfo, isNotAWord, isPossiblyOffensive);
                     for (WeightedString s : bigrams) {
                         dict.setBigram(word, s.mWord, s.mProbabilityInfo);
                     }
                 }
-                if (!shortcuts.isEmpty()) shortcuts = new ArrayList<>();
                 if (!bigrams.isEmpty()) bigrams = new ArrayList<>();
                 isNotAWord = false;
                 isPossiblyOffensive = false;
-                for (String param : args) {
-                    final String params[] = param.split("=", 2);
-                    if (2 != params.length) throw new RuntimeException("Wrong format : " + line);
-                    switch (params[0]) {
-                        case CombinedFormatUtils.WORD_TAG:
-                            word = params[1];
-                            break;
-                        case CombinedFormatUtils.PROBABILITY_TAG:
-                            probabilityInfo = new ProbabilityInfo(Integer.parseInt(params[1]),
-                                    probabilityInfo.mTimestamp, probabilityInfo.mLevel,
-                                    probabilityInfo.mCount);
-                            break;
-                        case CombinedFormatUtils.HISTORICAL_INFO_TAG:
-                            final String[] historicalInfoParams = params[1].split(
-                                    CombinedFormatUtils.HISTORICAL_INFO_SEPARATOR);
-                            if (historicalInfoParams.length != HISTORICAL_INFO_ELEMENT_COUNT) {
-                                throw new RuntimeException("Wrong format (historical info) : "
-                                        + line);
-                            }
-                            probabilityInfo = new ProbabilityInfo(probabilityInfo.mProbability,
-                                    Integer.parseInt(historicalInfoParams[0]),
-                                    Integer.parseInt(historicalInfoParams[1]),
-                                    Integer.parseInt(historicalInfoParams[2]));
-                            break;
-                        case CombinedFormatUtils.NOT_A_WORD_TAG:
-                            isNotAWord = CombinedFormatUtils.isLiteralTrue(params[1]);
-                            break;
-                        case CombinedFormatUtils.POSSIBLY_OFFENSIVE_TAG:
-                            isPossiblyOffensive = CombinedFormatUtils.isLiteralTrue(params[1]);
-                            break;
+                while (tokenizer.next()) {
+                    if (tokenizer.isKey(CombinedFormatUtils.WORD_TAG)) {
+                        word = tokenizer.getValue();
+                    } else if (tokenizer.isKey(CombinedFormatUtils.PROBABILITY_TAG)) {
+                        probabilityInfo = new ProbabilityInfo(tokenizer.getIntValue(),
+                                probabilityInfo.mTimestamp, probabilityInfo.mLevel,
+                                probabilityInfo.mCount);
+                    } else if (tokenizer.isKey(CombinedFormatUtils.HISTORICAL_INFO_TAG)) {
+                        probabilityInfo = tokenizer.getHistoricalInfoValue(
+                                probabilityInfo.mProbability);
+                    } else if (tokenizer.isKey(CombinedFormatUtils.NOT_A_WORD_TAG)) {
+                        isNotAWord = tokenizer.isLiteralTrueValue();
+                    } else if (tokenizer.isKey(CombinedFormatUtils.POSSIBLY_OFFENSIVE_TAG)) {
+                        isPossiblyOffensive = tokenizer.isLiteralTrueValue();
                     }
                 }
-            } else if (args[0].matches(CombinedFormatUtils.SHORTCUT_TAG + "=.*")) {
-                String shortcut = null;
-                int shortcutFreq = 0;
-                for (String param : args) {
-                    final String params[] = param.split("=", 2);
-                    if (2 != params.length) throw new RuntimeException("Wrong format : " + line);
-                    if (CombinedFormatUtils.SHORTCUT_TAG.equals(params[0])) {
-                        shortcut = params[1];
-                    } else if (CombinedFormatUtils.PROBABILITY_TAG.equals(params[0])) {
-                        shortcutFreq = WHITELIST_TAG.equals(params[1])
-                                ? FormatSpec.SHORTCUT_WHITELIST_FREQUENCY
-                                : Integer.parseInt(params[1]);
-                    }
-                }
-                if (null != shortcut) {
-                    shortcuts.add(new WeightedString(shortcut, shortcutFreq));
-                } else {
-                    throw new RuntimeException("Wrong format : " + line);
-                }
-            } else if (args[0].matches(CombinedFormatUtils.BIGRAM_TAG + "=.*")) {
+            } else if (tokenizer.startsWithKey(CombinedFormatUtils.BIGRAM_TAG)) {
                 String secondWordOfBigram = null;
                 ProbabilityInfo bigramProbabilityInfo = new ProbabilityInfo(0);
-                for (String param : args) {
-                    final String params[] = param.split("=", 2);
-                    if (2 != params.length) throw new RuntimeException("Wrong format : " + line);
-                    if (CombinedFormatUtils.BIGRAM_TAG.equals(params[0])) {
-                        secondWordOfBigram = params[1];
-                    } else if (CombinedFormatUtils.PROBABILITY_TAG.equals(params[0])) {
-                        bigramProbabilityInfo = new ProbabilityInfo(Integer.parseInt(params[1]),
+                while (tokenizer.next()) {
+                    if (tokenizer.isKey(CombinedFormatUtils.BIGRAM_TAG)) {
+                        secondWordOfBigram = tokenizer.getValue();
+                    } else if (tokenizer.isKey(CombinedFormatUtils.PROBABILITY_TAG)) {
+                        bigramProbabilityInfo = new ProbabilityInfo(tokenizer.getIntValue(),
                                 bigramProbabilityInfo.mTimestamp, bigramProbabilityInfo.mLevel,
                                 bigramProbabilityInfo.mCount);
-                    }  else if (CombinedFormatUtils.HISTORICAL_INFO_TAG.equals(params[0])) {
-                        final String[] historicalInfoParams =
-                                params[1].split(CombinedFormatUtils.HISTORICAL_INFO_SEPARATOR);
-                        if (historicalInfoParams.length != HISTORICAL_INFO_ELEMENT_COUNT) {
-                            throw new RuntimeException("Wrong format (historical info) : " + line);
-                        }
-                        bigramProbabilityInfo = new ProbabilityInfo(
-                                bigramProbabilityInfo.mProbability,
-                                Integer.parseInt(historicalInfoParams[0]),
-                                Integer.parseInt(historicalInfoParams[1]),
-                                Integer.parseInt(historicalInfoParams[2]));
+                    } else if (tokenizer.isKey(CombinedFormatUtils.HISTORICAL_INFO_TAG)) {
+                        bigramProbabilityInfo = tokenizer.getHistoricalInfoValue(
+                                bigramProbabilityInfo.mProbability);
                     }
                 }
-                if (null != secondWordOfBigram) {
+                // A bigram belongs to the last word line, so it needs one and a second word.
+                if (null != word && !secondWordOfBigram.isEmpty()) {
                     bigrams.add(new WeightedString(secondWordOfBigram, bigramProbabilityInfo));
                 } else {
                     throw new RuntimeException("Wrong format : " + line);
@@ -200,12 +151,12 @@ public class CombinedInputOutput {
             }
         }
         if (null != word) {
-            dict.add(word, probabilityInfo, shortcuts.isEmpty() ? null : shortcuts, isNotAWord,
-                    isPossiblyOffensive);
+            dict.add(word, probabilityInfo, isNotAWord, isPossiblyOffensive);
             for (WeightedString s : bigrams) {
                 dict.setBigram(word, s.mWord, s.mProbabilityInfo);
             }
         }
+        dict.trimToSize();
 
         return dict;
     }
@@ -228,4 +179,131 @@ public class CombinedInputOutput {
             destination.write(CombinedFormatUtils.formatWordProperty(wordProperty));
         }
     }
+
+    /**
+     * Splits a line of the combined format into its "key=value" attributes.
+     *
+     * The dictionary sources have millions of lines, so the attributes are found by scanning the
+     * line in place rather than with regular expressions and String#split: only the values that
+     * are kept, like words, are copied to new strings.
+     */
+    private static final class AttributeTokenizer {
+        private static final char ATTRIBUTE_SEPARATOR = ',';
+        private static final char KEY_VALUE_SEPARATOR = '=';
+        private static final char HISTORICAL_INFO_SEPARATOR =
+                CombinedFormatUtils.HISTORICAL_INFO_SEPARATOR.charAt(0);
+
+        private String mLine;
+        private int mLineEnd;
+        private int mPosition;
+        private int mKeyStart;
+        private int mValueStart;
+        private int mValueEnd;
+
+        public void reset(final String line) {
+            int start = 0;
+            int end = line.length();
+            // Same as String#trim, without creating a new string.
+            while (start < end && line.charAt(start) <= ' ') ++start;
+            while (end > start && line.charAt(end - 1) <= ' ') --end;
+            mLine = line;
+            mLineEnd = end;
+            mPosition = start;
+        }
+
+        /**
+         * Moves to the next attribute of the line.
+         *
+         * @return false if there are no more attributes in the line.
+         */
+        public boolean next() {
+            if (mPosition >= mLineEnd) {
+                return false;
+            }
+            int attributeEnd = mLine.indexOf(ATTRIBUTE_SEPARATOR, mPosition);
+            if (attributeEnd < 0 || attributeEnd > mLineEnd) {
+                attributeEnd = mLineEnd;
+            }
+            final int keyEnd = mLine.indexOf(KEY_VALUE_SEPARATOR, mPosition);
+            if (keyEnd < 0 || keyEnd > attributeEnd) {
+                throw new RuntimeException("Wrong format : " + mLine);
+            }
+            mKeyStart = mPosition;
+            mValueStart = keyEnd + 1;
+            mValueEnd = attributeEnd;
+            mPosition = attributeEnd + 1;
+            return true;
+        }
+
+        /**
+         * Tests the first attribute of the line without parsing it, so that lines of unknown
+         * types are skipped even if they are not made of attributes.
+         */
+        public boolean startsWithKey(final String key) {
+            final int keyEnd = mPosition + key.length();
+            return keyEnd < mLineEnd && mLine.startsWith(key, mPosition)
+                    && mLine.charAt(keyEnd) == KEY_VALUE_SEPARATOR;
+        }
+
+        public boolean isKey(final String key) {
+            return mValueStart - 1 - mKeyStart == key.length()
+                    && mLine.startsWith(key, mKeyStart);
+        }
+
+        public boolean isLiteralTrueValue() {
+            final String trueValue = CombinedFormatUtils.TRUE_VALUE;
+            return mValueEnd - mValueStart == trueValue.length() && mLine.regionMatches(
+                    true /* ignoreCase */, mValueStart, trueValue, 0, trueValue.length());
+        }
+
+        public String getValue() {
+            return mLine.substring(mValueStart, mValueEnd);
+        }
+
+        public int getIntValue() {
+            return parseInt(mValueStart, mValueEnd);
+        }
+
+        public ProbabilityInfo getHistoricalInfoValue(final int probability) {
+            final int timestampEnd = indexOfHistoricalInfoSeparator(mValueStart);
+            final int levelEnd = timestampEnd < 0
+                    ? -1 : indexOfHistoricalInfoSeparator(timestampEnd + 1);
+            if (levelEnd < 0 || indexOfHistoricalInfoSeparator(levelEnd + 1) >= 0) {
+                throw new RuntimeException("Wrong format (historical info) : " + mLine);
+            }
+            return new ProbabilityInfo(probability, parseInt(mValueStart, timestampEnd),
+                    parseInt(timestampEnd + 1, levelEnd), parseInt(levelEnd + 1, mValueEnd));
+        }
+
+        private int indexOfHistoricalInfoSeparator(final int start) {
+            final int index = mLine.indexOf(HISTORICAL_INFO_SEPARATOR, start);
+            return index < mValueEnd ? index : -1;
+        }
+
+        // Same as Integer#parseInt for a decimal number, without creating a new string.
+        private int parseInt(final int start, final int end) {
+            final boolean isNegative = start < end && mLine.charAt(start) == '-';
+            int position = isNegative || (start < end && mLine.charAt(start) == '+')
+                    ? start + 1 : start;
+            if (position >= end) {
+                throw new NumberFormatException(
+                        "For input string: \"" + mLine.substring(start, end) + "\"");
+            }
+            long value = 0;
+            for (; position < end; ++position) {
+                final int digit = Character.digit(mLine.charAt(position), 10);
+                value = value * 10 + digit;
+                if (digit < 0 || value > (long)Integer.MAX_VALUE + 1) {
+                    throw new NumberFormatException(
+                            "For input string: \"" + mLine.substring(start, end) + "\"");
+                }
+            }
+            value = isNegative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw new NumberFormatException(
+                        "For input string: \"" + mLine.substring(start, end) + "\"");
+            }
+            return (int)value;
+        }
+    }
 }
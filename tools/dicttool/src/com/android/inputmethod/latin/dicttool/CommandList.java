@@ -29,6 +29,8 @@ public class CommandList {
         Dicttool.addCommand("package", Package.Packager.class);
         Dicttool.addCommand("unpackage", Package.Unpackager.class);
         Dicttool.addCommand("makedict", Makedict.class);
+        Dicttool.addCommand("makedicts", MakedictBatch.class);
         Dicttool.addCommand("test", Test.class);
+        Dicttool.addCommand("benchmark", Benchmark.class);
     }
 }
@@ -197,9 +197,23 @@ public class DictionaryMaker {
 
     public static void main(String[] args)
             throws FileNotFoundException, IOException, UnsupportedFormatException {
-        final Arguments parsedArgs = new Arguments(args);
-        FusionDictionary dictionary = readInputFromParsedArgs(parsedArgs);
-        writeOutputToParsedArgs(parsedArgs, dictionary);
+        makeDictionary(new Arguments(args));
+    }
+
+    /**
+     * Reads the input and writes the outputs of one dictionary.
+     *
+     * This only uses the state of the passed arguments, so several dictionaries can be made
+     * concurrently.
+     *
+     * @param args the parsed arguments.
+     * @return the dictionary that has been written.
+     */
+    /* package */ static FusionDictionary makeDictionary(final Arguments args)
+            throws FileNotFoundException, IOException, UnsupportedFormatException {
+        final FusionDictionary dictionary = readInputFromParsedArgs(args);
+        writeOutputToParsedArgs(args, dictionary);
+        return dictionary;
     }
 
     /**
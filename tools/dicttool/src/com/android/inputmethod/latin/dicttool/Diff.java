@@ -116,7 +116,7 @@ public class Diff extends Dicttool.Command {
                         + word0Property.getProbability());
                 hasDifferences = true;
             } else {
-                // We found the word. Compare frequencies, shortcuts, bigrams
+                // We found the word. Compare frequencies and bigrams
                 if (word0Property.getProbability() != word1PtNode.getProbability()) {
                     System.out.println("Probability changed: " + word0Property.mWord + " "
                             + word0Property.getProbability() + " -> "
@@ -136,9 +136,6 @@ public class Diff extends Dicttool.Command {
                 }
                 hasDifferences |= hasAttributesDifferencesAndPrintThemIfAny(word0Property.mWord,
                         "Bigram", word0Property.getBigrams(), word1PtNode.getBigrams());
-                hasDifferences |= hasAttributesDifferencesAndPrintThemIfAny(word0Property.mWord,
-                        "Shortcut", word0Property.mShortcutTargets,
-                        word1PtNode.getShortcutTargets());
             }
         }
         for (final WordProperty word1Property : dict1) {
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.dicttool;
+
+import com.android.inputmethod.latin.makedict.BinaryDictEncoderUtils;
+import com.android.inputmethod.latin.makedict.BinaryDictEncoderUtils.DictionaryStatistics;
+import com.android.inputmethod.latin.makedict.FusionDictionary;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Makes several dictionaries concurrently in one process.
+ *
+ * Each line of the manifest holds the arguments of one makedict invocation. The number of
+ * dictionaries that are made at the same time is bounded by the number of threads and by the
+ * memory that is budgeted for each dictionary.
+ */
+public class MakedictBatch extends Dicttool.Command {
+    public static final String COMMAND = "makedicts";
+    private static final String OPTION_THREADS = "-j";
+    private static final String OPTION_MEMORY_BUDGET = "-m";
+    private static final String COMMENT_LINE_STARTER = "#";
+    private static final int DEFAULT_MEMORY_BUDGET_MB = 1024;
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
+    public MakedictBatch() {
+    }
+
+    @Override
+    public String getHelp() {
+        return COMMAND + " [-j <threads>] [-m <memory budget per dictionary in MB>] <manifest>\n"
+                + "\n"
+                + "  Makes all the dictionaries of the manifest concurrently. Each line of the\n"
+                + "  manifest holds the arguments of one makedict invocation, separated by\n"
+                + "  whitespace. Lines starting with " + COMMENT_LINE_STARTER
+                + " are ignored. By default, one\n"
+                + "  dictionary per processor is made at a time, with a budget of "
+                + DEFAULT_MEMORY_BUDGET_MB + " MB each.";
+    }
+
+    @Override
+    public void run() throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        long memoryBudgetMb = DEFAULT_MEMORY_BUDGET_MB;
+        String manifest = null;
+        for (int i = 0; i < mArgs.length; ++i) {
+            final String arg = mArgs[i];
+            if (OPTION_THREADS.equals(arg) || OPTION_MEMORY_BUDGET.equals(arg)) {
+                if (i + 1 >= mArgs.length) {
+                    throw new IllegalArgumentException("Option " + arg + " requires an argument");
+                }
+                final int value = Integer.parseInt(mArgs[++i]);
+                if (value <= 0) {
+                    throw new IllegalArgumentException("Option " + arg + " must be positive");
+                }
+                if (OPTION_THREADS.equals(arg)) {
+                    threads = value;
+                } else {
+                    memoryBudgetMb = value;
+                }
+            } else if (null == manifest) {
+                manifest = arg;
+            } else {
+                throw new IllegalArgumentException("Several manifests specified");
+            }
+        }
+        if (null == manifest) {
+            throw new IllegalArgumentException("No manifest specified");
+        }
+
+        final ArrayList<String> dictionaryArgs = readManifest(manifest);
+        final long memoryLimitedThreads = Runtime.getRuntime().maxMemory()
+                / (memoryBudgetMb * BYTES_PER_MB);
+        final int parallelism = (int)Math.max(1, Math.min(threads, memoryLimitedThreads));
+        System.out.println("Making " + dictionaryArgs.size() + " dictionaries with "
+                + parallelism + " threads");
+
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        final ArrayList<ForkJoinTask<Result>> tasks = new ArrayList<>();
+        try {
+            for (final String args : dictionaryArgs) {
+                tasks.add(pool.submit(new Callable<Result>() {
+                    @Override
+                    public Result call() throws Exception {
+                        return makeDictionary(args.split("\\s+"));
+                    }
+                }));
+            }
+            int failures = 0;
+            for (int i = 0; i < tasks.size(); ++i) {
+                final String name = dictionaryArgs.get(i);
+                try {
+                    System.out.println(name + " : " + tasks.get(i).get());
+                } catch (final ExecutionException e) {
+                    ++failures;
+                    System.out.println(name + " : failed with " + e.getCause());
+                    e.getCause().printStackTrace();
+                }
+            }
+            if (failures > 0) {
+                throw new RuntimeException(failures + " of " + tasks.size()
+                        + " dictionaries could not be made");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static ArrayList<String> readManifest(final String manifest) throws IOException {
+        final ArrayList<String> dictionaryArgs = new ArrayList<>();
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(manifest), "UTF-8"))) {
+            String line;
+            while (null != (line = reader.readLine())) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith(COMMENT_LINE_STARTER)) continue;
+                dictionaryArgs.add(line);
+            }
+        }
+        return dictionaryArgs;
+    }
+
+    private static Result makeDictionary(final String[] args) throws Exception {
+        final long startTime = System.currentTimeMillis();
+        final DictionaryMaker.Arguments parsedArgs = new DictionaryMaker.Arguments(args);
+        final FusionDictionary dictionary = DictionaryMaker.makeDictionary(parsedArgs);
+        final long elapsedTime = System.currentTimeMillis() - startTime;
+        final DictionaryStatistics statistics = null == parsedArgs.mOutputBinary
+                ? null : BinaryDictEncoderUtils.getStatistics(dictionary);
+        final long outputSize = null == parsedArgs.mOutputBinary
+                ? 0 : new File(parsedArgs.mOutputBinary).length();
+        return new Result(elapsedTime, statistics, outputSize);
+    }
+
+    private static final class Result {
+        private final long mElapsedTimeMillis;
+        private final DictionaryStatistics mStatistics;
+        private final long mOutputSize;
+
+        public Result(final long elapsedTimeMillis, final DictionaryStatistics statistics,
+                final long outputSize) {
+            mElapsedTimeMillis = elapsedTimeMillis;
+            mStatistics = statistics;
+            mOutputSize = outputSize;
+        }
+
+        @Override
+        public String toString() {
+            if (null == mStatistics) {
+                return mElapsedTimeMillis + " ms";
+            }
+            return mElapsedTimeMillis + " ms, " + mStatistics.mPtNodeCount + " PtNodes in "
+                    + mStatistics.mPtNodeArrayCount + " node arrays, " + mOutputSize + " bytes";
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.dicttool;
+
+import com.android.inputmethod.latin.NgramContext;
+import com.android.inputmethod.latin.common.InputPointers;
+import com.android.inputmethod.latin.dicttool.Benchmark.Query;
+import com.android.inputmethod.latin.makedict.FusionDictionary;
+import com.android.inputmethod.latin.makedict.WordProperty;
+
+import junit.framework.TestCase;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Unit tests for Benchmark
+ */
+public class BenchmarkTests extends TestCase {
+    private static BufferedReader newReader(final String... lines) {
+        final StringBuilder sb = new StringBuilder();
+        for (final String line : lines) {
+            sb.append(line).append('\n');
+        }
+        return new BufferedReader(new StringReader(sb.toString()));
+    }
+
+    private static ArrayList<Query> readTraces(final String... lines) throws IOException {
+        return Benchmark.readTraces(newReader(lines), new BenchmarkKeyboard());
+    }
+
+    public void testReadTypingTrace() throws IOException {
+        final BenchmarkKeyboard keyboard = new BenchmarkKeyboard();
+        final ArrayList<Query> queries = readTraces("# comment", "", "type - hi",
+                "  type hi   you ");
+        assertEquals(5, queries.size());
+        final String[] typedWords = { "h", "hi", "y", "yo", "you" };
+        for (int i = 0; i < queries.size(); ++i) {
+            final Query query = queries.get(i);
+            assertEquals(typedWords[i], query.mComposedData.mTypedWord);
+            assertFalse(query.mComposedData.mIsBatchMode);
+            final InputPointers inputPointers = query.mComposedData.mInputPointers;
+            final String typedWord = typedWords[i];
+            assertEquals(typedWord.length(), inputPointers.getPointerSize());
+            for (int j = 0; j < typedWord.length(); ++j) {
+                final int codePoint = typedWord.charAt(j);
+                assertEquals(keyboard.getKeyCenterX(codePoint),
+                        inputPointers.getXCoordinates()[j]);
+                assertEquals(keyboard.getKeyCenterY(codePoint),
+                        inputPointers.getYCoordinates()[j]);
+                assertEquals(j * 100, inputPointers.getTimes()[j]);
+            }
+        }
+        assertEquals(NgramContext.BEGINNING_OF_SENTENCE, queries.get(0).mNgramContext);
+        assertEquals(NgramContext.BEGINNING_OF_SENTENCE, queries.get(1).mNgramContext);
+        assertEquals("hi", queries.get(2).mNgramContext.getNthPrevWord(1).toString());
+    }
+
+    public void testUntypeableWordIsSkipped() throws IOException {
+        final ArrayList<Query> queries = readTraces("type - café", "type - té", "type - a");
+        assertEquals(1, queries.size());
+        assertEquals("a", queries.get(0).mComposedData.mTypedWord);
+    }
+
+    public void testReadGestureTrace() throws IOException {
+        final ArrayList<Query> queries = readTraces("gesture the 10,20,0 30,40,15 50,60,30");
+        assertEquals(1, queries.size());
+        final Query query = queries.get(0);
+        assertTrue(query.mComposedData.mIsBatchMode);
+        assertEquals("the", query.mNgramContext.getNthPrevWord(1).toString());
+        final InputPointers inputPointers = query.mComposedData.mInputPointers;
+        assertEquals(3, inputPointers.getPointerSize());
+        assertEquals(30, inputPointers.getXCoordinates()[1]);
+        assertEquals(60, inputPointers.getYCoordinates()[2]);
+        assertEquals(15, inputPointers.getTimes()[1]);
+    }
+
+    public void testMalformedTraces() {
+        final String[] malformedTraces = {
+            "type hello",
+            "swipe - hello",
+            "gesture - 10,20",
+            "gesture - 10,20,0 30,40"
+        };
+        for (final String trace : malformedTraces) {
+            try {
+                readTraces("type - a", trace);
+                fail("Expected an IOException for " + trace);
+            } catch (final IOException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("at line 2"));
+            }
+        }
+    }
+
+    public void testReadWordList() throws IOException {
+        final FusionDictionary dict = Benchmark.readWordList(
+                newReader("# comment", "hello 120", "", "  world  ", "again\t3"));
+        final HashMap<String, Integer> probabilities = new HashMap<>();
+        for (final WordProperty wordProperty : dict) {
+            probabilities.put(wordProperty.mWord, wordProperty.getProbability());
+        }
+        assertEquals(3, probabilities.size());
+        assertEquals(120, (int)probabilities.get("hello"));
+        assertEquals(100, (int)probabilities.get("world"));
+        assertEquals(3, (int)probabilities.get("again"));
+        try {
+            Benchmark.readWordList(newReader("hello 120", "hello world 3"));
+            fail("Expected an IOException");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("at line 2"));
+        }
+    }
+
+    public void testGetPercentile() {
+        final long[] values = { 5, 1, 4, 2, 3 };
+        assertEquals(1, Benchmark.getPercentile(values, 0));
+        assertEquals(1, Benchmark.getPercentile(values, 20));
+        assertEquals(2, Benchmark.getPercentile(values, 21));
+        assertEquals(3, Benchmark.getPercentile(values, 50));
+        assertEquals(5, Benchmark.getPercentile(values, 99));
+        assertEquals(5, Benchmark.getPercentile(values, 100));
+
+        final long[] hundredValues = new long[100];
+        for (int i = 0; i < hundredValues.length; ++i) {
+            hundredValues[i] = 100 - i;
+        }
+        assertEquals(50, Benchmark.getPercentile(hundredValues, 50));
+        assertEquals(90, Benchmark.getPercentile(hundredValues, 90));
+        assertEquals(99, Benchmark.getPercentile(hundredValues, 99));
+        assertEquals(100, Benchmark.getPercentile(hundredValues, 100));
+        assertEquals(42, Benchmark.getPercentile(new long[] { 42 }, 99));
+    }
+}
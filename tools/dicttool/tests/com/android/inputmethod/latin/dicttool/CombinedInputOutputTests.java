@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2016 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.inputmethod.latin.dicttool;
+
+import com.android.inputmethod.latin.makedict.FusionDictionary;
+import com.android.inputmethod.latin.makedict.ProbabilityInfo;
+import com.android.inputmethod.latin.makedict.WeightedString;
+import com.android.inputmethod.latin.makedict.WordProperty;
+
+import junit.framework.TestCase;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+
+/**
+ * Unit tests for CombinedInputOutput
+ */
+public class CombinedInputOutputTests extends TestCase {
+    private static final String HEADER = "dictionary=main:en_us,locale=en_US,version=1";
+
+    private static FusionDictionary read(final String... lines) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        for (final String line : lines) {
+            sb.append(line).append('\n');
+        }
+        return CombinedInputOutput.readDictionaryCombined(
+                new BufferedReader(new StringReader(sb.toString())));
+    }
+
+    private static HashMap<String, WordProperty> getWordProperties(final FusionDictionary dict) {
+        final HashMap<String, WordProperty> wordProperties = new HashMap<>();
+        for (final WordProperty wordProperty : dict) {
+            wordProperties.put(wordProperty.mWord, wordProperty);
+        }
+        return wordProperties;
+    }
+
+    private static void assertWrongFormat(final String expectedMessage, final String... lines)
+            throws IOException {
+        try {
+            read(lines);
+            fail("Expected an error for " + lines[lines.length - 1]);
+        } catch (final NumberFormatException e) {
+            throw e;
+        } catch (final RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(expectedMessage));
+        }
+    }
+
+    public void testReadDictionary() throws IOException {
+        final FusionDictionary dict = read(
+                "# comment before the header",
+                HEADER,
+                "# comment",
+                " word=hello,f=100 ",
+                "  bigram=world,f=80",
+                "  bigram=there,f=70,historicalInfo=1:2:3",
+                "  shortcut=hi,f=whitelist",
+                "word=world,f=90,historicalInfo=10:20:30",
+                "word=xyzzy,f=5,not_a_word=true",
+                "word=frak,f=1,possibly_offensive=TRUE",
+                "",
+                "unknown line");
+        assertEquals("en_US", dict.mOptions.mAttributes.get("locale"));
+        assertEquals("main:en_us", dict.mOptions.mAttributes.get("dictionary"));
+
+        final HashMap<String, WordProperty> wordProperties = getWordProperties(dict);
+        // The second word of a bigram is added to the dictionary if it isn't there already.
+        assertEquals(5, wordProperties.size());
+        assertEquals(0, wordProperties.get("there").getProbability());
+        final WordProperty hello = wordProperties.get("hello");
+        assertEquals(100, hello.getProbability());
+        assertFalse(hello.mIsNotAWord);
+        assertFalse(hello.mIsPossiblyOffensive);
+        assertEquals(2, hello.getBigrams().size());
+        for (final WeightedString bigram : hello.getBigrams()) {
+            if ("world".equals(bigram.mWord)) {
+                assertEquals(new ProbabilityInfo(80), bigram.mProbabilityInfo);
+            } else {
+                assertEquals("there", bigram.mWord);
+                assertEquals(new ProbabilityInfo(70, 1, 2, 3), bigram.mProbabilityInfo);
+            }
+        }
+        assertEquals(new ProbabilityInfo(90, 10, 20, 30),
+                wordProperties.get("world").mProbabilityInfo);
+        assertNull(wordProperties.get("world").getBigrams());
+        assertTrue(wordProperties.get("xyzzy").mIsNotAWord);
+        assertTrue(wordProperties.get("frak").mIsPossiblyOffensive);
+    }
+
+    public void testWrongHeaderFormat() throws IOException {
+        assertWrongFormat("Wrong header format", "dictionary=main:en_us,locale", "word=a,f=1");
+    }
+
+    public void testAttributeWithoutValue() throws IOException {
+        assertWrongFormat("Wrong format : ", HEADER, "word=hello,f");
+        assertWrongFormat("Wrong format : ", HEADER, "word=hello,,f=10");
+        assertWrongFormat("Wrong format : ", HEADER, "word=hello,f=10", " bigram=world,f");
+    }
+
+    public void testWrongNumberFormat() throws IOException {
+        final String[][] inputs = {
+            { HEADER, "word=hello,f=1o0" },
+            { HEADER, "word=hello,f=" },
+            { HEADER, "word=hello,f=-" },
+            { HEADER, "word=hello,f=2147483648" },
+            { HEADER, "word=hello,f=10,historicalInfo=1:x:3" },
+            { HEADER, "word=hello,f=10", " bigram=world,f=high" }
+        };
+        for (final String[] input : inputs) {
+            try {
+                read(input);
+                fail("Expected a NumberFormatException for " + input[input.length - 1]);
+            } catch (final NumberFormatException e) {
+                // Expected.
+            }
+        }
+        assertEquals(-2147483648, getWordProperties(read(HEADER, "word=hello,f=-2147483648"))
+                .get("hello").getProbability());
+        assertEquals(10, getWordProperties(read(HEADER, "word=hello,f=+10"))
+                .get("hello").getProbability());
+    }
+
+    public void testWrongHistoricalInfoFormat() throws IOException {
+        assertWrongFormat("Wrong format (historical info) : ", HEADER,
+                "word=hello,f=10,historicalInfo=1:2");
+        assertWrongFormat("Wrong format (historical info) : ", HEADER,
+                "word=hello,f=10,historicalInfo=1:2:3:4");
+        assertWrongFormat("Wrong format (historical info) : ", HEADER,
+                "word=hello,f=10", " bigram=world,f=5,historicalInfo=1");
+    }
+
+    public void testBigramWithoutWord() throws IOException {
+        assertWrongFormat("Wrong format : ", HEADER, " bigram=world,f=5", "word=hello,f=10");
+        assertWrongFormat("Wrong format : ", HEADER, "word=hello,f=10", " bigram=,f=5");
+    }
+}
@@ -33,13 +33,18 @@ public class MoreKeysResources {
     private static final String TEXT_RESOURCE_NAME = "donottranslate-more-keys.xml";
 
     private static final String JAVA_TEMPLATE = "KeyboardTextsTable.tmpl";
-    private static final String MARK_NAMES = "@NAMES@";
+    private static final String MARK_NAME_INDEXES = "@NAME_INDEXES@";
     private static final String MARK_DEFAULT_TEXTS = "@DEFAULT_TEXTS@";
     private static final String MARK_TEXTS = "@TEXTS@";
     private static final String TEXTS_ARRAY_NAME_PREFIX = "TEXTS_";
     private static final String MARK_LOCALES_AND_TEXTS = "@LOCALES_AND_TEXTS@";
     private static final String EMPTY_STRING_VAR = "EMPTY";
 
+    // These must be the same as the ones in {@link KeyboardTextsSet}.
+    private static final String PREFIX_TEXT = "!text/";
+    private static final char BACKSLASH = '\\';
+    private static final int MAX_REFERENCE_INDIRECTION = 10;
+
     private final JarFile mJar;
     // String resources maps sorted by its language. The language is determined from the jar entry
     // name by calling {@link JarUtils#getLocaleFromEntryName(String)}.
@@ -138,8 +143,8 @@ public class MoreKeysResources {
             throws IOException {
         String line;
         while ((line = in.readLine()) != null) {
-            if (line.contains(MARK_NAMES)) {
-                dumpNames(out);
+            if (line.contains(MARK_NAME_INDEXES)) {
+                dumpNameIndexes(out);
             } else if (line.contains(MARK_DEFAULT_TEXTS)) {
                 dumpDefaultTexts(out);
             } else if (line.contains(MARK_TEXTS)) {
@@ -152,12 +157,13 @@ public class MoreKeysResources {
         }
     }
 
-    private void dumpNames(final PrintStream out) {
+    private void dumpNameIndexes(final PrintStream out) {
         final int namesCount = mSortedResourceNames.length;
         for (int index = 0; index < namesCount; index++) {
             final String name = mSortedResourceNames[index];
             final int histogramValue = mNameHistogram.get(name);
-            out.format("        /* %3d:%2d */ \"%s\",\n", index, histogramValue, name);
+            out.format("        case %-42s return %3d; /* histogram %2d */\n",
+                    "\"" + name + "\":", index, histogramValue);
         }
     }
 
@@ -193,26 +199,99 @@ public class MoreKeysResources {
                     : String.format("\"%s\"%s", localeStr, "       ".substring(localeStr.length()));
             out.format("        %s, %-12s /* %3d/%3d %s */\n",
                     localeToDump, getArrayNameForLocale(locale) + ",",
-                    resMap.getResources().size(), resMap.getOutputArraySize(),
+                    resMap.getOutputTextCount(), resMap.getOutputArraySize(),
                     LocaleUtils.getLocaleDisplayName(locale));
         }
     }
 
+    // Returns the text of the name in the locale with all its "!text/" references expanded, the
+    // same way as {@link KeyboardTextsSet#resolveTextReference(String)} does at runtime. Other
+    // references, like "!string/", are left to the runtime.
+    private String getResolvedText(final StringResourceMap resMap, final String name) {
+        final String text = getText(resMap, name);
+        int level = 0;
+        String resolved = text;
+        StringBuilder sb;
+        do {
+            level++;
+            if (level >= MAX_REFERENCE_INDIRECTION) {
+                throw new RuntimeException("Too many " + PREFIX_TEXT + " reference indirection: "
+                        + name + " in " + resMap.mLocale);
+            }
+            sb = null;
+            final int size = resolved.length();
+            for (int pos = 0; pos < size; pos++) {
+                final char c = resolved.charAt(pos);
+                if (resolved.startsWith(PREFIX_TEXT, pos)) {
+                    if (sb == null) {
+                        sb = new StringBuilder(resolved.substring(0, pos));
+                    }
+                    final int end = searchTextNameEnd(resolved, pos + PREFIX_TEXT.length());
+                    sb.append(getText(resMap, resolved.substring(pos + PREFIX_TEXT.length(), end)));
+                    pos = end - 1;
+                } else if (c == BACKSLASH) {
+                    if (sb != null) {
+                        // Append both escape character and escaped character.
+                        sb.append(resolved.substring(pos, Math.min(pos + 2, size)));
+                    }
+                    pos++;
+                } else if (sb != null) {
+                    sb.append(c);
+                }
+            }
+            if (sb != null) {
+                resolved = sb.toString();
+            }
+        } while (sb != null);
+        return resolved;
+    }
+
+    // Returns the text of the name in the locale, or the default text if the locale doesn't
+    // have it. This is the same fallback as {@link KeyboardTextsTable#getText(String,String[])}.
+    private String getText(final StringResourceMap resMap, final String name) {
+        final StringResource res = resMap.get(name);
+        if (res != null) {
+            return res.mValue;
+        }
+        final StringResource defaultRes = mDefaultResourceMap.get(name);
+        if (defaultRes == null) {
+            throw new RuntimeException("Unknown text name=" + name + " in " + resMap.mLocale);
+        }
+        return defaultRes.mValue;
+    }
+
+    private static int searchTextNameEnd(final String text, final int start) {
+        final int size = text.length();
+        for (int pos = start; pos < size; pos++) {
+            final char c = text.charAt(pos);
+            // Label name should be consisted of [a-zA-Z_0-9].
+            if ((c >= 'a' && c <= 'z') || c == '_' || (c >= '0' && c <= '9')) {
+                continue;
+            }
+            return pos;
+        }
+        return size;
+    }
+
     private int dumpTextsInternal(final PrintStream out, final StringResourceMap resMap) {
         final ArrayInitializerFormatter formatter =
                 new ArrayInitializerFormatter(out, 100, "        ", mSortedResourceNames);
         int outputArraySize = 0;
+        int outputTextCount = 0;
         boolean successiveNull = false;
         final int namesCount = mSortedResourceNames.length;
         for (int index = 0; index < namesCount; index++) {
             final String name = mSortedResourceNames[index];
             final StringResource res = resMap.get(name);
-            if (res != null) {
+            final String text = getResolvedText(resMap, name);
+            // A text that isn't in this locale is still needed when it refers to a text that
+            // is, because its expansion differs from the default one.
+            if (res != null || !text.equals(getResolvedText(mDefaultResourceMap, name))) {
                 // TODO: Check whether the resource value is equal to the default.
-                if (res.mComment != null) {
+                if (res != null && res.mComment != null) {
                     formatter.outCommentLines(addPrefix("        // ", res. mComment));
                 }
-                final String escaped = escapeNonAscii(res.mValue);
+                final String escaped = escapeNonAscii(text);
                 if (escaped.length() == 0) {
                     formatter.outElement(EMPTY_STRING_VAR + ",");
                 } else {
@@ -220,6 +299,7 @@ public class MoreKeysResources {
                 }
                 successiveNull = false;
                 outputArraySize = formatter.getCurrentIndex();
+                outputTextCount++;
             } else {
                 formatter.outElement("null,");
                 successiveNull = true;
@@ -228,6 +308,7 @@ public class MoreKeysResources {
         if (!successiveNull) {
             formatter.flush();
         }
+        resMap.setOutputTextCount(outputTextCount);
         return outputArraySize;
     }
 
@@ -47,6 +47,10 @@ public class StringResourceMap {
     // {@link #setOutputArraySize(int)}. The recorded length is used as a part of comment by
     // {@link MoreKeysResources#dumpLocaleMap(OutputStream)} via {@link #getOutputArraySize()}.
     private int mOutputArraySize;
+    // The number of non-null texts in the String[] that is created from this
+    // {@link StringResourceMap}. This includes the texts that aren't in this map but that have
+    // to be expanded differently from the default ones.
+    private int mOutputTextCount;
 
     public StringResourceMap(final String jarEntryName) {
         mLocale = JarUtils.getLocaleFromEntryName(jarEntryName);
@@ -100,6 +104,14 @@ public class StringResourceMap {
         return mOutputArraySize;
     }
 
+    public void setOutputTextCount(final int textCount) {
+        mOutputTextCount = textCount;
+    }
+
+    public int getOutputTextCount() {
+        return mOutputTextCount;
+    }
+
     static class StringResourceHandler extends DefaultHandler2 {
         private static final String TAG_RESOURCES = "resources";
         private static final String TAG_STRING = "string";